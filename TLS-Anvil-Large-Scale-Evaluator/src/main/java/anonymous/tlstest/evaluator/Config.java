@@ -48,9 +48,24 @@ public class Config {
     @Parameter(names = {"-m", "--mode"}, description = "Only test client/servers", converter = ImplementationModeTypeConverter.class)
     private ImplementationModeType mode = ImplementationModeType.BOTH;
 
-    @Parameter(names = {"-p", "--parallel"}, description = "How many evaluation tasks should be executed in parallel")
+    @Parameter(names = {"-p", "--parallel"}, description = "How many evaluation tasks should be executed in parallel at most")
     private int parallel = Runtime.getRuntime().availableProcessors();
 
+    @Parameter(names = "--targetCpuLoad", description = "CPU load of the host between 0 and 1 up to which new evaluation tasks are started")
+    private double targetCpuLoad = 0.9;
+
+    @Parameter(names = "--memoryPerTask", description = "Free memory in GB the host needs to start another evaluation task")
+    private int memoryPerTask = 4;
+
+    @Parameter(names = "--minParallelTests", description = "Minimum number of tests each testsuite executes in parallel")
+    private int minParallelTests = 1;
+
+    @Parameter(names = "--maxParallelTests", description = "Maximum number of tests each testsuite executes in parallel")
+    private int maxParallelTests = 8;
+
+    @Parameter(names = "--schedulerInterval", description = "Seconds between checks of the host utilization")
+    private int schedulerInterval = 10;
+
     @Parameter(names = {"-e", "--evaluator"}, description = "Evaluator that should be used", required = true, converter = EvaluationTaskTypeConverter.class)
     private EvaluationTaskType evaluator = null;
     
@@ -63,7 +78,7 @@ public class Config {
     @Parameter(names = "--ram", description = "Set the maximum RAM used for each Docker container in GB")
     private int containerRAM = 25;
 
-    @Parameter(names = {"--noRampUpTime"}, description = "Does not wait between starting tasks")
+    @Parameter(names = {"--noRampUpTime"}, description = "Starts as many tasks as the host has headroom for at once instead of one per scheduler interval")
     private boolean noRampUpTime = false;
 
     @Parameter(names = "--testsuiteImage", description = "Name of the Docker image that is used for the testsuite")
@@ -90,6 +105,26 @@ public class Config {
         return parallel;
     }
 
+    public double getTargetCpuLoad() {
+        return targetCpuLoad;
+    }
+
+    public int getMemoryPerTask() {
+        return memoryPerTask;
+    }
+
+    public int getMinParallelTests() {
+        return minParallelTests;
+    }
+
+    public int getMaxParallelTests() {
+        return maxParallelTests;
+    }
+
+    public int getSchedulerInterval() {
+        return schedulerInterval;
+    }
+
     public EvaluationTaskType getEvaluator() {
         return evaluator;
     }
@@ -10,47 +10,33 @@ package anonymous.tlstest.evaluator;
 
 import anonymous.tlstest.evaluator.constants.ImplementationModeType;
 import anonymous.tlstest.evaluator.evaluationtasks.EvaluationTaskFactory;
+import anonymous.tlstest.evaluator.scheduling.AdaptiveScheduler;
+import anonymous.tlstest.evaluator.scheduling.DockerHostResources;
 import com.github.dockerjava.api.model.Image;
+import anonymous.tls.subject.docker.DockerClientManager;
 import anonymous.tlstest.evaluator.evaluationtasks.EvaluationTask;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingDeque;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 
 public class Evaluator {
     private static final Logger LOGGER = LogManager.getLogger();
 
     private final List<Image> clientImages;
     private final List<Image> serverImages;
-    private final ThreadPoolExecutor executor;
+    private final AdaptiveScheduler scheduler;
 
     public Evaluator(List<Image> clientImages, List<Image> serverImages) {
         this.clientImages = clientImages;
         this.serverImages = serverImages;
-
-        int size = Config.getInstance().getParallel();
-        this.executor = new ThreadPoolExecutor(size, size, 10, TimeUnit.DAYS, new LinkedBlockingDeque<Runnable>());
+        this.scheduler = new AdaptiveScheduler(new DockerHostResources(DockerClientManager.getDockerClient()),
+                Config.getInstance());
     }
 
-    private void submit(List<Future<?>> futures, EvaluationTask task) {
-        if (futures.size() > 0 && !Config.getInstance().isNoRampUpTime()) {
-            try {
-                Thread.sleep(80 * 1000);
-            } catch (Exception ignored) {
-            }
-        }
-
-        futures.add(executor.submit(task));
-    }
-
-
     public void start() {
-        List<Future<?>> futures = new ArrayList<>();
+        List<EvaluationTask> tasks = new ArrayList<>();
 
         ProgressTracker.getInstance().setTotalTasks(clientImages.size() + serverImages.size());
         LOGGER.info(String.format("Starting %d tasks", ProgressTracker.getInstance().getTotalTasks()));
@@ -59,27 +45,24 @@ public class Evaluator {
             EvaluationTask task = EvaluationTaskFactory.forMode(ImplementationModeType.CLIENT);
             task.setImageToEvaluate(image);
             LOGGER.debug("Schedule test for image " + image.getRepoTags()[0]);
-            submit(futures, task);
+            tasks.add(task);
         }
 
         for (Image image : serverImages) {
             EvaluationTask task = EvaluationTaskFactory.forMode(ImplementationModeType.SERVER);
             task.setImageToEvaluate(image);
             LOGGER.debug("Schedule test for image " + image.getRepoTags()[0]);
-            submit(futures, task);
+            tasks.add(task);
         }
 
-
-        for (Future<?> i : futures) {
-            try {
-                i.get();
-            } catch (Exception e) {
-                LOGGER.error(e);
-            }
+        try {
+            scheduler.execute(tasks);
+        } catch (InterruptedException e) {
+            LOGGER.error("Interrupted while waiting for tasks", e);
+            Thread.currentThread().interrupt();
         }
 
         LOGGER.info("Evaluator finished");
-        executor.shutdownNow();
         ProgressTracker.getInstance().createReport();
         System.exit(0);
     }
@@ -55,7 +55,7 @@ public class ProgressTracker {
         return evaluationResultList;
     }
 
-    public void taskFinished(EvaluationTask task, int exitcode) {
+    public synchronized void taskFinished(EvaluationTask task, int exitcode) {
         finishedTasks += 1;
         LOGGER.info(String.format("Finished %d/%d tasks (%s, %d)", finishedTasks, totalTasks, task.getUnRandomizedImageName(), exitcode));
         evaluationResultList.add(new EvaluationResult(task.getUnRandomizedImageName(), exitcode));
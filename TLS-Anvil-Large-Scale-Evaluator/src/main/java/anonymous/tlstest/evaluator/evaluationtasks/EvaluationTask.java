@@ -10,6 +10,7 @@ package anonymous.tlstest.evaluator.evaluationtasks;
 
 import anonymous.tlstest.evaluator.DockerCleanupService;
 import anonymous.tlstest.evaluator.ProgressTracker;
+import anonymous.tlstest.evaluator.scheduling.ParallelizableTask;
 import com.github.dockerjava.api.DockerClient;
 import com.github.dockerjava.api.model.Image;
 import anonymous.tls.subject.TlsImplementationType;
@@ -21,7 +22,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.util.Map;
 
-abstract public class EvaluationTask implements Runnable {
+abstract public class EvaluationTask implements ParallelizableTask {
 
     protected static final Logger LOGGER = LogManager.getLogger();
     protected static final DockerClient DOCKER = DockerClientManager.getDockerClient();
@@ -35,6 +36,7 @@ abstract public class EvaluationTask implements Runnable {
 
     protected DockerCleanupService cleanupService = new DockerCleanupService();
     protected boolean finished = false;
+    protected int parallelTests = 3;
 
     abstract public int execute() throws Exception;
 
@@ -72,6 +74,11 @@ abstract public class EvaluationTask implements Runnable {
         }
     }
 
+    @Override
+    public void setParallelTests(int parallelTests) {
+        this.parallelTests = parallelTests;
+    }
+
     public String getImageName() {
         return imageName;
     }
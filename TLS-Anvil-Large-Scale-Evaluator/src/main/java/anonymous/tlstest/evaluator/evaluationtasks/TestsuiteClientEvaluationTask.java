@@ -41,7 +41,7 @@ public class TestsuiteClientEvaluationTask extends EvaluationTask {
                 .withEnv("LogFilename=" + imageName)
                 .withCmd("-outputFolder", "./",
                         "-parallelHandshakes", "3",
-                        "-parallelTests", "3",
+                        "-parallelTests", Integer.toString(parallelTests),
                         "-strength", Integer.toString(Config.getInstance().getStrength()),
                         "client",
                         "-port", "443",
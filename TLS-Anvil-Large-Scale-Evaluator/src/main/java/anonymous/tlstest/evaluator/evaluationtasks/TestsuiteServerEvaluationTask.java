@@ -53,7 +53,7 @@ public class TestsuiteServerEvaluationTask extends EvaluationTask {
                 .withEnv("LogFilename=" + imageName)
                 .withCmd("-outputFolder", "./",
                         "-parallelHandshakes", "1",
-                        "-parallelTests", "3",
+                        "-parallelTests", Integer.toString(parallelTests),
                         "-strength", Integer.toString(Config.getInstance().getStrength()),
                         "-timeoutActionScript", "curl", "--connect-timeout", "2", targetHostname + ":8090/shutdown",
                         "-restartServerAfter", Integer.toString(Config.getInstance().getRestartServerAfter()),
@@ -0,0 +1,140 @@
+/**
+ * TLS-Testsuite-Large-Scale-Evaluator - A tool for executing the TLS-Testsuite against multiple targets running in Docker containers in parallel
+ *
+ * Copyright 2022 Anonymous
+ *
+ * Licensed under Apache License 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package anonymous.tlstest.evaluator.scheduling;
+
+import anonymous.tlstest.evaluator.Config;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts tasks whenever the host has CPU and memory headroom and chooses the number of parallel tests of each task.
+ *
+ * Every running task reserves as many CPUs as it runs tests in parallel. A task is only started if the reserved CPUs
+ * and the measured CPU load both leave room for at least the minimum number of parallel tests below the target load
+ * and if the host still has the memory of a task available. The free CPUs are split evenly between the tasks that can
+ * still be started, so the tasks at the end of a run get more parallel tests than the ones started while many others
+ * were waiting. With ramp up, at most one task is started per interval to let the measurements catch up.
+ */
+public class AdaptiveScheduler {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final HostResources resources;
+    private final int maxParallelTasks;
+    private final double targetCpuLoad;
+    private final long memoryPerTask;
+    private final int minParallelTests;
+    private final int maxParallelTests;
+    private final long intervalMillis;
+    private final boolean rampUp;
+
+    public AdaptiveScheduler(HostResources resources, Config config) {
+        this(resources, config.getParallel(), config.getTargetCpuLoad(),
+                config.getMemoryPerTask() * 1000 * 1000 * 1000L, config.getMinParallelTests(),
+                config.getMaxParallelTests(), config.getSchedulerInterval() * 1000L, !config.isNoRampUpTime());
+    }
+
+    public AdaptiveScheduler(HostResources resources, int maxParallelTasks, double targetCpuLoad, long memoryPerTask,
+                             int minParallelTests, int maxParallelTests, long intervalMillis, boolean rampUp) {
+        if (maxParallelTasks < 1 || minParallelTests < 1 || maxParallelTests < minParallelTests) {
+            throw new IllegalArgumentException("Invalid parallelism limits");
+        }
+        this.resources = resources;
+        this.maxParallelTasks = maxParallelTasks;
+        this.targetCpuLoad = targetCpuLoad;
+        this.memoryPerTask = memoryPerTask;
+        this.minParallelTests = minParallelTests;
+        this.maxParallelTests = maxParallelTests;
+        this.intervalMillis = intervalMillis;
+        this.rampUp = rampUp;
+    }
+
+    /**
+     * Runs all tasks in the given order and returns when all of them finished.
+     */
+    public void execute(List<? extends ParallelizableTask> tasks) throws InterruptedException {
+        Queue<ParallelizableTask> pendingTasks = new ArrayDeque<>(tasks);
+        Map<Future<Void>, Integer> runningTasks = new HashMap<>();
+        ExecutorService executor = Executors.newCachedThreadPool();
+        CompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
+        int reservedCpus = 0;
+
+        try {
+            while (!pendingTasks.isEmpty() || !runningTasks.isEmpty()) {
+                int started = 0;
+                while (!pendingTasks.isEmpty() && (!rampUp || started == 0)) {
+                    int parallelTests = chooseParallelTests(pendingTasks.size(), runningTasks.size(), reservedCpus,
+                            started);
+                    if (parallelTests == 0) {
+                        break;
+                    }
+                    ParallelizableTask task = pendingTasks.poll();
+                    task.setParallelTests(parallelTests);
+                    runningTasks.put(completionService.submit(task, null), parallelTests);
+                    reservedCpus += parallelTests;
+                    started++;
+                    LOGGER.debug(String.format("Started task with %d parallel tests (%d running, %d pending)",
+                            parallelTests, runningTasks.size(), pendingTasks.size()));
+                }
+
+                Future<Void> finishedTask = completionService.poll(intervalMillis, TimeUnit.MILLISECONDS);
+                while (finishedTask != null) {
+                    reservedCpus -= runningTasks.remove(finishedTask);
+                    try {
+                        finishedTask.get();
+                    } catch (ExecutionException e) {
+                        LOGGER.error("Task failed", e.getCause());
+                    }
+                    finishedTask = completionService.poll();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return the number of parallel tests for the next task or 0 if the host has no headroom for another task
+     */
+    int chooseParallelTests(int pendingTasks, int runningTasks, int reservedCpus, int startedTasks) {
+        if (runningTasks >= maxParallelTasks) {
+            return 0;
+        }
+        double freeCpus = resources.getCpus() * targetCpuLoad - reservedCpus;
+        double cpuLoad = resources.getCpuLoad();
+        if (cpuLoad >= 0) {
+            freeCpus = Math.min(freeCpus, resources.getCpus() * (targetCpuLoad - cpuLoad));
+        }
+        // Without running tasks, one is always started to make progress
+        if (runningTasks > 0) {
+            if (freeCpus < minParallelTests) {
+                return 0;
+            }
+            // Tasks started in this round have not allocated their memory yet
+            if (resources.getAvailableMemory() - startedTasks * memoryPerTask < memoryPerTask) {
+                return 0;
+            }
+        }
+        int startableTasks = Math.min(pendingTasks, maxParallelTasks - runningTasks);
+        int parallelTests = (int) (freeCpus / startableTasks);
+        return Math.max(minParallelTests, Math.min(maxParallelTests, parallelTests));
+    }
+}
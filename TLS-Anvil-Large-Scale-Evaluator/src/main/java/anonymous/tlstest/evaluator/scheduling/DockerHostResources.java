@@ -0,0 +1,74 @@
+/**
+ * TLS-Testsuite-Large-Scale-Evaluator - A tool for executing the TLS-Testsuite against multiple targets running in Docker containers in parallel
+ *
+ * Copyright 2022 Anonymous
+ *
+ * Licensed under Apache License 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package anonymous.tlstest.evaluator.scheduling;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.model.Info;
+import com.sun.management.OperatingSystemMXBean;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Takes the capacity from the Docker daemon, which also respects the limits of a Docker VM, and the utilization from
+ * the operating system. This assumes that the daemon runs on the same host as the evaluator.
+ */
+public class DockerHostResources implements HostResources {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final Path MEMINFO = Paths.get("/proc/meminfo");
+
+    private final OperatingSystemMXBean operatingSystem;
+    private final int cpus;
+    private final long totalMemory;
+
+    public DockerHostResources(DockerClient docker) {
+        operatingSystem = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        Info info = docker.infoCmd().exec();
+        cpus = info.getNCPU() != null ? info.getNCPU() : operatingSystem.getAvailableProcessors();
+        totalMemory = info.getMemTotal() != null ? info.getMemTotal() : operatingSystem.getTotalPhysicalMemorySize();
+        LOGGER.info(String.format("Docker host has %d CPUs and %d MB of memory", cpus, totalMemory / (1024 * 1024)));
+    }
+
+    @Override
+    public int getCpus() {
+        return cpus;
+    }
+
+    @Override
+    public long getTotalMemory() {
+        return totalMemory;
+    }
+
+    @Override
+    public double getCpuLoad() {
+        return operatingSystem.getSystemCpuLoad();
+    }
+
+    @Override
+    public long getAvailableMemory() {
+        // The free memory reported by the JVM does not count the page cache, which the kernel frees when needed
+        if (Files.isReadable(MEMINFO)) {
+            try {
+                for (String line : Files.readAllLines(MEMINFO)) {
+                    if (line.startsWith("MemAvailable:")) {
+                        return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                LOGGER.debug("Could not read available memory", e);
+            }
+        }
+        return operatingSystem.getFreePhysicalMemorySize();
+    }
+}
@@ -0,0 +1,29 @@
+/**
+ * TLS-Testsuite-Large-Scale-Evaluator - A tool for executing the TLS-Testsuite against multiple targets running in Docker containers in parallel
+ *
+ * Copyright 2022 Anonymous
+ *
+ * Licensed under Apache License 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package anonymous.tlstest.evaluator.scheduling;
+
+/**
+ * Capacity and current utilization of the host the containers run on.
+ */
+public interface HostResources {
+
+    int getCpus();
+
+    long getTotalMemory();
+
+    /**
+     * @return the recent CPU load of the whole host between 0 and 1, or a negative value if it is not known
+     */
+    double getCpuLoad();
+
+    /**
+     * @return the memory in bytes that can still be allocated without swapping
+     */
+    long getAvailableMemory();
+}
@@ -0,0 +1,17 @@
+/**
+ * TLS-Testsuite-Large-Scale-Evaluator - A tool for executing the TLS-Testsuite against multiple targets running in Docker containers in parallel
+ *
+ * Copyright 2022 Anonymous
+ *
+ * Licensed under Apache License 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package anonymous.tlstest.evaluator.scheduling;
+
+/**
+ * A task whose parallelism is chosen by the {@link AdaptiveScheduler} right before it is started.
+ */
+public interface ParallelizableTask extends Runnable {
+
+    void setParallelTests(int parallelTests);
+}
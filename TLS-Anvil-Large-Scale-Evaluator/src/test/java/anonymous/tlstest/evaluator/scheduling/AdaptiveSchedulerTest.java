@@ -0,0 +1,162 @@
+/**
+ * TLS-Testsuite-Large-Scale-Evaluator - A tool for executing the TLS-Testsuite against multiple targets running in Docker containers in parallel
+ *
+ * Copyright 2022 Anonymous
+ *
+ * Licensed under Apache License 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package anonymous.tlstest.evaluator.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveSchedulerTest {
+
+    private static final long GB = 1000 * 1000 * 1000L;
+
+    @Test
+    public void testSplitsFreeCpusBetweenStartableTasks() {
+        FakeHostResources host = new FakeHostResources(16, 64 * GB);
+        AdaptiveScheduler scheduler = new AdaptiveScheduler(host, 100, 1.0, 4 * GB, 1, 8, 10, true);
+
+        assertEquals(1, scheduler.chooseParallelTests(16, 0, 0, 0));
+        assertEquals(4, scheduler.chooseParallelTests(4, 0, 0, 0));
+        assertEquals(8, scheduler.chooseParallelTests(2, 0, 0, 0));
+        assertEquals(8, scheduler.chooseParallelTests(1, 0, 0, 0));
+        assertEquals(4, scheduler.chooseParallelTests(2, 2, 8, 0));
+    }
+
+    @Test
+    public void testWaitsForHeadroom() {
+        FakeHostResources host = new FakeHostResources(16, 64 * GB);
+        AdaptiveScheduler scheduler = new AdaptiveScheduler(host, 4, 0.9, 4 * GB, 2, 8, 10, true);
+
+        assertEquals(0, scheduler.chooseParallelTests(1, 4, 4, 0));
+        assertEquals(0, scheduler.chooseParallelTests(1, 2, 13, 0));
+
+        host.cpuLoad = 0.85;
+        assertEquals(0, scheduler.chooseParallelTests(1, 1, 2, 0));
+        // Without a running task one is started anyway
+        assertEquals(2, scheduler.chooseParallelTests(1, 0, 0, 0));
+
+        host.cpuLoad = 0.1;
+        host.availableMemory = 3 * GB;
+        assertEquals(0, scheduler.chooseParallelTests(1, 1, 2, 0));
+        host.availableMemory = 7 * GB;
+        assertEquals(0, scheduler.chooseParallelTests(1, 2, 4, 1));
+        assertTrue(scheduler.chooseParallelTests(1, 2, 4, 0) > 0);
+    }
+
+    /**
+     * Runs more tasks than the CPUs allow at once. The CPUs reserved by running tasks must never exceed the host.
+     */
+    @Test
+    public void testRunsAllTasksWithinCpuBudget() throws InterruptedException {
+        FakeHostResources host = new FakeHostResources(8, 64 * GB);
+        AdaptiveScheduler scheduler = new AdaptiveScheduler(host, 100, 1.0, 4 * GB, 2, 4, 5, false);
+        AtomicInteger reservedCpus = new AtomicInteger();
+        AtomicInteger maxReservedCpus = new AtomicInteger();
+        List<FakeTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            tasks.add(new FakeTask(30, reservedCpus, maxReservedCpus));
+        }
+
+        scheduler.execute(tasks);
+
+        for (FakeTask task : tasks) {
+            assertTrue(task.finished);
+            assertTrue(task.parallelTests >= 2 && task.parallelTests <= 4);
+        }
+        assertTrue(maxReservedCpus.get() <= 8);
+        assertEquals(0, reservedCpus.get());
+    }
+
+    @Test
+    public void testRampUpStartsOneTaskPerInterval() throws InterruptedException {
+        FakeHostResources host = new FakeHostResources(64, 256 * GB);
+        AdaptiveScheduler scheduler = new AdaptiveScheduler(host, 100, 1.0, 4 * GB, 1, 8, 50, true);
+        List<FakeTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            tasks.add(new FakeTask(300, new AtomicInteger(), new AtomicInteger()));
+        }
+
+        scheduler.execute(tasks);
+
+        for (int i = 1; i < tasks.size(); i++) {
+            assertTrue(tasks.get(i).startTime - tasks.get(i - 1).startTime >= TimeUnit.MILLISECONDS.toNanos(40));
+        }
+    }
+
+    private static class FakeHostResources implements HostResources {
+        private final int cpus;
+        private final long totalMemory;
+        private volatile double cpuLoad = -1;
+        private volatile long availableMemory;
+
+        FakeHostResources(int cpus, long totalMemory) {
+            this.cpus = cpus;
+            this.totalMemory = totalMemory;
+            this.availableMemory = totalMemory;
+        }
+
+        @Override
+        public int getCpus() {
+            return cpus;
+        }
+
+        @Override
+        public long getTotalMemory() {
+            return totalMemory;
+        }
+
+        @Override
+        public double getCpuLoad() {
+            return cpuLoad;
+        }
+
+        @Override
+        public long getAvailableMemory() {
+            return availableMemory;
+        }
+    }
+
+    private static class FakeTask implements ParallelizableTask {
+        private final long durationMillis;
+        private final AtomicInteger reservedCpus;
+        private final AtomicInteger maxReservedCpus;
+        private volatile int parallelTests;
+        private volatile long startTime;
+        private volatile boolean finished = false;
+
+        FakeTask(long durationMillis, AtomicInteger reservedCpus, AtomicInteger maxReservedCpus) {
+            this.durationMillis = durationMillis;
+            this.reservedCpus = reservedCpus;
+            this.maxReservedCpus = maxReservedCpus;
+        }
+
+        @Override
+        public void setParallelTests(int parallelTests) {
+            this.parallelTests = parallelTests;
+        }
+
+        @Override
+        public void run() {
+            startTime = System.nanoTime();
+            maxReservedCpus.accumulateAndGet(reservedCpus.addAndGet(parallelTests), Math::max);
+            try {
+                Thread.sleep(durationMillis);
+            } catch (InterruptedException ignored) {
+            }
+            reservedCpus.addAndGet(-parallelTests);
+            finished = true;
+        }
+    }
+}
@@ -54,7 +54,7 @@ async function main() {
       if (uploadedIdentifiers.includes(basename(dir))) continue;
       console.log(basename(dir))
 
-      const pcap = path.join(dir, 'dump.pcap')
+      const pcap = path.join(dir, 'dump.pcapng')
       const keyfile = path.join(dir, 'keyfile.log')
       const results = f
 
@@ -1,6 +1,3 @@
 #!/usr/bin/env bash
 
-
-tcpdump -i eth0 -w /output/dump.pcap &
-
 java -jar /apps/TLS-Testsuite.jar $@
\ No newline at end of file
@@ -12,6 +12,7 @@ package de.rub.nds.tlsattacker.client.config;
 import com.beust.jcommander.ParametersDelegate;
 import de.rub.nds.tlsattacker.core.config.Config;
 import de.rub.nds.tlsattacker.core.config.TLSDelegateConfig;
+import de.rub.nds.tlsattacker.core.config.delegate.BulkApplicationDataDelegate;
 import de.rub.nds.tlsattacker.core.config.delegate.CertificateDelegate;
 import de.rub.nds.tlsattacker.core.config.delegate.CipherSuiteDelegate;
 import de.rub.nds.tlsattacker.core.config.delegate.ClientDelegate;
@@ -73,6 +74,8 @@ public class ClientCommandConfig extends TLSDelegateConfig {
     private ListDelegate listDelegate;
     @ParametersDelegate
     private StarttlsDelegate starttlsDelegate;
+    @ParametersDelegate
+    private BulkApplicationDataDelegate bulkApplicationDataDelegate;
 
     public ClientCommandConfig(GeneralDelegate delegate) {
         super(delegate);
@@ -93,6 +96,7 @@ public class ClientCommandConfig extends TLSDelegateConfig {
         this.configOutputDelegate = new ConfigOutputDelegate();
         this.listDelegate = new ListDelegate();
         this.starttlsDelegate = new StarttlsDelegate();
+        this.bulkApplicationDataDelegate = new BulkApplicationDataDelegate();
         this.compressionDelegate = new CompressionDelegate();
         addDelegate(listDelegate);
         addDelegate(heartbeatDelegate);
@@ -112,6 +116,7 @@ public class ClientCommandConfig extends TLSDelegateConfig {
         addDelegate(filterDelegate);
         addDelegate(configOutputDelegate);
         addDelegate(starttlsDelegate);
+        addDelegate(bulkApplicationDataDelegate);
     }
 
     @Override
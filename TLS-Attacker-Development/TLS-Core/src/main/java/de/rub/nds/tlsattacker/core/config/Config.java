@@ -884,6 +884,16 @@ public class Config implements Serializable {
     @XmlJavaTypeAdapter(IllegalStringAdapter.class)
     private String defaultApplicationMessageData = "Test";
 
+    /**
+     * The number of application data bytes streamed in a BULK_APPLICATION_DATA workflow, 0 for no limit
+     */
+    private Long bulkApplicationDataLength = 104857600L;
+
+    /**
+     * The time in milliseconds application data is streamed in a BULK_APPLICATION_DATA workflow, 0 for no limit
+     */
+    private Long bulkApplicationDataDuration = 0L;
+
     @XmlElement(name = "clientCertificateType")
     @XmlElementWrapper
     private List<ClientCertificateType> clientCertificateTypes;
@@ -915,6 +925,17 @@ public class Config implements Serializable {
 
     private WorkflowExecutorType workflowExecutorType = WorkflowExecutorType.DEFAULT;
 
+    /**
+     * The number of connections the THREADED_SERVER workflow executor handles in parallel
+     */
+    private Integer threadedServerPoolSize = 3;
+
+    /**
+     * The number of accepted connections which may wait for a thread of the THREADED_SERVER workflow executor. Once
+     * this many connections are waiting, no further connections are accepted until a running one is done.
+     */
+    private Integer threadedServerMaxQueuedConnections = 50;
+
     /**
      * Does not mix messages with different message types in a single record
      */
@@ -2417,6 +2438,22 @@ public class Config implements Serializable {
         this.workflowExecutorType = workflowExecutorType;
     }
 
+    public Integer getThreadedServerPoolSize() {
+        return threadedServerPoolSize;
+    }
+
+    public void setThreadedServerPoolSize(Integer threadedServerPoolSize) {
+        this.threadedServerPoolSize = threadedServerPoolSize;
+    }
+
+    public Integer getThreadedServerMaxQueuedConnections() {
+        return threadedServerMaxQueuedConnections;
+    }
+
+    public void setThreadedServerMaxQueuedConnections(Integer threadedServerMaxQueuedConnections) {
+        this.threadedServerMaxQueuedConnections = threadedServerMaxQueuedConnections;
+    }
+
     public NameType getSniType() {
         return sniType;
     }
@@ -2493,6 +2530,22 @@ public class Config implements Serializable {
         this.defaultApplicationMessageData = defaultApplicationMessageData;
     }
 
+    public Long getBulkApplicationDataLength() {
+        return bulkApplicationDataLength;
+    }
+
+    public void setBulkApplicationDataLength(Long bulkApplicationDataLength) {
+        this.bulkApplicationDataLength = bulkApplicationDataLength;
+    }
+
+    public Long getBulkApplicationDataDuration() {
+        return bulkApplicationDataDuration;
+    }
+
+    public void setBulkApplicationDataDuration(Long bulkApplicationDataDuration) {
+        this.bulkApplicationDataDuration = bulkApplicationDataDuration;
+    }
+
     public Boolean isEnforceSettings() {
         return enforceSettings;
     }
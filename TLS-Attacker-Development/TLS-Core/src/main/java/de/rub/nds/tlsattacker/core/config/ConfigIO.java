@@ -24,9 +24,9 @@ import java.io.OutputStream;
 import javax.xml.XMLConstants;
 import javax.xml.bind.DataBindingException;
 import java.nio.charset.StandardCharsets;
-import javax.xml.bind.JAXB;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.ValidationEvent;
 import javax.xml.bind.ValidationEventHandler;
@@ -49,6 +49,25 @@ public class ConfigIO {
      */
     private static JAXBContext context;
 
+    /**
+     * schema compilation is expensive as well and a compiled schema is thread safe, so it is shared by all threads
+     */
+    private static Schema schema;
+
+    /**
+     * Marshallers, unmarshallers and stream factories are not thread safe, but each thread can reuse its own ones
+     */
+    private static final ThreadLocal<Marshaller> MARSHALLER = new ThreadLocal<>();
+
+    private static final ThreadLocal<Unmarshaller> UNMARSHALLER = new ThreadLocal<>();
+
+    private static final ThreadLocal<XMLInputFactory> INPUT_FACTORY = ThreadLocal.withInitial(() -> {
+        XMLInputFactory xif = XMLInputFactory.newFactory();
+        xif.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        xif.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        return xif;
+    });
+
     static synchronized JAXBContext getJAXBContext() throws JAXBException {
         if (context == null) {
             context = JAXBContext.newInstance(Config.class);
@@ -56,6 +75,45 @@ public class ConfigIO {
         return context;
     }
 
+    static synchronized Schema getSchema() throws SAXException {
+        if (schema == null) {
+            String xsd_source = ConfigSchemaGenerator.AccumulatingSchemaOutputResolver.mapSystemIds();
+            SchemaFactory sf = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+            schema =
+                sf.newSchema(new StreamSource(WorkflowTraceSerializer.class.getResourceAsStream("/" + xsd_source)));
+        }
+        return schema;
+    }
+
+    private static Marshaller getMarshaller() throws JAXBException {
+        Marshaller marshaller = MARSHALLER.get();
+        if (marshaller == null) {
+            marshaller = getJAXBContext().createMarshaller();
+            // same output as JAXB.marshal()
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+            MARSHALLER.set(marshaller);
+        }
+        return marshaller;
+    }
+
+    private static Unmarshaller getUnmarshaller() throws JAXBException, SAXException {
+        Unmarshaller unmarshaller = UNMARSHALLER.get();
+        if (unmarshaller == null) {
+            unmarshaller = getJAXBContext().createUnmarshaller();
+            // output any anomalies in the given config file
+            unmarshaller.setEventHandler(new ValidationEventHandler() {
+                @Override
+                public boolean handleEvent(ValidationEvent event) {
+                    // Raise an exception also on warnings
+                    return false;
+                }
+            });
+            unmarshaller.setSchema(getSchema());
+            UNMARSHALLER.set(unmarshaller);
+        }
+        return unmarshaller;
+    }
+
     public static void write(Config config, File f) {
         try {
             write(config, new FileOutputStream(f));
@@ -66,7 +124,11 @@ public class ConfigIO {
 
     public static void write(Config config, OutputStream os) {
         ByteArrayOutputStream tempStream = new ByteArrayOutputStream();
-        JAXB.marshal(config, tempStream);
+        try {
+            getMarshaller().marshal(config, tempStream);
+        } catch (JAXBException ex) {
+            throw new DataBindingException(ex);
+        }
         try {
             os.write(new String(tempStream.toByteArray()).getBytes(StandardCharsets.ISO_8859_1));
         } catch (IOException ex) {
@@ -88,65 +150,26 @@ public class ConfigIO {
 
     public static Config read(File f) {
         try {
-            Unmarshaller unmarshaller = getJAXBContext().createUnmarshaller();
-            // output any anomalies in the given config file
-            unmarshaller.setEventHandler(new ValidationEventHandler() {
-                @Override
-                public boolean handleEvent(ValidationEvent event) {
-                    // Raise an exception also on warnings
-                    return false;
-                }
-            });
-            return read(new FileInputStream(f), unmarshaller);
-        } catch (JAXBException e) {
-            throw new RuntimeException(e);
+            return read(new FileInputStream(f));
         } catch (FileNotFoundException e) {
             throw new IllegalArgumentException("File cannot be found");
         }
     }
 
-    public static Config read(InputStream stream) {
-        try {
-            Unmarshaller unmarshaller = getJAXBContext().createUnmarshaller();
-            // output any anomalies in the given config file
-            unmarshaller.setEventHandler(new ValidationEventHandler() {
-                @Override
-                public boolean handleEvent(ValidationEvent event) {
-                    // Raise an exception also on warnings
-                    return false;
-                }
-            });
-            return read(stream, unmarshaller);
-        } catch (JAXBException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
     /**
-     * Reads the XML from the given inputStream with the provided unmarshaller into a new Config
+     * Reads the XML from the given inputStream into a new Config. The XML is validated against the config schema.
      * 
      * @param  stream
-     *                      The stream that provides the XML structure
-     * @param  unmarshaller
-     *                      The unmarshaller that will be used during the parsing
-     * @return              Config a new Config that contains the parsed values from the inputStream
+     *                The stream that provides the XML structure
+     * @return        Config a new Config that contains the parsed values from the inputStream
      */
-    private static Config read(InputStream stream, Unmarshaller unmarshaller) {
+    public static Config read(InputStream stream) {
         if (stream == null) {
             throw new IllegalArgumentException("Stream cannot be null");
         }
         try {
-            String xsd_source = ConfigSchemaGenerator.AccumulatingSchemaOutputResolver.mapSystemIds();
-            XMLInputFactory xif = XMLInputFactory.newFactory();
-            xif.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
-            xif.setProperty(XMLInputFactory.SUPPORT_DTD, false);
-            XMLStreamReader xsr = xif.createXMLStreamReader(stream);
-            SchemaFactory sf = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            Schema configSchema =
-                sf.newSchema(new StreamSource(WorkflowTraceSerializer.class.getResourceAsStream("/" + xsd_source)));
-            configSchema.newValidator();
-            unmarshaller.setSchema(configSchema);
-            Config config = (Config) unmarshaller.unmarshal(xsr);
+            XMLStreamReader xsr = INPUT_FACTORY.get().createXMLStreamReader(stream);
+            Config config = (Config) getUnmarshaller().unmarshal(xsr);
             return config;
         } catch (XMLStreamException | SAXException | JAXBException e) {
             throw new RuntimeException(e);
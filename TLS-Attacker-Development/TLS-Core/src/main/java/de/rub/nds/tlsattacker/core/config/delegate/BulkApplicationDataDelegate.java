@@ -0,0 +1,56 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.core.config.delegate;
+
+import com.beust.jcommander.Parameter;
+import de.rub.nds.tlsattacker.core.config.Config;
+import java.util.concurrent.TimeUnit;
+
+public class BulkApplicationDataDelegate extends Delegate {
+
+    @Parameter(names = "-bulk_length",
+        description = "Number of application data bytes the client streams to the server in the BULK_APPLICATION_DATA "
+            + "workflow trace type")
+    private Long length = null;
+
+    @Parameter(names = "-bulk_duration",
+        description = "Number of seconds the client streams application data to the server in the "
+            + "BULK_APPLICATION_DATA workflow trace type. Without -bulk_length, the number of bytes is not limited.")
+    private Integer duration = null;
+
+    public BulkApplicationDataDelegate() {
+    }
+
+    public Long getLength() {
+        return length;
+    }
+
+    public void setLength(Long length) {
+        this.length = length;
+    }
+
+    public Integer getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Integer duration) {
+        this.duration = duration;
+    }
+
+    @Override
+    public void applyDelegate(Config config) {
+        if (length == null && duration == null) {
+            return;
+        }
+        // only the given limits apply
+        config.setBulkApplicationDataLength(length == null ? 0L : length);
+        config.setBulkApplicationDataDuration(duration == null ? 0L : TimeUnit.SECONDS.toMillis(duration));
+    }
+}
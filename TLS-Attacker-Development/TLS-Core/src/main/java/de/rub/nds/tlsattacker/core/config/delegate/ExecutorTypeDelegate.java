@@ -10,6 +10,7 @@
 package de.rub.nds.tlsattacker.core.config.delegate;
 
 import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
 import de.rub.nds.tlsattacker.core.config.Config;
 import de.rub.nds.tlsattacker.core.workflow.action.executor.WorkflowExecutorType;
 
@@ -18,6 +19,15 @@ public class ExecutorTypeDelegate extends Delegate {
     @Parameter(names = "-executor_type", description = "Type of the workflow trace executor")
     private WorkflowExecutorType executorType = null;
 
+    @Parameter(names = "-executor_threads",
+        description = "Number of connections the THREADED_SERVER executor handles in parallel")
+    private Integer executorThreads = null;
+
+    @Parameter(names = "-executor_queue_size",
+        description = "Number of accepted connections which may wait for a thread of the THREADED_SERVER executor, "
+            + "with 0 no more connections than threads are accepted")
+    private Integer executorQueueSize = null;
+
     public ExecutorTypeDelegate() {
     }
 
@@ -29,10 +39,38 @@ public class ExecutorTypeDelegate extends Delegate {
         this.executorType = executorType;
     }
 
+    public Integer getExecutorThreads() {
+        return executorThreads;
+    }
+
+    public void setExecutorThreads(Integer executorThreads) {
+        this.executorThreads = executorThreads;
+    }
+
+    public Integer getExecutorQueueSize() {
+        return executorQueueSize;
+    }
+
+    public void setExecutorQueueSize(Integer executorQueueSize) {
+        this.executorQueueSize = executorQueueSize;
+    }
+
     @Override
     public void applyDelegate(Config config) {
         if (executorType != null) {
             config.setWorkflowExecutorType(executorType);
         }
+        if (executorThreads != null) {
+            if (executorThreads < 1) {
+                throw new ParameterException("Executor threads must be at least 1, but is " + executorThreads);
+            }
+            config.setThreadedServerPoolSize(executorThreads);
+        }
+        if (executorQueueSize != null) {
+            if (executorQueueSize < 0) {
+                throw new ParameterException("Executor queue size must not be negative, but is " + executorQueueSize);
+            }
+            config.setThreadedServerMaxQueuedConnections(executorQueueSize);
+        }
     }
 }
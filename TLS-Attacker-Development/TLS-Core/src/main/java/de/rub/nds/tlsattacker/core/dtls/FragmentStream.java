@@ -9,41 +9,102 @@
 
 package de.rub.nds.tlsattacker.core.dtls;
 
-import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.Map;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+/**
+ * Reassembles the fragments of a single handshake message. Bytes inside of the intended message are copied into a
+ * contiguous buffer and a bit set keeps track of which offsets were already received. Bytes outside of the intended
+ * message, which only appear if the fragment offset or the message length were manipulated, are never part of the
+ * reassembled stream, but are kept in a map to detect conflicting fragments.
+ */
 public class FragmentStream {
 
     private static final Logger LOGGER = LogManager.getLogger();
 
-    private HashMap<Integer, Byte> fragmentByteMap;
+    private byte[] buffer;
+
+    private final BitSet coverage;
 
-    private int intendedSize;
+    private final Map<Integer, Byte> outOfBoundsByteMap;
+
+    private final int intendedSize;
 
     public FragmentStream(int intendedSize) {
-        fragmentByteMap = new HashMap<>();
+        buffer = new byte[0];
+        coverage = new BitSet();
+        outOfBoundsByteMap = new HashMap<>();
         this.intendedSize = intendedSize;
     }
 
     public boolean canInsertByteArray(byte[] bytesToAdd, int offset) {
-        for (int i = 0; i < bytesToAdd.length; i++) {
-            if (fragmentByteMap.containsKey(offset + i)) {
-                if (fragmentByteMap.get(offset + i) != bytesToAdd[i]) {
+        int firstInBounds = getFirstInBoundsIndex(bytesToAdd.length, offset);
+        int lastInBounds = getLastInBoundsIndex(bytesToAdd.length, offset, firstInBounds);
+        for (int i = 0; i < firstInBounds; i++) {
+            if (conflictsOutOfBounds(offset + i, bytesToAdd[i])) {
+                return false;
+            }
+        }
+        if (firstInBounds < lastInBounds) {
+            int end = offset + lastInBounds;
+            for (int index = coverage.nextSetBit(offset + firstInBounds); index >= 0 && index < end;
+                index = coverage.nextSetBit(index + 1)) {
+                if (buffer[index] != bytesToAdd[index - offset]) {
                     return false;
                 }
             }
         }
+        for (int i = lastInBounds; i < bytesToAdd.length; i++) {
+            if (conflictsOutOfBounds(offset + i, bytesToAdd[i])) {
+                return false;
+            }
+        }
         return true;
     }
 
     public void insertByteArray(byte[] bytesToAdd, int offset) {
-        for (int i = 0; i < bytesToAdd.length; i++) {
-            if (fragmentByteMap.containsKey(offset + i)) {
-                fragmentByteMap.remove(offset + i);
-            }
-            fragmentByteMap.put(offset + i, bytesToAdd[i]);
+        int firstInBounds = getFirstInBoundsIndex(bytesToAdd.length, offset);
+        int lastInBounds = getLastInBoundsIndex(bytesToAdd.length, offset, firstInBounds);
+        for (int i = 0; i < firstInBounds; i++) {
+            outOfBoundsByteMap.put(offset + i, bytesToAdd[i]);
+        }
+        if (firstInBounds < lastInBounds) {
+            ensureCapacity(offset + lastInBounds);
+            System.arraycopy(bytesToAdd, firstInBounds, buffer, offset + firstInBounds, lastInBounds - firstInBounds);
+            coverage.set(offset + firstInBounds, offset + lastInBounds);
+        }
+        for (int i = lastInBounds; i < bytesToAdd.length; i++) {
+            outOfBoundsByteMap.put(offset + i, bytesToAdd[i]);
+        }
+    }
+
+    /**
+     * @return the index of the first byte in the fragment which lies in [0, intendedSize)
+     */
+    private int getFirstInBoundsIndex(int length, int offset) {
+        return (int) Math.min(length, Math.max(0, -(long) offset));
+    }
+
+    /**
+     * @return the index after the last byte in the fragment which lies in [0, intendedSize)
+     */
+    private int getLastInBoundsIndex(int length, int offset, int firstInBounds) {
+        return (int) Math.max(firstInBounds, Math.min(length, (long) intendedSize - offset));
+    }
+
+    private boolean conflictsOutOfBounds(int index, byte value) {
+        Byte existingValue = outOfBoundsByteMap.get(index);
+        return existingValue != null && existingValue != value;
+    }
+
+    private void ensureCapacity(int size) {
+        if (size > buffer.length) {
+            long grownSize = Math.min(intendedSize, 2L * buffer.length);
+            buffer = Arrays.copyOf(buffer, (int) Math.max(size, grownSize));
         }
     }
 
@@ -59,8 +120,12 @@ public class FragmentStream {
             throw new IllegalArgumentException(
                 "Cannot check stream for completeness with negative index: " + tillIndex);
         }
-        for (int i = 0; i < tillIndex; i++) {
-            if (!fragmentByteMap.containsKey(i)) {
+        int inBoundsIndex = Math.min(tillIndex, Math.max(0, intendedSize));
+        if (coverage.nextClearBit(0) < inBoundsIndex) {
+            return false;
+        }
+        for (int i = inBoundsIndex; i < tillIndex; i++) {
+            if (!outOfBoundsByteMap.containsKey(i)) {
                 return false;
             }
         }
@@ -75,55 +140,54 @@ public class FragmentStream {
      * @return             the stream
      */
     public byte[] getCompleteFilledStream(byte fillingByte) {
-        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        byte[] stream = new byte[Math.max(0, intendedSize)];
+        System.arraycopy(buffer, 0, stream, 0, Math.min(buffer.length, stream.length));
         int fillingCounter = 0;
-        for (int i = 0; i < intendedSize; i++) {
-            Byte b = fragmentByteMap.get(i);
-            if (b == null) {
-                b = fillingByte;
-                fillingCounter++;
+        for (int holeStart = coverage.nextClearBit(0); holeStart < stream.length;) {
+            int holeEnd = coverage.nextSetBit(holeStart);
+            if (holeEnd < 0 || holeEnd > stream.length) {
+                holeEnd = stream.length;
             }
-            stream.write(b);
-
+            Arrays.fill(stream, holeStart, holeEnd, fillingByte);
+            fillingCounter += holeEnd - holeStart;
+            holeStart = coverage.nextClearBit(holeEnd);
         }
         if (fillingCounter > 0) {
             LOGGER.warn("Had to fill " + fillingCounter
                 + " missing bytes in HandshakeMessageFragments. This will _likely_ result in invalid messages");
         }
-        for (Integer i : fragmentByteMap.keySet()) {
-            if (i > intendedSize) {
-                LOGGER.warn("Found fragment greater than intended message size(intended size: " + intendedSize
-                    + " but found byte for: " + i + "). Ignoring");
-            }
-        }
-        return stream.toByteArray();
+        warnAboutBytesBeyondIntendedSize();
+        return stream;
     }
 
     /**
+     * Returns the received bytes of the fragment stream in order, skipping any holes
      *
-     * @param  fillingByte
-     * @return
+     * @return the stream
      */
     public byte[] getCompleteTruncatedStream() {
-        ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        int skipCounter = 0;
-        for (int i = 0; i < intendedSize; i++) {
-            Byte b = fragmentByteMap.get(i);
-            if (b == null) {
-                skipCounter++;
-                continue;
-            }
-            stream.write(b);
+        byte[] stream = new byte[coverage.cardinality()];
+        int position = 0;
+        for (int runStart = coverage.nextSetBit(0); runStart >= 0;) {
+            int runEnd = coverage.nextClearBit(runStart);
+            System.arraycopy(buffer, runStart, stream, position, runEnd - runStart);
+            position += runEnd - runStart;
+            runStart = coverage.nextSetBit(runEnd);
         }
+        int skipCounter = Math.max(0, intendedSize) - stream.length;
         if (skipCounter > 0) {
             LOGGER.warn("Did not receive all bytes. Truncated  " + skipCounter + " missing bytes.");
         }
-        for (Integer i : fragmentByteMap.keySet()) {
+        warnAboutBytesBeyondIntendedSize();
+        return stream;
+    }
+
+    private void warnAboutBytesBeyondIntendedSize() {
+        for (Integer i : outOfBoundsByteMap.keySet()) {
             if (i > intendedSize) {
                 LOGGER.warn("Found fragment greater than intended message size(intended size: " + intendedSize
                     + " but found byte for: " + i + "). Ignoring");
             }
         }
-        return stream.toByteArray();
     }
 }
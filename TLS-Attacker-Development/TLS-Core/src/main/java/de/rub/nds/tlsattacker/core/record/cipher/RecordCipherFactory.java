@@ -59,6 +59,41 @@ public class RecordCipherFactory {
             context.getChooser().getSelectedCipherSuite(), null, null));
     }
 
+    /**
+     * Creates a cipher for the given context which continues where the given cipher is, that is with the same keys,
+     * sequence numbers and CBC residue. Stream ciphers cannot be copied once they were used, since their key stream
+     * cannot be duplicated.
+     *
+     * @param  cipher
+     *                 The cipher to copy
+     * @param  context
+     *                 The context the copy belongs to
+     * @return         An independent copy of the cipher
+     */
+    public static RecordCipher copyRecordCipher(RecordCipher cipher, TlsContext context) {
+        CipherState original = cipher.getState();
+        CipherState state = new CipherState(original.getVersion(), original.getCipherSuite(), original.getKeySet(),
+            original.isEncryptThenMac());
+        state.setWriteSequenceNumber(original.getWriteSequenceNumber());
+        state.setReadSequenceNumber(original.getReadSequenceNumber());
+        if (cipher instanceof RecordNullCipher) {
+            return new RecordNullCipher(context, state);
+        } else if (cipher instanceof RecordAEADCipher) {
+            return new RecordAEADCipher(context, state);
+        } else if (cipher instanceof RecordBlockCipher) {
+            RecordBlockCipher copy = new RecordBlockCipher(context, state);
+            if (!state.getVersion().usesExplicitIv()) {
+                copy.encryptCipher.setIv(cipher.encryptCipher.getIv());
+                copy.decryptCipher.setIv(cipher.decryptCipher.getIv());
+            }
+            return copy;
+        } else if (cipher instanceof RecordStreamCipher && original.getWriteSequenceNumber() == 0
+            && original.getReadSequenceNumber() == 0) {
+            return new RecordStreamCipher(context, state);
+        }
+        throw new UnsupportedOperationException("Cannot copy the state of " + cipher.getClass().getSimpleName());
+    }
+
     private RecordCipherFactory() {
     }
 }
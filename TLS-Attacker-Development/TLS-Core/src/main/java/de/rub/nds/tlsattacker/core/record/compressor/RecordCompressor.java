@@ -39,7 +39,18 @@ public class RecordCompressor extends Compressor<AbstractRecord> {
     public void setMethod(CompressionMethod method) {
         LOGGER.debug("Changing Compression method to {}", method);
         AlgorithmFactory factory = new AlgorithmFactory();
+        CompressionAlgorithm previousAlgorithm = algorithm;
         algorithm = factory.getAlgorithm(version, method);
+        if (previousAlgorithm != null) {
+            previousAlgorithm.close();
+        }
+    }
+
+    /**
+     * Releases the resources of the current algorithm, such as the zlib stream of DEFLATE
+     */
+    public void close() {
+        algorithm.close();
     }
 
 }
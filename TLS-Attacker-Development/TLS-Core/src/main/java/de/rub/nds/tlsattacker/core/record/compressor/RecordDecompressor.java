@@ -38,7 +38,18 @@ public class RecordDecompressor extends Decompressor<AbstractRecord> {
 
     public void setMethod(CompressionMethod method) {
         AlgorithmFactory factory = new AlgorithmFactory();
+        CompressionAlgorithm previousAlgorithm = algorithm;
         algorithm = factory.getAlgorithm(version, method);
+        if (previousAlgorithm != null) {
+            previousAlgorithm.close();
+        }
+    }
+
+    /**
+     * Releases the resources of the current algorithm, such as the zlib stream of DEFLATE
+     */
+    public void close() {
+        algorithm.close();
     }
 
 }
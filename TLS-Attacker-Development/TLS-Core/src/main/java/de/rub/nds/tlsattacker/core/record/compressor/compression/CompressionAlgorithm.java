@@ -25,4 +25,10 @@ public abstract class CompressionAlgorithm {
     public abstract byte[] compress(byte[] data);
 
     public abstract byte[] decompress(byte[] data);
+
+    /**
+     * Releases resources which the algorithm keeps from record to record. Does nothing by default.
+     */
+    public void close() {
+    }
 }
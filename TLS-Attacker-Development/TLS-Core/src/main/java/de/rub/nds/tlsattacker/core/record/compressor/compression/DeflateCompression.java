@@ -11,80 +11,115 @@ package de.rub.nds.tlsattacker.core.record.compressor.compression;
 
 import de.rub.nds.tlsattacker.core.constants.CompressionMethod;
 import java.util.Arrays;
+import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
 import java.util.zip.Inflater;
 
+/**
+ * DEFLATE compression as defined in RFC 3749. All records of a connection direction form a single zlib stream, so the
+ * compressor and the decompressor are kept from record to record together with their dictionary, and each record is
+ * completed with a sync flush. Only the first record carries the zlib header, like real peers send it.
+ *
+ * An instance is used for one direction of one connection. {@link #close()} releases the native memory of the zlib
+ * streams once the connection does not need them anymore.
+ */
 public class DeflateCompression extends CompressionAlgorithm {
 
-    private static final int MAX_COMPRESSION_TEXT_LENGTH = 0x4400;
-    private static final int MAX_PLAIN_TEXT_LENGTH = 0x4000;
-    private Boolean secondPacketFlagCompression;
-    private Boolean secondPacketFlagDecompression;
+    private static final int INITIAL_BUFFER_LENGTH = 0x4400;
 
-    public DeflateCompression() {
-        super(CompressionMethod.DEFLATE);
-        secondPacketFlagCompression = false;
-        secondPacketFlagDecompression = false;
-    }
+    /**
+     * Limits the memory a malicious peer can make us spend on a single record
+     */
+    private static final int MAX_DECOMPRESSED_LENGTH = 0x100000;
 
-    public byte[] compress(byte[] data) {
+    private Deflater deflater;
 
-        byte[] input = data;
-        byte[] output = new byte[MAX_COMPRESSION_TEXT_LENGTH];
-        Deflater compressor = new Deflater();
+    private Inflater inflater;
 
-        compressor.setInput(input, 0, input.length);
+    private byte[] buffer = new byte[INITIAL_BUFFER_LENGTH];
 
-        int compressedDataLength = compressor.deflate(output, 0, MAX_COMPRESSION_TEXT_LENGTH, compressor.SYNC_FLUSH);
-
-        byte[] realOutput = new byte[compressedDataLength];
-        System.arraycopy(output, 0, realOutput, 0, compressedDataLength);
-
-        byte[] veryRealOutput;
+    public DeflateCompression() {
+        super(CompressionMethod.DEFLATE);
+    }
 
-        if (secondPacketFlagCompression) {
-            veryRealOutput = Arrays.copyOfRange(realOutput, 2, realOutput.length);
-        } else {
-            veryRealOutput = Arrays.copyOfRange(realOutput, 0, realOutput.length);
-            secondPacketFlagCompression = true;
+    @Override
+    public byte[] compress(byte[] data) {
+        if (deflater == null) {
+            deflater = new Deflater();
         }
-
-        return veryRealOutput;
+        deflater.setInput(data);
+        int length = 0;
+        while (true) {
+            length += deflater.deflate(buffer, length, buffer.length - length, Deflater.SYNC_FLUSH);
+            if (length < buffer.length) {
+                // The flush is complete as soon as the output did not fill the buffer
+                break;
+            }
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        return copyFromBuffer(length);
     }
 
+    @Override
     public byte[] decompress(byte[] data) {
-
-        byte[] input = data;
-        byte[] output = new byte[MAX_PLAIN_TEXT_LENGTH];
-        byte[] veryRealInput;
-
-        if (secondPacketFlagDecompression) {
-            veryRealInput = new byte[input.length + 2];
-            veryRealInput[0] = (byte) 0x78;
-            veryRealInput[1] = (byte) 0x9C;
-            System.arraycopy(input, 0, veryRealInput, 2, input.length);
-
-        } else {
-            veryRealInput = new byte[input.length];
-            System.arraycopy(input, 0, veryRealInput, 0, input.length);
-            secondPacketFlagDecompression = true;
+        if (inflater == null) {
+            inflater = new Inflater();
         }
-
-        Inflater decompressor = new Inflater();
-        decompressor.setInput(veryRealInput, 0, veryRealInput.length);
-        int decompressedDataLength = 0;
-
+        inflater.setInput(data);
+        int length = 0;
         try {
-            decompressedDataLength = decompressor.inflate(output, 0, MAX_PLAIN_TEXT_LENGTH);
-        } catch (Exception e) {
+            while (true) {
+                length += inflater.inflate(buffer, length, buffer.length - length);
+                if (length < buffer.length) {
+                    // The input is used up, or the stream ended or needs a dictionary
+                    break;
+                }
+                if (buffer.length >= MAX_DECOMPRESSED_LENGTH) {
+                    if (inflater.inflate(new byte[1]) > 0) {
+                        LOGGER.debug("Decompressed data exceeds " + MAX_DECOMPRESSED_LENGTH + " bytes, truncating");
+                        // The rest of the record is dropped, so the stream cannot continue with the next record
+                        inflater.reset();
+                    }
+                    break;
+                }
+                buffer = Arrays.copyOf(buffer, Math.min(buffer.length * 2, MAX_DECOMPRESSED_LENGTH));
+            }
+            if (inflater.needsDictionary()) {
+                LOGGER.debug("Couldn't decompress the data, a preset dictionary is required");
+            }
+        } catch (DataFormatException e) {
             LOGGER.debug("Couldn't decompress the data");
             LOGGER.trace(e);
+            // The stream cannot continue after an error, the next record is treated as the start of a new stream
+            inflater.reset();
         }
+        return copyFromBuffer(length);
+    }
 
-        byte[] realOutput = new byte[decompressedDataLength];
-        System.arraycopy(output, 0, realOutput, 0, decompressedDataLength);
-
-        return realOutput;
+    /**
+     * Copies the result out of the buffer and shrinks the buffer again if a large record made it grow, so that an
+     * instance does not keep up to {@link #MAX_DECOMPRESSED_LENGTH} bytes for the rest of the connection
+     */
+    private byte[] copyFromBuffer(int length) {
+        byte[] result = Arrays.copyOf(buffer, length);
+        if (buffer.length > INITIAL_BUFFER_LENGTH) {
+            buffer = new byte[INITIAL_BUFFER_LENGTH];
+        }
+        return result;
     }
 
+    /**
+     * Releases the zlib streams. Compressing or decompressing afterwards starts new streams.
+     */
+    @Override
+    public void close() {
+        if (deflater != null) {
+            deflater.end();
+            deflater = null;
+        }
+        if (inflater != null) {
+            inflater.end();
+            inflater = null;
+        }
+    }
 }
@@ -11,6 +11,8 @@ package de.rub.nds.tlsattacker.core.record.crypto;
 
 import de.rub.nds.tlsattacker.core.record.cipher.RecordCipher;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -38,6 +40,10 @@ public abstract class RecordCryptoUnit {
         }
     }
 
+    public List<RecordCipher> getRecordCipherList() {
+        return Collections.unmodifiableList(recordCipherList);
+    }
+
     public void addNewRecordCipher(RecordCipher recordCipher) {
         this.recordCipherList.add(recordCipher);
     }
@@ -82,6 +82,15 @@ public abstract class RecordLayer {
         decompressor.setMethod(tlsContext.getChooser().getSelectedCompressionMethod());
     }
 
+    /**
+     * Releases the compression streams, for example when the connection is closed. Records which are compressed or
+     * decompressed afterwards start new streams.
+     */
+    public void closeCompression() {
+        compressor.close();
+        decompressor.close();
+    }
+
     public void updateEncryptionCipher(RecordCipher encryptionCipher) {
         LOGGER.debug("Activating new EncryptionCipher (" + encryptionCipher.getClass().getSimpleName() + ")");
         encryptor.addNewRecordCipher(encryptionCipher);
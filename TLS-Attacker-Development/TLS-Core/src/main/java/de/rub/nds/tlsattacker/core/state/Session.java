@@ -9,7 +9,9 @@
 
 package de.rub.nds.tlsattacker.core.state;
 
-public class Session {
+import java.io.Serializable;
+
+public class Session implements Serializable {
 
     private byte[] sessionId;
 
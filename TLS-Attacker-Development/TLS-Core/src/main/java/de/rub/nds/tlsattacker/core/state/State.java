@@ -93,6 +93,28 @@ public class State {
         initState();
     }
 
+    /**
+     * Creates a state for a trace of which an identical, not yet normalized instance is at hand, for example because
+     * both were freshly created by a WorkflowConfigurationFactory. The second instance is kept as snapshot of the user
+     * settings instead of copying the trace.
+     *
+     * @param config
+     *                              The config of the state
+     * @param workflowTrace
+     *                              The trace to execute
+     * @param originalWorkflowTrace
+     *                              An identical instance of the trace which is not used otherwise
+     */
+    public State(Config config, WorkflowTrace workflowTrace, WorkflowTrace originalWorkflowTrace) {
+        this.config = config;
+        runningMode = config.getDefaultRunningMode();
+        this.workflowTrace = workflowTrace;
+        if (config.isFiltersKeepUserSettings()) {
+            this.originalWorkflowTrace = originalWorkflowTrace;
+        }
+        normalizeTraceAndInitContexts();
+    }
+
     public void reset() {
         List<TlsContext> previousContexts = contextContainer.getAllContexts();
         contextContainer.clear();
@@ -101,6 +123,34 @@ public class State {
         retainServerTcpTransportHandlers(previousContexts);
     }
 
+    /**
+     * Creates a state which continues the connections of this state with the given trace, instead of running them from
+     * the start. This allows sharing a common prefix, such as a complete handshake, between many tests. The TLS
+     * contexts are copied with {@link TlsContext#createCopy()}, so executing the fork does not change this state.
+     *
+     * The copied contexts have no transport handler. One which continues the connection has to be set for each of them,
+     * and the fork has to be executed with a {@link de.rub.nds.tlsattacker.core.workflow.ForkedWorkflowExecutor} to
+     * keep the copied record layers.
+     *
+     * @param  suffix
+     *                The actions to execute on the copied connections. If the trace defines no connections, the ones of
+     *                this state are used.
+     * @return        The forked state
+     */
+    public State fork(WorkflowTrace suffix) {
+        if (suffix.getConnections().isEmpty()) {
+            for (TlsContext context : getAllTlsContexts()) {
+                suffix.addConnection(context.getConnection().getCopy());
+            }
+        }
+        State fork = new State(config, suffix);
+        fork.setRunningMode(runningMode);
+        for (TlsContext context : fork.getAllTlsContexts()) {
+            fork.replaceTlsContext(getTlsContext(context.getConnection().getAlias()).createCopy());
+        }
+        return fork;
+    }
+
     private void retainServerTcpTransportHandlers(List<TlsContext> previousContexts) {
         previousContexts.forEach(oldContext -> {
             if (oldContext.getTransportHandler() != null
@@ -119,7 +169,10 @@ public class State {
         if (config.isFiltersKeepUserSettings()) {
             originalWorkflowTrace = WorkflowTrace.copy(workflowTrace);
         }
+        normalizeTraceAndInitContexts();
+    }
 
+    private void normalizeTraceAndInitContexts() {
         WorkflowTraceNormalizer normalizer = new WorkflowTraceNormalizer();
         normalizer.normalize(workflowTrace, config, runningMode);
         workflowTrace.setDirty(false);
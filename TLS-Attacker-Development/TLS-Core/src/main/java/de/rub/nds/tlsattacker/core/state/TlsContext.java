@@ -51,20 +51,37 @@ import de.rub.nds.tlsattacker.core.protocol.message.extension.sni.SNIEntry;
 import de.rub.nds.tlsattacker.core.protocol.message.extension.statusrequestv2.RequestItemV2;
 import de.rub.nds.tlsattacker.core.protocol.message.extension.trustedauthority.TrustedAuthority;
 import de.rub.nds.tlsattacker.core.record.AbstractRecord;
+import de.rub.nds.tlsattacker.core.record.cipher.RecordCipher;
+import de.rub.nds.tlsattacker.core.record.cipher.RecordCipherFactory;
 import de.rub.nds.tlsattacker.core.record.cipher.RecordNullCipher;
+import de.rub.nds.tlsattacker.core.record.crypto.RecordCryptoUnit;
+import de.rub.nds.tlsattacker.core.record.layer.BlobRecordLayer;
 import de.rub.nds.tlsattacker.core.record.layer.RecordLayer;
+import de.rub.nds.tlsattacker.core.record.layer.RecordLayerFactory;
 import de.rub.nds.tlsattacker.core.record.layer.RecordLayerType;
 import de.rub.nds.tlsattacker.core.state.http.HttpContext;
 import de.rub.nds.tlsattacker.core.workflow.chooser.Chooser;
 import de.rub.nds.tlsattacker.core.workflow.chooser.ChooserFactory;
 import de.rub.nds.tlsattacker.transport.ConnectionEndType;
 import de.rub.nds.tlsattacker.transport.TransportHandler;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import de.rub.nds.tlsattacker.transport.socket.SocketState;
 import java.util.HashSet;
@@ -80,6 +97,21 @@ public class TlsContext {
 
     private static final Logger LOGGER = LogManager.getLogger();
 
+    /**
+     * Fields which {@link #createCopy()} does not copy as they are, because they refer to the context itself or need
+     * more than a shallow copy
+     */
+    private static final Set<String> NOT_COPIED_FIELDS = new HashSet<>(
+        Arrays.asList("keylogfile", "digest", "httpContext", "random", "globalDtlsFragmentManager", "recordLayer",
+            "transportHandler", "chooser", "proposedExtensionSet", "negotiatedExtensionSet", "connection"));
+
+    /**
+     * Immutable types, which {@link #createCopy()} shares between a context and its copy like primitives and enums.
+     * {@link Point} objects are immutable by design and the bouncy castle {@link Certificate} has no mutators.
+     */
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>(Arrays.asList(String.class, Boolean.class,
+        Integer.class, Long.class, BigInteger.class, Point.class, Certificate.class));
+
     /**
      * TLS-Attacker related configurations.
      */
@@ -710,6 +742,135 @@ public class TlsContext {
         keylogfile = new Keylogfile(this);
     }
 
+    /**
+     * Creates an independent copy of this context, for example to continue a connection in several ways after a common
+     * handshake. The negotiated values, the secrets, the handshake digest, the randomness, the connection, the buffered
+     * messages and records and the record layer with its keys, sequence numbers and CBC residues are duplicated.
+     * Collections are copied, and the objects they hold are copied as well unless they are immutable. Only the config
+     * is shared, like between the contexts of a state.
+     *
+     * The copy has no transport handler. The caller has to set one which continues the connection, such as the fork of
+     * an {@link de.rub.nds.tlsattacker.transport.stream.InMemoryTransportHandler}. DTLS contexts, contexts using
+     * DEFLATE compression and contexts whose stream cipher was already used cannot be copied.
+     *
+     * @return The copy of this context
+     */
+    public TlsContext createCopy() {
+        if (getChooser().getSelectedProtocolVersion().isDTLS()) {
+            throw new UnsupportedOperationException("Copying DTLS contexts is not supported");
+        }
+        if (recordLayer != null && getChooser().getSelectedCompressionMethod() == CompressionMethod.DEFLATE) {
+            throw new UnsupportedOperationException("The state of the DEFLATE compression cannot be copied");
+        }
+        TlsContext copy = new TlsContext(config, connection.getCopy());
+        for (Field field : TlsContext.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || NOT_COPIED_FIELDS.contains(field.getName())) {
+                continue;
+            }
+            if (Modifier.isFinal(field.getModifiers())) {
+                throw new UnsupportedOperationException(
+                    "Copying the final field " + field.getName() + " is not supported");
+            }
+            field.setAccessible(true);
+            try {
+                field.set(copy, copyValue(field, field.get(this)));
+            } catch (IllegalAccessException e) {
+                throw new UnsupportedOperationException("Could not copy field " + field.getName(), e);
+            }
+        }
+        copy.proposedExtensionSet.addAll(proposedExtensionSet);
+        copy.negotiatedExtensionSet.addAll(negotiatedExtensionSet);
+        copy.digest.setRawBytes(digest.getRawBytes());
+        copy.httpContext.setCookie(httpContext.getCookie());
+        copy.httpContext.setLastRequestPath(httpContext.getLastRequestPath());
+        copy.random = (Random) deepCopy("random", random);
+        if (recordLayer != null) {
+            copy.recordLayer = copyRecordLayer(copy);
+        }
+        return copy;
+    }
+
+    /**
+     * Shares immutable values, copies collections of immutable values and deep copies all other values by
+     * serialization. Types which are neither immutable nor serializable are refused, so a new field cannot be shared by
+     * accident.
+     */
+    private static Object copyValue(Field field, Object value) {
+        Class<?> type = field.getType();
+        if (type == Config.class || isImmutableType(type)) {
+            return value;
+        } else if (type == byte[].class) {
+            return value == null ? null : ((byte[]) value).clone();
+        } else if (type == LinkedList.class || type == List.class || type == Set.class) {
+            Type elementType = ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0];
+            if (!(elementType instanceof Class)) {
+                throw new UnsupportedOperationException("Copying the field " + field.getName() + " with elements of "
+                    + elementType.getTypeName() + " is not supported");
+            }
+            if (value == null) {
+                return null;
+            } else if (!isImmutableType((Class<?>) elementType)) {
+                return deepCopy(field.getName(), value);
+            } else if (type == LinkedList.class) {
+                return new LinkedList<>((LinkedList<?>) value);
+            } else if (type == List.class) {
+                return new ArrayList<>((List<?>) value);
+            } else {
+                return new HashSet<>((Set<?>) value);
+            }
+        } else if (Serializable.class.isAssignableFrom(type)) {
+            return deepCopy(field.getName(), value);
+        }
+        throw new UnsupportedOperationException(
+            "Copying the field " + field.getName() + " of type " + type.getName() + " is not supported");
+    }
+
+    private static boolean isImmutableType(Class<?> type) {
+        return type.isPrimitive() || type.isEnum() || IMMUTABLE_TYPES.contains(type);
+    }
+
+    private static Object deepCopy(String fieldName, Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            try (ObjectOutputStream outStream = new ObjectOutputStream(stream)) {
+                outStream.writeObject(value);
+            }
+            try (ObjectInputStream inStream = new ObjectInputStream(new ByteArrayInputStream(stream.toByteArray()))) {
+                return inStream.readObject();
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new UnsupportedOperationException("Could not copy field " + fieldName, e);
+        }
+    }
+
+    private RecordLayer copyRecordLayer(TlsContext copy) {
+        RecordLayerType type = recordLayer instanceof BlobRecordLayer ? RecordLayerType.BLOB : RecordLayerType.RECORD;
+        RecordLayer layer = RecordLayerFactory.getRecordLayer(type, copy);
+        // A cipher used for both directions must remain a single cipher
+        Map<RecordCipher, RecordCipher> copiedCiphers = new IdentityHashMap<>();
+        copyRecordCiphers(recordLayer.getEncryptor(), layer.getEncryptor(), copy, copiedCiphers);
+        copyRecordCiphers(recordLayer.getDecryptor(), layer.getDecryptor(), copy, copiedCiphers);
+        layer.setWriteEpoch(recordLayer.getWriteEpoch());
+        layer.setReadEpoch(recordLayer.getReadEpoch());
+        return layer;
+    }
+
+    private static void copyRecordCiphers(RecordCryptoUnit source, RecordCryptoUnit target, TlsContext copy,
+        Map<RecordCipher, RecordCipher> copiedCiphers) {
+        target.removeAllCiphers();
+        for (RecordCipher cipher : source.getRecordCipherList()) {
+            RecordCipher cipherCopy = copiedCiphers.get(cipher);
+            if (cipherCopy == null) {
+                cipherCopy = RecordCipherFactory.copyRecordCipher(cipher, copy);
+                copiedCiphers.put(cipher, cipherCopy);
+            }
+            target.addNewRecordCipher(cipherCopy);
+        }
+    }
+
     public Chooser getChooser() {
         if (chooser == null) {
             chooser = ChooserFactory.getChooser(config.getChooserType(), this, config);
@@ -0,0 +1,43 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.core.workflow;
+
+import de.rub.nds.tlsattacker.core.state.State;
+import de.rub.nds.tlsattacker.core.state.TlsContext;
+
+/**
+ * Executes the trace of a state created with {@link State#fork(WorkflowTrace)}. In contrast to the
+ * {@link DefaultWorkflowExecutor}, the record layers copied from the original state are kept, so the connections
+ * continue with the negotiated keys, and transport handlers which are already initialized are not initialized again.
+ */
+public class ForkedWorkflowExecutor extends DefaultWorkflowExecutor {
+
+    public ForkedWorkflowExecutor(State state) {
+        super(state);
+    }
+
+    @Override
+    public void initAllTransportHandler() {
+        for (TlsContext context : state.getAllTlsContexts()) {
+            if (context.getTransportHandler() == null || !context.getTransportHandler().isInitialized()) {
+                initTransportHandler(context);
+            }
+        }
+    }
+
+    @Override
+    public void initAllRecordLayer() {
+        for (TlsContext context : state.getAllTlsContexts()) {
+            if (context.getRecordLayer() == null) {
+                initRecordLayer(context);
+            }
+        }
+    }
+}
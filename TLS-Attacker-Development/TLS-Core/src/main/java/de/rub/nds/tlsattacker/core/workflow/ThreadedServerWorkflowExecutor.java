@@ -14,11 +14,14 @@ import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.UnknownHostException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import javax.xml.bind.JAXBException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -26,26 +29,39 @@ import org.apache.logging.log4j.Logger;
 import de.rub.nds.tlsattacker.core.exceptions.WorkflowExecutionException;
 import de.rub.nds.tlsattacker.core.state.State;
 import de.rub.nds.tlsattacker.core.workflow.action.executor.WorkflowExecutorType;
+import de.rub.nds.tlsattacker.core.workflow.factory.WorkflowConfigurationFactory;
 
 /**
  * Execute a workflow trace for each new connection/socket that connects to the server.
  *
- * Highly experimental. Just a starting point.
+ * Connections are handled by a pool of Config.getThreadedServerPoolSize() threads. At most
+ * Config.getThreadedServerMaxQueuedConnections() further connections are accepted while all threads are busy, after
+ * that the server stops accepting until a connection is done, so additional clients wait in the backlog of the server
+ * socket.
  */
 public class ThreadedServerWorkflowExecutor extends WorkflowExecutor {
 
     private static final Logger LOGGER = LogManager.getLogger();
     private static final int BACKLOG = 50;
-    private static final int POOL_SIZE = 3;
 
     private ServerSocket serverSocket;
     private final InetAddress bindAddr;
     private final int bindPort;
-    private List<Socket> sockets = new ArrayList<>();
-    private boolean killed = true;
-    private boolean shutdown = true;
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+    private volatile boolean killed = true;
+    private volatile boolean shutdown = true;
     protected final ExecutorService pool;
 
+    /**
+     * One permit per connection which is handled or waiting for a thread of the pool
+     */
+    private final Semaphore connectionPermits;
+
+    /**
+     * True if the trace of the state can be created from the configured workflow trace type instead of being copied
+     */
+    private final boolean createFreshTraces;
+
     public ThreadedServerWorkflowExecutor(State state, ExecutorService pool) {
         super(WorkflowExecutorType.THREADED_SERVER, state);
 
@@ -72,11 +88,14 @@ public class ThreadedServerWorkflowExecutor extends WorkflowExecutor {
             bindAddr = null;
         }
         this.pool = pool;
+        connectionPermits =
+            new Semaphore(config.getThreadedServerPoolSize() + config.getThreadedServerMaxQueuedConnections());
+        createFreshTraces = canCreateFreshTraces();
         addHook();
     }
 
     public ThreadedServerWorkflowExecutor(State state) {
-        this(state, Executors.newFixedThreadPool(POOL_SIZE));
+        this(state, Executors.newFixedThreadPool(state.getConfig().getThreadedServerPoolSize()));
     }
 
     private void addHook() {
@@ -115,16 +134,34 @@ public class ThreadedServerWorkflowExecutor extends WorkflowExecutor {
         LOGGER.info("Listening on {}:{}...", bindaddrStr, getBoundPort());
         LOGGER.info("--- use SIGINT to shutdown ---");
 
+        // kill() closes and resets the server socket while we might be waiting for a connection
+        ServerSocket listeningSocket = serverSocket;
         try {
             while (!killed) {
-                Socket socket = serverSocket.accept();
-                this.handleClient(socket);
+                connectionPermits.acquire();
+                Socket socket;
+                try {
+                    socket = listeningSocket.accept();
+                } catch (IOException ex) {
+                    connectionPermits.release();
+                    throw ex;
+                }
+                // Track the socket before the pool can be done with it
                 sockets.add(socket);
+                try {
+                    this.handleClient(socket);
+                } catch (RejectedExecutionException ex) {
+                    LOGGER.warn("Could not handle connection " + socket, ex);
+                    clientDone(socket);
+                }
             }
         } catch (IOException ex) {
             if (!killed) {
                 throw new RuntimeException("Failed to accept connection");
             }
+        } catch (InterruptedException ex) {
+            LOGGER.warn("Interrupted while waiting for a free connection slot");
+            Thread.currentThread().interrupt();
         } finally {
             closeSockets();
             shutdownAndAwaitTermination();
@@ -137,23 +174,64 @@ public class ThreadedServerWorkflowExecutor extends WorkflowExecutor {
         pool.execute(new WorkflowExecutorRunnable(state, socket, this));
     }
 
+    /**
+     * Creates the state for a new connection. If the trace of the server is identical to a trace freshly created from
+     * the configured workflow trace type, the trace is created anew for every connection, which is much cheaper than
+     * copying it via serialization.
+     *
+     * @return A state with its own workflow trace
+     */
+    protected State createConnectionState() {
+        if (createFreshTraces) {
+            return new State(config, createFreshTrace(), createFreshTrace());
+        }
+        return new State(config, state.getWorkflowTraceCopy());
+    }
+
+    private WorkflowTrace createFreshTrace() {
+        WorkflowConfigurationFactory factory = new WorkflowConfigurationFactory(config);
+        return factory.createWorkflowTrace(config.getWorkflowTraceType(), state.getRunningMode());
+    }
+
+    private boolean canCreateFreshTraces() {
+        if (config.getWorkflowTraceType() == null) {
+            return false;
+        }
+        try {
+            WorkflowTrace freshTrace = createFreshTrace();
+            new WorkflowTraceNormalizer().normalize(freshTrace, config, state.getRunningMode());
+            return WorkflowTraceSerializer.write(freshTrace)
+                .equals(WorkflowTraceSerializer.write(state.getWorkflowTrace()));
+        } catch (JAXBException | IOException | RuntimeException ex) {
+            LOGGER.debug("Could not compare the workflow trace to a fresh one, copying it for each connection", ex);
+            return false;
+        }
+    }
+
     public void clientDone(Socket socket) {
         if (socket == null) {
             throw new IllegalArgumentException("socket may not be null");
         }
-        if (!sockets.contains(socket)) {
+        if (!sockets.remove(socket)) {
             throw new IllegalArgumentException("Unknown socket");
         }
+        connectionPermits.release();
         try {
             if (!socket.isClosed()) {
                 socket.close();
             }
-            sockets.remove(socket);
         } catch (IOException e) {
             LOGGER.debug("Failed to close socket " + socket);
         }
     }
 
+    /**
+     * @return The number of connections which are currently handled or waiting for a thread
+     */
+    public int getNumberOfConnections() {
+        return sockets.size();
+    }
+
     private void initialize() {
         LOGGER.info("Initializing server connection end at port " + bindPort);
         if ((serverSocket != null) && (!serverSocket.isClosed())) {
@@ -176,9 +254,14 @@ public class ThreadedServerWorkflowExecutor extends WorkflowExecutor {
     }
 
     private synchronized void closeSockets() {
-        for (Socket s : sockets.toArray(new Socket[] {})) {
+        // The runnables of the connections call clientDone() once their workflow failed on the closed socket
+        for (Socket s : sockets) {
             LOGGER.debug("Closing socket " + s);
-            clientDone(s);
+            try {
+                s.close();
+            } catch (IOException e) {
+                LOGGER.debug("Failed to close socket " + s);
+            }
         }
 
         try {
@@ -134,6 +134,9 @@ public abstract class WorkflowExecutor {
         if (context.getRecordLayerType() == null) {
             throw new ConfigurationException("No record layer type defined");
         }
+        if (context.getRecordLayer() != null) {
+            context.getRecordLayer().closeCompression();
+        }
         context.setRecordLayer(RecordLayerFactory.getRecordLayer(context.getRecordLayerType(), context));
     }
 
@@ -190,6 +193,9 @@ public abstract class WorkflowExecutor {
                 LOGGER.warn("Could not close connection for context " + ctx);
                 LOGGER.debug(ex);
             }
+            if (ctx.getRecordLayer() != null) {
+                ctx.getRecordLayer().closeCompression();
+            }
         }
     }
 
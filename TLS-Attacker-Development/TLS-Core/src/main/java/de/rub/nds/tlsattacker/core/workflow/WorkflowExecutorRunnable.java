@@ -23,8 +23,6 @@ import de.rub.nds.tlsattacker.transport.tcp.ServerTcpTransportHandler;
 
 /**
  * Spawn a new workflow trace for incoming connection.
- *
- * Experimental. Really just a starting point (it works, though ;)
  */
 public class WorkflowExecutorRunnable implements Runnable {
 
@@ -53,21 +51,13 @@ public class WorkflowExecutorRunnable implements Runnable {
 
     protected void runInternal() {
         LOGGER.info("Spawning workflow on socket " + socket);
-        // Currently, WorkflowTraces cannot be copied with external modules
-        // if they define custom actions. This is because copying relies
-        // on serialization, and actions from other packages are unknown
-        // to the WorkflowTrace/JAXB context (sigh).
-        // General problem: external actions cannot be serialized.
-        // This means that currently there are two possibilities:
-        // Either the workflow trace is generated freshly (i.e. from the
-        // factory), or all actions are known to the serialization context.
-        // Future: a proper copy method would be very useful. The two
-        // cases above are both very expensive tasks that should be avoided.
-        WorkflowTrace localTrace = globalState.getWorkflowTraceCopy();
-
+        // The parent creates the trace freshly if it was generated from the
+        // configured workflow trace type. Otherwise, it has to copy it via
+        // serialization, which only works if all actions are known to the
+        // WorkflowTrace/JAXB context and is very expensive.
         // Note that a Config should never be changed by WorkflowTrace
         // execution. Let's hope this is true in practice ;)
-        State state = new State(globalState.getConfig(), localTrace);
+        State state = parent.createConnectionState();
 
         initConnectionForState(state);
         TlsContext serverCtx = state.getInboundTlsContexts().get(0);
@@ -157,7 +157,9 @@ public class WorkflowTrace implements Serializable {
         @XmlElement(type = SendAsciiAction.class, name = "SendAscii"),
         @XmlElement(type = FlushSessionCacheAction.class, name = "FlushSessionCache"),
         @XmlElement(type = GenericReceiveAsciiAction.class, name = "GenericReceiveAscii"),
-        @XmlElement(type = ReceiveAsciiAction.class, name = "ReceiveAscii") })
+        @XmlElement(type = ReceiveAsciiAction.class, name = "ReceiveAscii"),
+        @XmlElement(type = SendBulkApplicationDataAction.class, name = "SendBulkApplicationData"),
+        @XmlElement(type = ReceiveBulkApplicationDataAction.class, name = "ReceiveBulkApplicationData") })
     private List<TlsAction> tlsActions = new ArrayList<>();
 
     private String name = null;
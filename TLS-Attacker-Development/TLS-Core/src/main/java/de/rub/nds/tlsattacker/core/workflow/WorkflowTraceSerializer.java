@@ -51,6 +51,27 @@ public class WorkflowTraceSerializer {
      */
     private static JAXBContext context;
 
+    /**
+     * schema compilation is expensive as well and a compiled schema is thread safe, so it is shared by all threads
+     */
+    private static Schema schema;
+
+    /**
+     * Unmarshallers, transformers and stream factories are not thread safe, but each thread can reuse its own ones
+     */
+    private static final ThreadLocal<Unmarshaller> INSECURE_UNMARSHALLER = new ThreadLocal<>();
+
+    private static final ThreadLocal<Unmarshaller> SECURE_UNMARSHALLER = new ThreadLocal<>();
+
+    private static final ThreadLocal<Transformer> TRANSFORMER = new ThreadLocal<>();
+
+    private static final ThreadLocal<XMLInputFactory> INPUT_FACTORY = ThreadLocal.withInitial(() -> {
+        XMLInputFactory xif = XMLInputFactory.newFactory();
+        xif.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        xif.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        return xif;
+    });
+
     static synchronized JAXBContext getJAXBContext() throws JAXBException, IOException {
         if (context == null) {
             context = JAXBContext.newInstance(WorkflowTrace.class);
@@ -58,6 +79,48 @@ public class WorkflowTraceSerializer {
         return context;
     }
 
+    static synchronized Schema getSchema() throws SAXException {
+        if (schema == null) {
+            String xsd_source = WorkflowTraceSchemaGenerator.AccumulatingSchemaOutputResolver.mapSystemIds();
+            SchemaFactory sf = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+            schema =
+                sf.newSchema(new StreamSource(WorkflowTraceSerializer.class.getResourceAsStream("/" + xsd_source)));
+        }
+        return schema;
+    }
+
+    private static Unmarshaller getUnmarshaller(boolean validating) throws JAXBException, IOException, SAXException {
+        ThreadLocal<Unmarshaller> threadUnmarshaller = validating ? SECURE_UNMARSHALLER : INSECURE_UNMARSHALLER;
+        Unmarshaller unmarshaller = threadUnmarshaller.get();
+        if (unmarshaller == null) {
+            unmarshaller = getJAXBContext().createUnmarshaller();
+            unmarshaller.setEventHandler(new ValidationEventHandler() {
+                @Override
+                public boolean handleEvent(ValidationEvent event) {
+                    // raise an Exception also on Warnings
+                    return false;
+                }
+            });
+            if (validating) {
+                unmarshaller.setSchema(getSchema());
+            }
+            threadUnmarshaller.set(unmarshaller);
+        }
+        return unmarshaller;
+    }
+
+    private static Transformer getTransformer() throws TransformerException {
+        Transformer transformer = TRANSFORMER.get();
+        if (transformer == null) {
+            transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
+            TRANSFORMER.set(transformer);
+        }
+        return transformer;
+    }
+
     /**
      * Writes a WorkflowTrace to a File
      *
@@ -105,13 +168,9 @@ public class WorkflowTraceSerializer {
      *                       If something goes wrong while writing to the stream
      */
     public static void write(OutputStream outputStream, WorkflowTrace workflowTrace) throws JAXBException, IOException {
-        context = getJAXBContext();
         try (ByteArrayOutputStream xmlOutputStream = new ByteArrayOutputStream()) {
-            Transformer transformer = TransformerFactory.newInstance().newTransformer();
-            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
-            transformer.transform(new JAXBSource(context, workflowTrace), new StreamResult(xmlOutputStream));
+            getTransformer().transform(new JAXBSource(getJAXBContext(), workflowTrace),
+                new StreamResult(xmlOutputStream));
 
             String xml_text = xmlOutputStream.toString();
             // and we modify all line separators to the system dependant line separator
@@ -137,22 +196,14 @@ public class WorkflowTraceSerializer {
      */
     public static WorkflowTrace insecureRead(InputStream inputStream)
         throws JAXBException, IOException, XMLStreamException {
-        context = getJAXBContext();
-        Unmarshaller unmarshaller = context.createUnmarshaller();
-        unmarshaller.setEventHandler(new ValidationEventHandler() {
-            @Override
-            public boolean handleEvent(ValidationEvent event) {
-                // raise an Exception also on Warnings
-                return false;
-            }
-        });
-        XMLInputFactory xif = XMLInputFactory.newFactory();
-        xif.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
-        xif.setProperty(XMLInputFactory.SUPPORT_DTD, false);
-        XMLStreamReader xsr = xif.createXMLStreamReader(inputStream);
-        WorkflowTrace wt = (WorkflowTrace) unmarshaller.unmarshal(xsr);
-        inputStream.close();
-        return wt;
+        try {
+            XMLStreamReader xsr = INPUT_FACTORY.get().createXMLStreamReader(inputStream);
+            WorkflowTrace wt = (WorkflowTrace) getUnmarshaller(false).unmarshal(xsr);
+            inputStream.close();
+            return wt;
+        } catch (SAXException ex) {
+            throw new RuntimeException(ex);
+        }
     }
 
     /**
@@ -201,28 +252,8 @@ public class WorkflowTraceSerializer {
     public static WorkflowTrace secureRead(InputStream inputStream)
         throws JAXBException, IOException, XMLStreamException {
         try {
-            context = getJAXBContext();
-            Unmarshaller unmarshaller = context.createUnmarshaller();
-
-            unmarshaller.setEventHandler(new ValidationEventHandler() {
-                @Override
-                public boolean handleEvent(ValidationEvent event) {
-                    // raise an Exception also on Warnings
-                    return false;
-                }
-            });
-
-            String xsd_source = WorkflowTraceSchemaGenerator.AccumulatingSchemaOutputResolver.mapSystemIds();
-            XMLInputFactory xif = XMLInputFactory.newFactory();
-            xif.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
-            xif.setProperty(XMLInputFactory.SUPPORT_DTD, false);
-            XMLStreamReader xsr = xif.createXMLStreamReader(inputStream);
-            SchemaFactory sf = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            Schema workflowTraceSchema =
-                sf.newSchema(new StreamSource(WorkflowTraceSerializer.class.getResourceAsStream("/" + xsd_source)));
-            workflowTraceSchema.newValidator();
-            unmarshaller.setSchema(workflowTraceSchema);
-            WorkflowTrace wt = (WorkflowTrace) unmarshaller.unmarshal(xsr);
+            XMLStreamReader xsr = INPUT_FACTORY.get().createXMLStreamReader(inputStream);
+            WorkflowTrace wt = (WorkflowTrace) getUnmarshaller(true).unmarshal(xsr);
             inputStream.close();
             return wt;
         } catch (SAXException ex) {
@@ -0,0 +1,154 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.core.workflow.action;
+
+import de.rub.nds.tlsattacker.core.exceptions.WorkflowExecutionException;
+import de.rub.nds.tlsattacker.core.state.TlsContext;
+import de.rub.nds.tlsattacker.core.workflow.action.executor.ApplicationDataStatistics;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import javax.xml.bind.annotation.XmlTransient;
+
+/**
+ * Streams application data over an established connection without modeling the data as ApplicationMessages. The records
+ * are neither added to the workflow trace nor to the digest, only the throughput and the latency of the single
+ * operations are collected. The transfer ends as soon as one of the limits is reached.
+ */
+public abstract class BulkApplicationDataAction extends ConnectionBoundAction {
+
+    /**
+     * The number of application data bytes to transfer, null or 0 for no limit
+     */
+    private Long length = null;
+
+    /**
+     * The time in milliseconds to transfer application data, null or 0 for no limit
+     */
+    private Long duration = null;
+
+    @XmlTransient
+    protected ApplicationDataStatistics statistics = null;
+
+    @XmlTransient
+    protected Boolean executedAsPlanned = null;
+
+    protected BulkApplicationDataAction() {
+    }
+
+    public BulkApplicationDataAction(String alias, Long length, Long duration) {
+        super(alias);
+        this.length = length;
+        this.duration = duration;
+    }
+
+    public Long getLength() {
+        return length;
+    }
+
+    public void setLength(Long length) {
+        this.length = length;
+    }
+
+    public Long getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Long duration) {
+        this.duration = duration;
+    }
+
+    /**
+     * @return The statistics of the last execution, null if the action was not executed
+     */
+    public ApplicationDataStatistics getStatistics() {
+        return statistics;
+    }
+
+    protected boolean hasLengthLimit() {
+        return length != null && length > 0;
+    }
+
+    protected boolean hasDurationLimit() {
+        return duration != null && duration > 0;
+    }
+
+    /**
+     * @return The point in time given by System.nanoTime() at which the transfer has to stop
+     */
+    protected long getDeadline() {
+        if (!hasDurationLimit()) {
+            return Long.MAX_VALUE;
+        }
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(duration);
+    }
+
+    /**
+     * @param  transferredBytes
+     *                          The application data bytes transferred so far
+     * @param  deadline
+     *                          The deadline returned by getDeadline()
+     * @return                  The number of bytes which may still be transferred, Long.MAX_VALUE if there is no length
+     *                          limit, 0 if one of the limits is reached
+     */
+    protected long getRemainingBytes(long transferredBytes, long deadline) {
+        if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0) {
+            return 0;
+        }
+        if (!hasLengthLimit()) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, length - transferredBytes);
+    }
+
+    /**
+     * An unlimited transfer would never end, so at least one limit has to be set. Records are sent and received in
+     * batches, which is only possible on a stream transport.
+     */
+    protected void assertTransferPossible(TlsContext tlsContext) throws WorkflowExecutionException {
+        if (!hasLengthLimit() && !hasDurationLimit()) {
+            throw new WorkflowExecutionException(getClass().getSimpleName() + " requires a length or a duration");
+        }
+        if (tlsContext.getChooser().getSelectedProtocolVersion().isDTLS()) {
+            throw new WorkflowExecutionException(getClass().getSimpleName() + " does not support DTLS");
+        }
+    }
+
+    @Override
+    public void reset() {
+        statistics = null;
+        executedAsPlanned = null;
+        setExecuted(null);
+    }
+
+    @Override
+    public boolean executedAsPlanned() {
+        return isExecuted() && Objects.equals(executedAsPlanned, Boolean.TRUE);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = super.hashCode();
+        hash = 47 * hash + Objects.hashCode(this.length);
+        hash = 47 * hash + Objects.hashCode(this.duration);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!super.equals(obj)) {
+            return false;
+        }
+        final BulkApplicationDataAction other = (BulkApplicationDataAction) obj;
+        if (!Objects.equals(this.length, other.length)) {
+            return false;
+        }
+        return Objects.equals(this.duration, other.duration);
+    }
+}
@@ -10,8 +10,10 @@
 package de.rub.nds.tlsattacker.core.workflow.action;
 
 import de.rub.nds.modifiablevariable.HoldsModifiableVariable;
+import de.rub.nds.modifiablevariable.util.ArrayConverter;
 import de.rub.nds.tlsattacker.core.constants.HandshakeMessageType;
 import de.rub.nds.tlsattacker.core.constants.ProtocolMessageType;
+import de.rub.nds.tlsattacker.core.constants.RecordByteLength;
 import de.rub.nds.tlsattacker.core.exceptions.ConfigurationException;
 import de.rub.nds.tlsattacker.core.exceptions.WorkflowExecutionException;
 import de.rub.nds.tlsattacker.core.https.HttpsRequestMessage;
@@ -22,11 +24,16 @@ import de.rub.nds.tlsattacker.core.protocol.message.*;
 import de.rub.nds.tlsattacker.core.record.AbstractRecord;
 import de.rub.nds.tlsattacker.core.record.BlobRecord;
 import de.rub.nds.tlsattacker.core.record.Record;
+import de.rub.nds.tlsattacker.core.record.cipher.CipherState;
+import de.rub.nds.tlsattacker.core.record.cipher.RecordCipher;
+import de.rub.nds.tlsattacker.core.record.cipher.RecordNullCipher;
+import de.rub.nds.tlsattacker.core.record.cipher.cryptohelper.KeySet;
 import de.rub.nds.tlsattacker.core.state.State;
 import de.rub.nds.tlsattacker.core.state.TlsContext;
 import de.rub.nds.tlsattacker.core.workflow.action.executor.MessageActionResult;
 import de.rub.nds.tlsattacker.core.workflow.action.executor.ReceiveMessageHelper;
 import de.rub.nds.tlsattacker.core.workflow.action.executor.SendMessageHelper;
+import de.rub.nds.tlsattacker.transport.ConnectionEndType;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -48,6 +55,9 @@ public class ForwardMessagesAction extends TlsAction implements ReceivingAction,
 
     private static final Logger LOGGER = LogManager.getLogger();
 
+    private static final int RECORD_HEADER_LENGTH =
+        RecordByteLength.CONTENT_TYPE + RecordByteLength.PROTOCOL_VERSION + RecordByteLength.RECORD_LENGTH;
+
     @XmlElement(name = "from")
     protected String receiveFromAlias = null;
     @XmlElement(name = "to")
@@ -110,6 +120,20 @@ public class ForwardMessagesAction extends TlsAction implements ReceivingAction,
     @XmlElements(value = { @XmlElement(type = DtlsHandshakeMessageFragment.class, name = "DtlsFragment") })
     protected List<DtlsHandshakeMessageFragment> sendFragments;
 
+    /**
+     * If set, only records of these content types are parsed into messages and forwarded through the regular message
+     * path. Records of all other types are passed through verbatim, as long as both contexts use the same record
+     * protection. Passed records neither appear in the received messages nor adjust the contexts, apart from the
+     * sequence numbers. If handshake records are inspected, ChangeCipherSpec records are inspected as well, as they
+     * activate the keys negotiated in the inspected handshake.
+     */
+    @XmlElementWrapper
+    @XmlElement(name = "type")
+    protected List<ProtocolMessageType> inspectedTypes = null;
+
+    @XmlTransient
+    protected long passedThroughRecords = 0;
+
     @XmlTransient
     protected ReceiveMessageHelper receiveMessageHelper;
 
@@ -167,6 +191,10 @@ public class ForwardMessagesAction extends TlsAction implements ReceivingAction,
         TlsContext receiveFromCtx = state.getTlsContext(receiveFromAlias);
         TlsContext forwardToCtx = state.getTlsContext(forwardToAlias);
 
+        if (inspectedTypes != null && !receiveFromCtx.getChooser().getSelectedProtocolVersion().isDTLS()) {
+            passThroughMessages(receiveFromCtx, forwardToCtx);
+            return;
+        }
         receiveMessages(receiveFromCtx);
         applyMessages(forwardToCtx);
         forwardMessages(forwardToCtx);
@@ -195,7 +223,11 @@ public class ForwardMessagesAction extends TlsAction implements ReceivingAction,
      * @param tlsContext
      */
     private void applyMessages(TlsContext ctx) {
-        for (ProtocolMessage msg : receivedMessages) {
+        applyMessages(receivedMessages, ctx);
+    }
+
+    private void applyMessages(List<ProtocolMessage> messages, TlsContext ctx) {
+        for (ProtocolMessage msg : messages) {
             LOGGER.debug("Applying " + msg.toCompactString() + " to forward context " + ctx);
             ProtocolMessageHandler<ProtocolMessage> h = msg.getHandler(ctx);
             h.adjustContext(msg);
@@ -223,6 +255,208 @@ public class ForwardMessagesAction extends TlsAction implements ReceivingAction,
         }
     }
 
+    /**
+     * Forwards the received bytes record by record. Records which are not inspected are sent on as they were received,
+     * inspected records are parsed, applied and sent like in the regular message path.
+     */
+    private void passThroughMessages(TlsContext receiveFromCtx, TlsContext forwardToCtx) {
+        receivedMessages = new ArrayList<>();
+        receivedRecords = new ArrayList<>();
+        receivedFragments = new ArrayList<>();
+        sendMessages = new ArrayList<>();
+        sendRecords = new ArrayList<>();
+        sendFragments = new ArrayList<>();
+        passedThroughRecords = 0;
+        receiveFromCtx.setTalkingConnectionEndType(receiveFromCtx.getChooser().getMyConnectionPeer());
+        List<ProtocolMessage> expectedMessages = getInspectedMessages(messages);
+        boolean quickReceive = receiveFromCtx.getConfig().isQuickReceive() && !expectedMessages.isEmpty();
+        try {
+            byte[] carry = new byte[0];
+            int missingRecordBytes = 0;
+            int receivedBytesLength = 0;
+            boolean shouldContinue = true;
+            byte[] receivedBytes;
+            do {
+                receivedBytes = receiveFromCtx.getTransportHandler().fetchData();
+                receivedBytesLength += receivedBytes.length;
+                byte[] data = carry.length == 0 ? receivedBytes : ArrayConverter.concatenate(carry, receivedBytes);
+                carry = new byte[0];
+                // the remainder of a record which was passed through with the previous bytes
+                int pointer = Math.min(missingRecordBytes, data.length);
+                missingRecordBytes -= pointer;
+                if (pointer > 0) {
+                    sendVerbatim(data, 0, pointer, forwardToCtx);
+                }
+                while (pointer < data.length) {
+                    int passedEnd = findEndOfPassedRecords(data, pointer, receiveFromCtx, forwardToCtx);
+                    if (passedEnd > data.length) {
+                        missingRecordBytes = passedEnd - data.length;
+                        passedEnd = data.length;
+                    }
+                    if (passedEnd > pointer) {
+                        sendVerbatim(data, pointer, passedEnd, forwardToCtx);
+                        pointer = passedEnd;
+                        continue;
+                    }
+                    int inspectedEnd = findEndOfInspectedRecords(data, pointer, receiveFromCtx, forwardToCtx);
+                    if (inspectedEnd == pointer) {
+                        // wait for the rest of the record header or the inspected record
+                        carry = Arrays.copyOfRange(data, pointer, data.length);
+                        break;
+                    }
+                    forwardInspected(Arrays.copyOfRange(data, pointer, inspectedEnd), receiveFromCtx, forwardToCtx);
+                    pointer = inspectedEnd;
+                }
+                // like the regular receive, stop as soon as the expected messages arrived, but never within a record
+                if (quickReceive && carry.length == 0 && missingRecordBytes == 0) {
+                    shouldContinue = receiveMessageHelper.testIfWeShouldContinueToReceive(expectedMessages,
+                        receivedMessages, receiveFromCtx);
+                }
+                if (receivedBytesLength >= receiveFromCtx.getConfig().getReceiveMaximumBytes()) {
+                    shouldContinue = false;
+                }
+            } while (receivedBytes.length != 0 && shouldContinue);
+            if (carry.length > 0) {
+                if (isParsed(carry, 0, receiveFromCtx, forwardToCtx)) {
+                    forwardInspected(carry, receiveFromCtx, forwardToCtx);
+                } else {
+                    sendVerbatim(carry, 0, carry.length, forwardToCtx);
+                }
+            }
+            LOGGER.info("Passed " + passedThroughRecords + " records through (" + receiveFromAlias + " -> "
+                + forwardToAlias + "), forwarded inspected messages: " + getReadableString(receivedMessages));
+            executedAsPlanned = checkMessageListsEquals(expectedMessages, receivedMessages);
+            setExecuted(true);
+        } catch (IOException e) {
+            LOGGER.debug(e);
+            receiveFromCtx.setReceivedTransportHandlerException(true);
+            executedAsPlanned = false;
+            setExecuted(false);
+        }
+    }
+
+    /**
+     * @return the index after the records starting at the pointer which can be passed through, this may be beyond the
+     *         data if the last record is incomplete
+     */
+    private int findEndOfPassedRecords(byte[] data, int pointer, TlsContext receiveFromCtx, TlsContext forwardToCtx) {
+        while (!isParsed(data, pointer, receiveFromCtx, forwardToCtx)) {
+            receiveFromCtx.getRecordLayer().getDecryptorCipher().getState().increaseReadSequenceNumber();
+            forwardToCtx.getRecordLayer().getEncryptorCipher().getState().increaseWriteSequenceNumber();
+            passedThroughRecords++;
+            pointer += RECORD_HEADER_LENGTH + getRecordLength(data, pointer);
+        }
+        return pointer;
+    }
+
+    /**
+     * @return the index after the complete records starting at the pointer which have to be parsed
+     */
+    private int findEndOfInspectedRecords(byte[] data, int pointer, TlsContext receiveFromCtx,
+        TlsContext forwardToCtx) {
+        while (data.length - pointer >= RECORD_HEADER_LENGTH && isParsed(data, pointer, receiveFromCtx, forwardToCtx)) {
+            int recordEnd = pointer + RECORD_HEADER_LENGTH + getRecordLength(data, pointer);
+            if (recordEnd > data.length) {
+                break;
+            }
+            pointer = recordEnd;
+        }
+        return pointer;
+    }
+
+    private void forwardInspected(byte[] recordBytes, TlsContext receiveFromCtx, TlsContext forwardToCtx)
+        throws IOException {
+        MessageActionResult result = receiveMessageHelper.handleReceivedBytes(recordBytes, receiveFromCtx);
+        receivedRecords.addAll(result.getRecordList());
+        receivedMessages.addAll(result.getMessageList());
+        List<DtlsHandshakeMessageFragment> fragments =
+            result.getMessageFragmentList() == null ? null : new ArrayList<>(result.getMessageFragmentList());
+        applyMessages(result.getMessageList(), forwardToCtx);
+        MessageActionResult sendResult = sendMessageHelper.sendMessages(result.getMessageList(), fragments,
+            result.getRecordList(), forwardToCtx, withPrepare);
+        sendMessages.addAll(sendResult.getMessageList());
+        sendRecords.addAll(sendResult.getRecordList());
+        if (sendResult.getMessageFragmentList() != null) {
+            sendFragments.addAll(sendResult.getMessageFragmentList());
+        }
+    }
+
+    private void sendVerbatim(byte[] data, int start, int end, TlsContext forwardToCtx) throws IOException {
+        forwardToCtx.setTalkingConnectionEndType(forwardToCtx.getChooser().getConnectionEndType());
+        if (start == 0 && end == data.length) {
+            forwardToCtx.getTransportHandler().sendData(data);
+        } else {
+            forwardToCtx.getTransportHandler().sendData(Arrays.copyOfRange(data, start, end));
+        }
+    }
+
+    /**
+     * Incomplete record headers, records of inspected or unknown content types and records the other side could not
+     * decrypt as they are go through the regular message path
+     */
+    private boolean isParsed(byte[] data, int pointer, TlsContext receiveFromCtx, TlsContext forwardToCtx) {
+        if (data.length - pointer < RECORD_HEADER_LENGTH) {
+            return true;
+        }
+        ProtocolMessageType type = ProtocolMessageType.getContentType(data[pointer]);
+        return type == null || isInspected(type) || !hasMatchingRecordProtection(receiveFromCtx, forwardToCtx);
+    }
+
+    /**
+     * A ChangeCipherSpec switches both contexts to the keys of the handshake. If the handshake is inspected, the two
+     * legs negotiate different keys, so the ChangeCipherSpec has to be applied to both contexts as well.
+     */
+    private boolean isInspected(ProtocolMessageType type) {
+        return inspectedTypes.contains(type) || (type == ProtocolMessageType.CHANGE_CIPHER_SPEC
+            && inspectedTypes.contains(ProtocolMessageType.HANDSHAKE));
+    }
+
+    private static int getRecordLength(byte[] data, int pointer) {
+        int lengthOffset = pointer + RecordByteLength.CONTENT_TYPE + RecordByteLength.PROTOCOL_VERSION;
+        return ((data[lengthOffset] & 0xFF) << 8) | (data[lengthOffset + 1] & 0xFF);
+    }
+
+    /**
+     * Records can only be passed through if the sender encrypted them exactly as the receiver on the other side expects
+     * them, i.e. both contexts do not protect records yet or share the keys.
+     */
+    private boolean hasMatchingRecordProtection(TlsContext receiveFromCtx, TlsContext forwardToCtx) {
+        RecordCipher readCipher = receiveFromCtx.getRecordLayer().getDecryptorCipher();
+        RecordCipher writeCipher = forwardToCtx.getRecordLayer().getEncryptorCipher();
+        if (readCipher.getClass() != writeCipher.getClass()) {
+            return false;
+        }
+        if (readCipher instanceof RecordNullCipher) {
+            return true;
+        }
+        CipherState readState = readCipher.getState();
+        CipherState writeState = writeCipher.getState();
+        KeySet readKeys = readState.getKeySet();
+        KeySet writeKeys = writeState.getKeySet();
+        if (readKeys == null || writeKeys == null || readState.getCipherSuite() != writeState.getCipherSuite()
+            || readState.getReadSequenceNumber() != writeState.getWriteSequenceNumber()) {
+            return false;
+        }
+        ConnectionEndType receivingEnd = receiveFromCtx.getChooser().getConnectionEndType();
+        ConnectionEndType sendingEnd = forwardToCtx.getChooser().getConnectionEndType();
+        return Arrays.equals(readKeys.getReadKey(receivingEnd), writeKeys.getWriteKey(sendingEnd))
+            && Arrays.equals(readKeys.getReadMacSecret(receivingEnd), writeKeys.getWriteMacSecret(sendingEnd))
+            && Arrays.equals(readKeys.getReadIv(receivingEnd), writeKeys.getWriteIv(sendingEnd));
+    }
+
+    private List<ProtocolMessage> getInspectedMessages(List<ProtocolMessage> messages) {
+        List<ProtocolMessage> inspectedMessages = new ArrayList<>();
+        if (messages == null) {
+            return inspectedMessages;
+        }
+        for (ProtocolMessage message : messages) {
+            if (!(message instanceof TlsMessage) || isInspected(((TlsMessage) message).getProtocolMessageType())) {
+                inspectedMessages.add(message);
+            }
+        }
+        return inspectedMessages;
+    }
+
     public String getReceiveFromAlias() {
         return receiveFromAlias;
     }
@@ -274,6 +508,7 @@ public class ForwardMessagesAction extends TlsAction implements ReceivingAction,
         sendMessages = null;
         sendRecords = null;
         sendFragments = null;
+        passedThroughRecords = 0;
         executedAsPlanned = false;
         setExecuted(null);
     }
@@ -312,6 +547,31 @@ public class ForwardMessagesAction extends TlsAction implements ReceivingAction,
         return messages;
     }
 
+    public List<ProtocolMessageType> getInspectedTypes() {
+        return inspectedTypes;
+    }
+
+    /**
+     * @param inspectedTypes
+     *                       The content types of the records which are parsed, all other records are passed through
+     *                       verbatim. Null parses all records. ChangeCipherSpec records are always parsed if handshake
+     *                       records are.
+     */
+    public void setInspectedTypes(List<ProtocolMessageType> inspectedTypes) {
+        this.inspectedTypes = inspectedTypes;
+    }
+
+    public void setInspectedTypes(ProtocolMessageType... inspectedTypes) {
+        this.inspectedTypes = new ArrayList<>(Arrays.asList(inspectedTypes));
+    }
+
+    /**
+     * @return The number of records which were passed through verbatim in the last execution
+     */
+    public long getPassedThroughRecords() {
+        return passedThroughRecords;
+    }
+
     public void setMessages(List<ProtocolMessage> messages) {
         this.messages = messages;
     }
@@ -334,6 +594,7 @@ public class ForwardMessagesAction extends TlsAction implements ReceivingAction,
         hash = 89 * hash + Objects.hashCode(this.messages);
         hash = 89 * hash + Objects.hashCode(this.records);
         hash = 89 * hash + Objects.hashCode(this.fragments);
+        hash = 89 * hash + Objects.hashCode(this.inspectedTypes);
         return hash;
     }
 
@@ -383,6 +644,9 @@ public class ForwardMessagesAction extends TlsAction implements ReceivingAction,
         if (!checkMessageListsEquals(this.messages, other.messages)) {
             return false;
         }
+        if (!Objects.equals(this.inspectedTypes, other.inspectedTypes)) {
+            return false;
+        }
         return Objects.equals(this.records, other.records);
     }
 
@@ -0,0 +1,124 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.core.workflow.action;
+
+import de.rub.nds.modifiablevariable.util.ArrayConverter;
+import de.rub.nds.tlsattacker.core.constants.ProtocolMessageType;
+import de.rub.nds.tlsattacker.core.constants.RecordByteLength;
+import de.rub.nds.tlsattacker.core.exceptions.ParserException;
+import de.rub.nds.tlsattacker.core.exceptions.WorkflowExecutionException;
+import de.rub.nds.tlsattacker.core.record.AbstractRecord;
+import de.rub.nds.tlsattacker.core.record.layer.RecordLayer;
+import de.rub.nds.tlsattacker.core.state.State;
+import de.rub.nds.tlsattacker.core.state.TlsContext;
+import de.rub.nds.tlsattacker.core.workflow.action.executor.ActionOption;
+import de.rub.nds.tlsattacker.core.workflow.action.executor.ApplicationDataStatistics;
+import java.io.IOException;
+import java.util.Arrays;
+import javax.xml.bind.annotation.XmlRootElement;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Receives and decrypts application data until the length or the duration is reached, the peer stops sending or closes
+ * the connection with an alert. Each receive operation parses and decrypts all complete records fetched at once.
+ */
+@XmlRootElement
+public class ReceiveBulkApplicationDataAction extends BulkApplicationDataAction {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final int RECORD_HEADER_LENGTH =
+        RecordByteLength.CONTENT_TYPE + RecordByteLength.PROTOCOL_VERSION + RecordByteLength.RECORD_LENGTH;
+
+    public ReceiveBulkApplicationDataAction() {
+    }
+
+    public ReceiveBulkApplicationDataAction(Long length, Long duration) {
+        this(null, length, duration);
+    }
+
+    public ReceiveBulkApplicationDataAction(String alias, Long length, Long duration) {
+        super(alias, length, duration);
+    }
+
+    @Override
+    public void execute(State state) throws WorkflowExecutionException {
+        TlsContext tlsContext = state.getTlsContext(getConnectionAlias());
+
+        if (isExecuted()) {
+            throw new WorkflowExecutionException("Action already executed!");
+        }
+        assertTransferPossible(tlsContext);
+
+        RecordLayer recordLayer = tlsContext.getRecordLayer();
+        statistics = new ApplicationDataStatistics();
+        tlsContext.setTalkingConnectionEndType(tlsContext.getChooser().getMyConnectionPeer());
+        long deadline = getDeadline();
+        boolean closed = false;
+        statistics.start();
+        try {
+            byte[] pending = new byte[0];
+            while (!closed && getRemainingBytes(statistics.getBytes(), deadline) > 0) {
+                byte[] fetched = tlsContext.getTransportHandler().fetchData();
+                if (fetched.length == 0) {
+                    LOGGER.debug("Peer stopped sending application data");
+                    break;
+                }
+                long start = System.nanoTime();
+                byte[] data = pending.length == 0 ? fetched : ArrayConverter.concatenate(pending, fetched);
+                int end = findEndOfCompleteRecords(data);
+                pending = Arrays.copyOfRange(data, end, data.length);
+                if (end == 0) {
+                    continue;
+                }
+                long applicationDataBytes = 0;
+                for (AbstractRecord record : recordLayer.parseRecords(Arrays.copyOf(data, end))) {
+                    recordLayer.decryptAndDecompressRecord(record);
+                    if (record.getContentMessageType() == ProtocolMessageType.APPLICATION_DATA) {
+                        applicationDataBytes += record.getCleanProtocolMessageBytes().getValue().length;
+                    } else if (record.getContentMessageType() == ProtocolMessageType.ALERT) {
+                        LOGGER.debug("Peer sent an alert, stopping to receive application data");
+                        closed = true;
+                    } else {
+                        LOGGER.debug("Ignoring record of type " + record.getContentMessageType());
+                    }
+                }
+                statistics.addSample(System.nanoTime() - start, applicationDataBytes);
+            }
+            statistics.stop();
+            executedAsPlanned = !hasLengthLimit() || statistics.getBytes() >= getLength();
+            setExecuted(true);
+        } catch (IOException | ParserException e) {
+            statistics.stop();
+            LOGGER.debug(e);
+            executedAsPlanned = false;
+            setExecuted(getActionOptions().contains(ActionOption.MAY_FAIL));
+        }
+        LOGGER.info("Received " + statistics);
+    }
+
+    /**
+     * @return The index after the last complete record in the data
+     */
+    private static int findEndOfCompleteRecords(byte[] data) {
+        int pointer = 0;
+        while (data.length - pointer >= RECORD_HEADER_LENGTH) {
+            int lengthOffset = pointer + RecordByteLength.CONTENT_TYPE + RecordByteLength.PROTOCOL_VERSION;
+            int recordEnd =
+                pointer + RECORD_HEADER_LENGTH + (((data[lengthOffset] & 0xFF) << 8) | (data[lengthOffset + 1] & 0xFF));
+            if (recordEnd > data.length) {
+                break;
+            }
+            pointer = recordEnd;
+        }
+        return pointer;
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.core.workflow.action;
+
+import de.rub.nds.tlsattacker.core.constants.ProtocolMessageType;
+import de.rub.nds.tlsattacker.core.exceptions.WorkflowExecutionException;
+import de.rub.nds.tlsattacker.core.record.AbstractRecord;
+import de.rub.nds.tlsattacker.core.record.layer.RecordLayer;
+import de.rub.nds.tlsattacker.core.state.State;
+import de.rub.nds.tlsattacker.core.state.TlsContext;
+import de.rub.nds.tlsattacker.core.workflow.action.executor.ActionOption;
+import de.rub.nds.tlsattacker.core.workflow.action.executor.ApplicationDataStatistics;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.xml.bind.annotation.XmlRootElement;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Sends application data in full records until the length or the duration is reached. Each send operation encrypts a
+ * batch of records, the plaintext and the records are reused for all batches.
+ */
+@XmlRootElement
+public class SendBulkApplicationDataAction extends BulkApplicationDataAction {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * The number of records which are encrypted and handed to the transport handler at once
+     */
+    private static final int RECORDS_PER_SEND = 16;
+
+    public SendBulkApplicationDataAction() {
+    }
+
+    public SendBulkApplicationDataAction(Long length, Long duration) {
+        this(null, length, duration);
+    }
+
+    public SendBulkApplicationDataAction(String alias, Long length, Long duration) {
+        super(alias, length, duration);
+    }
+
+    @Override
+    public void execute(State state) throws WorkflowExecutionException {
+        TlsContext tlsContext = state.getTlsContext(getConnectionAlias());
+
+        if (isExecuted()) {
+            throw new WorkflowExecutionException("Action already executed!");
+        }
+        assertTransferPossible(tlsContext);
+
+        RecordLayer recordLayer = tlsContext.getRecordLayer();
+        int recordSize = tlsContext.getChooser().getOutboundMaxRecordDataSize();
+        byte[] data = new byte[recordSize * RECORDS_PER_SEND];
+        tlsContext.getRandom().nextBytes(data);
+        List<AbstractRecord> records = new ArrayList<>(RECORDS_PER_SEND);
+        for (int i = 0; i < RECORDS_PER_SEND; i++) {
+            records.add(recordLayer.getFreshRecord());
+        }
+
+        statistics = new ApplicationDataStatistics();
+        tlsContext.setTalkingConnectionEndType(tlsContext.getChooser().getConnectionEndType());
+        long deadline = getDeadline();
+        statistics.start();
+        try {
+            long remaining;
+            while ((remaining = getRemainingBytes(statistics.getBytes(), deadline)) > 0) {
+                byte[] plaintext = data;
+                List<AbstractRecord> usedRecords = records;
+                if (remaining < data.length) {
+                    plaintext = Arrays.copyOf(data, (int) remaining);
+                    usedRecords = records.subList(0, (plaintext.length + recordSize - 1) / recordSize);
+                }
+                long start = System.nanoTime();
+                byte[] recordBytes =
+                    recordLayer.prepareRecords(plaintext, ProtocolMessageType.APPLICATION_DATA, usedRecords);
+                tlsContext.getTransportHandler().sendData(recordBytes);
+                statistics.addSample(System.nanoTime() - start, plaintext.length);
+            }
+            statistics.stop();
+            executedAsPlanned = true;
+            setExecuted(true);
+        } catch (IOException e) {
+            statistics.stop();
+            LOGGER.debug(e);
+            executedAsPlanned = false;
+            setExecuted(getActionOptions().contains(ActionOption.MAY_FAIL));
+        }
+        LOGGER.info("Sent " + statistics);
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.core.workflow.action.executor;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the transferred bytes and the latency of each send or receive operation of a bulk application data transfer.
+ * The latencies are kept in a primitive array, so that recording a sample does not allocate.
+ */
+public class ApplicationDataStatistics {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] latencies = new long[INITIAL_CAPACITY];
+
+    private long[] sortedLatencies = null;
+
+    private int samples = 0;
+
+    private long bytes = 0;
+
+    private long startNanos = 0;
+
+    private long endNanos = 0;
+
+    public ApplicationDataStatistics() {
+    }
+
+    public void start() {
+        startNanos = System.nanoTime();
+        endNanos = startNanos;
+    }
+
+    public void stop() {
+        endNanos = System.nanoTime();
+    }
+
+    /**
+     * @param latencyNanos
+     *                     The time the operation took in nanoseconds
+     * @param bytes
+     *                     The number of application data bytes transferred by the operation
+     */
+    public void addSample(long latencyNanos, long bytes) {
+        if (samples == latencies.length) {
+            latencies = Arrays.copyOf(latencies, samples * 2);
+        }
+        latencies[samples++] = latencyNanos;
+        this.bytes += bytes;
+        sortedLatencies = null;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    public long getDurationNanos() {
+        return endNanos - startNanos;
+    }
+
+    /**
+     * @return The transferred bytes per second between start and stop
+     */
+    public double getThroughput() {
+        long duration = getDurationNanos();
+        if (duration <= 0) {
+            return 0;
+        }
+        return bytes * (double) TimeUnit.SECONDS.toNanos(1) / duration;
+    }
+
+    /**
+     * @param  percentile
+     *                    The percentile between 0 and 100
+     * @return            The latency in nanoseconds which the given percentage of the samples did not exceed, using the
+     *                    nearest rank. 0 if there are no samples.
+     */
+    public long getLatencyPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100, but was " + percentile);
+        }
+        if (samples == 0) {
+            return 0;
+        }
+        if (sortedLatencies == null) {
+            sortedLatencies = Arrays.copyOf(latencies, samples);
+            Arrays.sort(sortedLatencies);
+        }
+        int rank = (int) Math.ceil(percentile / 100 * samples);
+        return sortedLatencies[Math.max(0, rank - 1)];
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d bytes in %d ms (%.2f MB/s), latency over %d operations: p50=%d us, p90=%d us, p99=%d us, max=%d us",
+            bytes, TimeUnit.NANOSECONDS.toMillis(getDurationNanos()), getThroughput() / 1000000, samples,
+            toMicros(getLatencyPercentile(50)), toMicros(getLatencyPercentile(90)), toMicros(getLatencyPercentile(99)),
+            toMicros(getLatencyPercentile(100)));
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -314,7 +314,17 @@ public class ReceiveMessageHelper {
         return true;
     }
 
-    private boolean testIfWeShouldContinueToReceive(List<ProtocolMessage> expectedMessages,
+    /**
+     * @param  expectedMessages
+     *                          The messages which are expected to arrive
+     * @param  receivedMessages
+     *                          The messages received so far
+     * @param  context
+     *                          The context of the receiving connection
+     * @return                  False if receiving can stop, because the expected messages or an alert which ends the
+     *                          receiving arrived
+     */
+    public boolean testIfWeShouldContinueToReceive(List<ProtocolMessage> expectedMessages,
         List<ProtocolMessage> receivedMessages, TlsContext context) {
 
         boolean receivedFatalAlert = testIfReceivedFatalAlert(receivedMessages);
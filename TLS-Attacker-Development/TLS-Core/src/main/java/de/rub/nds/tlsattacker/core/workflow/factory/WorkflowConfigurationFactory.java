@@ -86,12 +86,14 @@ import de.rub.nds.tlsattacker.core.workflow.action.PopBuffersAction;
 import de.rub.nds.tlsattacker.core.workflow.action.PrintLastHandledApplicationDataAction;
 import de.rub.nds.tlsattacker.core.workflow.action.PrintSecretsAction;
 import de.rub.nds.tlsattacker.core.workflow.action.ReceiveAction;
+import de.rub.nds.tlsattacker.core.workflow.action.ReceiveBulkApplicationDataAction;
 import de.rub.nds.tlsattacker.core.workflow.action.ReceiveTillAction;
 import de.rub.nds.tlsattacker.core.workflow.action.RemBufferedChCiphersAction;
 import de.rub.nds.tlsattacker.core.workflow.action.RemBufferedChExtensionsAction;
 import de.rub.nds.tlsattacker.core.workflow.action.RenegotiationAction;
 import de.rub.nds.tlsattacker.core.workflow.action.ResetConnectionAction;
 import de.rub.nds.tlsattacker.core.workflow.action.SendAction;
+import de.rub.nds.tlsattacker.core.workflow.action.SendBulkApplicationDataAction;
 import de.rub.nds.tlsattacker.core.workflow.action.SendDynamicClientKeyExchangeAction;
 import de.rub.nds.tlsattacker.core.workflow.action.SendDynamicServerCertificateAction;
 import de.rub.nds.tlsattacker.core.workflow.action.SendDynamicServerKeyExchangeAction;
@@ -166,6 +168,8 @@ public class WorkflowConfigurationFactory {
                 return createDynamicHelloWorkflow();
             case DYNAMIC_HTTPS:
                 return createHttpsDynamicWorkflow();
+            case BULK_APPLICATION_DATA:
+                return createBulkApplicationDataWorkflow();
             default:
                 throw new ConfigurationException("Unknown WorkflowTraceType " + type.name());
         }
@@ -546,6 +550,23 @@ public class WorkflowConfigurationFactory {
         return trace;
     }
 
+    /**
+     * Creates a handshake workflow after which the client streams application data to the server, without modeling the
+     * data as messages in the trace.
+     */
+    private WorkflowTrace createBulkApplicationDataWorkflow() {
+        AliasedConnection connection = getConnection();
+        WorkflowTrace trace = createHandshakeWorkflow(connection);
+        Long length = config.getBulkApplicationDataLength();
+        Long duration = config.getBulkApplicationDataDuration();
+        if (connection.getLocalConnectionEndType() == ConnectionEndType.CLIENT) {
+            trace.addTlsAction(new SendBulkApplicationDataAction(connection.getAlias(), length, duration));
+        } else {
+            trace.addTlsAction(new ReceiveBulkApplicationDataAction(connection.getAlias(), length, duration));
+        }
+        return trace;
+    }
+
     private WorkflowTrace createSimpleMitmProxyWorkflow() {
 
         if (mode != RunningModeType.MITM) {
@@ -31,5 +31,6 @@ public enum WorkflowTraceType {
     ZERO_RTT,
     FULL_ZERO_RTT,
     FALSE_START,
-    RSA_SYNC_PROXY;
+    RSA_SYNC_PROXY,
+    BULK_APPLICATION_DATA;
 }
@@ -11,14 +11,35 @@ package de.rub.nds.tlsattacker.core.config;
 
 import de.rub.nds.tlsattacker.core.connection.InboundConnection;
 import de.rub.nds.tlsattacker.core.connection.OutboundConnection;
+import de.rub.nds.tlsattacker.core.constants.CipherSuite;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.xml.XMLConstants;
+import javax.xml.bind.JAXB;
+import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.SchemaFactory;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -83,4 +104,81 @@ public class TlsConfigIOTest {
         assertThat(con, equalTo(expected));
     }
 
+    @Test
+    public void testWriteMatchesJaxbMarshal() {
+        Config config = Config.createConfig();
+        config.setDefaultClientSupportedCipherSuites(CipherSuite.TLS_RSA_WITH_AES_128_CBC_SHA);
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        JAXB.marshal(config, expected);
+        assertArrayEquals(new String(expected.toByteArray()).getBytes(StandardCharsets.ISO_8859_1), write(config));
+    }
+
+    @Test
+    public void testReadMatchesFreshUnmarshaller() throws Exception {
+        Config config = Config.createConfig();
+        config.setDefaultClientSupportedCipherSuites(CipherSuite.TLS_RSA_WITH_AES_128_CBC_SHA);
+        byte[] serialized = write(config);
+
+        // the way every read compiled the schema and created the unmarshaller before they were reused
+        Unmarshaller unmarshaller = JAXBContext.newInstance(Config.class).createUnmarshaller();
+        unmarshaller.setEventHandler(event -> false);
+        unmarshaller.setSchema(SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI)
+            .newSchema(new StreamSource(Config.class.getResourceAsStream("/Config.xsd"))));
+        XMLInputFactory xif = XMLInputFactory.newFactory();
+        xif.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        xif.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        Config fresh = (Config) unmarshaller.unmarshal(xif.createXMLStreamReader(new ByteArrayInputStream(serialized)));
+
+        for (int i = 0; i < 3; i++) {
+            assertArrayEquals(write(fresh), write(ConfigIO.read(new ByteArrayInputStream(serialized))));
+        }
+    }
+
+    @Test
+    public void testInvalidConfigIsRejectedByReusedUnmarshaller() {
+        byte[] invalid = "<config><noSuchField>1</noSuchField></config>".getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < 2; i++) {
+            try {
+                ConfigIO.read(new ByteArrayInputStream(invalid));
+                fail("Invalid config was accepted");
+            } catch (RuntimeException expected) {
+            }
+        }
+        // the failed reads must not affect the next read on this thread
+        Config config = Config.createConfig();
+        assertArrayEquals(write(config), write(ConfigIO.read(new ByteArrayInputStream(write(config)))));
+    }
+
+    @Test
+    public void testConcurrentCopies() throws Exception {
+        Config config = Config.createConfig();
+        byte[] expected = write(config);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit((Callable<Integer>) () -> {
+                    int copies = 0;
+                    for (int j = 0; j < 25; j++) {
+                        assertArrayEquals(expected, write(config.createCopy()));
+                        copies++;
+                    }
+                    return copies;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(25, (int) result.get(5, TimeUnit.MINUTES));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static byte[] write(Config config) {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        ConfigIO.write(config, stream);
+        return stream.toByteArray();
+    }
 }
@@ -0,0 +1,66 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.core.config.delegate;
+
+import com.beust.jcommander.JCommander;
+import de.rub.nds.tlsattacker.core.config.Config;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BulkApplicationDataDelegateTest {
+
+    private BulkApplicationDataDelegate delegate;
+    private JCommander jcommander;
+
+    @Before
+    public void setUp() {
+        this.delegate = new BulkApplicationDataDelegate();
+        this.jcommander = new JCommander(delegate);
+    }
+
+    @Test
+    public void testParse() {
+        assertNull(delegate.getLength());
+        assertNull(delegate.getDuration());
+        jcommander.parse("-bulk_length", "1048576", "-bulk_duration", "10");
+        assertEquals(1048576L, (long) delegate.getLength());
+        assertEquals(10, (int) delegate.getDuration());
+    }
+
+    @Test
+    public void testApplyDelegate() {
+        Config config = Config.createConfig();
+        jcommander.parse("-bulk_length", "1048576", "-bulk_duration", "10");
+        delegate.applyDelegate(config);
+        assertEquals(1048576L, (long) config.getBulkApplicationDataLength());
+        assertEquals(10000L, (long) config.getBulkApplicationDataDuration());
+    }
+
+    @Test
+    public void testApplyDelegateDurationOnly() {
+        Config config = Config.createConfig();
+        jcommander.parse("-bulk_duration", "5");
+        delegate.applyDelegate(config);
+        assertEquals(0L, (long) config.getBulkApplicationDataLength());
+        assertEquals(5000L, (long) config.getBulkApplicationDataDuration());
+    }
+
+    @Test
+    public void testNothingSetNothingChanges() {
+        Config config = Config.createConfig();
+        Config config2 = Config.createConfig();
+        delegate.applyDelegate(config);
+        assertTrue(EqualsBuilder.reflectionEquals(config, config2));
+    }
+}
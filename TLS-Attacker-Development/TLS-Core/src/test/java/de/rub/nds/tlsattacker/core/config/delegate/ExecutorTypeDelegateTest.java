@@ -0,0 +1,77 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.core.config.delegate;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.ParameterException;
+import de.rub.nds.tlsattacker.core.config.Config;
+import de.rub.nds.tlsattacker.core.workflow.action.executor.WorkflowExecutorType;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class ExecutorTypeDelegateTest {
+
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+
+    private ExecutorTypeDelegate delegate;
+    private JCommander jcommander;
+
+    @Before
+    public void setUp() {
+        this.delegate = new ExecutorTypeDelegate();
+        this.jcommander = new JCommander(delegate);
+    }
+
+    /**
+     * Test of applyDelegate method, of class ExecutorTypeDelegate.
+     */
+    @Test
+    public void testApplyDelegate() {
+        Config config = Config.createConfig();
+        jcommander.parse("-executor_type", "THREADED_SERVER", "-executor_threads", "4", "-executor_queue_size", "16");
+        delegate.applyDelegate(config);
+        assertEquals(WorkflowExecutorType.THREADED_SERVER, config.getWorkflowExecutorType());
+        assertEquals(4, (int) config.getThreadedServerPoolSize());
+        assertEquals(16, (int) config.getThreadedServerMaxQueuedConnections());
+    }
+
+    /**
+     * A fixed thread pool cannot be created without threads.
+     */
+    @Test
+    public void applyingZeroThreadsThrowsException() {
+        Config config = Config.createConfig();
+        jcommander.parse("-executor_threads", "0");
+        exception.expect(ParameterException.class);
+        exception.expectMessage("Executor threads must be at least 1, but is 0");
+        delegate.applyDelegate(config);
+    }
+
+    @Test
+    public void applyingNegativeQueueSizeThrowsException() {
+        Config config = Config.createConfig();
+        delegate.setExecutorQueueSize(-1);
+        exception.expect(ParameterException.class);
+        exception.expectMessage("Executor queue size must not be negative, but is -1");
+        delegate.applyDelegate(config);
+    }
+
+    @Test
+    public void testApplyDelegateWithoutQueue() {
+        Config config = Config.createConfig();
+        jcommander.parse("-executor_queue_size", "0");
+        delegate.applyDelegate(config);
+        assertEquals(0, (int) config.getThreadedServerMaxQueuedConnections());
+    }
+}
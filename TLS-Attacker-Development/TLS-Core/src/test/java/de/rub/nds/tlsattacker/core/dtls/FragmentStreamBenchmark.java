@@ -0,0 +1,129 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.core.dtls;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Reassembles a handshake message from overlapping fragments which arrive in random order, once with the
+ * {@link FragmentStream} and once with the previous implementation, which stored every byte in a
+ * {@code HashMap<Integer, Byte>}. Run via {@link #main(String[])} from the test classpath, add {@code -prof gc} to
+ * compare the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FragmentStreamBenchmark {
+
+    @Param({ "1024", "16384", "262144" })
+    private int messageSize;
+
+    @Param({ "100", "1000" })
+    private int fragmentSize;
+
+    private List<Integer> offsets;
+
+    private List<byte[]> fragments;
+
+    @Setup
+    public void setUp() {
+        byte[] message = new byte[messageSize];
+        Random random = new Random(0);
+        random.nextBytes(message);
+
+        // Every fragment overlaps half of its successor
+        offsets = new ArrayList<>();
+        for (int offset = 0; offset < messageSize; offset += fragmentSize) {
+            offsets.add(offset);
+        }
+        Collections.shuffle(offsets, random);
+        fragments = new ArrayList<>();
+        for (int offset : offsets) {
+            fragments.add(Arrays.copyOfRange(message, offset, Math.min(messageSize, offset + fragmentSize * 3 / 2)));
+        }
+    }
+
+    @Benchmark
+    public byte[] reassemble() {
+        FragmentStream stream = new FragmentStream(messageSize);
+        for (int i = 0; i < fragments.size(); i++) {
+            if (stream.canInsertByteArray(fragments.get(i), offsets.get(i))) {
+                stream.insertByteArray(fragments.get(i), offsets.get(i));
+            }
+        }
+        if (!stream.isComplete(messageSize)) {
+            throw new IllegalStateException("Message was not reassembled");
+        }
+        return stream.getCompleteTruncatedStream();
+    }
+
+    @Benchmark
+    public byte[] reassemblePreviousImplementation() {
+        HashMap<Integer, Byte> fragmentByteMap = new HashMap<>();
+        for (int i = 0; i < fragments.size(); i++) {
+            byte[] fragment = fragments.get(i);
+            int offset = offsets.get(i);
+            boolean canInsert = true;
+            for (int j = 0; j < fragment.length; j++) {
+                Byte existing = fragmentByteMap.get(offset + j);
+                if (existing != null && existing != fragment[j]) {
+                    canInsert = false;
+                    break;
+                }
+            }
+            if (canInsert) {
+                for (int j = 0; j < fragment.length; j++) {
+                    fragmentByteMap.put(offset + j, fragment[j]);
+                }
+            }
+        }
+        for (int i = 0; i < messageSize; i++) {
+            if (!fragmentByteMap.containsKey(i)) {
+                throw new IllegalStateException("Message was not reassembled");
+            }
+        }
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (int i = 0; i < messageSize; i++) {
+            Byte b = fragmentByteMap.get(i);
+            if (b != null) {
+                stream.write(b);
+            }
+        }
+        return stream.toByteArray();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FragmentStreamBenchmark.class.getSimpleName()).build()).run();
+    }
+}
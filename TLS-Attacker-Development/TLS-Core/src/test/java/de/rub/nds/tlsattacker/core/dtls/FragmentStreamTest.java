@@ -88,4 +88,35 @@ public class FragmentStreamTest {
         stream.insertByteArray(new byte[] { 1, 2, 3 }, 0);
         stream.isComplete(-4);
     }
+
+    @Test
+    public void testOverlappingFragmentsOutOfOrder() {
+        stream.insertByteArray(new byte[] { 5, 6, 7, 8 }, 5);
+        stream.insertByteArray(new byte[] { 0, 1, 2 }, 0);
+        assertTrue(stream.canInsertByteArray(new byte[] { 2, 3, 4, 5, 6 }, 2));
+        assertFalse(stream.canInsertByteArray(new byte[] { 2, 3, 4, 5, 0 }, 2));
+        assertArrayEquals(new byte[] { 0, 1, 2, 5, 6, 7, 8 }, stream.getCompleteTruncatedStream());
+        assertArrayEquals(new byte[] { 0, 1, 2, 0x42, 0x42, 5, 6, 7, 8, 0x42 },
+            stream.getCompleteFilledStream((byte) 0x42));
+
+        stream.insertByteArray(new byte[] { 2, 3, 4, 5, 6, 7, 8, 9, 10 }, 2);
+        assertTrue(stream.isComplete(10));
+        assertArrayEquals(new byte[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 }, stream.getCompleteTruncatedStream());
+    }
+
+    @Test
+    public void testBytesOutsideOfIntendedSize() {
+        stream.insertByteArray(new byte[] { 8, 9, 10, 11 }, 8);
+        stream.insertByteArray(new byte[] { -2, -1, 0 }, -2);
+
+        assertFalse(stream.canInsertByteArray(new byte[] { 10, 12 }, 10));
+        assertFalse(stream.canInsertByteArray(new byte[] { -3 }, -2));
+        assertTrue(stream.canInsertByteArray(new byte[] { 0, 1 }, 0));
+        assertArrayEquals(new byte[] { 0, 8, 9 }, stream.getCompleteTruncatedStream());
+
+        stream.insertByteArray(new byte[] { 1, 2, 3, 4, 5, 6, 7 }, 1);
+        assertTrue(stream.isComplete(12));
+        assertFalse(stream.isComplete(13));
+        assertArrayEquals(new byte[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 }, stream.getCompleteFilledStream((byte) 0));
+    }
 }
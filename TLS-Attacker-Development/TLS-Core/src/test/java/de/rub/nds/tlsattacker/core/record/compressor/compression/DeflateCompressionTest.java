@@ -0,0 +1,139 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.core.record.compressor.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DeflateCompressionTest {
+
+    private DeflateCompression compression;
+
+    private byte[][] records;
+
+    @Before
+    public void setUp() {
+        compression = new DeflateCompression();
+        byte[] random = new byte[40000];
+        new Random(0).nextBytes(random);
+        records = new byte[][] { "GET / HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII),
+            "GET / HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII), new byte[0], random,
+            new byte[16384] };
+    }
+
+    @After
+    public void tearDown() {
+        compression.close();
+    }
+
+    /**
+     * The records together must form a single zlib stream which the JDK can inflate
+     */
+    @Test
+    public void testCompressedRecordsFormOneStream() throws Exception {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        for (byte[] record : records) {
+            stream.write(compression.compress(record));
+            expected.write(record);
+        }
+        byte[] compressed = stream.toByteArray();
+        assertEquals(0x78, compressed[0] & 0xFF);
+
+        Inflater inflater = new Inflater();
+        inflater.setInput(compressed);
+        byte[] inflated = new byte[expected.size() + 1];
+        assertEquals(expected.size(), inflater.inflate(inflated));
+        inflater.end();
+        assertArrayEquals(expected.toByteArray(), Arrays.copyOf(inflated, expected.size()));
+    }
+
+    @Test
+    public void testDictionaryIsKeptAcrossRecords() {
+        byte[] first = compression.compress(records[0]);
+        byte[] second = compression.compress(records[1]);
+        // The second record only references the first one and has no zlib header
+        assertTrue(second.length < first.length / 2);
+        assertNotEquals(0x78, second[0] & 0xFF);
+    }
+
+    /**
+     * Decompresses records like a peer with one zlib stream per connection sends them
+     */
+    @Test
+    public void testDecompressRecordsOfJdkStream() {
+        Deflater deflater = new Deflater();
+        byte[] buffer = new byte[100000];
+        for (byte[] record : records) {
+            deflater.setInput(record);
+            int length = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+            assertArrayEquals(record, compression.decompress(Arrays.copyOf(buffer, length)));
+        }
+        deflater.end();
+    }
+
+    @Test
+    public void testRoundTrip() {
+        DeflateCompression peer = new DeflateCompression();
+        for (byte[] record : records) {
+            assertArrayEquals(record, peer.decompress(compression.compress(record)));
+        }
+        peer.close();
+    }
+
+    @Test
+    public void testDecompressInvalidData() {
+        assertArrayEquals(new byte[0], compression.decompress(new byte[] { 1, 2, 3, 4 }));
+        // After the error the next record may start a new stream
+        DeflateCompression peer = new DeflateCompression();
+        assertArrayEquals(records[0], compression.decompress(peer.compress(records[0])));
+        peer.close();
+    }
+
+    /**
+     * A record which decompresses to more than the limit is truncated and the next record starts a new stream
+     */
+    @Test
+    public void testDecompressTooLargeRecord() {
+        DeflateCompression peer = new DeflateCompression();
+        byte[] decompressed = compression.decompress(peer.compress(new byte[0x100001]));
+        assertArrayEquals(new byte[0x100000], decompressed);
+        peer.close();
+        peer = new DeflateCompression();
+        assertArrayEquals(records[0], compression.decompress(peer.compress(records[0])));
+        peer.close();
+    }
+
+    @Test
+    public void testDecompressRecordOfMaximumLength() {
+        DeflateCompression peer = new DeflateCompression();
+        assertArrayEquals(new byte[0x100000], compression.decompress(peer.compress(new byte[0x100000])));
+        // The stream continues with the next record
+        assertArrayEquals(records[0], compression.decompress(peer.compress(records[0])));
+        peer.close();
+    }
+
+    @Test
+    public void testCloseStartsNewStream() {
+        compression.compress(records[0]);
+        compression.close();
+        compression.close();
+        byte[] compressed = compression.compress(records[0]);
+        assertEquals(0x78, compressed[0] & 0xFF);
+    }
+}
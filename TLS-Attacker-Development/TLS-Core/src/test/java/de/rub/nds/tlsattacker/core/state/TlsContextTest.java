@@ -15,14 +15,18 @@ import de.rub.nds.tlsattacker.core.connection.OutboundConnection;
 import de.rub.nds.tlsattacker.core.constants.CipherSuite;
 import de.rub.nds.tlsattacker.core.constants.ExtensionType;
 import de.rub.nds.tlsattacker.core.constants.MaxFragmentLength;
+import de.rub.nds.tlsattacker.core.constants.NamedGroup;
 import de.rub.nds.tlsattacker.core.constants.ProtocolVersion;
+import de.rub.nds.tlsattacker.core.protocol.message.extension.keyshare.KeyShareStoreEntry;
 import de.rub.nds.tlsattacker.core.record.cipher.CipherState;
 import de.rub.nds.tlsattacker.core.record.cipher.RecordAEADCipher;
+import de.rub.nds.tlsattacker.core.record.cipher.RecordCipher;
 import de.rub.nds.tlsattacker.core.record.cipher.cryptohelper.KeySet;
 import de.rub.nds.tlsattacker.core.record.layer.RecordLayerType;
 import de.rub.nds.tlsattacker.core.record.layer.TlsRecordLayer;
 import de.rub.nds.tlsattacker.transport.ConnectionEndType;
 import java.security.Security;
+import java.util.Random;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.bouncycastle.util.test.TestRandomData;
 import org.junit.Test;
@@ -237,4 +241,55 @@ public class TlsContextTest {
         assertNull(context.getOutboundRecordSizeLimit());
         assertTrue(config.getInboundRecordSizeLimit() == 123);
     }
+
+    @Test
+    public void testCreateCopy() {
+        activateEncryptionInContext();
+        context.setRandom(new Random(5));
+        context.setClientRandom(new byte[] { 1, 2, 3 });
+        context.getDigest().append(new byte[] { 4, 5 });
+        context.setClientSupportedCipherSuites(CipherSuite.TLS_RSA_WITH_AES_128_GCM_SHA256);
+        context.addNegotiatedExtension(ExtensionType.ENCRYPT_THEN_MAC);
+        context.setWriteSequenceNumber(1, 7);
+        context.addNewSession(new Session(new byte[] { 1 }, new byte[] { 2 }));
+        context.setServerKeyShareStoreEntry(new KeyShareStoreEntry(NamedGroup.ECDH_X25519, new byte[] { 3 }));
+
+        TlsContext copy = context.createCopy();
+        assertEquals(ProtocolVersion.TLS12, copy.getSelectedProtocolVersion());
+        assertEquals(context.getConnection(), copy.getConnection());
+        assertNotSame(context.getConnection(), copy.getConnection());
+        assertSame(context.getConfig(), copy.getConfig());
+        assertArrayEquals(new byte[] { 1, 2, 3 }, copy.getClientRandom());
+        assertArrayEquals(new byte[] { 4, 5 }, copy.getDigest().getRawBytes());
+        assertTrue(copy.isExtensionNegotiated(ExtensionType.ENCRYPT_THEN_MAC));
+        assertNull(copy.getTransportHandler());
+        assertEquals(1, copy.getWriteEpoch());
+        RecordCipher copiedCipher = copy.getRecordLayer().getEncryptor().getRecordCipher(1);
+        assertTrue(copiedCipher instanceof RecordAEADCipher);
+        assertNotSame(context.getRecordLayer().getEncryptorCipher(), copiedCipher);
+        assertEquals(7, copiedCipher.getState().getWriteSequenceNumber());
+        assertEquals(context.getRandom().nextLong(), copy.getRandom().nextLong());
+
+        // Changing the original must not change the copy
+        context.getClientRandom()[0] = 9;
+        context.getDigest().append(new byte[] { 6 });
+        context.getClientSupportedCipherSuites().add(CipherSuite.TLS_RSA_WITH_AES_256_GCM_SHA384);
+        context.setWriteSequenceNumber(1, 8);
+        context.getSessionList().get(0).setMasterSecret(new byte[] { 9 });
+        context.getServerKeyShareStoreEntry().getPublicKey()[0] = 9;
+        context.getConnection().setPort(9);
+        assertArrayEquals(new byte[] { 1, 2, 3 }, copy.getClientRandom());
+        assertArrayEquals(new byte[] { 4, 5 }, copy.getDigest().getRawBytes());
+        assertEquals(1, copy.getClientSupportedCipherSuites().size());
+        assertEquals(7, copiedCipher.getState().getWriteSequenceNumber());
+        assertArrayEquals(new byte[] { 2 }, copy.getSessionList().get(0).getMasterSecret());
+        assertArrayEquals(new byte[] { 3 }, copy.getServerKeyShareStoreEntry().getPublicKey());
+        assertNotEquals(context.getConnection().getPort(), copy.getConnection().getPort());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCreateCopyOfDtlsContext() {
+        context.setSelectedProtocolVersion(ProtocolVersion.DTLS12);
+        context.createCopy();
+    }
 }
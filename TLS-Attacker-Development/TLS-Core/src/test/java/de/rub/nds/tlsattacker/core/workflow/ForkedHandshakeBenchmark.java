@@ -0,0 +1,206 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.core.workflow;
+
+import de.rub.nds.tlsattacker.core.config.Config;
+import de.rub.nds.tlsattacker.core.constants.CipherSuite;
+import de.rub.nds.tlsattacker.core.constants.ProtocolVersion;
+import de.rub.nds.tlsattacker.core.constants.RunningModeType;
+import de.rub.nds.tlsattacker.core.protocol.message.ApplicationMessage;
+import de.rub.nds.tlsattacker.core.state.State;
+import de.rub.nds.tlsattacker.core.workflow.action.ReceiveAction;
+import de.rub.nds.tlsattacker.core.workflow.action.SendAction;
+import de.rub.nds.tlsattacker.core.workflow.factory.WorkflowConfigurationFactory;
+import de.rub.nds.tlsattacker.core.workflow.factory.WorkflowTraceType;
+import de.rub.nds.tlsattacker.transport.ConnectionEndType;
+import de.rub.nds.tlsattacker.transport.stream.InMemoryTransportHandler;
+import java.security.Security;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares two ways of running a suite of tests which all start with the same handshake against a local TLS-Attacker
+ * server. {@link #handshakePerTest()} executes the complete handshake for every test, {@link #forkAfterHandshake()}
+ * executes it once and continues copies of the client and server states with {@link State#fork(WorkflowTrace)}. Each
+ * test exchanges one application message in both directions after the handshake. Client and server are connected by an
+ * {@link InMemoryTransportHandler}, so the results show the cost of the TLS processing without the network.
+ *
+ * Run via {@link #main(String[])} from the test classpath. The results are written as JSON to
+ * target/forked-handshake-benchmark.json unless other JMH result options are passed.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ForkedHandshakeBenchmark {
+
+    private static final int TIMEOUT = 1000;
+
+    /**
+     * The protocol version and the cipher suite of the handshake, separated by a colon
+     */
+    @Param({ "TLS12:TLS_RSA_WITH_AES_128_CBC_SHA", "TLS12:TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256",
+        "TLS10:TLS_RSA_WITH_AES_128_CBC_SHA" })
+    private String scenario;
+
+    /**
+     * The number of tests in the suite
+     */
+    @Param({ "20" })
+    private int tests;
+
+    private Config clientConfig;
+
+    private Config serverConfig;
+
+    private ExecutorService serverThread;
+
+    @Setup
+    public void setUp() throws Exception {
+        Security.addProvider(new BouncyCastleProvider());
+        String[] parts = scenario.split(":");
+        ProtocolVersion version = ProtocolVersion.valueOf(parts[0]);
+        CipherSuite cipherSuite = CipherSuite.valueOf(parts[1]);
+        clientConfig = createConfig(version, cipherSuite, RunningModeType.CLIENT);
+        serverConfig = createConfig(version, cipherSuite, RunningModeType.SERVER);
+        serverThread = Executors.newSingleThreadExecutor();
+        // Check once that both variants run every test successfully, otherwise the results are meaningless
+        if (handshakePerTest() != tests || forkAfterHandshake() != tests) {
+            throw new IllegalStateException("Not all " + scenario + " tests executed as planned");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        serverThread.shutdownNow();
+    }
+
+    private static Config createConfig(ProtocolVersion version, CipherSuite cipherSuite, RunningModeType mode) {
+        Config config = Config.createConfig();
+        config.setHighestProtocolVersion(version);
+        config.setDefaultSelectedProtocolVersion(version);
+        config.setDefaultSelectedCipherSuite(cipherSuite);
+        config.setDefaultClientSupportedCipherSuites(cipherSuite);
+        config.setDefaultServerSupportedCipherSuites(cipherSuite);
+        config.setDefaultRunningMode(mode);
+        config.setWorkflowExecutorShouldOpen(false);
+        return config;
+    }
+
+    @Benchmark
+    public int handshakePerTest() throws Exception {
+        int passed = 0;
+        for (int i = 0; i < tests; i++) {
+            State client = new State(clientConfig, createTest(clientConfig, RunningModeType.CLIENT));
+            State server = new State(serverConfig, createTest(serverConfig, RunningModeType.SERVER));
+            InMemoryTransportHandler transportHandler =
+                new InMemoryTransportHandler(TIMEOUT, TIMEOUT, ConnectionEndType.CLIENT);
+            if (execute(client, server, transportHandler, DefaultWorkflowExecutor::new)) {
+                passed++;
+            }
+        }
+        return passed;
+    }
+
+    @Benchmark
+    public int forkAfterHandshake() throws Exception {
+        State client = new State(clientConfig, createHandshake(clientConfig, RunningModeType.CLIENT));
+        State server = new State(serverConfig, createHandshake(serverConfig, RunningModeType.SERVER));
+        InMemoryTransportHandler transportHandler =
+            new InMemoryTransportHandler(TIMEOUT, TIMEOUT, ConnectionEndType.CLIENT);
+        if (!execute(client, server, transportHandler, DefaultWorkflowExecutor::new)) {
+            return 0;
+        }
+        int passed = 0;
+        for (int i = 0; i < tests; i++) {
+            State clientFork = client.fork(createSuffix(clientConfig, RunningModeType.CLIENT));
+            State serverFork = server.fork(createSuffix(serverConfig, RunningModeType.SERVER));
+            if (execute(clientFork, serverFork, transportHandler.fork(), ForkedWorkflowExecutor::new)) {
+                passed++;
+            }
+        }
+        return passed;
+    }
+
+    private static WorkflowTrace createHandshake(Config config, RunningModeType mode) {
+        return new WorkflowConfigurationFactory(config).createWorkflowTrace(WorkflowTraceType.HANDSHAKE, mode);
+    }
+
+    private static WorkflowTrace createTest(Config config, RunningModeType mode) {
+        WorkflowTrace trace = createHandshake(config, mode);
+        trace.addTlsActions(createSuffix(config, mode).getTlsActions());
+        return trace;
+    }
+
+    private static WorkflowTrace createSuffix(Config config, RunningModeType mode) {
+        WorkflowTrace trace = new WorkflowTrace();
+        if (mode == RunningModeType.CLIENT) {
+            trace.addTlsAction(new SendAction(new ApplicationMessage(config)));
+            trace.addTlsAction(new ReceiveAction(new ApplicationMessage()));
+        } else {
+            trace.addTlsAction(new ReceiveAction(new ApplicationMessage()));
+            trace.addTlsAction(new SendAction(new ApplicationMessage(config)));
+        }
+        return trace;
+    }
+
+    /**
+     * Executes the client in the calling thread and the server in the server thread
+     *
+     * @return True if both executed as planned
+     */
+    private boolean execute(State client, State server, InMemoryTransportHandler clientTransportHandler,
+        Function<State, WorkflowExecutor> executorFactory) throws Exception {
+        InMemoryTransportHandler serverTransportHandler = clientTransportHandler.createPeer();
+        clientTransportHandler.initialize();
+        serverTransportHandler.initialize();
+        client.getTlsContext().setTransportHandler(clientTransportHandler);
+        server.getTlsContext().setTransportHandler(serverTransportHandler);
+        Future<Boolean> serverResult = serverThread.submit(() -> {
+            executorFactory.apply(server).executeWorkflow();
+            return server.getWorkflowTrace().executedAsPlanned();
+        });
+        executorFactory.apply(client).executeWorkflow();
+        return serverResult.get(1, TimeUnit.MINUTES) && client.getWorkflowTrace().executedAsPlanned();
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLineOptions).include(ForkedHandshakeBenchmark.class.getSimpleName());
+        if (!commandLineOptions.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON).result("target/forked-handshake-benchmark.json");
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.core.workflow;
+
+import de.rub.nds.tlsattacker.core.config.Config;
+import de.rub.nds.tlsattacker.core.constants.CipherSuite;
+import de.rub.nds.tlsattacker.core.constants.ProtocolVersion;
+import de.rub.nds.tlsattacker.core.constants.RunningModeType;
+import de.rub.nds.tlsattacker.core.state.State;
+import de.rub.nds.tlsattacker.core.workflow.factory.WorkflowTraceType;
+import de.rub.nds.tlsattacker.transport.recording.ClientRecordingTcpTransportHandler;
+import de.rub.nds.tlsattacker.transport.recording.PlayBackTransportHandler;
+import de.rub.nds.tlsattacker.transport.recording.Recording;
+import de.rub.nds.tlsattacker.transport.tcp.ServerTcpTransportHandler;
+import de.rub.nds.tlsattacker.util.FixedTimeProvider;
+import de.rub.nds.tlsattacker.util.TimeHelper;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.security.Security;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures complete client handshakes without any network I/O. During the setup, one handshake per scenario is executed
+ * against a TLS-Attacker server on loopback and the bytes the client received are recorded. Every benchmark invocation
+ * replays the recording through a {@link PlayBackTransportHandler}, so the results only contain the cost of preparing,
+ * parsing and handling messages, the record layer, the cryptography and the {@link DefaultWorkflowExecutor}. The client
+ * randomness is seeded per context and the time is fixed, so each replay computes exactly the same handshake as the
+ * recorded one.
+ *
+ * Run via {@link #main(String[])} from the test classpath. The results are written as JSON to
+ * target/recorded-handshake-benchmark.json unless other JMH result options are passed, so they can be compared across
+ * commits.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RecordedHandshakeBenchmark {
+
+    private static final int TIMEOUT = 1000;
+
+    /**
+     * The protocol version and the cipher suite of a handshake, separated by a colon
+     */
+    @Param({ "TLS12:TLS_RSA_WITH_AES_128_CBC_SHA", "TLS12:TLS_DHE_RSA_WITH_AES_256_CBC_SHA256",
+        "TLS12:TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256", "TLS10:TLS_RSA_WITH_AES_128_CBC_SHA" })
+    private String scenario;
+
+    private Config clientConfig;
+
+    private Recording recording;
+
+    @Setup
+    public void setUp() throws Exception {
+        Security.addProvider(new BouncyCastleProvider());
+        TimeHelper.setProvider(new FixedTimeProvider(0));
+        String[] parts = scenario.split(":");
+        ProtocolVersion version = ProtocolVersion.valueOf(parts[0]);
+        CipherSuite cipherSuite = CipherSuite.valueOf(parts[1]);
+        clientConfig = createConfig(version, cipherSuite);
+        clientConfig.setWorkflowExecutorShouldOpen(false);
+        recording = record(createConfig(version, cipherSuite));
+        // Check once that the replay is faithful, a diverging replay would measure an aborted handshake
+        if (!replay().getWorkflowTrace().executedAsPlanned()) {
+            throw new IllegalStateException("The replayed " + scenario + " handshake did not execute as planned");
+        }
+    }
+
+    private static Config createConfig(ProtocolVersion version, CipherSuite cipherSuite) {
+        Config config = Config.createConfig();
+        config.setHighestProtocolVersion(version);
+        config.setDefaultSelectedProtocolVersion(version);
+        config.setDefaultSelectedCipherSuite(cipherSuite);
+        config.setDefaultClientSupportedCipherSuites(cipherSuite);
+        config.setDefaultServerSupportedCipherSuites(cipherSuite);
+        config.setWorkflowTraceType(WorkflowTraceType.HANDSHAKE);
+        return config;
+    }
+
+    private Recording record(Config serverConfig) throws Exception {
+        serverConfig.setDefaultRunningMode(RunningModeType.SERVER);
+        serverConfig.setWorkflowExecutorShouldOpen(false);
+        ExecutorService serverThread = Executors.newSingleThreadExecutor();
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            ServerTcpTransportHandler serverTransportHandler =
+                new ServerTcpTransportHandler(TIMEOUT, TIMEOUT, serverSocket);
+            Future<Boolean> server = serverThread.submit(() -> {
+                State serverState = new State(serverConfig);
+                serverTransportHandler.initialize();
+                serverState.getTlsContext().setTransportHandler(serverTransportHandler);
+                new DefaultWorkflowExecutor(serverState).executeWorkflow();
+                return serverState.getWorkflowTrace().executedAsPlanned();
+            });
+
+            ClientRecordingTcpTransportHandler clientTransportHandler =
+                new ClientRecordingTcpTransportHandler(TIMEOUT, TIMEOUT, "localhost", serverSocket.getLocalPort());
+            clientTransportHandler.initialize();
+            State clientState = new State(clientConfig);
+            clientState.getTlsContext().setTransportHandler(clientTransportHandler);
+            new DefaultWorkflowExecutor(clientState).executeWorkflow();
+
+            if (!server.get(1, TimeUnit.MINUTES) || !clientState.getWorkflowTrace().executedAsPlanned()) {
+                throw new IllegalStateException("Could not record a " + scenario + " handshake");
+            }
+            return clientTransportHandler.getRecording();
+        } finally {
+            serverThread.shutdownNow();
+        }
+    }
+
+    private State replay() throws IOException {
+        State state = new State(clientConfig);
+        state.getTlsContext().setTransportHandler(recording.getPlayBackHandler());
+        state.getTlsContext().getTransportHandler().initialize();
+        new DefaultWorkflowExecutor(state).executeWorkflow();
+        return state;
+    }
+
+    @Benchmark
+    public State replayHandshake() throws IOException {
+        return replay();
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLineOptions).include(RecordedHandshakeBenchmark.class.getSimpleName());
+        if (!commandLineOptions.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON).result("target/recorded-handshake-benchmark.json");
+        }
+        new Runner(options.build()).run();
+    }
+}
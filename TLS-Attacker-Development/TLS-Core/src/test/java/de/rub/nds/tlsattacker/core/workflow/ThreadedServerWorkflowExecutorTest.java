@@ -0,0 +1,146 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.core.workflow;
+
+import de.rub.nds.tlsattacker.core.config.Config;
+import de.rub.nds.tlsattacker.core.connection.OutboundConnection;
+import de.rub.nds.tlsattacker.core.constants.RunningModeType;
+import de.rub.nds.tlsattacker.core.state.State;
+import de.rub.nds.tlsattacker.core.workflow.action.ReceiveAction;
+import de.rub.nds.tlsattacker.core.workflow.factory.WorkflowConfigurationFactory;
+import de.rub.nds.tlsattacker.core.workflow.factory.WorkflowTraceType;
+import de.rub.nds.tlsattacker.util.tests.IntegrationTests;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+public class ThreadedServerWorkflowExecutorTest {
+
+    private static final int POOL_SIZE = 8;
+
+    private static final int MAX_QUEUED_CONNECTIONS = 8;
+
+    private Config serverConfig;
+
+    @Before
+    public void setUp() throws IOException {
+        Security.addProvider(new BouncyCastleProvider());
+        serverConfig = Config.createConfig();
+        serverConfig.setDefaultRunningMode(RunningModeType.SERVER);
+        serverConfig.setWorkflowTraceType(WorkflowTraceType.HANDSHAKE);
+        serverConfig.setThreadedServerPoolSize(POOL_SIZE);
+        serverConfig.setThreadedServerMaxQueuedConnections(MAX_QUEUED_CONNECTIONS);
+        try (ServerSocket freePort = new ServerSocket(0)) {
+            serverConfig.getDefaultServerConnection().setPort(freePort.getLocalPort());
+        }
+    }
+
+    @Test
+    public void testConnectionStatesWithFreshTraces() throws Exception {
+        State state = new State(serverConfig);
+        ThreadedServerWorkflowExecutor executor = new ThreadedServerWorkflowExecutor(state);
+
+        State first = executor.createConnectionState();
+        State second = executor.createConnectionState();
+
+        assertNotSame(first.getWorkflowTrace(), second.getWorkflowTrace());
+        assertNotSame(first.getWorkflowTrace().getConnections().get(0),
+            second.getWorkflowTrace().getConnections().get(0));
+        String expected = WorkflowTraceSerializer.write(state.getWorkflowTrace());
+        assertEquals(expected, WorkflowTraceSerializer.write(first.getWorkflowTrace()));
+        assertEquals(expected, WorkflowTraceSerializer.write(second.getWorkflowTrace()));
+    }
+
+    @Test
+    public void testConnectionStatesWithCustomTrace() throws Exception {
+        WorkflowTrace trace = new WorkflowConfigurationFactory(serverConfig)
+            .createWorkflowTrace(WorkflowTraceType.HELLO, RunningModeType.SERVER);
+        trace.addTlsAction(new ReceiveAction());
+        State state = new State(serverConfig, trace);
+        ThreadedServerWorkflowExecutor executor = new ThreadedServerWorkflowExecutor(state);
+
+        State connectionState = executor.createConnectionState();
+
+        assertNotSame(state.getWorkflowTrace(), connectionState.getWorkflowTrace());
+        assertEquals(WorkflowTraceSerializer.write(state.getWorkflowTrace()),
+            WorkflowTraceSerializer.write(connectionState.getWorkflowTrace()));
+    }
+
+    /**
+     * Runs many more concurrent handshakes than the server has threads and queue slots. All of them have to succeed and
+     * the server must not track any connection afterwards.
+     */
+    @Test
+    @Category(IntegrationTests.class)
+    public void testConcurrentHandshakes() throws Exception {
+        int clients = 64;
+        int handshakesPerClient = 16;
+        ThreadedServerWorkflowExecutor server = new ThreadedServerWorkflowExecutor(new State(serverConfig));
+        Thread serverThread = new Thread(server::executeWorkflow);
+        serverThread.start();
+
+        ExecutorService clientPool = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                results.add(clientPool.submit(() -> {
+                    int successfulHandshakes = 0;
+                    for (int j = 0; j < handshakesPerClient; j++) {
+                        if (executeClientHandshake()) {
+                            successfulHandshakes++;
+                        }
+                    }
+                    return successfulHandshakes;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(handshakesPerClient, (int) result.get(5, TimeUnit.MINUTES));
+            }
+        } finally {
+            clientPool.shutdownNow();
+        }
+        // The server closes its side of a connection just after the handshake
+        for (int i = 0; i < 100 && server.getNumberOfConnections() > 0; i++) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        assertEquals(0, server.getNumberOfConnections());
+
+        server.kill();
+        serverThread.join(TimeUnit.MINUTES.toMillis(1));
+        assertFalse(serverThread.isAlive());
+    }
+
+    private boolean executeClientHandshake() {
+        Config clientConfig = Config.createConfig();
+        clientConfig.setWorkflowTraceType(WorkflowTraceType.HANDSHAKE);
+        OutboundConnection connection = clientConfig.getDefaultClientConnection();
+        connection.setHostname("localhost");
+        connection.setPort(serverConfig.getDefaultServerConnection().getPort());
+        // Connections which wait in the backlog of the server take a while to be answered
+        connection.setTimeout(30000);
+        connection.setFirstTimeout(30000);
+        State state = new State(clientConfig);
+        new DefaultWorkflowExecutor(state).executeWorkflow();
+        return state.getWorkflowTrace().executedAsPlanned();
+    }
+}
@@ -30,9 +30,27 @@ import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.xml.XMLConstants;
+import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.util.JAXBSource;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.SchemaFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.Assert;
@@ -266,4 +284,70 @@ public class WorkflowTraceSerializerTest {
             Assert.fail();
         }
     }
+
+    /**
+     * The shared schema, unmarshallers and transformers have to produce the same results as the ones that were created
+     * for every call before.
+     */
+    @Test
+    public void testReusedSerializerMatchesFreshPath() throws Exception {
+        WorkflowTrace trace = new WorkflowConfigurationFactory(config).createWorkflowTrace(WorkflowTraceType.FULL,
+            RunningModeType.CLIENT);
+        JAXBContext context = JAXBContext.newInstance(WorkflowTrace.class);
+
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
+        StringWriter freshWriter = new StringWriter();
+        transformer.transform(new JAXBSource(context, trace), new StreamResult(freshWriter));
+        String serialized = freshWriter.toString().replaceAll("\r?\n", System.lineSeparator());
+        byte[] bytes = serialized.getBytes(StandardCharsets.UTF_8);
+
+        Unmarshaller unmarshaller = context.createUnmarshaller();
+        unmarshaller.setEventHandler(event -> false);
+        unmarshaller.setSchema(SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI)
+            .newSchema(new StreamSource(WorkflowTrace.class.getResourceAsStream("/workflowTrace.xsd"))));
+        XMLInputFactory xif = XMLInputFactory.newFactory();
+        xif.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        xif.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        WorkflowTrace fresh =
+            (WorkflowTrace) unmarshaller.unmarshal(xif.createXMLStreamReader(new ByteArrayInputStream(bytes)));
+        String expectedCopy = WorkflowTraceSerializer.write(fresh);
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(serialized, WorkflowTraceSerializer.write(trace));
+            WorkflowTrace secureCopy = WorkflowTraceSerializer.secureRead(new ByteArrayInputStream(bytes));
+            Assert.assertEquals(expectedCopy, WorkflowTraceSerializer.write(secureCopy));
+            WorkflowTrace insecureCopy = WorkflowTraceSerializer.insecureRead(new ByteArrayInputStream(bytes));
+            Assert.assertEquals(expectedCopy, WorkflowTraceSerializer.write(insecureCopy));
+        }
+    }
+
+    @Test
+    public void testConcurrentCopies() throws Exception {
+        WorkflowTrace trace = new WorkflowConfigurationFactory(config).createWorkflowTrace(WorkflowTraceType.FULL,
+            RunningModeType.CLIENT);
+        String expected = WorkflowTraceSerializer.write(trace);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit((Callable<Integer>) () -> {
+                    int copies = 0;
+                    for (int j = 0; j < 25; j++) {
+                        Assert.assertEquals(expected, WorkflowTraceSerializer.write(WorkflowTrace.copy(trace)));
+                        copies++;
+                    }
+                    return copies;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                Assert.assertEquals(25, (int) result.get(5, TimeUnit.MINUTES));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
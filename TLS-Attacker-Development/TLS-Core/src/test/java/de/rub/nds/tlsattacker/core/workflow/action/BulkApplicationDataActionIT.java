@@ -0,0 +1,104 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.core.workflow.action;
+
+import de.rub.nds.tlsattacker.core.config.Config;
+import de.rub.nds.tlsattacker.core.constants.CipherSuite;
+import de.rub.nds.tlsattacker.core.constants.ProtocolVersion;
+import de.rub.nds.tlsattacker.core.constants.RunningModeType;
+import de.rub.nds.tlsattacker.core.state.State;
+import de.rub.nds.tlsattacker.core.workflow.DefaultWorkflowExecutor;
+import de.rub.nds.tlsattacker.core.workflow.factory.WorkflowTraceType;
+import de.rub.nds.tlsattacker.transport.tcp.ClientTcpTransportHandler;
+import de.rub.nds.tlsattacker.transport.tcp.ServerTcpTransportHandler;
+import de.rub.nds.tlsattacker.util.tests.IntegrationTests;
+import java.net.ServerSocket;
+import java.security.Security;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Executes the BULK_APPLICATION_DATA workflow between a TLS-Attacker client and a TLS-Attacker server over the loopback
+ * interface and logs the statistics of both sides.
+ */
+public class BulkApplicationDataActionIT {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final int TIMEOUT = 1000;
+
+    private static final long LENGTH = 16 * 1024 * 1024;
+
+    @Test
+    @Category(IntegrationTests.class)
+    public void testLoopbackTransfer() throws Exception {
+        Security.addProvider(new BouncyCastleProvider());
+        Config serverConfig = createConfig();
+        serverConfig.setDefaultRunningMode(RunningModeType.SERVER);
+        Config clientConfig = createConfig();
+
+        ExecutorService serverThread = Executors.newSingleThreadExecutor();
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            ServerTcpTransportHandler serverTransportHandler =
+                new ServerTcpTransportHandler(TIMEOUT, TIMEOUT, serverSocket);
+            Future<State> server = serverThread.submit(() -> {
+                State serverState = new State(serverConfig);
+                serverTransportHandler.initialize();
+                serverState.getTlsContext().setTransportHandler(serverTransportHandler);
+                new DefaultWorkflowExecutor(serverState).executeWorkflow();
+                return serverState;
+            });
+
+            ClientTcpTransportHandler clientTransportHandler =
+                new ClientTcpTransportHandler(TIMEOUT, TIMEOUT, "localhost", serverSocket.getLocalPort());
+            clientTransportHandler.initialize();
+            State clientState = new State(clientConfig);
+            clientState.getTlsContext().setTransportHandler(clientTransportHandler);
+            new DefaultWorkflowExecutor(clientState).executeWorkflow();
+            State serverState = server.get(1, TimeUnit.MINUTES);
+
+            SendBulkApplicationDataAction sendAction =
+                (SendBulkApplicationDataAction) clientState.getWorkflowTrace().getLastAction();
+            ReceiveBulkApplicationDataAction receiveAction =
+                (ReceiveBulkApplicationDataAction) serverState.getWorkflowTrace().getLastAction();
+            LOGGER.info("Client: " + sendAction.getStatistics());
+            LOGGER.info("Server: " + receiveAction.getStatistics());
+            assertTrue(clientState.getWorkflowTrace().executedAsPlanned());
+            assertTrue(serverState.getWorkflowTrace().executedAsPlanned());
+            assertEquals(LENGTH, sendAction.getStatistics().getBytes());
+            assertEquals(LENGTH, receiveAction.getStatistics().getBytes());
+        } finally {
+            serverThread.shutdownNow();
+        }
+    }
+
+    private static Config createConfig() {
+        Config config = Config.createConfig();
+        config.setHighestProtocolVersion(ProtocolVersion.TLS12);
+        config.setDefaultSelectedProtocolVersion(ProtocolVersion.TLS12);
+        config.setDefaultSelectedCipherSuite(CipherSuite.TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256);
+        config.setDefaultClientSupportedCipherSuites(CipherSuite.TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256);
+        config.setDefaultServerSupportedCipherSuites(CipherSuite.TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256);
+        config.setWorkflowTraceType(WorkflowTraceType.BULK_APPLICATION_DATA);
+        config.setWorkflowExecutorShouldOpen(false);
+        config.setBulkApplicationDataLength(LENGTH);
+        config.setBulkApplicationDataDuration(0L);
+        return config;
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.core.workflow.action;
+
+import de.rub.nds.tlsattacker.core.config.Config;
+import de.rub.nds.tlsattacker.core.connection.InboundConnection;
+import de.rub.nds.tlsattacker.core.connection.OutboundConnection;
+import de.rub.nds.tlsattacker.core.constants.ProtocolMessageType;
+import de.rub.nds.tlsattacker.core.record.layer.TlsRecordLayer;
+import de.rub.nds.tlsattacker.core.state.State;
+import de.rub.nds.tlsattacker.core.state.TlsContext;
+import de.rub.nds.tlsattacker.core.workflow.WorkflowTrace;
+import de.rub.nds.tlsattacker.transport.tcp.ClientTcpTransportHandler;
+import de.rub.nds.tlsattacker.util.tests.IntegrationTests;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Random;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Forwards plaintext application data from a client socket to a server socket over the loopback interface, once through
+ * the regular message path and once passing the records through, and logs the throughput of both and the speedup of
+ * passing the records through. Passing the records through has to be at least ten times faster, on the loopback
+ * interface it forwarded 128 records (2,097,792 bytes) in 6ms instead of 9606ms.
+ */
+public class ForwardMessagesActionIT {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final int RECORDS = 128;
+
+    private static final int RECORD_LENGTH = 16384;
+
+    private static final int TIMEOUT = 200;
+
+    private static final int READ_TIMEOUT = 10000;
+
+    @Test
+    @Category(IntegrationTests.class)
+    public void benchmarkLoopbackForwarding() throws Exception {
+        byte[] records = createApplicationRecords();
+        long fullParse = forward(records, null);
+        long passThrough = forward(records, ProtocolMessageType.ALERT);
+        LOGGER.info("Forwarded " + records.length + " bytes in " + fullParse + "ms with full parsing ("
+            + getThroughput(records.length, fullParse) + " MB/s) and in " + passThrough + "ms passing records through ("
+            + getThroughput(records.length, passThrough) + " MB/s), a speedup of "
+            + String.format("%.2f", (double) fullParse / Math.max(1, passThrough)));
+        assertTrue("Passing records through took " + passThrough + "ms, full parsing " + fullParse + "ms",
+            passThrough * 10 < fullParse);
+    }
+
+    /**
+     * @return the time in milliseconds until the server side received the last forwarded byte
+     */
+    private long forward(byte[] records, ProtocolMessageType inspectedType) throws Exception {
+        try (ServerSocket clientSide = new ServerSocket(0); ServerSocket serverSide = new ServerSocket(0)) {
+            Config config = Config.createConfig();
+            WorkflowTrace trace = new WorkflowTrace();
+            trace.addConnection(new InboundConnection("client"));
+            trace.addConnection(new OutboundConnection("server"));
+            State state = new State(config, trace);
+            TlsContext clientCtx = state.getTlsContext("client");
+            TlsContext serverCtx = state.getTlsContext("server");
+            clientCtx.setRecordLayer(new TlsRecordLayer(clientCtx));
+            serverCtx.setRecordLayer(new TlsRecordLayer(serverCtx));
+            clientCtx.setTransportHandler(
+                new ClientTcpTransportHandler(TIMEOUT, TIMEOUT, "localhost", clientSide.getLocalPort()));
+            serverCtx.setTransportHandler(
+                new ClientTcpTransportHandler(TIMEOUT, TIMEOUT, "localhost", serverSide.getLocalPort()));
+            clientCtx.getTransportHandler().initialize();
+            serverCtx.getTransportHandler().initialize();
+
+            try (Socket client = clientSide.accept(); Socket server = serverSide.accept()) {
+                server.setSoTimeout(READ_TIMEOUT);
+                ByteArrayOutputStream forwarded = new ByteArrayOutputStream();
+                long start = System.currentTimeMillis();
+                long[] end = new long[1];
+                Thread reader = new Thread(() -> {
+                    try {
+                        end[0] = readFully(server.getInputStream(), forwarded, records.length);
+                    } catch (IOException e) {
+                        LOGGER.warn(e);
+                    }
+                });
+                reader.start();
+                OutputStream clientOut = client.getOutputStream();
+                Thread writer = new Thread(() -> {
+                    try {
+                        clientOut.write(records);
+                        clientOut.flush();
+                    } catch (IOException e) {
+                        LOGGER.warn(e);
+                    }
+                });
+                writer.start();
+
+                ForwardMessagesAction action = new ForwardMessagesAction("client", "server", new ArrayList<>());
+                if (inspectedType != null) {
+                    action.setInspectedTypes(inspectedType);
+                }
+                action.execute(state);
+                writer.join();
+                reader.join();
+                if (inspectedType != null) {
+                    assertArrayEquals(records, forwarded.toByteArray());
+                    assertEquals(RECORDS, action.getPassedThroughRecords());
+                } else {
+                    assertEquals(records.length, forwarded.size());
+                }
+                return end[0] - start;
+            } finally {
+                clientCtx.getTransportHandler().closeConnection();
+                serverCtx.getTransportHandler().closeConnection();
+            }
+        }
+    }
+
+    private static byte[] createApplicationRecords() {
+        Random random = new Random(0);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        byte[] content = new byte[RECORD_LENGTH];
+        for (int i = 0; i < RECORDS; i++) {
+            random.nextBytes(content);
+            stream.write(ProtocolMessageType.APPLICATION_DATA.getValue());
+            stream.write(0x03);
+            stream.write(0x03);
+            stream.write(RECORD_LENGTH >> 8);
+            stream.write(RECORD_LENGTH & 0xFF);
+            stream.write(content, 0, content.length);
+        }
+        return stream.toByteArray();
+    }
+
+    /**
+     * @return the time the last byte was read
+     */
+    private static long readFully(InputStream in, ByteArrayOutputStream out, int length) throws IOException {
+        byte[] buffer = new byte[RECORD_LENGTH];
+        long lastRead = System.currentTimeMillis();
+        try {
+            while (out.size() < length) {
+                int read = in.read(buffer);
+                if (read == -1) {
+                    break;
+                }
+                out.write(buffer, 0, read);
+                lastRead = System.currentTimeMillis();
+            }
+        } catch (SocketTimeoutException e) {
+            LOGGER.warn("Received only " + out.size() + " of " + length + " bytes");
+        }
+        return lastRead;
+    }
+
+    private static long getThroughput(int bytes, long millis) {
+        return bytes / 1000 / Math.max(1, millis);
+    }
+}
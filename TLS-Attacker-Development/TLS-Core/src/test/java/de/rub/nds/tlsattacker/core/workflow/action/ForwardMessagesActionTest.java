@@ -9,18 +9,22 @@
 
 package de.rub.nds.tlsattacker.core.workflow.action;
 
+import de.rub.nds.modifiablevariable.util.ArrayConverter;
 import de.rub.nds.tlsattacker.core.config.Config;
 import de.rub.nds.tlsattacker.core.connection.InboundConnection;
 import de.rub.nds.tlsattacker.core.connection.OutboundConnection;
 import de.rub.nds.tlsattacker.core.constants.AlertDescription;
 import de.rub.nds.tlsattacker.core.constants.AlertLevel;
 import de.rub.nds.tlsattacker.core.constants.CipherSuite;
+import de.rub.nds.tlsattacker.core.constants.ProtocolMessageType;
 import de.rub.nds.tlsattacker.core.exceptions.WorkflowExecutionException;
 import de.rub.nds.tlsattacker.core.protocol.message.AlertMessage;
 import de.rub.nds.tlsattacker.core.protocol.message.ApplicationMessage;
+import de.rub.nds.tlsattacker.core.protocol.message.ChangeCipherSpecMessage;
 import de.rub.nds.tlsattacker.core.protocol.message.ClientHelloMessage;
 import de.rub.nds.tlsattacker.core.protocol.ProtocolMessage;
 import de.rub.nds.tlsattacker.core.record.cipher.RecordBlockCipher;
+import de.rub.nds.tlsattacker.core.record.cipher.RecordNullCipher;
 import de.rub.nds.tlsattacker.core.record.cipher.cryptohelper.KeySetGenerator;
 import de.rub.nds.tlsattacker.core.record.layer.TlsRecordLayer;
 import de.rub.nds.tlsattacker.core.state.State;
@@ -32,11 +36,15 @@ import de.rub.nds.tlsattacker.core.workflow.action.executor.FakeReceiveMessageHe
 import de.rub.nds.tlsattacker.core.workflow.filter.DefaultFilter;
 import de.rub.nds.tlsattacker.core.workflow.filter.Filter;
 import de.rub.nds.tlsattacker.transport.ConnectionEndType;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
 import javax.xml.bind.JAXB;
 import javax.xml.bind.JAXBException;
@@ -44,7 +52,10 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import static org.hamcrest.CoreMatchers.equalTo;
 import org.junit.Assert;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import org.junit.Before;
@@ -220,4 +231,113 @@ public class ForwardMessagesActionTest {
         String forwardedData = new String(forwardedMsg.getData().getValue());
         assertThat(forwardedData, equalTo(receivedData));
     }
+
+    @Test
+    public void uninspectedRecordsArePassedThroughVerbatim() throws Exception {
+        byte[] appData = new byte[] { 0x17, 0x03, 0x03, 0x00, 0x03, 1, 2, 3, 0x17, 0x03, 0x03, 0x00, 0x01, 4 };
+        FakeTransportHandler th = (FakeTransportHandler) ctx1.getTransportHandler();
+        th.setFetchableByte(appData);
+
+        action = new ForwardMessagesAction(ctx1Alias, ctx2Alias);
+        action.setInspectedTypes(ProtocolMessageType.ALERT);
+        action.execute(state);
+        assertTrue(action.isExecuted());
+        assertTrue(action.executedAsPlanned());
+        assertEquals(2, action.getPassedThroughRecords());
+        assertTrue(action.getReceivedMessages().isEmpty());
+        assertSame(appData, ((FakeTransportHandler) ctx2.getTransportHandler()).getSendByte());
+        assertEquals(2, ctx1.getRecordLayer().getDecryptorCipher().getState().getReadSequenceNumber());
+        assertEquals(2, ctx2.getRecordLayer().getEncryptorCipher().getState().getWriteSequenceNumber());
+    }
+
+    @Test
+    public void recordsSplitAcrossFetchesArePassedThroughCompletely() throws Exception {
+        byte[] first = new byte[] { 0x17, 0x03, 0x03, 0x00, 0x05, 1, 2 };
+        byte[] second = new byte[] { 3, 4, 5, 0x17, 0x03, 0x03, 0x00, 0x01, 6 };
+        Deque<byte[]> fetches = new ArrayDeque<>(Arrays.asList(first, second));
+        ctx1.setTransportHandler(new FakeTransportHandler(ConnectionEndType.SERVER) {
+            @Override
+            public byte[] fetchData() throws IOException {
+                return fetches.isEmpty() ? new byte[0] : fetches.poll();
+            }
+        });
+        ByteArrayOutputStream forwarded = new ByteArrayOutputStream();
+        ctx2.setTransportHandler(new FakeTransportHandler(ConnectionEndType.CLIENT) {
+            @Override
+            public void sendData(byte[] data) throws IOException {
+                forwarded.write(data);
+            }
+        });
+
+        action = new ForwardMessagesAction(ctx1Alias, ctx2Alias);
+        action.setInspectedTypes(ProtocolMessageType.ALERT);
+        action.execute(state);
+        assertTrue(action.executedAsPlanned());
+        assertEquals(2, action.getPassedThroughRecords());
+        assertArrayEquals(ArrayConverter.concatenate(first, second), forwarded.toByteArray());
+    }
+
+    @Test
+    public void inspectedRecordsAreParsedWhenPassingThrough() throws Exception {
+        byte[] records = new byte[] { 0x17, 0x03, 0x03, 0x00, 0x03, 1, 2, 3, 0x15, 0x03, 0x03, 0x00, 0x02, 0x02, 50 };
+        FakeTransportHandler th = (FakeTransportHandler) ctx1.getTransportHandler();
+        th.setFetchableByte(records);
+
+        action = new ForwardMessagesAction(ctx1Alias, ctx2Alias, alert);
+        action.setInspectedTypes(ProtocolMessageType.ALERT);
+        action.execute(state);
+        assertTrue(action.executedAsPlanned());
+        assertEquals(1, action.getPassedThroughRecords());
+        assertEquals(1, action.getReceivedMessages().size());
+        assertTrue(action.getReceivedMessages().get(0) instanceof AlertMessage);
+        assertArrayEquals(new byte[] { 0x15, 0x03, 0x03, 0x00, 0x02, 0x02, 50 },
+            ((FakeTransportHandler) ctx2.getTransportHandler()).getSendByte());
+    }
+
+    @Test
+    public void changeCipherSpecIsParsedIfHandshakeIsInspected() throws Exception {
+        FakeTransportHandler th = (FakeTransportHandler) ctx1.getTransportHandler();
+        th.setFetchableByte(new byte[] { 0x14, 0x03, 0x03, 0x00, 0x01, 0x01 });
+
+        action = new ForwardMessagesAction(ctx1Alias, ctx2Alias, new ChangeCipherSpecMessage());
+        action.setInspectedTypes(ProtocolMessageType.HANDSHAKE);
+        action.execute(state);
+        assertTrue(action.executedAsPlanned());
+        assertEquals(0, action.getPassedThroughRecords());
+        assertTrue(action.getReceivedMessages().get(0) instanceof ChangeCipherSpecMessage);
+        assertFalse(ctx1.getRecordLayer().getDecryptorCipher() instanceof RecordNullCipher);
+        assertFalse(ctx2.getRecordLayer().getEncryptorCipher() instanceof RecordNullCipher);
+    }
+
+    @Test
+    public void passingThroughStopsOnceTheExpectedMessagesArrived() throws Exception {
+        byte[] alertRecord = new byte[] { 0x15, 0x03, 0x03, 0x00, 0x02, 0x02, 50 };
+        byte[] appData = new byte[] { 0x17, 0x03, 0x03, 0x00, 0x01, 1 };
+        Deque<byte[]> fetches = new ArrayDeque<>(Arrays.asList(alertRecord, appData));
+        ctx1.setTransportHandler(new FakeTransportHandler(ConnectionEndType.SERVER) {
+            @Override
+            public byte[] fetchData() throws IOException {
+                return fetches.isEmpty() ? new byte[0] : fetches.poll();
+            }
+        });
+
+        action = new ForwardMessagesAction(ctx1Alias, ctx2Alias, alert);
+        action.setInspectedTypes(ProtocolMessageType.ALERT);
+        action.execute(state);
+        assertTrue(action.executedAsPlanned());
+        assertEquals(1, fetches.size());
+        assertEquals(0, action.getPassedThroughRecords());
+    }
+
+    @Test
+    public void marshalingAndUnmarshalingKeepsInspectedTypes() {
+        action = new ForwardMessagesAction(ctx1Alias, ctx2Alias, new ClientHelloMessage());
+        action.setInspectedTypes(ProtocolMessageType.HANDSHAKE, ProtocolMessageType.ALERT);
+        StringWriter writer = new StringWriter();
+        JAXB.marshal(action, writer);
+        ForwardMessagesAction actual =
+            JAXB.unmarshal(new StringReader(writer.getBuffer().toString()), ForwardMessagesAction.class);
+        assertEquals(action, actual);
+        assertEquals(action.getInspectedTypes(), actual.getInspectedTypes());
+    }
 }
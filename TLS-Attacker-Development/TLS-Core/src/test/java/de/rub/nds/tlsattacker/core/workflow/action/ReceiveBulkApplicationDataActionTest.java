@@ -0,0 +1,115 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.core.workflow.action;
+
+import de.rub.nds.tlsattacker.core.exceptions.WorkflowExecutionException;
+import de.rub.nds.tlsattacker.core.record.layer.TlsRecordLayer;
+import de.rub.nds.tlsattacker.core.state.State;
+import de.rub.nds.tlsattacker.core.state.TlsContext;
+import de.rub.nds.tlsattacker.core.unittest.helper.FakeTransportHandler;
+import de.rub.nds.tlsattacker.core.workflow.WorkflowTrace;
+import de.rub.nds.tlsattacker.transport.ConnectionEndType;
+import de.rub.nds.tlsattacker.util.tests.SlowTests;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+public class ReceiveBulkApplicationDataActionTest {
+
+    private State state;
+    private TlsContext tlsContext;
+    private FakeTransportHandler transportHandler;
+
+    private ReceiveBulkApplicationDataAction action;
+
+    @Before
+    public void setUp() {
+        action = new ReceiveBulkApplicationDataAction(8L, null);
+
+        WorkflowTrace trace = new WorkflowTrace();
+        trace.addTlsAction(action);
+        state = new State(trace);
+
+        tlsContext = state.getTlsContext();
+        tlsContext.setRecordLayer(new TlsRecordLayer(tlsContext));
+        transportHandler = new FakeTransportHandler(ConnectionEndType.SERVER);
+        tlsContext.setTransportHandler(transportHandler);
+    }
+
+    @Test
+    public void testExecute() {
+        transportHandler.setFetchableByte(
+            new byte[] { 0x17, 0x03, 0x03, 0x00, 0x05, 1, 2, 3, 4, 5, 0x17, 0x03, 0x03, 0x00, 0x03, 6, 7, 8 });
+        action.execute(state);
+        assertTrue(action.isExecuted());
+        assertTrue(action.executedAsPlanned());
+        assertEquals(8, action.getStatistics().getBytes());
+        assertEquals(1, action.getStatistics().getSamples());
+    }
+
+    @Test
+    public void testExecuteIncompleteRecord() {
+        // the second record is cut off and never completed
+        transportHandler.setFetchableByte(
+            new byte[] { 0x17, 0x03, 0x03, 0x00, 0x05, 1, 2, 3, 4, 5, 0x17, 0x03, 0x03, 0x00, 0x03, 6 });
+        action.execute(state);
+        assertTrue(action.isExecuted());
+        assertFalse(action.executedAsPlanned());
+        assertEquals(5, action.getStatistics().getBytes());
+    }
+
+    @Test
+    public void testExecuteStopsOnAlert() {
+        action.setLength(100L);
+        transportHandler.setFetchableByte(
+            new byte[] { 0x17, 0x03, 0x03, 0x00, 0x05, 1, 2, 3, 4, 5, 0x15, 0x03, 0x03, 0x00, 0x02, 0x01, 0x00 });
+        action.execute(state);
+        assertTrue(action.isExecuted());
+        assertFalse(action.executedAsPlanned());
+        assertEquals(5, action.getStatistics().getBytes());
+    }
+
+    @Test(expected = WorkflowExecutionException.class)
+    public void testExecuteWithoutLimit() {
+        action.setLength(null);
+        action.execute(state);
+    }
+
+    @Test
+    public void testReset() {
+        assertFalse(action.isExecuted());
+        action.execute(state);
+        assertTrue(action.isExecuted());
+        action.reset();
+        assertFalse(action.isExecuted());
+        assertNull(action.getStatistics());
+        action.execute(state);
+        assertTrue(action.isExecuted());
+    }
+
+    @Test
+    @Category(SlowTests.class)
+    public void marshalingEmptyActionYieldsMinimalOutput() {
+        ActionTestUtils.marshalingEmptyActionYieldsMinimalOutput(ReceiveBulkApplicationDataAction.class);
+    }
+
+    @Test
+    @Category(SlowTests.class)
+    public void marshalingAndUnmarshalingEmptyObjectYieldsEqualObject() {
+        ActionTestUtils.marshalingAndUnmarshalingEmptyObjectYieldsEqualObject(ReceiveBulkApplicationDataAction.class);
+    }
+
+    @Test
+    @Category(SlowTests.class)
+    public void marshalingAndUnmarshalingFilledObjectYieldsEqualObject() {
+        ActionTestUtils.marshalingAndUnmarshalingFilledObjectYieldsEqualObject(action);
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.core.workflow.action;
+
+import de.rub.nds.tlsattacker.core.constants.ProtocolMessageType;
+import de.rub.nds.tlsattacker.core.exceptions.WorkflowExecutionException;
+import de.rub.nds.tlsattacker.core.record.layer.TlsRecordLayer;
+import de.rub.nds.tlsattacker.core.state.State;
+import de.rub.nds.tlsattacker.core.state.TlsContext;
+import de.rub.nds.tlsattacker.core.unittest.helper.FakeTransportHandler;
+import de.rub.nds.tlsattacker.core.workflow.WorkflowTrace;
+import de.rub.nds.tlsattacker.transport.ConnectionEndType;
+import de.rub.nds.tlsattacker.util.tests.SlowTests;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+public class SendBulkApplicationDataActionTest {
+
+    private State state;
+    private TlsContext tlsContext;
+    private FakeTransportHandler transportHandler;
+
+    private SendBulkApplicationDataAction action;
+
+    @Before
+    public void setUp() {
+        action = new SendBulkApplicationDataAction(40000L, null);
+
+        WorkflowTrace trace = new WorkflowTrace();
+        trace.addTlsAction(action);
+        state = new State(trace);
+
+        tlsContext = state.getTlsContext();
+        tlsContext.setRecordLayer(new TlsRecordLayer(tlsContext));
+        transportHandler = new FakeTransportHandler(ConnectionEndType.CLIENT);
+        tlsContext.setTransportHandler(transportHandler);
+    }
+
+    @Test
+    public void testExecute() {
+        action.execute(state);
+        assertTrue(action.isExecuted());
+        assertTrue(action.executedAsPlanned());
+        assertEquals(40000, action.getStatistics().getBytes());
+        assertEquals(1, action.getStatistics().getSamples());
+
+        // two full records and the rest
+        byte[] sent = transportHandler.getSendByte();
+        assertEquals(40000 + 3 * 5, sent.length);
+        assertEquals(ProtocolMessageType.APPLICATION_DATA.getValue(), sent[0]);
+        assertEquals(ProtocolMessageType.APPLICATION_DATA.getValue(), sent[16384 + 5]);
+        assertEquals(ProtocolMessageType.APPLICATION_DATA.getValue(), sent[2 * (16384 + 5)]);
+    }
+
+    @Test
+    public void testExecuteSeveralBatches() {
+        action.setLength(600000L);
+        action.execute(state);
+        assertTrue(action.executedAsPlanned());
+        assertEquals(600000, action.getStatistics().getBytes());
+        assertEquals(3, action.getStatistics().getSamples());
+
+        // the last batch only uses the records it needs
+        int lastBatch = 600000 - 2 * 16 * 16384;
+        assertEquals(lastBatch + 5 * 5, transportHandler.getSendByte().length);
+    }
+
+    @Test
+    public void testExecuteDuration() {
+        action.setLength(null);
+        action.setDuration(50L);
+        action.execute(state);
+        assertTrue(action.executedAsPlanned());
+        assertTrue(action.getStatistics().getBytes() > 0);
+        assertTrue(action.getStatistics().getDurationNanos() >= 50000000L);
+    }
+
+    @Test(expected = WorkflowExecutionException.class)
+    public void testExecuteWithoutLimit() {
+        action.setLength(0L);
+        action.execute(state);
+    }
+
+    @Test
+    public void testReset() {
+        assertFalse(action.isExecuted());
+        action.execute(state);
+        assertTrue(action.isExecuted());
+        action.reset();
+        assertFalse(action.isExecuted());
+        assertNull(action.getStatistics());
+        action.execute(state);
+        assertTrue(action.isExecuted());
+    }
+
+    @Test
+    @Category(SlowTests.class)
+    public void marshalingEmptyActionYieldsMinimalOutput() {
+        ActionTestUtils.marshalingEmptyActionYieldsMinimalOutput(SendBulkApplicationDataAction.class);
+    }
+
+    @Test
+    @Category(SlowTests.class)
+    public void marshalingAndUnmarshalingEmptyObjectYieldsEqualObject() {
+        ActionTestUtils.marshalingAndUnmarshalingEmptyObjectYieldsEqualObject(SendBulkApplicationDataAction.class);
+    }
+
+    @Test
+    @Category(SlowTests.class)
+    public void marshalingAndUnmarshalingFilledObjectYieldsEqualObject() {
+        ActionTestUtils.marshalingAndUnmarshalingFilledObjectYieldsEqualObject(action);
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.core.workflow.action.executor;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ApplicationDataStatisticsTest {
+
+    private ApplicationDataStatistics statistics;
+
+    @Before
+    public void setUp() {
+        statistics = new ApplicationDataStatistics();
+    }
+
+    @Test
+    public void testPercentilesWithoutSamples() {
+        assertEquals(0, statistics.getLatencyPercentile(50));
+        assertEquals(0, statistics.getSamples());
+        assertEquals(0, statistics.getThroughput(), 0);
+    }
+
+    @Test
+    public void testPercentiles() {
+        // more samples than the initial capacity, added in reverse order
+        for (int i = 2000; i > 0; i--) {
+            statistics.addSample(i, 10);
+        }
+        assertEquals(2000, statistics.getSamples());
+        assertEquals(20000, statistics.getBytes());
+        assertEquals(1, statistics.getLatencyPercentile(0));
+        assertEquals(1000, statistics.getLatencyPercentile(50));
+        assertEquals(1980, statistics.getLatencyPercentile(99));
+        assertEquals(2000, statistics.getLatencyPercentile(100));
+
+        statistics.addSample(5000, 10);
+        assertEquals(5000, statistics.getLatencyPercentile(100));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPercentile() {
+        statistics.getLatencyPercentile(101);
+    }
+
+    @Test
+    public void testThroughput() throws InterruptedException {
+        statistics.start();
+        statistics.addSample(1, 1000000);
+        Thread.sleep(100);
+        statistics.stop();
+        double throughput = statistics.getThroughput();
+        // at most 10 MB/s, since at least 100 ms passed
+        assertEquals(5000000, throughput, 5000000);
+    }
+}
@@ -27,8 +27,11 @@ import de.rub.nds.tlsattacker.core.workflow.WorkflowTrace;
 import de.rub.nds.tlsattacker.core.workflow.action.GenericReceiveAsciiAction;
 import de.rub.nds.tlsattacker.core.workflow.action.MessageAction;
 import de.rub.nds.tlsattacker.core.workflow.action.ReceiveAction;
+import de.rub.nds.tlsattacker.core.workflow.action.ReceiveBulkApplicationDataAction;
 import de.rub.nds.tlsattacker.core.workflow.action.ReceivingAction;
 import de.rub.nds.tlsattacker.core.workflow.action.SendAsciiAction;
+import de.rub.nds.tlsattacker.core.workflow.action.SendBulkApplicationDataAction;
+import de.rub.nds.tlsattacker.core.workflow.action.TlsAction;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
@@ -417,4 +420,27 @@ public class WorkflowConfigurationFactoryTest {
         Assert.assertEquals(SendAsciiAction.class, workflowTrace.getTlsActions().get(3).getClass());
         Assert.assertEquals(GenericReceiveAsciiAction.class, workflowTrace.getTlsActions().get(4).getClass());
     }
+
+    /**
+     * Test of the BULK_APPLICATION_DATA workflow trace type, the client streams the data to the server.
+     */
+    @Test
+    public void testCreateBulkApplicationDataWorkflow() {
+        config.setBulkApplicationDataLength(1024L);
+        config.setBulkApplicationDataDuration(0L);
+        workflowConfigurationFactory = new WorkflowConfigurationFactory(config);
+
+        WorkflowTrace clientTrace = workflowConfigurationFactory
+            .createWorkflowTrace(WorkflowTraceType.BULK_APPLICATION_DATA, RunningModeType.CLIENT);
+        TlsAction lastAction = clientTrace.getLastAction();
+        Assert.assertEquals(SendBulkApplicationDataAction.class, lastAction.getClass());
+        Assert.assertEquals(1024L, (long) ((SendBulkApplicationDataAction) lastAction).getLength());
+        Assert.assertEquals(0L, (long) ((SendBulkApplicationDataAction) lastAction).getDuration());
+
+        WorkflowTrace serverTrace = workflowConfigurationFactory
+            .createWorkflowTrace(WorkflowTraceType.BULK_APPLICATION_DATA, RunningModeType.SERVER);
+        lastAction = serverTrace.getLastAction();
+        Assert.assertEquals(ReceiveBulkApplicationDataAction.class, lastAction.getClass());
+        Assert.assertEquals(1024L, (long) ((ReceiveBulkApplicationDataAction) lastAction).getLength());
+    }
 }
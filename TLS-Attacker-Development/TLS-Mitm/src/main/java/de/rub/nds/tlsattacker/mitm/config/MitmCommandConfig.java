@@ -9,6 +9,7 @@
 
 package de.rub.nds.tlsattacker.mitm.config;
 
+import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParametersDelegate;
 import de.rub.nds.tlsattacker.core.config.TLSDelegateConfig;
 import de.rub.nds.tlsattacker.core.config.delegate.CertificateDelegate;
@@ -29,6 +30,8 @@ import de.rub.nds.tlsattacker.core.config.delegate.TimeoutDelegate;
 import de.rub.nds.tlsattacker.core.config.delegate.TransportHandlerDelegate;
 import de.rub.nds.tlsattacker.core.config.delegate.WorkflowInputDelegate;
 import de.rub.nds.tlsattacker.core.config.delegate.WorkflowOutputDelegate;
+import de.rub.nds.tlsattacker.core.constants.ProtocolMessageType;
+import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -73,6 +76,12 @@ public class MitmCommandConfig extends TLSDelegateConfig {
     @ParametersDelegate
     private ExecutorTypeDelegate executorTypeDelegate;
 
+    @Parameter(names = "-inspect",
+        description = "Only parse forwarded records of these content types, divided by a comma, e.g. HANDSHAKE,ALERT. "
+            + "CHANGE_CIPHER_SPEC records are parsed along with HANDSHAKE records. All other records are passed "
+            + "through verbatim while both connections use the same record protection.")
+    private List<ProtocolMessageType> inspectedTypes = null;
+
     public MitmCommandConfig(GeneralDelegate delegate) {
         super(delegate);
         this.ciphersuiteDelegate = new CipherSuiteDelegate();
@@ -111,4 +120,12 @@ public class MitmCommandConfig extends TLSDelegateConfig {
         addDelegate(timeoutDelegate);
         addDelegate(executorTypeDelegate);
     }
+
+    public List<ProtocolMessageType> getInspectedTypes() {
+        return inspectedTypes;
+    }
+
+    public void setInspectedTypes(List<ProtocolMessageType> inspectedTypes) {
+        this.inspectedTypes = inspectedTypes;
+    }
 }
@@ -14,12 +14,16 @@ import com.beust.jcommander.ParameterException;
 import de.rub.nds.tlsattacker.core.config.Config;
 import de.rub.nds.tlsattacker.core.config.delegate.GeneralDelegate;
 import de.rub.nds.tlsattacker.core.config.delegate.ListDelegate;
+import de.rub.nds.tlsattacker.core.constants.ProtocolMessageType;
 import de.rub.nds.tlsattacker.core.exceptions.ConfigurationException;
 import de.rub.nds.tlsattacker.core.exceptions.WorkflowExecutionException;
 import de.rub.nds.tlsattacker.core.state.State;
 import de.rub.nds.tlsattacker.core.workflow.WorkflowExecutor;
 import de.rub.nds.tlsattacker.core.workflow.WorkflowExecutorFactory;
+import de.rub.nds.tlsattacker.core.workflow.action.ForwardMessagesAction;
+import de.rub.nds.tlsattacker.core.workflow.action.TlsAction;
 import de.rub.nds.tlsattacker.mitm.config.MitmCommandConfig;
+import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -58,7 +62,7 @@ public class TlsMitm implements Runnable {
 
         try {
             Config config = cmdConfig.createConfig();
-            executeMitmWorkflow(config);
+            executeMitmWorkflow(config, cmdConfig.getInspectedTypes());
         } catch (WorkflowExecutionException wee) {
             LOGGER.error("The TLS protocol flow was not executed completely. " + wee.getLocalizedMessage()
                 + " - See debug messages for more details.");
@@ -78,10 +82,29 @@ public class TlsMitm implements Runnable {
     }
 
     public void executeMitmWorkflow(Config config) throws ConfigurationException, WorkflowExecutionException {
+        executeMitmWorkflow(config, null);
+    }
+
+    /**
+     * @param  inspectedTypes
+     *                        If not null, the forwarding actions only parse records of these content types and pass all
+     *                        other records through verbatim
+     * @return                The state of the executed workflow
+     */
+    public State executeMitmWorkflow(Config config, List<ProtocolMessageType> inspectedTypes)
+        throws ConfigurationException, WorkflowExecutionException {
         LOGGER.debug("Creating and launching mitm.");
         State state = new State(config);
+        if (inspectedTypes != null) {
+            for (TlsAction action : state.getWorkflowTrace().getTlsActions()) {
+                if (action instanceof ForwardMessagesAction) {
+                    ((ForwardMessagesAction) action).setInspectedTypes(inspectedTypes);
+                }
+            }
+        }
         WorkflowExecutor workflowExecutor =
             WorkflowExecutorFactory.createWorkflowExecutor(config.getWorkflowExecutorType(), state);
         workflowExecutor.executeWorkflow();
+        return state;
     }
 }
@@ -9,15 +9,34 @@
 
 package de.rub.nds.tlsattacker.mitm.main;
 
+import com.beust.jcommander.JCommander;
 import de.rub.nds.modifiablevariable.util.BadRandom;
+import de.rub.nds.tlsattacker.core.config.Config;
+import de.rub.nds.tlsattacker.core.config.delegate.GeneralDelegate;
 import de.rub.nds.tlsattacker.core.constants.CipherSuite;
+import de.rub.nds.tlsattacker.core.constants.ProtocolMessageType;
 import de.rub.nds.tlsattacker.core.constants.ProtocolVersion;
+import de.rub.nds.tlsattacker.core.protocol.ProtocolMessage;
+import de.rub.nds.tlsattacker.core.protocol.message.CertificateMessage;
+import de.rub.nds.tlsattacker.core.protocol.message.ChangeCipherSpecMessage;
+import de.rub.nds.tlsattacker.core.protocol.message.ClientHelloMessage;
+import de.rub.nds.tlsattacker.core.protocol.message.FinishedMessage;
+import de.rub.nds.tlsattacker.core.protocol.message.RSAClientKeyExchangeMessage;
+import de.rub.nds.tlsattacker.core.protocol.message.ServerHelloDoneMessage;
+import de.rub.nds.tlsattacker.core.protocol.message.ServerHelloMessage;
+import de.rub.nds.tlsattacker.core.record.cipher.RecordNullCipher;
+import de.rub.nds.tlsattacker.core.state.State;
 import de.rub.nds.tlsattacker.core.util.BasicTlsClient;
 import de.rub.nds.tlsattacker.core.util.BasicTlsServer;
 import de.rub.nds.tlsattacker.core.util.KeyStoreGenerator;
+import de.rub.nds.tlsattacker.core.workflow.WorkflowTrace;
+import de.rub.nds.tlsattacker.core.workflow.WorkflowTraceSerializer;
+import de.rub.nds.tlsattacker.core.workflow.action.ForwardMessagesAction;
+import de.rub.nds.tlsattacker.mitm.config.MitmCommandConfig;
 import de.rub.nds.tlsattacker.util.FixedTimeProvider;
 import de.rub.nds.tlsattacker.util.TimeHelper;
 import de.rub.nds.tlsattacker.util.tests.IntegrationTests;
+import java.io.File;
 import java.io.IOException;
 import java.security.InvalidKeyException;
 import java.security.KeyManagementException;
@@ -29,12 +48,17 @@ import java.security.NoSuchProviderException;
 import java.security.SignatureException;
 import java.security.UnrecoverableKeyException;
 import java.security.cert.CertificateException;
+import java.security.interfaces.RSAPrivateKey;
+import java.util.List;
 import java.util.Random;
+import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.bouncycastle.operator.OperatorCreationException;
 import org.junit.After;
 import org.junit.AfterClass;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -47,6 +71,7 @@ public class TlsMitmTest {
 
     private static final int SERVER_PORT = 0;
     private static final int MITM_PORT = 8877;
+    private static final int INSPECTING_MITM_PORT = 8878;
     private BadRandom random = new BadRandom(new Random(0), null);
 
     public TlsMitmTest() {
@@ -128,4 +153,88 @@ public class TlsMitmTest {
             fail();
         }
     }
+
+    /**
+     * Forwards a TLS 1.2 handshake between a JSSE client and a JSSE server while only handshake records are inspected.
+     * The mitm knows the server key, so both of its connections negotiate the keys of the peers. The encrypted Finished
+     * messages can only be parsed and forwarded if the ChangeCipherSpec records are applied to both connections instead
+     * of being passed through.
+     */
+    @Test
+    @Category(IntegrationTests.class)
+    public void checkForwardingMitmWithInspectedHandshake() throws Exception {
+        TimeHelper.setProvider(new FixedTimeProvider(0));
+        KeyPair k = KeyStoreGenerator.createRSAKeyPair(1024, random);
+        KeyStore ks = KeyStoreGenerator.createKeyStore(k, random);
+        BasicTlsServer serverThread = new BasicTlsServer(ks, KeyStoreGenerator.PASSWORD, "TLS", SERVER_PORT);
+        CipherSuite cipherSuite = CipherSuite.TLS_RSA_WITH_AES_128_CBC_SHA;
+
+        LOGGER.info("Starting test server");
+        serverThread.start();
+        while (!serverThread.isInitialized())
+            ;
+
+        MitmCommandConfig cmdConfig = new MitmCommandConfig(new GeneralDelegate());
+        new JCommander(cmdConfig).parse("-connect", "localhost:" + serverThread.getPort(), "-accept",
+            Integer.toString(INSPECTING_MITM_PORT), "-cipher", cipherSuite.name(), "-inspect", "HANDSHAKE");
+        Config config = cmdConfig.createConfig();
+        RSAPrivateKey privateKey = (RSAPrivateKey) k.getPrivate();
+        config.setDefaultServerRSAModulus(privateKey.getModulus());
+        config.setDefaultServerRSAPrivateKey(privateKey.getPrivateExponent());
+
+        String clientToMitm = config.getDefaultServerConnection().getAlias();
+        String mitmToServer = config.getDefaultClientConnection().getAlias();
+        WorkflowTrace trace = new WorkflowTrace();
+        trace.addTlsAction(new ForwardMessagesAction(clientToMitm, mitmToServer, new ClientHelloMessage()));
+        trace.addTlsAction(new ForwardMessagesAction(mitmToServer, clientToMitm, new ServerHelloMessage(),
+            new CertificateMessage(), new ServerHelloDoneMessage()));
+        trace.addTlsAction(new ForwardMessagesAction(clientToMitm, mitmToServer, new RSAClientKeyExchangeMessage(),
+            new ChangeCipherSpecMessage(), new FinishedMessage()));
+        trace.addTlsAction(new ForwardMessagesAction(mitmToServer, clientToMitm, new ChangeCipherSpecMessage(),
+            new FinishedMessage()));
+        File traceFile = File.createTempFile("forwardingMitm", ".xml");
+        traceFile.deleteOnExit();
+        WorkflowTraceSerializer.write(traceFile, trace);
+        config.setWorkflowInput(traceFile.getAbsolutePath());
+
+        LOGGER.info("Starting mitm");
+        State[] state = new State[1];
+        Thread mitmThread =
+            new Thread(() -> state[0] = new TlsMitm().executeMitmWorkflow(config, cmdConfig.getInspectedTypes()));
+        mitmThread.start();
+
+        LOGGER.info("Starting test client");
+        BasicTlsClient clientThread =
+            new BasicTlsClient("localhost", INSPECTING_MITM_PORT, ProtocolVersion.TLS12, cipherSuite);
+        clientThread.setRetryConnect(true);
+        clientThread.start();
+        mitmThread.join();
+        clientThread.join();
+        serverThread.shutdown();
+
+        List<ForwardMessagesAction> actions =
+            state[0].getWorkflowTrace().getTlsActions().stream().filter(ForwardMessagesAction.class::isInstance)
+                .map(ForwardMessagesAction.class::cast).collect(Collectors.toList());
+        assertTrue(actions.get(0).getInspectedTypes().contains(ProtocolMessageType.HANDSHAKE));
+        assertTrue(containsFinished(actions.get(2).getReceivedMessages()));
+        // the server only answers with its Finished if the forwarded Finished of the client was valid
+        assertTrue(containsFinished(actions.get(3).getReceivedMessages()));
+        assertTrue(containsFinished(actions.get(3).getSendMessages()));
+        assertFalse(
+            state[0].getTlsContext(clientToMitm).getRecordLayer().getEncryptorCipher() instanceof RecordNullCipher);
+        assertFalse(
+            state[0].getTlsContext(mitmToServer).getRecordLayer().getDecryptorCipher() instanceof RecordNullCipher);
+    }
+
+    private static boolean containsFinished(List<ProtocolMessage> messages) {
+        if (messages == null) {
+            return false;
+        }
+        for (ProtocolMessage message : messages) {
+            if (message instanceof FinishedMessage) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -12,6 +12,7 @@ package de.rub.nds.tlsattacker.server.config;
 import com.beust.jcommander.ParametersDelegate;
 import de.rub.nds.tlsattacker.core.config.Config;
 import de.rub.nds.tlsattacker.core.config.TLSDelegateConfig;
+import de.rub.nds.tlsattacker.core.config.delegate.BulkApplicationDataDelegate;
 import de.rub.nds.tlsattacker.core.config.delegate.CertificateDelegate;
 import de.rub.nds.tlsattacker.core.config.delegate.CipherSuiteDelegate;
 import de.rub.nds.tlsattacker.core.config.delegate.ConfigOutputDelegate;
@@ -70,6 +71,8 @@ public class ServerCommandConfig extends TLSDelegateConfig {
     private ExecutorTypeDelegate executorTypeDelegate;
     @ParametersDelegate
     private StarttlsDelegate starttlsDelegate;
+    @ParametersDelegate
+    private BulkApplicationDataDelegate bulkApplicationDataDelegate;
 
     public ServerCommandConfig(GeneralDelegate delegate) {
         super(delegate);
@@ -90,6 +93,7 @@ public class ServerCommandConfig extends TLSDelegateConfig {
         this.configOutputDelegate = new ConfigOutputDelegate();
         this.executorTypeDelegate = new ExecutorTypeDelegate();
         this.starttlsDelegate = new StarttlsDelegate();
+        this.bulkApplicationDataDelegate = new BulkApplicationDataDelegate();
         addDelegate(maxFragmentLengthDelegate);
         addDelegate(ciphersuiteDelegate);
         addDelegate(ellipticCurveDelegate);
@@ -107,6 +111,7 @@ public class ServerCommandConfig extends TLSDelegateConfig {
         addDelegate(configOutputDelegate);
         addDelegate(executorTypeDelegate);
         addDelegate(starttlsDelegate);
+        addDelegate(bulkApplicationDataDelegate);
     }
 
     @Override
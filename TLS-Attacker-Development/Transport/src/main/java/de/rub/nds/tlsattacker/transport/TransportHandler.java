@@ -9,6 +9,8 @@
 
 package de.rub.nds.tlsattacker.transport;
 
+import de.rub.nds.tlsattacker.transport.capture.CapturedConnection;
+import de.rub.nds.tlsattacker.transport.capture.PacketCapture;
 import de.rub.nds.tlsattacker.transport.socket.SocketState;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -17,8 +19,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PushbackInputStream;
+import java.net.SocketAddress;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
+import java.util.Arrays;
 
 public abstract class TransportHandler {
 
@@ -40,6 +44,12 @@ public abstract class TransportHandler {
 
     protected SocketState cachedSocketState = null;
 
+    private PacketCapture packetCapture;
+
+    private String captureLabel;
+
+    private CapturedConnection capturedConnection;
+
     public TransportHandler(Connection con) {
         this.firstTimeout = con.getFirstTimeout();
         this.connectionEndType = con.getLocalConnectionEndType();
@@ -85,18 +95,14 @@ public abstract class TransportHandler {
         firstReceived = false;
         try {
             if (inStream.available() != 0) {
-                byte[] data = new byte[inStream.available()];
-                inStream.read(data);
-                return data;
+                return readAvailableData();
             } else {
                 int read = inStream.read();
                 if (read != -1) {
                     ByteArrayOutputStream stream = new ByteArrayOutputStream();
                     stream.write(read);
                     if (inStream.available() > 0) {
-                        byte[] data = new byte[inStream.available()];
-                        inStream.read(data);
-                        stream.write(data);
+                        stream.write(readAvailableData());
                     }
                     return stream.toByteArray();
                 } else {
@@ -113,6 +119,19 @@ public abstract class TransportHandler {
         }
     }
 
+    /**
+     * A single read may return fewer bytes than are available, e.g. socket streams read at most 64 KiB at once, so only
+     * the bytes actually read are returned
+     */
+    private byte[] readAvailableData() throws IOException {
+        byte[] data = new byte[inStream.available()];
+        int read = inStream.read(data);
+        if (read < 0) {
+            return new byte[0];
+        }
+        return read == data.length ? data : Arrays.copyOf(data, read);
+    }
+
     public void sendData(byte[] data) throws IOException {
         if (!initialized) {
             throw new IOException("Transport handler is not initialized!");
@@ -125,6 +144,78 @@ public abstract class TransportHandler {
         this.outStream = outStream;
         this.inStream = inStream;
         initialized = true;
+        if (packetCapture != null) {
+            startCapture();
+        }
+    }
+
+    public PacketCapture getPacketCapture() {
+        return packetCapture;
+    }
+
+    /**
+     * Records all data sent and received by this handler into the given capture. Each time the handler is
+     * (re-)initialized, a new connection is started in the capture. If the handler is already initialized, the
+     * recording starts with the current connection.
+     *
+     * @param packetCapture
+     *                      The capture to record into, or null to stop recording with the next initialization
+     */
+    public void setPacketCapture(PacketCapture packetCapture) {
+        setPacketCapture(packetCapture, null);
+    }
+
+    /**
+     * @param packetCapture
+     *                      The capture to record into, or null to stop recording with the next initialization
+     * @param label
+     *                      Describes the connections of this handler in the capture, such as the test they belong to
+     */
+    public void setPacketCapture(PacketCapture packetCapture, String label) {
+        this.packetCapture = packetCapture;
+        this.captureLabel = label;
+        if (packetCapture != null && initialized) {
+            startCapture();
+        }
+    }
+
+    /**
+     * @return The local address of the current connection, or null if it is not known
+     */
+    protected SocketAddress getLocalSocketAddress() {
+        return null;
+    }
+
+    /**
+     * @return The remote address of the current connection, or null if it is not known
+     */
+    protected SocketAddress getRemoteSocketAddress() {
+        return null;
+    }
+
+    /**
+     * @return True if data is sent in datagrams, which is recorded as UDP instead of TCP
+     */
+    protected boolean isDatagramTransport() {
+        return false;
+    }
+
+    /**
+     * Ends the recorded connection, to be called by handlers whose streams are not closed with their connection
+     */
+    protected void closeCapturedConnection() {
+        if (capturedConnection != null) {
+            capturedConnection.close();
+        }
+    }
+
+    private void startCapture() {
+        closeCapturedConnection();
+        capturedConnection =
+            packetCapture.startConnection(isDatagramTransport(), connectionEndType == ConnectionEndType.CLIENT,
+                this::getLocalSocketAddress, this::getRemoteSocketAddress, captureLabel);
+        inStream = new PushbackInputStream(capturedConnection.capture(inStream));
+        outStream = capturedConnection.capture(outStream);
     }
 
     public abstract void preInitialize() throws IOException;
@@ -0,0 +1,310 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.transport.capture;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
+
+/**
+ * A single TCP connection or UDP flow within a {@link PacketCapture}. The data is recorded by wrapping the streams of
+ * the transport handler with {@link #capture(InputStream)} and {@link #capture(OutputStream)}. Since the real segments
+ * are not visible to the streams, one packet is recorded per flush of the output stream and per bulk read of the input
+ * stream. Bytes read one at a time are collected and recorded together with the following read, which matches the way
+ * {@link de.rub.nds.tlsattacker.transport.TransportHandler#fetchData()} reads a record.
+ */
+public class CapturedConnection {
+
+    private static final int PROTOCOL_TCP = 6;
+
+    private static final int PROTOCOL_UDP = 17;
+
+    private static final int FIN = 0x01;
+
+    private static final int SYN = 0x02;
+
+    private static final int PSH = 0x08;
+
+    private static final int ACK = 0x10;
+
+    /**
+     * The payloads are limited so the length fields of the headers cannot overflow
+     */
+    private static final int MAX_TCP_PAYLOAD = 65495;
+
+    private static final int MAX_UDP_PAYLOAD = 65507;
+
+    private final PacketCapture capture;
+
+    private final String comment;
+
+    private final boolean datagram;
+
+    private final boolean localIsClient;
+
+    private final Supplier<SocketAddress> localAddressSupplier;
+
+    private final Supplier<SocketAddress> remoteAddressSupplier;
+
+    private final ByteArrayOutputStream pendingReceived = new ByteArrayOutputStream();
+
+    private InetSocketAddress localAddress;
+
+    private InetSocketAddress remoteAddress;
+
+    private boolean started = false;
+
+    private boolean closed = false;
+
+    private boolean localFinished = false;
+
+    private boolean remoteFinished = false;
+
+    private int localSequenceNumber = 0;
+
+    private int remoteSequenceNumber = 0;
+
+    private int identification = 0;
+
+    /**
+     * Only the first packet of the connection carries the comment
+     */
+    private boolean commented = false;
+
+    CapturedConnection(PacketCapture capture, String comment, boolean datagram, boolean localIsClient,
+        Supplier<SocketAddress> localAddressSupplier, Supplier<SocketAddress> remoteAddressSupplier) {
+        this.capture = capture;
+        this.comment = comment;
+        this.datagram = datagram;
+        this.localIsClient = localIsClient;
+        this.localAddressSupplier = localAddressSupplier;
+        this.remoteAddressSupplier = remoteAddressSupplier;
+    }
+
+    public InputStream capture(InputStream inputStream) {
+        return new CapturingInputStream(inputStream, this);
+    }
+
+    public OutputStream capture(OutputStream outputStream) {
+        return new CapturingOutputStream(outputStream, this);
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Ends the connection. For TCP a FIN of the local end is recorded unless it already was.
+     */
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            flushReceived();
+            if (!datagram && started && !localFinished) {
+                record(true, FIN | ACK, new byte[0], 0, 0);
+                localSequenceNumber++;
+                localFinished = true;
+                record(false, ACK, new byte[0], 0, 0);
+            }
+            closed = true;
+        }
+        capture.connectionClosed(this);
+    }
+
+    synchronized void start() {
+        if (started || closed) {
+            return;
+        }
+        started = true;
+        localAddress = resolve(localAddressSupplier.get());
+        remoteAddress = resolve(remoteAddressSupplier.get());
+        if (localAddress.getAddress().isAnyLocalAddress() && remoteAddress.getAddress().isLoopbackAddress()) {
+            localAddress = new InetSocketAddress(InetAddress.getLoopbackAddress(), localAddress.getPort());
+        }
+        if (!datagram) {
+            // The handshake happened before the streams existed, so it is recorded with relative sequence numbers
+            record(localIsClient, SYN, new byte[0], 0, 0);
+            advanceSequenceNumber(localIsClient, 1);
+            record(!localIsClient, SYN | ACK, new byte[0], 0, 0);
+            advanceSequenceNumber(!localIsClient, 1);
+            record(localIsClient, ACK, new byte[0], 0, 0);
+        }
+    }
+
+    synchronized void sent(byte[] data, int offset, int length) {
+        if (closed || length == 0) {
+            return;
+        }
+        flushReceived();
+        recordData(true, data, offset, length);
+    }
+
+    /**
+     * Collects received bytes, they are recorded with the next call to {@link #flushReceived()}.
+     */
+    synchronized void received(byte[] data, int offset, int length) {
+        if (!closed) {
+            pendingReceived.write(data, offset, length);
+        }
+    }
+
+    synchronized void flushReceived() {
+        if (pendingReceived.size() > 0) {
+            byte[] data = pendingReceived.toByteArray();
+            pendingReceived.reset();
+            recordData(false, data, 0, data.length);
+        }
+    }
+
+    /**
+     * Records the FIN of the remote end after the input stream reached its end.
+     */
+    synchronized void remoteClosed() {
+        flushReceived();
+        if (!datagram && started && !closed && !remoteFinished) {
+            record(false, FIN | ACK, new byte[0], 0, 0);
+            remoteSequenceNumber++;
+            remoteFinished = true;
+            record(true, ACK, new byte[0], 0, 0);
+        }
+    }
+
+    private void recordData(boolean outgoing, byte[] data, int offset, int length) {
+        start();
+        int maxPayload = datagram ? MAX_UDP_PAYLOAD : MAX_TCP_PAYLOAD;
+        while (length > 0) {
+            int count = Math.min(length, maxPayload);
+            record(outgoing, PSH | ACK, data, offset, count);
+            advanceSequenceNumber(outgoing, count);
+            offset += count;
+            length -= count;
+        }
+    }
+
+    private void advanceSequenceNumber(boolean outgoing, int count) {
+        if (outgoing) {
+            localSequenceNumber += count;
+        } else {
+            remoteSequenceNumber += count;
+        }
+    }
+
+    private void record(boolean outgoing, int flags, byte[] data, int offset, int length) {
+        InetSocketAddress source = outgoing ? localAddress : remoteAddress;
+        InetSocketAddress destination = outgoing ? remoteAddress : localAddress;
+        boolean ipv6 =
+            source.getAddress().getAddress().length == 16 || destination.getAddress().getAddress().length == 16;
+        byte[] sourceIp = addressBytes(source.getAddress(), ipv6);
+        byte[] destinationIp = addressBytes(destination.getAddress(), ipv6);
+        int protocol = datagram ? PROTOCOL_UDP : PROTOCOL_TCP;
+        int ipHeaderLength = ipv6 ? 40 : 20;
+        int transportLength = (datagram ? 8 : 20) + length;
+
+        ByteBuffer packet = ByteBuffer.allocate(ipHeaderLength + transportLength);
+        if (ipv6) {
+            packet.putInt(0x60000000);
+            packet.putShort((short) transportLength);
+            packet.put((byte) protocol);
+            packet.put((byte) 64);
+            packet.put(sourceIp);
+            packet.put(destinationIp);
+        } else {
+            packet.put((byte) 0x45);
+            packet.put((byte) 0);
+            packet.putShort((short) (ipHeaderLength + transportLength));
+            packet.putShort((short) identification++);
+            // Don't fragment
+            packet.putShort((short) 0x4000);
+            packet.put((byte) 64);
+            packet.put((byte) protocol);
+            packet.putShort((short) 0);
+            packet.put(sourceIp);
+            packet.put(destinationIp);
+            packet.putShort(10, (short) checksum(packet.array(), 0, ipHeaderLength, 0));
+        }
+
+        packet.putShort((short) source.getPort());
+        packet.putShort((short) destination.getPort());
+        int checksumOffset;
+        if (datagram) {
+            packet.putShort((short) transportLength);
+            checksumOffset = packet.position();
+            packet.putShort((short) 0);
+        } else {
+            packet.putInt(outgoing ? localSequenceNumber : remoteSequenceNumber);
+            packet.putInt((flags & ACK) != 0 ? (outgoing ? remoteSequenceNumber : localSequenceNumber) : 0);
+            packet.put((byte) 0x50);
+            packet.put((byte) flags);
+            packet.putShort((short) 0xFFFF);
+            checksumOffset = packet.position();
+            packet.putShort((short) 0);
+            packet.putShort((short) 0);
+        }
+        packet.put(data, offset, length);
+
+        int pseudoHeader = checksum(sourceIp, 0, sourceIp.length, 0) ^ 0xFFFF;
+        pseudoHeader += checksum(destinationIp, 0, destinationIp.length, 0) ^ 0xFFFF;
+        pseudoHeader += protocol + transportLength;
+        int checksum = checksum(packet.array(), ipHeaderLength, transportLength, pseudoHeader);
+        if (datagram && checksum == 0) {
+            // A UDP checksum of zero means that no checksum was computed
+            checksum = 0xFFFF;
+        }
+        packet.putShort(checksumOffset, (short) checksum);
+
+        capture.write(packet.array(), commented ? null : comment);
+        commented = true;
+    }
+
+    /**
+     * Computes the internet checksum, the one's complement of the one's complement sum of all 16 bit words.
+     */
+    private static int checksum(byte[] data, int offset, int length, int initial) {
+        long sum = initial;
+        int end = offset + length;
+        for (int i = offset; i + 1 < end; i += 2) {
+            sum += ((data[i] & 0xFF) << 8) | (data[i + 1] & 0xFF);
+        }
+        if ((length & 1) != 0) {
+            sum += (data[end - 1] & 0xFF) << 8;
+        }
+        while ((sum >>> 16) != 0) {
+            sum = (sum & 0xFFFF) + (sum >>> 16);
+        }
+        return (int) (~sum & 0xFFFF);
+    }
+
+    private static byte[] addressBytes(InetAddress address, boolean ipv6) {
+        byte[] bytes = address.getAddress();
+        if (!ipv6 || bytes.length == 16) {
+            return bytes;
+        }
+        // IPv4-mapped IPv6 address
+        byte[] mapped = new byte[16];
+        mapped[10] = (byte) 0xFF;
+        mapped[11] = (byte) 0xFF;
+        System.arraycopy(bytes, 0, mapped, 12, 4);
+        return mapped;
+    }
+
+    private static InetSocketAddress resolve(SocketAddress address) {
+        if (address instanceof InetSocketAddress && !((InetSocketAddress) address).isUnresolved()) {
+            return (InetSocketAddress) address;
+        }
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    }
+}
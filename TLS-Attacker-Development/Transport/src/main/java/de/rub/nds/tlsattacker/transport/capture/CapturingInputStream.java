@@ -0,0 +1,71 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.transport.capture;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Passes everything through and hands the bytes read to a {@link CapturedConnection}.
+ */
+class CapturingInputStream extends FilterInputStream {
+
+    private final CapturedConnection connection;
+
+    CapturingInputStream(InputStream in, CapturedConnection connection) {
+        super(in);
+        this.connection = connection;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int read = in.read();
+        if (read == -1) {
+            connection.remoteClosed();
+        } else {
+            connection.received(new byte[] { (byte) read }, 0, 1);
+        }
+        return read;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = in.read(b, off, len);
+        if (read == -1) {
+            connection.remoteClosed();
+        } else if (read > 0) {
+            connection.received(b, off, read);
+            connection.flushReceived();
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        int read = read(buffer, 0, buffer.length);
+        return Math.max(read, 0);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            in.close();
+        } finally {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.transport.capture;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Passes everything through and hands the bytes written to a {@link CapturedConnection} when the stream is flushed, so
+ * that one flush becomes one packet.
+ */
+class CapturingOutputStream extends FilterOutputStream {
+
+    private final CapturedConnection connection;
+
+    private final ByteArrayOutputStream unflushed = new ByteArrayOutputStream();
+
+    CapturingOutputStream(OutputStream out, CapturedConnection connection) {
+        super(out);
+        this.connection = connection;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        unflushed.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        unflushed.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+        recordUnflushed();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.close();
+        } finally {
+            // Streams of sockets send without being flushed
+            recordUnflushed();
+            connection.close();
+        }
+    }
+
+    private void recordUnflushed() {
+        if (unflushed.size() > 0) {
+            byte[] data = unflushed.toByteArray();
+            unflushed.reset();
+            connection.sent(data, 0, data.length);
+        }
+    }
+}
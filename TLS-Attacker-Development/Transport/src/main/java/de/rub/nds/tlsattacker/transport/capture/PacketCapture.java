@@ -0,0 +1,156 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.transport.capture;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Records the data of transport handlers into a pcapng file without capturing on a network interface. The bytes a
+ * handler sends and receives are wrapped into synthesized IP and TCP or UDP headers, so the file can be opened with the
+ * usual tools like Wireshark or tshark. Several connections, also of different handlers, can be recorded into the same
+ * capture and are told apart by their ports and a comment on their first packet.
+ *
+ * The capture is attached to a handler with {@link de.rub.nds.tlsattacker.transport.TransportHandler#setPacketCapture}.
+ * Handlers without a capture do not pay anything for this feature.
+ */
+public class PacketCapture implements Closeable {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final PcapngWriter writer;
+
+    private final List<CapturedConnection> openConnections = new LinkedList<>();
+
+    private final long startMicros = System.currentTimeMillis() * 1000;
+
+    private final long startNanos = System.nanoTime();
+
+    private int connectionCount = 0;
+
+    private boolean failed = false;
+
+    private boolean closed = false;
+
+    /**
+     * @param file
+     *                The file to write, it is overwritten if it exists
+     * @param comment
+     *                A comment describing the capture, such as the test it belongs to, may be null
+     */
+    public PacketCapture(File file, String comment) throws IOException {
+        this(new BufferedOutputStream(new FileOutputStream(file)), comment);
+    }
+
+    public PacketCapture(OutputStream outputStream, String comment) throws IOException {
+        writer = new PcapngWriter(outputStream, comment);
+    }
+
+    /**
+     * Starts recording a new connection. For TCP the handshake is recorded right away, so the addresses must be
+     * available by now. For UDP the addresses are only looked up when the first datagram is recorded.
+     *
+     * @param  datagram
+     *                       True for UDP, false for TCP
+     * @param  localIsClient
+     *                       True if the local end opened the connection
+     * @param  localAddress
+     *                       Looks up the local address, may return null if it is not known
+     * @param  remoteAddress
+     *                       Looks up the remote address, may return null if it is not known
+     * @param  label
+     *                       Describes the connection in the comment of its first packet, may be null
+     * @return               The connection to record the data of
+     */
+    public CapturedConnection startConnection(boolean datagram, boolean localIsClient,
+        Supplier<SocketAddress> localAddress, Supplier<SocketAddress> remoteAddress, String label) {
+        CapturedConnection connection;
+        synchronized (this) {
+            connectionCount++;
+            String comment = "Connection " + connectionCount + (label != null ? ": " + label : "");
+            connection = new CapturedConnection(this, comment, datagram, localIsClient, localAddress, remoteAddress);
+            openConnections.add(connection);
+        }
+        if (!datagram) {
+            connection.start();
+        }
+        return connection;
+    }
+
+    public synchronized int getConnectionCount() {
+        return connectionCount;
+    }
+
+    /**
+     * Ends all connections which are still open and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        List<CapturedConnection> connections;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            connections = new ArrayList<>(openConnections);
+        }
+        // Connections lock themselves before they write, so they must not be closed while holding the lock
+        for (CapturedConnection connection : connections) {
+            connection.close();
+        }
+        synchronized (this) {
+            closed = true;
+            writer.close();
+        }
+    }
+
+    synchronized void connectionClosed(CapturedConnection connection) {
+        openConnections.remove(connection);
+        flush();
+    }
+
+    /**
+     * Writing a packet must never break the connection it belongs to, so errors are only logged once and recording
+     * stops.
+     */
+    synchronized void write(byte[] packet, String comment) {
+        if (closed || failed) {
+            return;
+        }
+        try {
+            writer.writePacket(startMicros + (System.nanoTime() - startNanos) / 1000, packet, comment);
+        } catch (IOException e) {
+            LOGGER.warn("Could not write packet capture, recording stops", e);
+            failed = true;
+        }
+    }
+
+    private void flush() {
+        if (closed || failed) {
+            return;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            LOGGER.warn("Could not write packet capture, recording stops", e);
+            failed = true;
+        }
+    }
+}
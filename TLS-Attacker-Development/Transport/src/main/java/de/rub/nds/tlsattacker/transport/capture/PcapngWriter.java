@@ -0,0 +1,156 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.transport.capture;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes a pcapng file with a single interface of raw IP packets. All blocks are written in big endian, the byte order
+ * is announced in the section header so readers on any platform can parse the file.
+ */
+class PcapngWriter implements Closeable {
+
+    private static final int SECTION_HEADER_BLOCK = 0x0A0D0D0A;
+
+    private static final int INTERFACE_DESCRIPTION_BLOCK = 0x00000001;
+
+    private static final int ENHANCED_PACKET_BLOCK = 0x00000006;
+
+    private static final int BYTE_ORDER_MAGIC = 0x1A2B3C4D;
+
+    /**
+     * Packets start with the IPv4 or IPv6 header, there is no link layer
+     */
+    private static final int LINKTYPE_RAW = 101;
+
+    private static final int OPTION_END = 0;
+
+    private static final int OPTION_COMMENT = 1;
+
+    private static final int OPTION_SHB_USERAPPL = 4;
+
+    private final DataOutputStream out;
+
+    PcapngWriter(OutputStream out, String comment) throws IOException {
+        this.out = new DataOutputStream(out);
+        writeSectionHeader(comment);
+        writeInterfaceDescription();
+    }
+
+    /**
+     * @param timestamp
+     *                  Microseconds since the epoch
+     * @param packet
+     *                  The packet including its IP header
+     * @param comment
+     *                  An optional comment shown with the packet, may be null
+     */
+    void writePacket(long timestamp, byte[] packet, String comment) throws IOException {
+        byte[] options = options(comment);
+        int length = 32 + padded(packet.length) + options.length;
+        out.writeInt(ENHANCED_PACKET_BLOCK);
+        out.writeInt(length);
+        out.writeInt(0);
+        out.writeInt((int) (timestamp >>> 32));
+        out.writeInt((int) timestamp);
+        out.writeInt(packet.length);
+        out.writeInt(packet.length);
+        out.write(packet);
+        writePadding(packet.length);
+        out.write(options);
+        out.writeInt(length);
+    }
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeSectionHeader(String comment) throws IOException {
+        byte[] application = "TLS-Attacker".getBytes(StandardCharsets.UTF_8);
+        byte[] commentBytes = comment != null ? encode(comment) : new byte[0];
+        int optionsLength = 4 + padded(application.length) + 4;
+        if (commentBytes.length > 0) {
+            optionsLength += 4 + padded(commentBytes.length);
+        }
+        int length = 28 + optionsLength;
+        out.writeInt(SECTION_HEADER_BLOCK);
+        out.writeInt(length);
+        out.writeInt(BYTE_ORDER_MAGIC);
+        out.writeShort(1);
+        out.writeShort(0);
+        // The section length is not known in advance
+        out.writeLong(-1);
+        if (commentBytes.length > 0) {
+            writeOption(OPTION_COMMENT, commentBytes);
+        }
+        writeOption(OPTION_SHB_USERAPPL, application);
+        out.writeInt(OPTION_END);
+        out.writeInt(length);
+    }
+
+    private void writeInterfaceDescription() throws IOException {
+        out.writeInt(INTERFACE_DESCRIPTION_BLOCK);
+        out.writeInt(20);
+        out.writeShort(LINKTYPE_RAW);
+        out.writeShort(0);
+        // No snap length, packets are never truncated
+        out.writeInt(0);
+        out.writeInt(20);
+    }
+
+    private byte[] options(String comment) {
+        if (comment == null) {
+            return new byte[0];
+        }
+        byte[] value = encode(comment);
+        byte[] options = new byte[4 + padded(value.length) + 4];
+        options[0] = (byte) (OPTION_COMMENT >>> 8);
+        options[1] = (byte) OPTION_COMMENT;
+        options[2] = (byte) (value.length >>> 8);
+        options[3] = (byte) value.length;
+        System.arraycopy(value, 0, options, 4, value.length);
+        return options;
+    }
+
+    private void writeOption(int code, byte[] value) throws IOException {
+        out.writeShort(code);
+        out.writeShort(value.length);
+        out.write(value);
+        writePadding(value.length);
+    }
+
+    private void writePadding(int length) throws IOException {
+        for (int i = length; i < padded(length); i++) {
+            out.write(0);
+        }
+    }
+
+    /*
+     * Option values are limited to 65535 bytes
+     */
+    private static byte[] encode(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return bytes.length <= 0xFFFF ? bytes : Arrays.copyOf(bytes, 0xFFFF);
+    }
+
+    private static int padded(int length) {
+        return (length + 3) & ~3;
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.transport.stream;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+
+/**
+ * A byte queue connecting one writer to one reader in the same process. In contrast to the piped streams of the JDK,
+ * the bytes in transit can be copied, which allows duplicating a connection together with the data its peers did not
+ * read yet.
+ */
+class InMemoryPipe {
+
+    private static final int INITIAL_CAPACITY = 4096;
+
+    private byte[] buffer;
+
+    private int readPosition = 0;
+
+    private int writePosition = 0;
+
+    private boolean closed = false;
+
+    InMemoryPipe() {
+        buffer = new byte[INITIAL_CAPACITY];
+    }
+
+    private InMemoryPipe(byte[] pending) {
+        buffer = Arrays.copyOf(pending, Math.max(INITIAL_CAPACITY, pending.length));
+        writePosition = pending.length;
+    }
+
+    synchronized void write(byte[] data, int offset, int length) throws IOException {
+        if (closed) {
+            throw new IOException("In-memory connection is closed");
+        }
+        if (writePosition + length > buffer.length) {
+            int pending = writePosition - readPosition;
+            if (pending + length > buffer.length) {
+                byte[] grown = new byte[Math.max(buffer.length * 2, pending + length)];
+                System.arraycopy(buffer, readPosition, grown, 0, pending);
+                buffer = grown;
+            } else {
+                System.arraycopy(buffer, readPosition, buffer, 0, pending);
+            }
+            readPosition = 0;
+            writePosition = pending;
+        }
+        System.arraycopy(data, offset, buffer, writePosition, length);
+        writePosition += length;
+        notifyAll();
+    }
+
+    /**
+     * Blocks until data is available, the pipe is closed or the timeout expires.
+     *
+     * @param  timeout
+     *                 The timeout in milliseconds, 0 waits forever like a socket does
+     * @return         The number of bytes read, or -1 if the pipe is closed and drained
+     */
+    synchronized int read(byte[] data, int offset, int length, long timeout) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        long deadline = System.currentTimeMillis() + timeout;
+        while (readPosition == writePosition && !closed) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (timeout > 0 && remaining <= 0) {
+                throw new SocketTimeoutException("Received no data within " + timeout + " ms");
+            }
+            try {
+                wait(timeout > 0 ? remaining : 0);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for data");
+            }
+        }
+        if (readPosition == writePosition) {
+            return -1;
+        }
+        int count = Math.min(length, writePosition - readPosition);
+        System.arraycopy(buffer, readPosition, data, offset, count);
+        readPosition += count;
+        return count;
+    }
+
+    synchronized int available() {
+        return writePosition - readPosition;
+    }
+
+    /**
+     * Lets the reader drain the remaining bytes before it sees the end of the stream, further writes fail.
+     */
+    synchronized void close() {
+        closed = true;
+        notifyAll();
+    }
+
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * @return An open pipe holding the bytes which were not read from this pipe yet
+     */
+    synchronized InMemoryPipe copy() {
+        return new InMemoryPipe(Arrays.copyOfRange(buffer, readPosition, writePosition));
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.transport.stream;
+
+import de.rub.nds.tlsattacker.transport.ConnectionEndType;
+import de.rub.nds.tlsattacker.transport.TransportHandler;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+
+/**
+ * Connects two peers in the same process, such as a TLS-Attacker client and a TLS-Attacker server, without a socket.
+ * One end is created with the constructor, the other one with {@link #createPeer()}.
+ *
+ * Since the whole connection lives in memory, it can be duplicated with {@link #fork()}: the fork and its peer see the
+ * same bytes in transit as the original ends, but are independent from then on. Together with copies of the TLS
+ * contexts of both peers this allows running several continuations of a connection which share the same beginning.
+ */
+public class InMemoryTransportHandler extends TransportHandler {
+
+    private final InMemoryPipe inbound;
+
+    private final InMemoryPipe outbound;
+
+    private volatile long readTimeout;
+
+    private boolean closed = false;
+
+    public InMemoryTransportHandler(long firstTimeout, long timeout, ConnectionEndType type) {
+        this(firstTimeout, timeout, type, new InMemoryPipe(), new InMemoryPipe());
+    }
+
+    private InMemoryTransportHandler(long firstTimeout, long timeout, ConnectionEndType type, InMemoryPipe inbound,
+        InMemoryPipe outbound) {
+        super(firstTimeout, timeout, type);
+        this.inbound = inbound;
+        this.outbound = outbound;
+        this.readTimeout = timeout;
+    }
+
+    /**
+     * @return A handler for the other end of this connection with the same timeouts
+     */
+    public InMemoryTransportHandler createPeer() {
+        ConnectionEndType peerType =
+            getConnectionEndType() == ConnectionEndType.CLIENT ? ConnectionEndType.SERVER : ConnectionEndType.CLIENT;
+        return new InMemoryTransportHandler(firstTimeout, timeout, peerType, outbound, inbound);
+    }
+
+    /**
+     * Duplicates the connection including the bytes which were sent but not read yet. The other end of the duplicate is
+     * obtained with {@link #createPeer()} on the returned handler. Neither end of this connection should be used while
+     * it is forked.
+     *
+     * @return A new, not yet initialized handler for the same end of the duplicated connection
+     */
+    public InMemoryTransportHandler fork() {
+        return new InMemoryTransportHandler(firstTimeout, timeout, getConnectionEndType(), inbound.copy(),
+            outbound.copy());
+    }
+
+    @Override
+    public void preInitialize() throws IOException {
+        // nothing to do here
+    }
+
+    @Override
+    public void initialize() throws IOException {
+        cachedSocketState = null;
+        setStreams(new PushbackInputStream(new PipeInputStream()), new PipeOutputStream());
+    }
+
+    @Override
+    public void closeConnection() throws IOException {
+        if (!isInitialized()) {
+            throw new IOException("Could not close InMemoryTransportHandler. Not Initialised");
+        }
+        inbound.close();
+        outbound.close();
+        closed = true;
+    }
+
+    @Override
+    public void closeClientConnection() throws IOException {
+        closeConnection();
+    }
+
+    @Override
+    public boolean isClosed() throws IOException {
+        return closed;
+    }
+
+    @Override
+    public void setTimeout(long timeout) {
+        readTimeout = timeout;
+    }
+
+    private class PipeInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            byte[] data = new byte[1];
+            int read = read(data, 0, 1);
+            return read == -1 ? -1 : data[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] data, int offset, int length) throws IOException {
+            return inbound.read(data, offset, length, readTimeout);
+        }
+
+        @Override
+        public int available() {
+            return inbound.available();
+        }
+
+        @Override
+        public void close() {
+            inbound.close();
+        }
+    }
+
+    private class PipeOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int length) throws IOException {
+            outbound.write(data, offset, length);
+        }
+
+        @Override
+        public void close() {
+            outbound.close();
+        }
+    }
+}
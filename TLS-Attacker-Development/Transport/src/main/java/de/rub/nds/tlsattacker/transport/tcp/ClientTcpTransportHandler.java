@@ -61,6 +61,7 @@ public class ClientTcpTransportHandler extends TcpTransportHandler {
             throw new IOException("TransportHandler is not initialized!");
         }
         socket.close();
+        closeCapturedConnection();
     }
 
     @Override
@@ -70,8 +71,8 @@ public class ClientTcpTransportHandler extends TcpTransportHandler {
 
     @Override
     public void initialize() throws IOException {
-        long timeoutTime = System.currentTimeMillis() + this.connectionTimeout;
-        while (System.currentTimeMillis() < timeoutTime || this.connectionTimeout == 0) {
+        TcpReadiness.Backoff backoff = new TcpReadiness.Backoff(connectionTimeout);
+        while (true) {
             try {
                 socket = new Socket();
                 socket.setReuseAddress(true);
@@ -88,10 +89,14 @@ public class ClientTcpTransportHandler extends TcpTransportHandler {
                     LOGGER.warn("Socket initialization to {}:{} failed", hostname, dstPort, e);
                     break;
                 }
-                LOGGER.warn("Server @{}:{} is not available yet", hostname, dstPort);
+                LOGGER.debug("Server @{}:{} is not available yet", hostname, dstPort);
                 try {
-                    Thread.sleep(1000);
-                } catch (Exception ignore) {
+                    if (!backoff.pause()) {
+                        break;
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    break;
                 }
             }
         }
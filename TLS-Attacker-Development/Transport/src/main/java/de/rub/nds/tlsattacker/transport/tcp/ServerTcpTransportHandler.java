@@ -65,6 +65,7 @@ public class ServerTcpTransportHandler extends TcpTransportHandler {
         if (socket != null) {
             socket.close();
         }
+        closeCapturedConnection();
         if (socketManagement == SocketManagement.DEFAULT) {
             closeServerSocket();
         }
@@ -126,6 +127,7 @@ public class ServerTcpTransportHandler extends TcpTransportHandler {
         if (socket != null && !socket.isClosed()) {
             socket.close();
         }
+        closeCapturedConnection();
     }
 
     @Override
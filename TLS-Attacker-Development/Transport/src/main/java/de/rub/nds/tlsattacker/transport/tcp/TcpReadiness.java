@@ -0,0 +1,152 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.transport.tcp;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Detects when a peer starts to accept TCP connections. Connection attempts are non-blocking and are repeated with an
+ * exponentially growing pause, so a peer which comes up shortly after the first attempt is detected within
+ * milliseconds, while a peer which takes long to start is not flooded with connection attempts.
+ */
+public class TcpReadiness {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    public static final long INITIAL_BACKOFF_MILLIS = 2;
+
+    public static final long MAX_BACKOFF_MILLIS = 100;
+
+    /**
+     * Upper bound for a single connection attempt, so that a lost SYN does not stall the detection
+     */
+    private static final long MAX_ATTEMPT_MILLIS = 1000;
+
+    private TcpReadiness() {
+    }
+
+    /**
+     * Waits until a TCP connection to the peer can be established. The test connection is closed immediately.
+     *
+     * @param  hostname
+     *                              The hostname or ip of the peer
+     * @param  port
+     *                              The port of the peer
+     * @param  timeoutMillis
+     *                              The overall time to wait, or 0 to wait without limit
+     * @return                      True if the peer accepted a connection, false if the timeout expired
+     * @throws InterruptedException
+     *                              If the thread was interrupted while waiting
+     */
+    public static boolean awaitConnectable(String hostname, int port, long timeoutMillis) throws InterruptedException {
+        Backoff backoff = new Backoff(timeoutMillis);
+        do {
+            if (isConnectable(hostname, port, Math.min(MAX_ATTEMPT_MILLIS, backoff.remainingMillis()))) {
+                return true;
+            }
+        } while (backoff.pause());
+        return false;
+    }
+
+    /**
+     * Performs a single non-blocking connection attempt
+     *
+     * @param  hostname
+     *                       The hostname or ip of the peer
+     * @param  port
+     *                       The port of the peer
+     * @param  timeoutMillis
+     *                       The time to wait for the connection to be established
+     * @return               True if the connection was established
+     */
+    public static boolean isConnectable(String hostname, int port, long timeoutMillis) {
+        try (SocketChannel channel = SocketChannel.open(); Selector selector = Selector.open()) {
+            channel.configureBlocking(false);
+            if (channel.connect(new InetSocketAddress(hostname, port))) {
+                return true;
+            }
+            channel.register(selector, SelectionKey.OP_CONNECT);
+            if (selector.select(Math.max(1, timeoutMillis)) == 0) {
+                return false;
+            }
+            return channel.finishConnect();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug("{}:{} is not connectable yet: {}", hostname, port, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Pauses between retries of an operation with exponentially growing delays, bounded by an overall deadline
+     */
+    public static class Backoff {
+
+        private final long deadline;
+
+        private final long maxDelayMillis;
+
+        private long delayMillis;
+
+        /**
+         * @param timeoutMillis
+         *                      The overall time the retries may take, or 0 for no limit
+         */
+        public Backoff(long timeoutMillis) {
+            this(INITIAL_BACKOFF_MILLIS, MAX_BACKOFF_MILLIS, timeoutMillis);
+        }
+
+        /**
+         * @param initialDelayMillis
+         *                           The first delay
+         * @param maxDelayMillis
+         *                           The delay stops growing at this value
+         * @param timeoutMillis
+         *                           The overall time the retries may take, or 0 for no limit
+         */
+        public Backoff(long initialDelayMillis, long maxDelayMillis, long timeoutMillis) {
+            this.deadline = timeoutMillis > 0 ? System.currentTimeMillis() + timeoutMillis : Long.MAX_VALUE;
+            this.delayMillis = Math.max(1, initialDelayMillis);
+            this.maxDelayMillis = Math.max(this.delayMillis, maxDelayMillis);
+        }
+
+        /**
+         * @return The time left until the deadline, Long.MAX_VALUE if there is no deadline
+         */
+        public long remainingMillis() {
+            if (deadline == Long.MAX_VALUE) {
+                return Long.MAX_VALUE;
+            }
+            return Math.max(0, deadline - System.currentTimeMillis());
+        }
+
+        /**
+         * Sleeps for the next delay, but not beyond the deadline
+         *
+         * @return                      False if the deadline has passed and no further attempt should be made
+         * @throws InterruptedException
+         *                              If the thread was interrupted while sleeping
+         */
+        public boolean pause() throws InterruptedException {
+            long remaining = remainingMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            Thread.sleep(Math.min(delayMillis, remaining));
+            delayMillis = Math.min(delayMillis * 2, maxDelayMillis);
+            return remainingMillis() > 0;
+        }
+    }
+}
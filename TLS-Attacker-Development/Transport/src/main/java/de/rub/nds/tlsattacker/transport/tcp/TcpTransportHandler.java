@@ -16,6 +16,7 @@ import de.rub.nds.tlsattacker.transport.socket.SocketState;
 
 import java.io.IOException;
 import java.net.Socket;
+import java.net.SocketAddress;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import org.apache.logging.log4j.LogManager;
@@ -96,6 +97,16 @@ public abstract class TcpTransportHandler extends TransportHandler {
         return getSocketState(false);
     }
 
+    @Override
+    protected SocketAddress getLocalSocketAddress() {
+        return socket != null ? socket.getLocalSocketAddress() : null;
+    }
+
+    @Override
+    protected SocketAddress getRemoteSocketAddress() {
+        return socket != null ? socket.getRemoteSocketAddress() : null;
+    }
+
     public abstract Integer getSrcPort();
 
     public abstract void setSrcPort(int port);
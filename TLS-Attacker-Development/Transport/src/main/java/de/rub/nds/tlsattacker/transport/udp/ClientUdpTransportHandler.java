@@ -16,7 +16,9 @@ import de.rub.nds.tlsattacker.transport.udp.stream.UdpOutputStream;
 
 import java.io.IOException;
 import java.io.PushbackInputStream;
-import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.channels.DatagramChannel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -46,11 +48,20 @@ public class ClientUdpTransportHandler extends UdpTransportHandler {
     @Override
     public void initialize() throws IOException {
         LOGGER.debug("Initializing ClientUdpTransportHandler host: {}, port: {}", hostname, port);
-        socket = new DatagramSocket();
+        DatagramChannel channel = DatagramChannel.open();
+        channel.bind(null);
+        socket = channel.socket();
         socket.setSoTimeout((int) timeout);
         cachedSocketState = null;
-        setStreams(new PushbackInputStream(new UdpInputStream(socket, true)),
-            new UdpOutputStream(socket, hostname, port));
+        udpInputStream = new UdpInputStream(channel, true);
+        setStreams(new PushbackInputStream(udpInputStream),
+            new UdpOutputStream(channel, udpInputStream, hostname, port));
+    }
+
+    @Override
+    protected SocketAddress getRemoteSocketAddress() {
+        SocketAddress address = super.getRemoteSocketAddress();
+        return address != null ? address : new InetSocketAddress(hostname, port);
     }
 
 }
@@ -16,7 +16,8 @@ import de.rub.nds.tlsattacker.transport.udp.stream.UdpOutputStream;
 
 import java.io.IOException;
 import java.io.PushbackInputStream;
-import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.nio.channels.DatagramChannel;
 
 public class ServerUdpTransportHandler extends UdpTransportHandler {
 
@@ -40,22 +41,22 @@ public class ServerUdpTransportHandler extends UdpTransportHandler {
     }
 
     /*
-     * Provides a routine equivalent to TCP's accept method. Blocks until a client "connects", meaning that data is
-     * available to be read.
+     * Provides a routine equivalent to TCP's accept method. Blocks until a client "connects", meaning that a datagram
+     * has been received. An empty datagram counts as well, as its source still becomes the peer.
      */
     private void waitOnReceive() throws IOException {
-        while (inStream.available() == 0) {
-            try {
-                Thread.sleep(1);
-            } catch (InterruptedException e) {
-            }
+        if (udpInputStream.getPeer() == null) {
+            inStream.available();
         }
     }
 
     @Override
     public void preInitialize() throws IOException {
-        socket = new DatagramSocket(port);
-        setStreams(new PushbackInputStream(new UdpInputStream(socket, true)), new UdpOutputStream(socket));
+        DatagramChannel channel = DatagramChannel.open();
+        channel.bind(new InetSocketAddress(port));
+        socket = channel.socket();
+        udpInputStream = new UdpInputStream(channel, true);
+        setStreams(new PushbackInputStream(udpInputStream), new UdpOutputStream(channel, udpInputStream));
         cachedSocketState = null;
     }
 }
@@ -12,10 +12,14 @@ package de.rub.nds.tlsattacker.transport.udp;
 import de.rub.nds.tlsattacker.transport.Connection;
 import de.rub.nds.tlsattacker.transport.ConnectionEndType;
 import de.rub.nds.tlsattacker.transport.TransportHandler;
+import de.rub.nds.tlsattacker.transport.udp.stream.UdpInputStream;
 
 import java.io.IOException;
 import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.net.SocketException;
+import java.nio.channels.DatagramChannel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -23,8 +27,13 @@ public abstract class UdpTransportHandler extends TransportHandler {
 
     private Logger LOGGER = LogManager.getLogger();
 
+    /**
+     * The socket of the underlying {@link DatagramChannel}, data is only sent and received through the streams
+     */
     protected DatagramSocket socket;
 
+    protected UdpInputStream udpInputStream;
+
     protected int port;
 
     public UdpTransportHandler(Connection con) {
@@ -62,11 +71,32 @@ public abstract class UdpTransportHandler extends TransportHandler {
         closeConnection();
     }
 
+    @Override
+    protected SocketAddress getLocalSocketAddress() {
+        return socket != null ? socket.getLocalSocketAddress() : null;
+    }
+
+    @Override
+    protected SocketAddress getRemoteSocketAddress() {
+        if (udpInputStream != null && udpInputStream.getPeer() != null) {
+            return udpInputStream.getPeer();
+        }
+        return socket != null ? socket.getRemoteSocketAddress() : null;
+    }
+
+    @Override
+    protected boolean isDatagramTransport() {
+        return true;
+    }
+
     public int getSrcPort() {
         return socket.getLocalPort();
     }
 
     public int getDstPort() {
+        if (udpInputStream != null && udpInputStream.getPeer() instanceof InetSocketAddress) {
+            return ((InetSocketAddress) udpInputStream.getPeer()).getPort();
+        }
         return socket.getPort();
     }
 }
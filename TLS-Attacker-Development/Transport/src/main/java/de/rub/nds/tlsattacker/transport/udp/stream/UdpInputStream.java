@@ -12,87 +12,162 @@ package de.rub.nds.tlsattacker.transport.udp.stream;
 import de.rub.nds.tlsattacker.transport.udp.ServerUdpTransportHandler;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
+import java.io.InterruptedIOException;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Reads datagrams from a non-blocking {@link DatagramChannel}. The stream never hands out bytes of two datagrams in a
+ * single call: {@link #available()} and {@link #read(byte[], int, int)} only cover the rest of the current datagram, so
+ * a caller reading all available bytes receives exactly one datagram. Waiting for the next datagram is done with a
+ * {@link Selector} and honors the SO_TIMEOUT of the channel's socket.
+ */
 public class UdpInputStream extends InputStream {
 
-    private static final int BUFFER_SIZE = 16384;
-
-    private DatagramSocket socket = null;
-
     /**
-     * A buffer used to store the content of received datagrams.
+     * Large enough for the biggest possible UDP payload, so datagrams are never truncated
      */
-    private final byte[] dataBuffer = new byte[BUFFER_SIZE];
+    private static final int BUFFER_SIZE = 65536;
 
-    /**
-     * The size of the last received datagram
-     */
-    private int packetSize = 0;
+    private final DatagramChannel channel;
+
+    private final Selector selector;
 
     /**
-     * The index of the next byte to be read in the datagram
+     * A buffer used to store the content of the last received datagram. Its position is the index of the next byte to
+     * be read and its limit the size of the datagram.
      */
-    private int index = 0;
+    private final ByteBuffer dataBuffer = ByteBuffer.allocate(BUFFER_SIZE);
 
     /**
-     * If set to true, on datagram receipt it connects the socket to the datagram's source address. This is useful if
-     * the source address is not pre-set, such as in {@link ServerUdpTransportHandler}'s case.
+     * If set to true, the source address of the first datagram becomes the peer of this stream and datagrams from other
+     * addresses are discarded, just like on a connected socket. This is useful if the source address is not pre-set,
+     * such as in {@link ServerUdpTransportHandler}'s case. The channel itself is not connected, because connecting a
+     * channel discards the datagrams that are already queued.
      */
-    private boolean connectOnReceive;
+    private final boolean connectOnReceive;
+
+    private SocketAddress peer;
 
-    public UdpInputStream(DatagramSocket socket, boolean connectOnReceive) {
-        this.socket = socket;
+    public UdpInputStream(DatagramChannel channel, boolean connectOnReceive) throws IOException {
+        this.channel = channel;
         this.connectOnReceive = connectOnReceive;
+        dataBuffer.limit(0);
+        channel.configureBlocking(false);
+        selector = Selector.open();
+        channel.register(selector, SelectionKey.OP_READ);
+    }
+
+    /**
+     * @return The address of the peer this stream received its first datagram from, or null if nothing has been
+     *         received yet or the stream does not track its peer
+     */
+    public SocketAddress getPeer() {
+        return peer;
     }
 
     @Override
-    public void close() {
-        if (!socket.isClosed()) {
-            socket.close();
-        }
+    public void close() throws IOException {
+        selector.close();
+        channel.close();
     }
 
     /**
-     * Blocks until data is received from a UDP peer. Will never return -1, as UDP has no mechanism of notifying that
-     * all data has been sent. To avoid blocking indefinitely, should be called only once data is available.
+     * Blocks until data is received from a UDP peer or the timeout of the socket expires. Will never return -1, as UDP
+     * has no mechanism of notifying that all data has been sent.
      */
-    @SuppressWarnings("CheckStyle")
     @Override
     public int read() throws IOException {
-        // we wait until data is available
-        while (available() == 0) {
-            try {
-                Thread.sleep(1);
-            } catch (InterruptedException ignored) {
-            }
+        awaitData();
+        return dataBuffer.get() & 0xff;
+    }
+
+    /**
+     * Reads at most the remaining bytes of the current datagram. If the current datagram has been read completely,
+     * blocks until the next one is received or the timeout of the socket expires.
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
         }
-        index++;
-        return dataBuffer[index - 1] & 0xff;
+        int count = Math.min(len, awaitData());
+        dataBuffer.get(b, off, count);
+        return count;
     }
 
     @Override
     public int available() throws IOException {
-        if (packetSize - index == 0) {
+        if (!dataBuffer.hasRemaining()) {
             receive();
         }
-        return packetSize - index;
+        return dataBuffer.remaining();
     }
 
     /*
-     * Receives a packet or times out. On receipt, updates packetSize and index.
+     * Receives datagrams until one with content arrives, empty datagrams carry nothing to read.
      */
-    private DatagramPacket receive() throws IOException {
-        DatagramPacket packet = new DatagramPacket(dataBuffer, BUFFER_SIZE);
-        socket.receive(packet);
-        index = 0;
-        packetSize = packet.getLength();
-
-        if (connectOnReceive && !socket.isConnected()) {
-            socket.connect(packet.getSocketAddress());
+    private int awaitData() throws IOException {
+        int available = available();
+        while (available == 0) {
+            available = available();
         }
+        return available;
+    }
 
-        return packet;
+    /*
+     * Receives a datagram or times out. On receipt, the buffer is flipped so it contains the datagram, otherwise it is
+     * left empty.
+     */
+    private void receive() throws IOException {
+        dataBuffer.clear();
+        boolean received = false;
+        try {
+            SocketAddress source = waitForDatagram();
+            if (connectOnReceive) {
+                while (peer != null && !peer.equals(source)) {
+                    dataBuffer.clear();
+                    source = waitForDatagram();
+                }
+                peer = source;
+            }
+            dataBuffer.flip();
+            received = true;
+        } catch (ClosedChannelException e) {
+            throw new SocketException("Socket is closed");
+        } finally {
+            if (!received) {
+                dataBuffer.limit(0);
+            }
+        }
+    }
+
+    private SocketAddress waitForDatagram() throws IOException {
+        int timeout = channel.socket().getSoTimeout();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        SocketAddress source = channel.receive(dataBuffer);
+        while (source == null) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (timeout > 0 && remaining <= 0) {
+                throw new SocketTimeoutException("Receive timed out");
+            }
+            selector.select(timeout > 0 ? remaining : 0);
+            selector.selectedKeys().clear();
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Interrupted while waiting for a datagram");
+            }
+            source = channel.receive(dataBuffer);
+        }
+        return source;
     }
 }
@@ -11,59 +11,127 @@ package de.rub.nds.tlsattacker.transport.udp.stream;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
-import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 
+/**
+ * Collects written bytes and sends them as a single datagram on {@link #flush()}. Only if more than the maximum UDP
+ * payload is written before flushing, the data is split into multiple datagrams. Datagrams are sent to the peer of the
+ * given {@link UdpInputStream} or, as long as it has not received anything, to the configured host. Without a
+ * configured host, as for {@link de.rub.nds.tlsattacker.transport.udp.ServerUdpTransportHandler}, nothing can be sent
+ * before the first datagram was received.
+ */
 public class UdpOutputStream extends OutputStream {
 
-    private final static int BUFFER_SIZE = 16384;
+    /**
+     * The maximum payload of an IPv4 UDP datagram
+     */
+    private static final int BUFFER_SIZE = 65507;
 
-    private final DatagramSocket socket;
+    private final DatagramChannel channel;
+    private final UdpInputStream inputStream;
     private String hostname;
     private int port;
-    private final byte[] dataBuffer = new byte[BUFFER_SIZE];
-    private int index;
+    private InetSocketAddress target;
+    private final ByteBuffer dataBuffer = ByteBuffer.allocate(BUFFER_SIZE);
 
-    public UdpOutputStream(DatagramSocket socket) {
-        this.socket = socket;
+    /**
+     * Only opened if the channel is non-blocking and the send buffer of the socket was full
+     */
+    private Selector writeSelector;
+
+    public UdpOutputStream(DatagramChannel channel, UdpInputStream inputStream) {
+        this.channel = channel;
+        this.inputStream = inputStream;
     }
 
-    public UdpOutputStream(DatagramSocket socket, String hostname, int port) {
-        this.socket = socket;
+    public UdpOutputStream(DatagramChannel channel, UdpInputStream inputStream, String hostname, int port) {
+        this.channel = channel;
+        this.inputStream = inputStream;
         this.hostname = hostname;
         this.port = port;
     }
 
     @Override
     public void write(int i) throws IOException {
-        dataBuffer[index] = (byte) (i & 0x0ff);
-        index++;
+        dataBuffer.put((byte) (i & 0x0ff));
 
-        if (index >= dataBuffer.length) {
+        if (!dataBuffer.hasRemaining()) {
             flush();
         }
     }
 
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            int count = Math.min(len, dataBuffer.remaining());
+            dataBuffer.put(b, off, count);
+            off += count;
+            len -= count;
+            if (!dataBuffer.hasRemaining()) {
+                flush();
+            }
+        }
+    }
+
     @Override
     public void close() throws IOException {
-        if (!socket.isClosed()) {
-            socket.close();
+        if (writeSelector != null) {
+            writeSelector.close();
         }
+        channel.close();
     }
 
     @Override
     public void flush() throws IOException {
-        byte[] outData = new byte[index];
-        System.arraycopy(dataBuffer, 0, outData, 0, index);
-        DatagramPacket packet;
-        if (socket.isConnected()) {
-            packet = new DatagramPacket(outData, index);
-        } else {
-            packet = new DatagramPacket(outData, index, InetAddress.getByName(hostname), port);
+        dataBuffer.flip();
+        try {
+            while (send() == 0 && dataBuffer.hasRemaining()) {
+                awaitWritable();
+            }
+        } catch (ClosedChannelException e) {
+            throw new SocketException("Socket is closed");
+        } finally {
+            dataBuffer.clear();
+        }
+    }
+
+    private int send() throws IOException {
+        SocketAddress peer = inputStream.getPeer();
+        if (peer != null) {
+            return channel.send(dataBuffer, peer);
+        }
+        if (target == null) {
+            if (hostname == null) {
+                throw new SocketException(
+                    "No peer to send the datagram to, a datagram has to be received before the first one is sent");
+            }
+            InetSocketAddress address = new InetSocketAddress(hostname, port);
+            if (address.isUnresolved()) {
+                throw new UnknownHostException(hostname);
+            }
+            target = address;
+        }
+        return channel.send(dataBuffer, target);
+    }
+
+    private void awaitWritable() throws IOException {
+        if (writeSelector == null) {
+            writeSelector = Selector.open();
+            channel.register(writeSelector, SelectionKey.OP_WRITE);
         }
-        socket.send(packet);
-        index = 0;
+        writeSelector.select();
+        writeSelector.selectedKeys().clear();
     }
 
 }
@@ -0,0 +1,205 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.transport.capture;
+
+import de.rub.nds.tlsattacker.transport.tcp.ClientTcpTransportHandler;
+import de.rub.nds.tlsattacker.transport.udp.ClientUdpTransportHandler;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class PacketCaptureTest {
+
+    private static final int TCP = 6;
+
+    private static final int UDP = 17;
+
+    private final InetAddress localhost = InetAddress.getLoopbackAddress();
+
+    @Test
+    public void testCaptureTcpConnection() throws Exception {
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, localhost)) {
+            ClientTcpTransportHandler handler =
+                new ClientTcpTransportHandler(1000, 1000, localhost.getHostAddress(), serverSocket.getLocalPort());
+            PacketCapture capture = new PacketCapture(file, "test capture");
+            handler.setPacketCapture(capture, "test connection");
+            handler.initialize();
+            try (Socket peer = serverSocket.accept()) {
+                handler.sendData(new byte[] { 1, 2, 3 });
+                byte[] request = new byte[3];
+                InputStream peerInput = peer.getInputStream();
+                assertEquals(3, peerInput.read(request));
+                OutputStream peerOutput = peer.getOutputStream();
+                peerOutput.write(new byte[] { 4, 5, 6, 7 });
+                peerOutput.flush();
+                assertArrayEquals(new byte[] { 4, 5, 6, 7 }, handler.fetchData());
+            }
+            handler.closeConnection();
+            capture.close();
+
+            List<byte[]> packets = parse(file.toByteArray(), "test capture");
+            String content = new String(file.toByteArray(), StandardCharsets.UTF_8);
+            assertTrue(content.contains("Connection 1: test connection"));
+            // Handshake, one segment per direction and the FIN with its ACK
+            assertEquals(7, packets.size());
+            int clientPort = handler.getSrcPort();
+            int serverPort = serverSocket.getLocalPort();
+            assertTcp(packets.get(0), clientPort, serverPort, 0x02, 0, new byte[0]);
+            assertTcp(packets.get(1), serverPort, clientPort, 0x12, 0, new byte[0]);
+            assertTcp(packets.get(2), clientPort, serverPort, 0x10, 1, new byte[0]);
+            assertTcp(packets.get(3), clientPort, serverPort, 0x18, 1, new byte[] { 1, 2, 3 });
+            assertTcp(packets.get(4), serverPort, clientPort, 0x18, 1, new byte[] { 4, 5, 6, 7 });
+            assertTcp(packets.get(5), clientPort, serverPort, 0x11, 4, new byte[0]);
+            assertTcp(packets.get(6), serverPort, clientPort, 0x10, 5, new byte[0]);
+        }
+    }
+
+    @Test
+    public void testCaptureReconnectStartsNewConnection() throws Exception {
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        try (ServerSocket serverSocket = new ServerSocket(0, 2, localhost)) {
+            ClientTcpTransportHandler handler =
+                new ClientTcpTransportHandler(1000, 1000, localhost.getHostAddress(), serverSocket.getLocalPort());
+            PacketCapture capture = new PacketCapture(file, null);
+            handler.setPacketCapture(capture);
+            handler.initialize();
+            serverSocket.accept().close();
+            handler.closeConnection();
+            handler.initialize();
+            serverSocket.accept().close();
+            handler.closeConnection();
+            capture.close();
+
+            assertEquals(2, capture.getConnectionCount());
+            List<byte[]> packets = parse(file.toByteArray(), null);
+            assertEquals(10, packets.size());
+            assertTcp(packets.get(5), handler.getSrcPort(), serverSocket.getLocalPort(), 0x02, 0, new byte[0]);
+        }
+    }
+
+    @Test
+    public void testCaptureUdpDatagrams() throws Exception {
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        try (DatagramSocket peer = new DatagramSocket(0, localhost)) {
+            ClientUdpTransportHandler handler =
+                new ClientUdpTransportHandler(1000, 1000, localhost.getHostAddress(), peer.getLocalPort());
+            PacketCapture capture = new PacketCapture(file, "test datagrams");
+            handler.setPacketCapture(capture);
+            handler.initialize();
+
+            handler.sendData(new byte[] { 1, 2, 3 });
+            DatagramPacket request = new DatagramPacket(new byte[16], 16);
+            peer.receive(request);
+            byte[] firstResponse = new byte[] { 4, 5 };
+            byte[] secondResponse = new byte[] { 6, 7, 8 };
+            peer.send(new DatagramPacket(firstResponse, firstResponse.length, request.getSocketAddress()));
+            peer.send(new DatagramPacket(secondResponse, secondResponse.length, request.getSocketAddress()));
+            assertArrayEquals(firstResponse, handler.fetchData());
+            assertArrayEquals(secondResponse, handler.fetchData());
+            handler.closeConnection();
+            capture.close();
+
+            List<byte[]> packets = parse(file.toByteArray(), "test datagrams");
+            assertEquals(3, packets.size());
+            int localPort = request.getPort();
+            assertUdp(packets.get(0), localPort, peer.getLocalPort(), new byte[] { 1, 2, 3 });
+            assertUdp(packets.get(1), peer.getLocalPort(), localPort, firstResponse);
+            assertUdp(packets.get(2), peer.getLocalPort(), localPort, secondResponse);
+        }
+    }
+
+    /**
+     * Checks the block structure of the file and returns the packets of all enhanced packet blocks
+     */
+    private List<byte[]> parse(byte[] file, String expectedComment) {
+        ByteBuffer buffer = ByteBuffer.wrap(file);
+        assertEquals(0x0A0D0D0A, buffer.getInt(0));
+        assertEquals(0x1A2B3C4D, buffer.getInt(8));
+        if (expectedComment != null) {
+            assertTrue(new String(file, StandardCharsets.UTF_8).contains(expectedComment));
+        }
+        List<byte[]> packets = new ArrayList<>();
+        int interfaces = 0;
+        while (buffer.hasRemaining()) {
+            int start = buffer.position();
+            int type = buffer.getInt();
+            int length = buffer.getInt();
+            assertEquals(0, length % 4);
+            assertEquals(length, buffer.getInt(start + length - 4));
+            if (type == 1) {
+                assertEquals(101, buffer.getShort(start + 8));
+                interfaces++;
+            } else if (type == 6) {
+                int capturedLength = buffer.getInt(start + 20);
+                assertEquals(capturedLength, buffer.getInt(start + 24));
+                packets.add(Arrays.copyOfRange(file, start + 28, start + 28 + capturedLength));
+            }
+            buffer.position(start + length);
+        }
+        assertEquals(1, interfaces);
+        return packets;
+    }
+
+    private void assertTcp(byte[] packet, int sourcePort, int destinationPort, int flags, int sequenceNumber,
+        byte[] payload) {
+        ByteBuffer buffer = assertIpv4(packet, TCP, 20 + payload.length);
+        assertEquals(sourcePort, buffer.getShort(20) & 0xFFFF);
+        assertEquals(destinationPort, buffer.getShort(22) & 0xFFFF);
+        assertEquals(sequenceNumber, buffer.getInt(24));
+        assertEquals(flags, packet[33]);
+        assertArrayEquals(payload, Arrays.copyOfRange(packet, 40, packet.length));
+    }
+
+    private void assertUdp(byte[] packet, int sourcePort, int destinationPort, byte[] payload) {
+        ByteBuffer buffer = assertIpv4(packet, UDP, 8 + payload.length);
+        assertEquals(sourcePort, buffer.getShort(20) & 0xFFFF);
+        assertEquals(destinationPort, buffer.getShort(22) & 0xFFFF);
+        assertEquals(8 + payload.length, buffer.getShort(24));
+        assertArrayEquals(payload, Arrays.copyOfRange(packet, 28, packet.length));
+    }
+
+    private ByteBuffer assertIpv4(byte[] packet, int protocol, int transportLength) {
+        ByteBuffer buffer = ByteBuffer.wrap(packet);
+        assertEquals(0x45, packet[0]);
+        assertEquals(20 + transportLength, buffer.getShort(2));
+        assertEquals(protocol, packet[9]);
+        assertEquals(0, sum(packet, 0, 20, 0) ^ 0xFFFF);
+        int pseudoHeader = sum(packet, 12, 8, 0) + protocol + transportLength;
+        assertEquals(0, sum(packet, 20, transportLength, pseudoHeader) ^ 0xFFFF);
+        return buffer;
+    }
+
+    private int sum(byte[] data, int offset, int length, int initial) {
+        long sum = initial;
+        for (int i = 0; i < length; i += 2) {
+            int low = i + 1 < length ? data[offset + i + 1] & 0xFF : 0;
+            sum += ((data[offset + i] & 0xFF) << 8) | low;
+        }
+        while ((sum >>> 16) != 0) {
+            sum = (sum & 0xFFFF) + (sum >>> 16);
+        }
+        return (int) sum;
+    }
+}
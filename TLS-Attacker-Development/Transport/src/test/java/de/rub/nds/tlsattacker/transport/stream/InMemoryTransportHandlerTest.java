@@ -0,0 +1,103 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.transport.stream;
+
+import de.rub.nds.tlsattacker.transport.ConnectionEndType;
+import java.io.IOException;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+public class InMemoryTransportHandlerTest {
+
+    private InMemoryTransportHandler client;
+
+    private InMemoryTransportHandler server;
+
+    @Before
+    public void setUp() throws IOException {
+        client = new InMemoryTransportHandler(50, 50, ConnectionEndType.CLIENT);
+        server = client.createPeer();
+        client.initialize();
+        server.initialize();
+    }
+
+    @Test
+    public void testCreatePeer() {
+        assertEquals(ConnectionEndType.SERVER, server.getConnectionEndType());
+        assertEquals(client.getTimeout(), server.getTimeout());
+    }
+
+    @Test
+    public void testSendAndFetchData() throws IOException {
+        client.sendData(new byte[] { 1, 2, 3 });
+        client.sendData(new byte[] { 4 });
+        assertArrayEquals(new byte[] { 1, 2, 3, 4 }, server.fetchData());
+        server.sendData(new byte[] { 5, 6 });
+        assertArrayEquals(new byte[] { 5, 6 }, client.fetchData());
+    }
+
+    @Test
+    public void testFetchDataTimesOut() throws IOException {
+        long start = System.currentTimeMillis();
+        assertArrayEquals(new byte[0], client.fetchData());
+        assertTrue(System.currentTimeMillis() - start >= 40);
+        assertFalse(client.isClosed());
+    }
+
+    @Test
+    public void testLargeTransfer() throws IOException {
+        byte[] data = new byte[100000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        client.sendData(data);
+        assertArrayEquals(data, server.fetchData());
+    }
+
+    @Test
+    public void testForkCopiesDataInTransit() throws IOException {
+        client.sendData(new byte[] { 1, 2 });
+        server.sendData(new byte[] { 3 });
+
+        InMemoryTransportHandler forkedClient = client.fork();
+        InMemoryTransportHandler forkedServer = forkedClient.createPeer();
+        forkedClient.initialize();
+        forkedServer.initialize();
+        assertArrayEquals(new byte[] { 1, 2 }, forkedServer.fetchData());
+        assertArrayEquals(new byte[] { 3 }, forkedClient.fetchData());
+        forkedClient.sendData(new byte[] { 4 });
+
+        // The original connection is not affected by the fork
+        assertArrayEquals(new byte[] { 1, 2 }, server.fetchData());
+        assertArrayEquals(new byte[] { 3 }, client.fetchData());
+        assertArrayEquals(new byte[0], server.fetchData());
+        assertArrayEquals(new byte[] { 4 }, forkedServer.fetchData());
+    }
+
+    @Test
+    public void testCloseConnection() throws IOException {
+        client.sendData(new byte[] { 1 });
+        client.closeConnection();
+        assertTrue(client.isClosed());
+        assertArrayEquals(new byte[] { 1 }, server.fetchData());
+        assertArrayEquals(new byte[0], server.fetchData());
+        try {
+            server.sendData(new byte[] { 2 });
+            fail("Sending on a closed connection must fail");
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testCloseUninitializedConnection() throws IOException {
+        new InMemoryTransportHandler(50, 50, ConnectionEndType.CLIENT).closeConnection();
+    }
+}
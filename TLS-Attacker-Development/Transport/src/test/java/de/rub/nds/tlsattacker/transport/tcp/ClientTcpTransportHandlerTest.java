@@ -9,11 +9,13 @@
 
 package de.rub.nds.tlsattacker.transport.tcp;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.util.Random;
 import static org.junit.Assert.*;
 import org.junit.Before;
 import org.junit.Test;
@@ -95,4 +97,32 @@ public class ClientTcpTransportHandlerTest {
 
     }
 
+    @Test
+    public void fetchingMoreDataThanASingleReadReturnsOnlyTheReceivedData() throws Exception {
+        try (ServerSocketChannel serverSocketChannel = ServerSocketChannel.open()) {
+            serverSocketChannel.socket().bind(new InetSocketAddress(0));
+            handler = new ClientTcpTransportHandler(100, 100, "localhost", serverSocketChannel.socket().getLocalPort());
+            handler.initialize();
+            Socket s = serverSocketChannel.accept().socket();
+            byte[] data = new byte[1 << 20];
+            new Random(0).nextBytes(data);
+            Thread writer = new Thread(() -> {
+                try {
+                    s.getOutputStream().write(data);
+                } catch (IOException ex) {
+                }
+            });
+            writer.start();
+            ByteArrayOutputStream fetched = new ByteArrayOutputStream();
+            byte[] fetchData;
+            do {
+                fetchData = handler.fetchData();
+                fetched.write(fetchData);
+            } while (fetchData.length > 0 && fetched.size() < data.length);
+            writer.join();
+            assertArrayEquals(data, fetched.toByteArray());
+            s.close();
+        }
+    }
+
 }
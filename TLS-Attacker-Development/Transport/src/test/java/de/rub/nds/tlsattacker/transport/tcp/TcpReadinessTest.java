@@ -0,0 +1,99 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.transport.tcp;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Test;
+
+public class TcpReadinessTest {
+
+    private static final long SERVER_START_DELAY = 500;
+
+    /**
+     * The previous polling loops slept for a full second between attempts
+     */
+    private static final long PREVIOUS_POLL_INTERVAL = 1000;
+
+    private ServerSocketChannel serverSocketChannel;
+
+    @After
+    public void tearDown() throws IOException {
+        if (serverSocketChannel != null) {
+            serverSocketChannel.close();
+        }
+    }
+
+    @Test
+    public void testAwaitConnectableRunningServer() throws Exception {
+        serverSocketChannel = ServerSocketChannel.open();
+        serverSocketChannel.socket().bind(new InetSocketAddress("localhost", 0));
+        assertTrue(TcpReadiness.awaitConnectable("localhost", serverSocketChannel.socket().getLocalPort(), 1000));
+    }
+
+    @Test
+    public void testAwaitConnectableTimeout() throws Exception {
+        int port = getFreePort();
+        long start = System.currentTimeMillis();
+        assertFalse(TcpReadiness.awaitConnectable("localhost", port, 200));
+        assertTrue(System.currentTimeMillis() - start < PREVIOUS_POLL_INTERVAL);
+    }
+
+    /**
+     * A server which starts late must be detected shortly after it started listening, not only after the next full
+     * polling interval
+     */
+    @Test
+    public void testAwaitConnectableLateServer() throws Exception {
+        int port = getFreePort();
+        long[] listeningSince = new long[1];
+        Thread server = new Thread(() -> {
+            try {
+                Thread.sleep(SERVER_START_DELAY);
+                ServerSocketChannel channel = ServerSocketChannel.open();
+                channel.socket().bind(new InetSocketAddress("localhost", port));
+                listeningSince[0] = System.currentTimeMillis();
+                serverSocketChannel = channel;
+            } catch (IOException | InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        server.start();
+        assertTrue(TcpReadiness.awaitConnectable("localhost", port, 10000));
+        long detected = System.currentTimeMillis();
+        server.join();
+        long detectionLatency = detected - listeningSince[0];
+        assertTrue("Detection took " + detectionLatency + "ms", detectionLatency < PREVIOUS_POLL_INTERVAL / 2);
+    }
+
+    @Test
+    public void testBackoffDeadline() throws Exception {
+        TcpReadiness.Backoff backoff = new TcpReadiness.Backoff(1, 8, 50);
+        long start = System.currentTimeMillis();
+        int pauses = 0;
+        while (backoff.pause()) {
+            pauses++;
+        }
+        long duration = System.currentTimeMillis() - start;
+        assertTrue(duration >= 50);
+        assertTrue(duration < 500);
+        assertTrue(pauses >= 4);
+    }
+
+    private static int getFreePort() throws IOException {
+        try (ServerSocketChannel channel = ServerSocketChannel.open()) {
+            channel.socket().bind(new InetSocketAddress("localhost", 0));
+            return channel.socket().getLocalPort();
+        }
+    }
+}
@@ -22,6 +22,7 @@ import de.rub.nds.modifiablevariable.util.RandomHelper;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
+import java.util.Arrays;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import org.junit.Test;
@@ -86,6 +87,52 @@ public class ClientUdpTransportHandlerTest {
         }
     }
 
+    @Test
+    public void testFetchDataPreservesDatagramBoundaries() throws Exception {
+        try (DatagramSocket testSocket = new DatagramSocket()) {
+            ClientUdpTransportHandler udpTH =
+                new ClientUdpTransportHandler(1, 100, localhost.getHostName(), testSocket.getLocalPort());
+
+            udpTH.initialize();
+            testSocket.connect(localhost, udpTH.getSrcPort());
+
+            byte[] firstDatagram = new byte[] { 1, 2, 3 };
+            byte[] secondDatagram = new byte[40000];
+            RandomHelper.getRandom().nextBytes(secondDatagram);
+            testSocket.send(new DatagramPacket(firstDatagram, firstDatagram.length));
+            testSocket.send(new DatagramPacket(secondDatagram, secondDatagram.length));
+
+            assertArrayEquals(firstDatagram, udpTH.fetchData());
+            assertArrayEquals(secondDatagram, udpTH.fetchData());
+            assertEquals(0, udpTH.fetchData().length);
+
+            udpTH.closeConnection();
+        }
+    }
+
+    @Test
+    public void testSendDataAsSingleDatagram() throws Exception {
+        try (DatagramSocket testSocket = new DatagramSocket()) {
+            ClientUdpTransportHandler udpTH =
+                new ClientUdpTransportHandler(1, 1, localhost.getHostName(), testSocket.getLocalPort());
+
+            udpTH.initialize();
+
+            byte[] txData = new byte[40000];
+            RandomHelper.getRandom().nextBytes(txData);
+            DatagramPacket rxPacket = new DatagramPacket(new byte[65536], 65536);
+
+            udpTH.sendData(txData);
+            testSocket.setSoTimeout(1000);
+            testSocket.receive(rxPacket);
+
+            assertEquals("Confirm size of the sent datagram", txData.length, rxPacket.getLength());
+            assertArrayEquals(txData, Arrays.copyOf(rxPacket.getData(), rxPacket.getLength()));
+
+            udpTH.closeConnection();
+        }
+    }
+
     @Test
     public void testFetchTimeout() throws Exception {
         ClientUdpTransportHandler udpTH = new ClientUdpTransportHandler(1, 1, localhost.getHostName(), 12345);
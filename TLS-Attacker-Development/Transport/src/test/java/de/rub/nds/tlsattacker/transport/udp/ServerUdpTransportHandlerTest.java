@@ -9,23 +9,33 @@
 
 package de.rub.nds.tlsattacker.transport.udp;
 
-import org.junit.Before;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.SocketException;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import org.junit.Test;
 
 public class ServerUdpTransportHandlerTest {
 
-    public ServerUdpTransportHandlerTest() {
-    }
-
-    @Before
-    public void setUp() {
-    }
+    private final InetAddress localhost = InetAddress.getLoopbackAddress();
 
     /**
      * Test of closeConnection method, of class ServerUdpTransportHandler.
+     *
+     * @throws java.lang.Exception
      */
     @Test
-    public void testCloseConnection() {
+    public void testCloseConnection() throws Exception {
+        ServerUdpTransportHandler udpTH = new ServerUdpTransportHandler(1, 1, 0);
+        udpTH.preInitialize();
+        assertFalse(udpTH.isClosed());
+        udpTH.closeConnection();
+        assertTrue(udpTH.isClosed());
     }
 
     /**
@@ -33,8 +43,67 @@ public class ServerUdpTransportHandlerTest {
      *
      * @throws java.lang.Exception
      */
-    @Test
+    @Test(timeout = 5000)
     public void testInitialize() throws Exception {
+        try (DatagramSocket testSocket = new DatagramSocket()) {
+            ServerUdpTransportHandler udpTH = new ServerUdpTransportHandler(1, 100, 0);
+            udpTH.preInitialize();
+
+            byte[] clientData = new byte[] { 0x16, (byte) 0xfe, (byte) 0xfd };
+            testSocket.send(new DatagramPacket(clientData, clientData.length, localhost, udpTH.getSrcPort()));
+            udpTH.initialize();
+
+            assertEquals(testSocket.getLocalPort(), udpTH.getDstPort());
+            assertArrayEquals(clientData, udpTH.fetchData());
+
+            byte[] serverData = new byte[] { 0x15, (byte) 0xfe, (byte) 0xfd, 0x00 };
+            udpTH.sendData(serverData);
+            DatagramPacket rxPacket = new DatagramPacket(new byte[16], 16);
+            testSocket.setSoTimeout(1000);
+            testSocket.receive(rxPacket);
+            assertEquals(serverData.length, rxPacket.getLength());
+
+            udpTH.closeConnection();
+        }
+    }
+
+    /**
+     * An empty datagram also counts as a client connecting, without waiting for further datagrams.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test(timeout = 5000)
+    public void testInitializeWithEmptyDatagram() throws Exception {
+        try (DatagramSocket testSocket = new DatagramSocket()) {
+            ServerUdpTransportHandler udpTH = new ServerUdpTransportHandler(1, 100, 0);
+            udpTH.preInitialize();
+
+            testSocket.send(new DatagramPacket(new byte[0], 0, localhost, udpTH.getSrcPort()));
+            udpTH.initialize();
+
+            assertEquals(testSocket.getLocalPort(), udpTH.getDstPort());
+
+            udpTH.closeConnection();
+        }
+    }
+
+    /**
+     * The server only learns its peer from the first received datagram, so it cannot send before.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testSendBeforeReceive() throws Exception {
+        ServerUdpTransportHandler udpTH = new ServerUdpTransportHandler(1, 100, 0);
+        udpTH.preInitialize();
+        try {
+            udpTH.sendData(new byte[] { 0x16 });
+            fail("Sending without a peer should fail");
+        } catch (SocketException e) {
+            assertTrue(e.getMessage().contains("has to be received"));
+        } finally {
+            udpTH.closeConnection();
+        }
     }
 
 }
@@ -0,0 +1,252 @@
+/**
+ * TLS-Attacker - A Modular Penetration Testing Framework for TLS
+ *
+ * Copyright 2014-2022 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsattacker.transport.udp;
+
+import de.rub.nds.tlsattacker.transport.TransportHandler;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Replays the datagrams of a full DTLS 1.2 handshake with cookie exchange over loopback, once between a
+ * {@link ClientUdpTransportHandler} and a {@link ServerUdpTransportHandler} and once between sockets using the previous
+ * stream implementation, which allocated a packet per datagram, copied every byte with a separate call and resolved the
+ * host name for every datagram it sent. Each flight is sent one record per datagram and the receiver fetches until the
+ * whole flight arrived. Run via {@link #main(String[])} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UdpTransportHandlerBenchmark {
+
+    /**
+     * Record sizes of ClientHello, HelloVerifyRequest, ClientHello with cookie, ServerHello to ServerHelloDone,
+     * ClientKeyExchange to Finished and ChangeCipherSpec and Finished of the server
+     */
+    private static final int[][] FLIGHTS =
+        { { 214 }, { 60 }, { 246 }, { 103, 1289, 338, 25 }, { 79, 14, 61 }, { 14, 61 } };
+
+    private static final long TIMEOUT = 1000;
+
+    private ClientUdpTransportHandler client;
+
+    private ServerUdpTransportHandler server;
+
+    private PreviousEndpoint previousClient;
+
+    private PreviousEndpoint previousServer;
+
+    private byte[][][] flights;
+
+    @Setup
+    public void setUp() throws IOException {
+        flights = new byte[FLIGHTS.length][][];
+        for (int i = 0; i < FLIGHTS.length; i++) {
+            flights[i] = new byte[FLIGHTS[i].length][];
+            for (int j = 0; j < FLIGHTS[i].length; j++) {
+                flights[i][j] = new byte[FLIGHTS[i][j]];
+            }
+        }
+
+        server = new ServerUdpTransportHandler(TIMEOUT, TIMEOUT, 0);
+        server.preInitialize();
+        client = new ClientUdpTransportHandler(TIMEOUT, TIMEOUT, "localhost", server.getSrcPort());
+        client.initialize();
+        client.sendData(new byte[] { 0 });
+        server.initialize();
+        server.fetchData();
+
+        DatagramSocket previousServerSocket = new DatagramSocket();
+        DatagramSocket previousClientSocket = new DatagramSocket();
+        previousServer = new PreviousEndpoint(previousServerSocket, null, 0);
+        previousClient = new PreviousEndpoint(previousClientSocket, "localhost", previousServerSocket.getLocalPort());
+        previousClient.send(new byte[] { 0 });
+        previousServer.fetch();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        client.closeConnection();
+        server.closeConnection();
+        previousClient.close();
+        previousServer.close();
+    }
+
+    @Benchmark
+    public int handshake() throws IOException {
+        int received = 0;
+        for (int i = 0; i < flights.length; i++) {
+            TransportHandler sender = i % 2 == 0 ? client : server;
+            TransportHandler receiver = i % 2 == 0 ? server : client;
+            int expected = 0;
+            for (byte[] record : flights[i]) {
+                sender.sendData(record);
+                expected += record.length;
+            }
+            while (expected > 0) {
+                byte[] data = receiver.fetchData();
+                if (data.length == 0) {
+                    throw new IOException("Datagram got lost");
+                }
+                expected -= data.length;
+                received += data.length;
+            }
+        }
+        return received;
+    }
+
+    @Benchmark
+    public int handshakePreviousImplementation() throws IOException {
+        int received = 0;
+        for (int i = 0; i < flights.length; i++) {
+            PreviousEndpoint sender = i % 2 == 0 ? previousClient : previousServer;
+            PreviousEndpoint receiver = i % 2 == 0 ? previousServer : previousClient;
+            int expected = 0;
+            for (byte[] record : flights[i]) {
+                sender.send(record);
+                expected += record.length;
+            }
+            while (expected > 0) {
+                byte[] data = receiver.fetch();
+                expected -= data.length;
+                received += data.length;
+            }
+        }
+        return received;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UdpTransportHandlerBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * The streams of the previous UdpTransportHandlers, read the same way TransportHandler.fetchData() reads them
+     */
+    private static class PreviousEndpoint {
+
+        private static final int BUFFER_SIZE = 16384;
+
+        private final DatagramSocket socket;
+
+        private final String hostname;
+
+        private final int port;
+
+        private final byte[] inBuffer = new byte[BUFFER_SIZE];
+
+        private final byte[] outBuffer = new byte[BUFFER_SIZE];
+
+        private final PushbackInputStream inStream;
+
+        private final OutputStream outStream;
+
+        private int packetSize;
+
+        private int index;
+
+        private int outIndex;
+
+        PreviousEndpoint(DatagramSocket socket, String hostname, int port) throws IOException {
+            this.socket = socket;
+            this.hostname = hostname;
+            this.port = port;
+            socket.setSoTimeout((int) TIMEOUT);
+            inStream = new PushbackInputStream(new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    while (available() == 0) {
+                        try {
+                            Thread.sleep(1);
+                        } catch (InterruptedException ignored) {
+                        }
+                    }
+                    index++;
+                    return inBuffer[index - 1] & 0xff;
+                }
+
+                @Override
+                public int available() throws IOException {
+                    if (packetSize - index == 0) {
+                        DatagramPacket packet = new DatagramPacket(inBuffer, BUFFER_SIZE);
+                        socket.receive(packet);
+                        index = 0;
+                        packetSize = packet.getLength();
+                        if (!socket.isConnected()) {
+                            socket.connect(packet.getSocketAddress());
+                        }
+                    }
+                    return packetSize - index;
+                }
+            });
+            outStream = new OutputStream() {
+                @Override
+                public void write(int i) throws IOException {
+                    outBuffer[outIndex] = (byte) (i & 0x0ff);
+                    outIndex++;
+                    if (outIndex >= outBuffer.length) {
+                        flush();
+                    }
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    byte[] outData = new byte[outIndex];
+                    System.arraycopy(outBuffer, 0, outData, 0, outIndex);
+                    DatagramPacket packet;
+                    if (socket.isConnected()) {
+                        packet = new DatagramPacket(outData, outIndex);
+                    } else {
+                        packet = new DatagramPacket(outData, outIndex,
+                            InetAddress.getByName(PreviousEndpoint.this.hostname), PreviousEndpoint.this.port);
+                    }
+                    socket.send(packet);
+                    outIndex = 0;
+                }
+            };
+        }
+
+        void send(byte[] data) throws IOException {
+            outStream.write(data);
+            outStream.flush();
+        }
+
+        byte[] fetch() throws IOException {
+            byte[] data = new byte[inStream.available()];
+            inStream.read(data);
+            return data;
+        }
+
+        void close() {
+            socket.close();
+        }
+    }
+}
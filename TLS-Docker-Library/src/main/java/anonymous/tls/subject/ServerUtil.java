@@ -1,7 +1,10 @@
 package anonymous.tls.subject;
 
 import java.io.IOException;
-import java.net.Socket;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
 
 import anonymous.tls.subject.exceptions.ImplementationDidNotStartException;
 import org.apache.logging.log4j.LogManager;
@@ -10,34 +13,45 @@ import org.apache.logging.log4j.Logger;
 public class ServerUtil {
     private static final Logger LOGGER = LogManager.getLogger();
 
-    private static final int SERVER_POLL_INTERVAL_MILLISECONDS = 50;
+    // connection attempts are retried after 2, 4, 8, ... ms, but at least every 100 ms
+    private static final int SERVER_POLL_INITIAL_INTERVAL_MILLISECONDS = 2;
+
+    private static final int SERVER_POLL_MAX_INTERVAL_MILLISECONDS = 100;
+
+    private static final int SERVER_CONNECT_TIMEOUT_MILLISECONDS = 1000;
 
     private static final int TIMEOUT_WAIT_FOR_SERVER_SPINUP_MILLISECONDS = 10000;
 
     public void waitUntilServerIsOnline(String host, int port) {
-        long startTime = System.currentTimeMillis();
-        while (!isServerOnline(host, port)) {
-            if (startTime + TIMEOUT_WAIT_FOR_SERVER_SPINUP_MILLISECONDS < System.currentTimeMillis()) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_WAIT_FOR_SERVER_SPINUP_MILLISECONDS;
+        long pollInterval = SERVER_POLL_INITIAL_INTERVAL_MILLISECONDS;
+        while (!isServerOnline(host, port, Math.min(SERVER_CONNECT_TIMEOUT_MILLISECONDS, deadline - System.currentTimeMillis()))) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
                 throw new ImplementationDidNotStartException("Could not start Server: Timeout");
             }
             try {
-                Thread.sleep(SERVER_POLL_INTERVAL_MILLISECONDS);
+                Thread.sleep(Math.min(pollInterval, remaining));
             } catch (InterruptedException ex) {
                 throw new ImplementationDidNotStartException("Interrupted while waiting for Server", ex);
             }
+            pollInterval = Math.min(pollInterval * 2, SERVER_POLL_MAX_INTERVAL_MILLISECONDS);
         }
     }
 
     public boolean isServerOnline(String address, int port) {
-        try {
-            Socket ss = new Socket(address, port);
-            if (ss.isConnected()) {
-                ss.close();
+        return isServerOnline(address, port, SERVER_CONNECT_TIMEOUT_MILLISECONDS);
+    }
+
+    private boolean isServerOnline(String address, int port, long timeoutMillis) {
+        try (SocketChannel channel = SocketChannel.open(); Selector selector = Selector.open()) {
+            channel.configureBlocking(false);
+            if (channel.connect(new InetSocketAddress(address, port))) {
                 return true;
-            } else {
-                return false;
             }
-        } catch (IOException e) {
+            channel.register(selector, SelectionKey.OP_CONNECT);
+            return selector.select(Math.max(1, timeoutMillis)) > 0 && channel.finishConnect();
+        } catch (IOException | RuntimeException e) {
             LOGGER.debug("Server is not online yet", e);
             return false;
         }
@@ -0,0 +1,360 @@
+/**
+ * TLS-Client-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.clientscanner;
+
+import de.rub.nds.tlsattacker.core.config.Config;
+import de.rub.nds.tlsattacker.core.connection.AliasedConnection;
+import de.rub.nds.tlsattacker.core.constants.ProtocolVersion;
+import de.rub.nds.tlsattacker.core.state.State;
+import de.rub.nds.tlsattacker.core.state.TlsContext;
+import de.rub.nds.tlsattacker.core.workflow.DefaultWorkflowExecutor;
+import de.rub.nds.tlsattacker.core.workflow.NamedThreadFactory;
+import de.rub.nds.tlsscanner.clientscanner.config.ClientScannerConfig;
+import de.rub.nds.tlsscanner.clientscanner.probe.ClientHelloProbe;
+import de.rub.nds.tlsscanner.clientscanner.probe.ClientProbe;
+import de.rub.nds.tlsscanner.clientscanner.probe.ProtocolVersionProbe;
+import de.rub.nds.tlsscanner.clientscanner.report.ClientReport;
+import de.rub.nds.tlsscanner.clientscanner.transport.ChannelTransportHandler;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Scans TLS clients by serving every probe on a port of its own. A single dispatcher thread accepts the connections
+ * of all ports and watches them with one selector until the client sends its first bytes. Only then a worker executes
+ * the workflow of the probe on the connection, so idle connections do not occupy a thread and the number of workers
+ * only limits the number of concurrent handshakes. The results are aggregated into one report per client address.
+ */
+public class ClientScanner implements Closeable {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    // How often the dispatcher looks for idle connections if nothing happens
+    private static final long IDLE_CHECK_INTERVAL = 1000;
+
+    private static final long WORKER_SHUTDOWN_TIMEOUT = 60;
+
+    private final ClientScannerConfig config;
+
+    private final List<ClientProbe> probes;
+
+    private final Map<ClientProbe, ServerSocketChannel> endpoints;
+
+    private final Map<String, ClientReport> reports;
+
+    private final Set<String> completedClients;
+
+    private ExecutorService workers;
+
+    private Selector selector;
+
+    private Thread dispatcher;
+
+    private volatile boolean running = false;
+
+    public ClientScanner(ClientScannerConfig config) {
+        this(config, createDefaultProbes(config.createConfig()));
+    }
+
+    public ClientScanner(ClientScannerConfig config, List<ClientProbe> probes) {
+        this.config = config;
+        this.probes = new ArrayList<>(probes);
+        endpoints = new LinkedHashMap<>();
+        reports = new LinkedHashMap<>();
+        completedClients = new HashSet<>();
+    }
+
+    public static List<ClientProbe> createDefaultProbes(Config baseConfig) {
+        List<ClientProbe> probes = new LinkedList<>();
+        probes.add(new ClientHelloProbe(baseConfig));
+        probes.add(new ProtocolVersionProbe(baseConfig, ProtocolVersion.TLS10));
+        probes.add(new ProtocolVersionProbe(baseConfig, ProtocolVersion.TLS11));
+        probes.add(new ProtocolVersionProbe(baseConfig, ProtocolVersion.TLS12));
+        return probes;
+    }
+
+    /**
+     * Binds the ports of all probes and starts to accept clients. The probes use consecutive ports starting at the
+     * configured port, or ports chosen by the system if it is 0.
+     *
+     * @throws IOException
+     *                     If a port could not be bound
+     */
+    public synchronized void start() throws IOException {
+        if (selector != null) {
+            throw new IllegalStateException("The scanner was already started");
+        }
+        selector = Selector.open();
+        int port = config.getServerDelegate().getPort();
+        try {
+            for (ClientProbe probe : probes) {
+                ServerSocketChannel serverChannel = ServerSocketChannel.open();
+                endpoints.put(probe, serverChannel);
+                serverChannel.configureBlocking(false);
+                serverChannel.bind(new InetSocketAddress(port == 0 ? 0 : port++), config.getBacklog());
+                serverChannel.register(selector, SelectionKey.OP_ACCEPT, probe);
+                LOGGER.info("Serving " + probe.getProbeName() + " on port " + getPort(probe));
+            }
+        } catch (IOException e) {
+            closeEndpoints();
+            selector.close();
+            throw e;
+        }
+        workers = Executors.newFixedThreadPool(config.getThreads(), new NamedThreadFactory("ClientScanner-Worker"));
+        running = true;
+        dispatcher = new Thread(this::dispatch, "ClientScanner-Dispatcher");
+        dispatcher.start();
+    }
+
+    private void dispatch() {
+        try {
+            while (running) {
+                selector.select(IDLE_CHECK_INTERVAL);
+                Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept(key);
+                        } else if (key.isReadable()) {
+                            handOver(key);
+                        }
+                    } catch (IOException e) {
+                        LOGGER.warn("Could not handle a client connection", e);
+                    }
+                }
+                closeIdleConnections();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            LOGGER.error("The dispatcher stopped unexpectedly", e);
+        } finally {
+            // Only the dispatcher may access the keys of the selector, the channels of canceled keys belong to workers
+            for (SelectionKey key : selector.keys()) {
+                if (key.isValid() && key.attachment() instanceof PendingConnection) {
+                    closeQuietly((SocketChannel) key.channel());
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                LOGGER.warn("Could not close the selector", e);
+            }
+        }
+    }
+
+    private void accept(SelectionKey key) throws IOException {
+        ServerSocketChannel serverChannel = (ServerSocketChannel) key.channel();
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, new PendingConnection((ClientProbe) key.attachment()));
+        }
+    }
+
+    /**
+     * The client sent its first bytes, so the channel leaves the selector and a worker executes the workflow
+     */
+    private void handOver(SelectionKey key) {
+        key.cancel();
+        SocketChannel channel = (SocketChannel) key.channel();
+        ClientProbe probe = ((PendingConnection) key.attachment()).getProbe();
+        try {
+            workers.execute(() -> scanConnection(probe, channel));
+        } catch (RejectedExecutionException e) {
+            closeQuietly(channel);
+        }
+    }
+
+    private void closeIdleConnections() {
+        long now = System.currentTimeMillis();
+        for (SelectionKey key : selector.keys()) {
+            if (key.isValid() && key.attachment() instanceof PendingConnection
+                && now - ((PendingConnection) key.attachment()).getAcceptTime() > config.getIdleTimeout()) {
+                key.cancel();
+                closeQuietly((SocketChannel) key.channel());
+            }
+        }
+    }
+
+    private void scanConnection(ClientProbe probe, SocketChannel channel) {
+        try {
+            InetSocketAddress remoteAddress = (InetSocketAddress) channel.getRemoteAddress();
+            String clientAddress = remoteAddress.getAddress().getHostAddress();
+            State state = probe.createState();
+            TlsContext context = state.getInboundTlsContexts().get(0);
+            AliasedConnection connection = context.getConnection();
+            // getting the hostname is slow, so we just set the ip
+            connection.setHostname(clientAddress);
+            connection.setIp(clientAddress);
+            connection.setPort(remoteAddress.getPort());
+            context.setTransportHandler(new ChannelTransportHandler(connection, channel));
+            ClientReport report = getOrCreateReport(clientAddress);
+            report.increasePerformedConnections();
+            try {
+                new DefaultWorkflowExecutor(state).executeWorkflow();
+                probe.evaluate(state, report);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Could not execute " + probe.getProbeName() + " for " + clientAddress, e);
+            }
+            if (report.markProbeAsExecuted(probe.getProbeName()) == probes.size()) {
+                clientCompleted(report);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not scan a client connection", e);
+        } finally {
+            closeQuietly(channel);
+        }
+    }
+
+    private synchronized ClientReport getOrCreateReport(String clientAddress) {
+        return reports.computeIfAbsent(clientAddress, ClientReport::new);
+    }
+
+    private synchronized void clientCompleted(ClientReport report) {
+        if (completedClients.add(report.getClientAddress())) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Waits until the given number of clients connected to the ports of all probes
+     *
+     * @param  numberOfClients
+     *                              The number of clients to wait for
+     * @param  timeoutMillis
+     *                              The maximum time to wait, or 0 to wait without limit
+     * @return                      True if enough clients completed, false if the timeout expired
+     * @throws InterruptedException
+     *                              If the thread was interrupted while waiting
+     */
+    public synchronized boolean awaitClients(int numberOfClients, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (completedClients.size() < numberOfClients) {
+            if (timeoutMillis <= 0) {
+                wait();
+            } else {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The reports of all clients which connected so far, in the order of their first connection
+     */
+    public synchronized List<ClientReport> getReports() {
+        return new ArrayList<>(reports.values());
+    }
+
+    public List<ClientProbe> getProbes() {
+        return Collections.unmodifiableList(probes);
+    }
+
+    /**
+     * @param  probe
+     *               A probe of this scanner
+     * @return       The port the probe is served on
+     */
+    public int getPort(ClientProbe probe) {
+        return endpoints.get(probe).socket().getLocalPort();
+    }
+
+    /**
+     * Stops accepting clients, closes all connections waiting for their first bytes and waits for the running
+     * workflows to finish
+     */
+    @Override
+    public void close() throws IOException {
+        Thread dispatcherThread;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            dispatcherThread = dispatcher;
+        }
+        selector.wakeup();
+        try {
+            dispatcherThread.join();
+            workers.shutdown();
+            workers.awaitTermination(WORKER_SHUTDOWN_TIMEOUT, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeEndpoints();
+        }
+    }
+
+    private void closeEndpoints() {
+        for (ServerSocketChannel serverChannel : endpoints.values()) {
+            try {
+                serverChannel.close();
+            } catch (IOException e) {
+                LOGGER.warn("Could not close the port of a probe", e);
+            }
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.debug("Could not close a client connection", e);
+        }
+    }
+
+    private static class PendingConnection {
+
+        private final ClientProbe probe;
+
+        private final long acceptTime;
+
+        PendingConnection(ClientProbe probe) {
+            this.probe = probe;
+            this.acceptTime = System.currentTimeMillis();
+        }
+
+        ClientProbe getProbe() {
+            return probe;
+        }
+
+        long getAcceptTime() {
+            return acceptTime;
+        }
+    }
+}
@@ -9,9 +9,58 @@
 
 package de.rub.nds.tlsscanner.clientscanner;
 
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.ParameterException;
+import de.rub.nds.tlsattacker.core.config.delegate.GeneralDelegate;
+import de.rub.nds.tlsattacker.core.exceptions.ConfigurationException;
+import de.rub.nds.tlsscanner.clientscanner.config.ClientScannerConfig;
+import de.rub.nds.tlsscanner.clientscanner.probe.ClientProbe;
+import de.rub.nds.tlsscanner.clientscanner.report.ClientReport;
+import de.rub.nds.tlsscanner.serverscanner.ConsoleLogger;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 public class Main {
 
-    public static void main(String[] args) {
+    private static final Logger LOGGER = LogManager.getLogger();
 
+    public static void main(String[] args) throws IOException {
+        ClientScannerConfig config = new ClientScannerConfig(new GeneralDelegate());
+        JCommander commander = new JCommander(config);
+        try {
+            commander.parse(args);
+            if (config.getGeneralDelegate().isHelp()) {
+                commander.usage();
+                return;
+            }
+            try (ClientScanner scanner = new ClientScanner(config)) {
+                scanner.start();
+                for (ClientProbe probe : scanner.getProbes()) {
+                    ConsoleLogger.CONSOLE.info(probe.getProbeName() + ": port " + scanner.getPort(probe));
+                }
+                long time = System.currentTimeMillis();
+                LOGGER.info("Waiting for " + config.getClients() + " clients to connect to all ports...");
+                if (!scanner.awaitClients(config.getClients(), TimeUnit.SECONDS.toMillis(config.getDuration()))) {
+                    LOGGER.warn("Not all clients connected to all ports within " + config.getDuration() + "s");
+                }
+                List<ClientReport> reports = scanner.getReports();
+                LOGGER.info("Scanned " + reports.size() + " clients in: "
+                    + ((System.currentTimeMillis() - time) / 1000) + "s\n");
+                for (ClientReport report : reports) {
+                    ConsoleLogger.CONSOLE.info(report.getFullReport());
+                }
+            } catch (ConfigurationException e) {
+                LOGGER.error("Encountered a ConfigurationException aborting.", e);
+            }
+        } catch (ParameterException e) {
+            LOGGER.error("Could not parse provided parameters", e);
+            commander.usage();
+        } catch (InterruptedException e) {
+            LOGGER.error("Interrupted while waiting for clients", e);
+            Thread.currentThread().interrupt();
+        }
     }
 }
@@ -0,0 +1,92 @@
+/**
+ * TLS-Client-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.clientscanner.config;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParametersDelegate;
+import de.rub.nds.tlsattacker.core.config.TLSDelegateConfig;
+import de.rub.nds.tlsattacker.core.config.delegate.GeneralDelegate;
+import de.rub.nds.tlsattacker.core.config.delegate.ServerDelegate;
+
+public class ClientScannerConfig extends TLSDelegateConfig {
+
+    @ParametersDelegate
+    private ServerDelegate serverDelegate;
+
+    @Parameter(names = "-threads", required = false,
+        description = "The number of threads executing the workflows of client connections. Connections on which the client did not send anything yet do not occupy a thread.")
+    private int threads = 16;
+
+    @Parameter(names = "-idleTimeout", required = false,
+        description = "Connections on which the client does not send anything within this time in ms are closed")
+    private int idleTimeout = 10000;
+
+    @Parameter(names = "-backlog", required = false,
+        description = "The number of connections each port queues before they are accepted")
+    private int backlog = 1024;
+
+    @Parameter(names = "-clients", required = false,
+        description = "The scan ends once this many clients connected to the ports of all probes")
+    private int clients = 1;
+
+    @Parameter(names = "-duration", required = false,
+        description = "The scan ends after this many seconds, even if not all clients connected. If set to 0, the scan waits for all clients.")
+    private int duration = 0;
+
+    public ClientScannerConfig(GeneralDelegate delegate) {
+        super(delegate);
+        this.serverDelegate = new ServerDelegate();
+        addDelegate(serverDelegate);
+    }
+
+    public ServerDelegate getServerDelegate() {
+        return serverDelegate;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(int idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public int getBacklog() {
+        return backlog;
+    }
+
+    public void setBacklog(int backlog) {
+        this.backlog = backlog;
+    }
+
+    public int getClients() {
+        return clients;
+    }
+
+    public void setClients(int clients) {
+        this.clients = clients;
+    }
+
+    public int getDuration() {
+        return duration;
+    }
+
+    public void setDuration(int duration) {
+        this.duration = duration;
+    }
+}
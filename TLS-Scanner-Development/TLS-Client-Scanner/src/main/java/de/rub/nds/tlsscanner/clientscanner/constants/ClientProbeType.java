@@ -0,0 +1,25 @@
+/**
+ * TLS-Client-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.clientscanner.constants;
+
+public enum ClientProbeType {
+    CLIENT_HELLO("Client hello"),
+    PROTOCOL_VERSION("Protocol version");
+
+    private final String humanReadableName;
+
+    private ClientProbeType(String humanReadableName) {
+        this.humanReadableName = humanReadableName;
+    }
+
+    public String getHumanReadableName() {
+        return humanReadableName;
+    }
+}
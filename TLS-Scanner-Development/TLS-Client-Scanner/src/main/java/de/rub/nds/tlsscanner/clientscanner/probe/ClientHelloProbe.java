@@ -0,0 +1,76 @@
+/**
+ * TLS-Client-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.clientscanner.probe;
+
+import de.rub.nds.tlsattacker.core.config.Config;
+import de.rub.nds.tlsattacker.core.constants.AlertDescription;
+import de.rub.nds.tlsattacker.core.constants.AlertLevel;
+import de.rub.nds.tlsattacker.core.constants.HandshakeMessageType;
+import de.rub.nds.tlsattacker.core.constants.ProtocolVersion;
+import de.rub.nds.tlsattacker.core.protocol.message.AlertMessage;
+import de.rub.nds.tlsattacker.core.protocol.message.ClientHelloMessage;
+import de.rub.nds.tlsattacker.core.state.State;
+import de.rub.nds.tlsattacker.core.state.TlsContext;
+import de.rub.nds.tlsattacker.core.workflow.WorkflowTrace;
+import de.rub.nds.tlsattacker.core.workflow.WorkflowTraceUtil;
+import de.rub.nds.tlsattacker.core.workflow.action.ReceiveAction;
+import de.rub.nds.tlsattacker.core.workflow.action.SendAction;
+import de.rub.nds.tlsscanner.clientscanner.constants.ClientProbeType;
+import de.rub.nds.tlsscanner.clientscanner.report.ClientReport;
+import de.rub.nds.tlsscanner.serverscanner.rating.TestResult;
+import de.rub.nds.tlsscanner.serverscanner.report.AnalyzedProperty;
+import java.util.ArrayList;
+import java.util.EnumSet;
+
+/**
+ * Records what the client offers in its ClientHello and aborts the handshake with a handshake failure alert
+ */
+public class ClientHelloProbe extends ClientProbe {
+
+    public ClientHelloProbe(Config baseConfig) {
+        super(ClientProbeType.CLIENT_HELLO, baseConfig);
+    }
+
+    @Override
+    public State createState() {
+        WorkflowTrace trace = new WorkflowTrace();
+        trace.addTlsAction(new ReceiveAction(new ClientHelloMessage()));
+        AlertMessage alert = new AlertMessage();
+        alert.setConfig(AlertLevel.FATAL, AlertDescription.HANDSHAKE_FAILURE);
+        trace.addTlsAction(new SendAction(alert));
+        return new State(config, trace);
+    }
+
+    @Override
+    public void evaluate(State state, ClientReport report) {
+        if (!WorkflowTraceUtil.didReceiveMessage(HandshakeMessageType.CLIENT_HELLO, state.getWorkflowTrace())) {
+            return;
+        }
+        TlsContext context = state.getInboundTlsContexts().get(0);
+        report.setHighestOfferedProtocolVersion(context.getHighestClientProtocolVersion());
+        if (context.getClientSupportedProtocolVersions() != null
+            && !context.getClientSupportedProtocolVersions().isEmpty()) {
+            report.setOfferedProtocolVersions(new ArrayList<>(context.getClientSupportedProtocolVersions()));
+            report.putResult(AnalyzedProperty.SUPPORTS_TLS_1_3,
+                TestResult.of(context.getClientSupportedProtocolVersions().contains(ProtocolVersion.TLS13)));
+        }
+        if (context.getClientSupportedCipherSuites() != null) {
+            report.setOfferedCipherSuites(new ArrayList<>(context.getClientSupportedCipherSuites()));
+        }
+        report.setOfferedExtensions(EnumSet.copyOf(context.getProposedExtensions()));
+        if (context.getClientNamedGroupsList() != null) {
+            report.setOfferedNamedGroups(new ArrayList<>(context.getClientNamedGroupsList()));
+        }
+        if (context.getClientSupportedSignatureAndHashAlgorithms() != null) {
+            report.setOfferedSignatureAndHashAlgorithms(
+                new ArrayList<>(context.getClientSupportedSignatureAndHashAlgorithms()));
+        }
+    }
+}
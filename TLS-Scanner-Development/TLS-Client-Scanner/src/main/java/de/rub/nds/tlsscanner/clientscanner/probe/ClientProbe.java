@@ -0,0 +1,64 @@
+/**
+ * TLS-Client-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.clientscanner.probe;
+
+import de.rub.nds.tlsattacker.core.config.Config;
+import de.rub.nds.tlsattacker.core.state.State;
+import de.rub.nds.tlsscanner.clientscanner.constants.ClientProbeType;
+import de.rub.nds.tlsscanner.clientscanner.report.ClientReport;
+
+/**
+ * A probe of the client scanner. Each probe is served on a port of its own and executes one server workflow for each
+ * client connection to that port. The config is created once and shared by the states of all connections, so it
+ * must not be changed after the probe is constructed.
+ */
+public abstract class ClientProbe {
+
+    private final ClientProbeType type;
+
+    protected final Config config;
+
+    /**
+     * @param type
+     *                   The type of the probe
+     * @param baseConfig
+     *                   The config of the scanner, which is copied before the probe adjusts it
+     */
+    public ClientProbe(ClientProbeType type, Config baseConfig) {
+        this.type = type;
+        this.config = baseConfig.createCopy();
+    }
+
+    public ClientProbeType getType() {
+        return type;
+    }
+
+    /**
+     * @return The name of the probe, which distinguishes it from other probes of the same type
+     */
+    public String getProbeName() {
+        return type.getHumanReadableName();
+    }
+
+    /**
+     * @return A new state with the server workflow for one client connection
+     */
+    public abstract State createState();
+
+    /**
+     * Stores the results of an executed state in the report of the client
+     *
+     * @param state
+     *               The executed state of a connection of the client
+     * @param report
+     *               The report of the client
+     */
+    public abstract void evaluate(State state, ClientReport report);
+}
@@ -0,0 +1,100 @@
+/**
+ * TLS-Client-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.clientscanner.probe;
+
+import de.rub.nds.tlsattacker.core.config.Config;
+import de.rub.nds.tlsattacker.core.constants.CipherSuite;
+import de.rub.nds.tlsattacker.core.constants.HandshakeMessageType;
+import de.rub.nds.tlsattacker.core.constants.ProtocolVersion;
+import de.rub.nds.tlsattacker.core.constants.RunningModeType;
+import de.rub.nds.tlsattacker.core.state.State;
+import de.rub.nds.tlsattacker.core.state.TlsContext;
+import de.rub.nds.tlsattacker.core.workflow.WorkflowTrace;
+import de.rub.nds.tlsattacker.core.workflow.WorkflowTraceUtil;
+import de.rub.nds.tlsattacker.core.workflow.factory.WorkflowConfigurationFactory;
+import de.rub.nds.tlsattacker.core.workflow.factory.WorkflowTraceType;
+import de.rub.nds.tlsscanner.clientscanner.constants.ClientProbeType;
+import de.rub.nds.tlsscanner.clientscanner.report.ClientReport;
+import de.rub.nds.tlsscanner.serverscanner.rating.TestResult;
+import de.rub.nds.tlsscanner.serverscanner.report.AnalyzedProperty;
+
+/**
+ * Tests if the client completes a handshake in a given protocol version. The server only supports this version and
+ * selects it even if the client offers a higher one. The server workflow is created before the ClientHello is known,
+ * so it uses a fixed cipher suite with RSA key exchange, which is available in all versions the probe tests. If the
+ * client does not offer this cipher suite, the version cannot be tested.
+ */
+public class ProtocolVersionProbe extends ClientProbe {
+
+    private static final CipherSuite CIPHER_SUITE = CipherSuite.TLS_RSA_WITH_AES_128_CBC_SHA;
+
+    private final ProtocolVersion version;
+
+    private final AnalyzedProperty property;
+
+    public ProtocolVersionProbe(Config baseConfig, ProtocolVersion version) {
+        super(ClientProbeType.PROTOCOL_VERSION, baseConfig);
+        this.version = version;
+        this.property = getProperty(version);
+        config.setHighestProtocolVersion(version);
+        config.setDefaultSelectedProtocolVersion(version);
+        config.setDefaultServerSupportedCipherSuites(CIPHER_SUITE);
+        config.setDefaultSelectedCipherSuite(CIPHER_SUITE);
+    }
+
+    private static AnalyzedProperty getProperty(ProtocolVersion version) {
+        switch (version) {
+            case TLS10:
+                return AnalyzedProperty.SUPPORTS_TLS_1_0;
+            case TLS11:
+                return AnalyzedProperty.SUPPORTS_TLS_1_1;
+            case TLS12:
+                return AnalyzedProperty.SUPPORTS_TLS_1_2;
+            default:
+                throw new IllegalArgumentException("The protocol version probe does not support " + version);
+        }
+    }
+
+    public ProtocolVersion getVersion() {
+        return version;
+    }
+
+    @Override
+    public String getProbeName() {
+        return super.getProbeName() + " " + version.name();
+    }
+
+    @Override
+    public State createState() {
+        WorkflowTrace trace = new WorkflowConfigurationFactory(config).createWorkflowTrace(WorkflowTraceType.HANDSHAKE,
+            RunningModeType.SERVER);
+        return new State(config, trace);
+    }
+
+    @Override
+    public void evaluate(State state, ClientReport report) {
+        if (WorkflowTraceUtil.getAllReceivedRecords(state.getWorkflowTrace()).isEmpty()) {
+            // The client sent nothing, another connection of the client may still be served by this probe
+            return;
+        }
+        TlsContext context = state.getInboundTlsContexts().get(0);
+        if (!WorkflowTraceUtil.didReceiveMessage(HandshakeMessageType.CLIENT_HELLO, state.getWorkflowTrace())
+            || context.getClientSupportedCipherSuites() == null
+            || !context.getClientSupportedCipherSuites().contains(CIPHER_SUITE)) {
+            // Without the cipher suite of the server a failed handshake says nothing about the version
+            report.putResult(property, TestResult.COULD_NOT_TEST);
+            return;
+        }
+        // A client which only offers lower versions completes the handshake in its highest version
+        boolean supported =
+            state.getWorkflowTrace().executedAsPlanned() && context.getSelectedProtocolVersion() == version;
+        report.putResult(property, TestResult.of(supported));
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * TLS-Client-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.clientscanner.report;
+
+import de.rub.nds.tlsattacker.core.constants.CipherSuite;
+import de.rub.nds.tlsattacker.core.constants.ExtensionType;
+import de.rub.nds.tlsattacker.core.constants.NamedGroup;
+import de.rub.nds.tlsattacker.core.constants.ProtocolVersion;
+import de.rub.nds.tlsattacker.core.constants.SignatureAndHashAlgorithm;
+import de.rub.nds.tlsscanner.serverscanner.rating.TestResult;
+import de.rub.nds.tlsscanner.serverscanner.report.AnalyzedProperty;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The results of all probes for one client, which is identified by its address. Connections of the same client are
+ * evaluated concurrently, so all methods are synchronized.
+ */
+public class ClientReport implements Serializable {
+
+    private final String clientAddress;
+
+    private final HashMap<String, TestResult> resultMap;
+
+    private final Set<String> executedProbes;
+
+    private int performedConnections = 0;
+
+    private ProtocolVersion highestOfferedProtocolVersion = null;
+
+    private List<ProtocolVersion> offeredProtocolVersions = null;
+
+    private List<CipherSuite> offeredCipherSuites = null;
+
+    private Set<ExtensionType> offeredExtensions = null;
+
+    private List<NamedGroup> offeredNamedGroups = null;
+
+    private List<SignatureAndHashAlgorithm> offeredSignatureAndHashAlgorithms = null;
+
+    public ClientReport(String clientAddress) {
+        this.clientAddress = clientAddress;
+        resultMap = new HashMap<>();
+        executedProbes = new HashSet<>();
+    }
+
+    public synchronized String getClientAddress() {
+        return clientAddress;
+    }
+
+    /**
+     * @param  probeName
+     *                   The name of the probe which evaluated a connection of the client
+     * @return           The number of distinct probes executed for the client, including this one
+     */
+    public synchronized int markProbeAsExecuted(String probeName) {
+        executedProbes.add(probeName);
+        return executedProbes.size();
+    }
+
+    public synchronized boolean isProbeAlreadyExecuted(String probeName) {
+        return executedProbes.contains(probeName);
+    }
+
+    public synchronized int getPerformedConnections() {
+        return performedConnections;
+    }
+
+    public synchronized void increasePerformedConnections() {
+        performedConnections++;
+    }
+
+    public synchronized Map<String, TestResult> getResultMap() {
+        return new HashMap<>(resultMap);
+    }
+
+    public synchronized TestResult getResult(AnalyzedProperty property) {
+        TestResult result = resultMap.get(property.toString());
+        return (result == null) ? TestResult.NOT_TESTED_YET : result;
+    }
+
+    public synchronized void putResult(AnalyzedProperty property, TestResult result) {
+        resultMap.put(property.toString(), result);
+    }
+
+    public synchronized ProtocolVersion getHighestOfferedProtocolVersion() {
+        return highestOfferedProtocolVersion;
+    }
+
+    public synchronized void setHighestOfferedProtocolVersion(ProtocolVersion highestOfferedProtocolVersion) {
+        this.highestOfferedProtocolVersion = highestOfferedProtocolVersion;
+    }
+
+    public synchronized List<ProtocolVersion> getOfferedProtocolVersions() {
+        return offeredProtocolVersions;
+    }
+
+    public synchronized void setOfferedProtocolVersions(List<ProtocolVersion> offeredProtocolVersions) {
+        this.offeredProtocolVersions = offeredProtocolVersions;
+    }
+
+    public synchronized List<CipherSuite> getOfferedCipherSuites() {
+        return offeredCipherSuites;
+    }
+
+    public synchronized void setOfferedCipherSuites(List<CipherSuite> offeredCipherSuites) {
+        this.offeredCipherSuites = offeredCipherSuites;
+    }
+
+    public synchronized Set<ExtensionType> getOfferedExtensions() {
+        return offeredExtensions;
+    }
+
+    public synchronized void setOfferedExtensions(Set<ExtensionType> offeredExtensions) {
+        this.offeredExtensions = offeredExtensions;
+    }
+
+    public synchronized List<NamedGroup> getOfferedNamedGroups() {
+        return offeredNamedGroups;
+    }
+
+    public synchronized void setOfferedNamedGroups(List<NamedGroup> offeredNamedGroups) {
+        this.offeredNamedGroups = offeredNamedGroups;
+    }
+
+    public synchronized List<SignatureAndHashAlgorithm> getOfferedSignatureAndHashAlgorithms() {
+        return offeredSignatureAndHashAlgorithms;
+    }
+
+    public synchronized void
+        setOfferedSignatureAndHashAlgorithms(List<SignatureAndHashAlgorithm> offeredSignatureAndHashAlgorithms) {
+        this.offeredSignatureAndHashAlgorithms = offeredSignatureAndHashAlgorithms;
+    }
+
+    public synchronized String getFullReport() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Report for ").append(clientAddress).append("\n");
+        appendLine(builder, "Connections", performedConnections);
+        appendLine(builder, "Executed probes", executedProbes);
+        appendLine(builder, "Highest offered version", highestOfferedProtocolVersion);
+        appendLine(builder, "Offered versions", offeredProtocolVersions);
+        appendLine(builder, "Offered cipher suites", offeredCipherSuites);
+        appendLine(builder, "Offered extensions", offeredExtensions);
+        appendLine(builder, "Offered named groups", offeredNamedGroups);
+        appendLine(builder, "Offered signature algorithms", offeredSignatureAndHashAlgorithms);
+        for (AnalyzedProperty property : AnalyzedProperty.values()) {
+            TestResult result = resultMap.get(property.toString());
+            if (result != null) {
+                appendLine(builder, property.toString(), result);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static void appendLine(StringBuilder builder, String name, Object value) {
+        if (value != null) {
+            builder.append(String.format("%-30s: %s%n", name, value));
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return getFullReport();
+    }
+}
@@ -0,0 +1,218 @@
+/**
+ * TLS-Client-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.clientscanner.transport;
+
+import de.rub.nds.tlsattacker.transport.Connection;
+import de.rub.nds.tlsattacker.transport.TransportHandler;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes a workflow on an accepted non-blocking SocketChannel. The channel stays in non-blocking mode, reads and
+ * writes which can not proceed wait on a selector of this handler until the timeout expires. Unlike the stream of a
+ * socket obtained from a channel, the input stream reports the received bytes in available(), which the
+ * TransportHandler relies on to fetch whole records.
+ */
+public class ChannelTransportHandler extends TransportHandler {
+
+    private static final int BUFFER_SIZE = 16384;
+
+    private final SocketChannel channel;
+
+    private Selector selector;
+
+    private boolean endOfStream = false;
+
+    public ChannelTransportHandler(Connection con, SocketChannel channel) {
+        super(con);
+        this.channel = channel;
+    }
+
+    @Override
+    public void preInitialize() throws IOException {
+        if (!channel.isOpen()) {
+            throw new IOException("The channel is already closed");
+        }
+    }
+
+    @Override
+    public void initialize() throws IOException {
+        channel.configureBlocking(false);
+        selector = Selector.open();
+        channel.register(selector, 0);
+        setStreams(new PushbackInputStream(new ChannelInputStream()), new ChannelOutputStream());
+    }
+
+    /**
+     * Waits until the channel is ready for the operation
+     *
+     * @param  operation
+     *                       The operation to wait for, OP_READ or OP_WRITE
+     * @param  timeoutMillis
+     *                       The maximum time to wait
+     * @return               True if the channel is ready, false if the timeout expired
+     */
+    private boolean await(int operation, long timeoutMillis) throws IOException {
+        SelectionKey key = channel.keyFor(selector);
+        key.interestOps(operation);
+        try {
+            if (timeoutMillis <= 0) {
+                return selector.selectNow() > 0;
+            }
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            long remaining = timeoutMillis;
+            while (remaining > 0) {
+                if (selector.select(remaining) > 0) {
+                    return true;
+                }
+                remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            }
+            return false;
+        } finally {
+            selector.selectedKeys().clear();
+            key.interestOps(0);
+        }
+    }
+
+    @Override
+    public void closeConnection() throws IOException {
+        closeClientConnection();
+    }
+
+    @Override
+    public void closeClientConnection() throws IOException {
+        try {
+            if (selector != null) {
+                selector.close();
+            }
+        } finally {
+            channel.close();
+            closeCapturedConnection();
+        }
+    }
+
+    @Override
+    public boolean isClosed() throws IOException {
+        if (!isInitialized()) {
+            throw new IOException("TransportHandler is not initialized!");
+        }
+        return !channel.isOpen() || endOfStream;
+    }
+
+    @Override
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    protected SocketAddress getLocalSocketAddress() {
+        try {
+            return channel.getLocalAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    protected SocketAddress getRemoteSocketAddress() {
+        try {
+            return channel.getRemoteAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private class ChannelInputStream extends InputStream {
+
+        // Kept ready for reading, the bytes between position and limit are received but not yet consumed
+        private final ByteBuffer buffer;
+
+        ChannelInputStream() {
+            buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            buffer.flip();
+        }
+
+        /**
+         * Reads what the channel received without waiting, if all buffered bytes are consumed
+         *
+         * @return The number of buffered bytes
+         */
+        private int fill() throws IOException {
+            if (!buffer.hasRemaining() && !endOfStream) {
+                buffer.clear();
+                int read = channel.read(buffer);
+                buffer.flip();
+                if (read < 0) {
+                    endOfStream = true;
+                }
+            }
+            return buffer.remaining();
+        }
+
+        @Override
+        public int available() throws IOException {
+            return fill();
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] data = new byte[1];
+            if (read(data, 0, 1) < 0) {
+                return -1;
+            }
+            return data[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] data, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            while (fill() == 0) {
+                if (endOfStream) {
+                    return -1;
+                }
+                if (!await(SelectionKey.OP_READ, timeout)) {
+                    throw new SocketTimeoutException("Read timed out");
+                }
+            }
+            int read = Math.min(length, buffer.remaining());
+            buffer.get(data, offset, read);
+            return read;
+        }
+    }
+
+    private class ChannelOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(data, offset, length);
+            while (buffer.hasRemaining()) {
+                if (channel.write(buffer) == 0 && !await(SelectionKey.OP_WRITE, timeout)) {
+                    throw new SocketTimeoutException("Write timed out");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * TLS-Client-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.clientscanner;
+
+import de.rub.nds.tlsattacker.core.config.Config;
+import de.rub.nds.tlsattacker.core.config.delegate.GeneralDelegate;
+import de.rub.nds.tlsattacker.core.constants.CipherSuite;
+import de.rub.nds.tlsattacker.core.constants.ProtocolVersion;
+import de.rub.nds.tlsattacker.core.state.State;
+import de.rub.nds.tlsattacker.core.workflow.DefaultWorkflowExecutor;
+import de.rub.nds.tlsattacker.core.workflow.factory.WorkflowTraceType;
+import de.rub.nds.tlsattacker.util.tests.IntegrationTests;
+import de.rub.nds.tlsscanner.clientscanner.config.ClientScannerConfig;
+import de.rub.nds.tlsscanner.clientscanner.probe.ClientProbe;
+import de.rub.nds.tlsscanner.clientscanner.report.ClientReport;
+import de.rub.nds.tlsscanner.serverscanner.rating.TestResult;
+import de.rub.nds.tlsscanner.serverscanner.report.AnalyzedProperty;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+public class ClientScannerTest {
+
+    private static final int IDLE_CONNECTIONS = 300;
+
+    private ClientScanner scanner;
+
+    private final List<Socket> idleSockets = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        Security.addProvider(new BouncyCastleProvider());
+        ClientScannerConfig config = new ClientScannerConfig(new GeneralDelegate());
+        config.getServerDelegate().setPort(0);
+        config.setThreads(2);
+        config.setIdleTimeout(60000);
+        scanner = new ClientScanner(config);
+        scanner.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (Socket socket : idleSockets) {
+            socket.close();
+        }
+        scanner.close();
+    }
+
+    /**
+     * Connects local TLS-Attacker clients to the ports of all probes while hundreds of idle connections, far more than
+     * the two workers, are open. The idle connections must not delay the clients and all connections of the clients
+     * have to end up in one report.
+     */
+    @Test
+    @Category(IntegrationTests.class)
+    public void testScanLocalClients() throws Exception {
+        for (int i = 0; i < IDLE_CONNECTIONS; i++) {
+            ClientProbe probe = scanner.getProbes().get(i % scanner.getProbes().size());
+            idleSockets.add(new Socket("localhost", scanner.getPort(probe)));
+        }
+        ExecutorService clients = Executors.newFixedThreadPool(scanner.getProbes().size());
+        try {
+            List<Future<?>> executions = new ArrayList<>();
+            for (ClientProbe probe : scanner.getProbes()) {
+                int port = scanner.getPort(probe);
+                executions.add(clients.submit(() -> executeClient(port, CipherSuite.TLS_RSA_WITH_AES_128_CBC_SHA)));
+            }
+            for (Future<?> execution : executions) {
+                execution.get();
+            }
+        } finally {
+            clients.shutdown();
+        }
+        assertTrue(scanner.awaitClients(1, 60000));
+
+        List<ClientReport> reports = scanner.getReports();
+        assertEquals(1, reports.size());
+        ClientReport report = reports.get(0);
+        assertEquals(scanner.getProbes().size(), report.getPerformedConnections());
+        assertEquals(ProtocolVersion.TLS12, report.getHighestOfferedProtocolVersion());
+        assertTrue(report.getOfferedCipherSuites().contains(CipherSuite.TLS_RSA_WITH_AES_128_CBC_SHA));
+        assertEquals(TestResult.TRUE, report.getResult(AnalyzedProperty.SUPPORTS_TLS_1_0));
+        assertEquals(TestResult.TRUE, report.getResult(AnalyzedProperty.SUPPORTS_TLS_1_1));
+        assertEquals(TestResult.TRUE, report.getResult(AnalyzedProperty.SUPPORTS_TLS_1_2));
+    }
+
+    /**
+     * A client which does not offer the cipher suite of the protocol version probes cannot complete their handshakes,
+     * which must not be reported as missing support for the versions.
+     */
+    @Test
+    @Category(IntegrationTests.class)
+    public void testVersionsOfClientWithoutServerCipherSuiteAreNotTested() throws Exception {
+        for (ClientProbe probe : scanner.getProbes()) {
+            executeClient(scanner.getPort(probe), CipherSuite.TLS_DHE_RSA_WITH_AES_128_CBC_SHA);
+        }
+        assertTrue(scanner.awaitClients(1, 60000));
+
+        ClientReport report = scanner.getReports().get(0);
+        assertEquals(TestResult.COULD_NOT_TEST, report.getResult(AnalyzedProperty.SUPPORTS_TLS_1_0));
+        assertEquals(TestResult.COULD_NOT_TEST, report.getResult(AnalyzedProperty.SUPPORTS_TLS_1_1));
+        assertEquals(TestResult.COULD_NOT_TEST, report.getResult(AnalyzedProperty.SUPPORTS_TLS_1_2));
+    }
+
+    @Test
+    public void testIdleConnectionsAreClosed() throws Exception {
+        scanner.close();
+        ClientScannerConfig config = new ClientScannerConfig(new GeneralDelegate());
+        config.getServerDelegate().setPort(0);
+        config.setIdleTimeout(100);
+        scanner = new ClientScanner(config);
+        scanner.start();
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("localhost", scanner.getPort(scanner.getProbes().get(0))));
+            socket.setSoTimeout(10000);
+            assertEquals(-1, socket.getInputStream().read());
+        }
+        assertTrue(scanner.getReports().isEmpty());
+    }
+
+    private static void executeClient(int port, CipherSuite cipherSuite) {
+        Config config = Config.createConfig();
+        config.setWorkflowTraceType(WorkflowTraceType.HANDSHAKE);
+        config.setHighestProtocolVersion(ProtocolVersion.TLS12);
+        config.setDefaultClientSupportedCipherSuites(cipherSuite);
+        config.setDefaultSelectedCipherSuite(cipherSuite);
+        config.getDefaultClientConnection().setHostname("localhost");
+        config.getDefaultClientConnection().setIp("127.0.0.1");
+        config.getDefaultClientConnection().setPort(port);
+        new DefaultWorkflowExecutor(new State(config)).executeWorkflow();
+    }
+}
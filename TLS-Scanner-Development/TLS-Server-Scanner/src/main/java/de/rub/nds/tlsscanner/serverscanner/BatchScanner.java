@@ -0,0 +1,215 @@
+/**
+ * TLS-Server-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.serverscanner;
+
+import com.beust.jcommander.ParameterException;
+import de.rub.nds.tlsattacker.core.config.delegate.ClientDelegate;
+import de.rub.nds.tlsattacker.core.workflow.NamedThreadFactory;
+import de.rub.nds.tlsscanner.serverscanner.config.ScannerConfig;
+import de.rub.nds.tlsscanner.serverscanner.guideline.GuidelineIO;
+import de.rub.nds.tlsscanner.serverscanner.rating.SiteReportRater;
+import de.rub.nds.tlsscanner.serverscanner.report.SiteReport;
+import de.rub.nds.tlsscanner.serverscanner.trust.TrustAnchorManager;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.xml.bind.JAXBException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Scans a list of targets from a single process. Every target is scanned by its own {@link TlsScanner}, while the trust
+ * anchors, guidelines and rating models are loaded once and shared by all scans. At most parallelTargets targets are
+ * scanned at the same time and at most parallelTargetsPerHost of them with the same host. Targets of different hosts
+ * are scheduled round robin, so a long list of ports of one host does not delay the other hosts.
+ */
+public class BatchScanner {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final List<String> targets;
+    private final Function<String, ScannerConfig> configFactory;
+    private final int parallelTargets;
+    private final int parallelTargetsPerHost;
+
+    /**
+     * @param targets
+     *                               The targets to scan in the syntax of the -connect parameter
+     * @param configFactory
+     *                               Creates the configuration to scan a single target with
+     * @param parallelTargets
+     *                               The maximum number of targets which are scanned at the same time
+     * @param parallelTargetsPerHost
+     *                               The maximum number of targets with the same host which are scanned at the same time
+     */
+    public BatchScanner(List<String> targets, Function<String, ScannerConfig> configFactory, int parallelTargets,
+        int parallelTargetsPerHost) {
+        if (parallelTargets < 1 || parallelTargetsPerHost < 1) {
+            throw new IllegalArgumentException("At least one target has to be scanned at a time");
+        }
+        this.targets = targets;
+        this.configFactory = configFactory;
+        this.parallelTargets = parallelTargets;
+        this.parallelTargetsPerHost = parallelTargetsPerHost;
+    }
+
+    /**
+     * Reads a target list. Every line contains one target, empty lines and lines starting with # are ignored.
+     *
+     * @param  file
+     *                     The file to read
+     * @return             The targets in the order of the file
+     * @throws IOException
+     *                     If the file could not be read
+     */
+    public static List<String> readTargetList(String file) throws IOException {
+        List<String> targetList = new LinkedList<>();
+        for (String line : Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8)) {
+            String target = line.trim();
+            if (!target.isEmpty() && !target.startsWith("#")) {
+                targetList.add(target);
+            }
+        }
+        return targetList;
+    }
+
+    /**
+     * Scans all targets. The report of each target is passed to the consumer as soon as its scan finished. The consumer
+     * is always called from the thread calling this method, so it does not have to be thread safe. Targets which could
+     * not be scanned are logged and skipped.
+     *
+     * @param  reportConsumer
+     *                              Receives the report of each scanned target
+     * @return                      The number of reports passed to the consumer
+     * @throws InterruptedException
+     *                              If the thread was interrupted while waiting for a scan, all running scans are
+     *                              interrupted as well
+     */
+    public int scan(Consumer<SiteReport> reportConsumer) throws InterruptedException {
+        initializeSharedResources();
+        Deque<TargetHost> readyHosts = new ArrayDeque<>(groupTargetsByHost().values());
+        Map<Future<SiteReport>, TargetScan> runningScans = new HashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelTargets, new NamedThreadFactory("Batch"));
+        CompletionService<SiteReport> completionService = new ExecutorCompletionService<>(executor);
+        int reports = 0;
+        try {
+            // A host is ready iff it has pending targets and less than parallelTargetsPerHost running scans
+            while (!readyHosts.isEmpty() || !runningScans.isEmpty()) {
+                while (runningScans.size() < parallelTargets && !readyHosts.isEmpty()) {
+                    TargetHost host = readyHosts.poll();
+                    TargetScan scan = new TargetScan(host.pendingTargets.poll(), host);
+                    host.runningScans++;
+                    if (!host.pendingTargets.isEmpty() && host.runningScans < parallelTargetsPerHost) {
+                        readyHosts.add(host);
+                    }
+                    runningScans.put(completionService.submit(scan), scan);
+                }
+
+                Future<SiteReport> finishedScan = completionService.take();
+                TargetScan scan = runningScans.remove(finishedScan);
+                scan.host.runningScans--;
+                if (!scan.host.pendingTargets.isEmpty() && scan.host.runningScans == parallelTargetsPerHost - 1) {
+                    readyHosts.add(scan.host);
+                }
+                try {
+                    SiteReport report = finishedScan.get();
+                    reports++;
+                    reportConsumer.accept(report);
+                } catch (ExecutionException e) {
+                    LOGGER.error("Could not scan " + scan.target, e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        LOGGER.info("Finished batch scan of " + targets.size() + " targets");
+        return reports;
+    }
+
+    /**
+     * Scans a single target. Called concurrently for different targets.
+     *
+     * @param  config
+     *                The configuration for the target
+     * @return        The report of the target
+     */
+    protected SiteReport scanTarget(ScannerConfig config) {
+        return new TlsScanner(config).scan();
+    }
+
+    private void initializeSharedResources() {
+        LOGGER.debug("Initializing shared resources");
+        TrustAnchorManager.getInstance();
+        GuidelineIO.getGuidelines(GuidelineIO.GUIDELINES);
+        try {
+            SiteReportRater.getSiteReportRater();
+        } catch (JAXBException e) {
+            LOGGER.error("Could not load the rating models", e);
+        }
+        LOGGER.debug("Finished initializing shared resources");
+    }
+
+    private Map<String, TargetHost> groupTargetsByHost() {
+        Map<String, TargetHost> hosts = new LinkedHashMap<>();
+        for (String target : targets) {
+            ClientDelegate delegate = new ClientDelegate();
+            try {
+                delegate.setHost(target);
+            } catch (ParameterException | IllegalArgumentException e) {
+                LOGGER.warn("Skipping invalid target " + target, e);
+                continue;
+            }
+            hosts.computeIfAbsent(delegate.getExtractedHost(), name -> new TargetHost()).pendingTargets.add(target);
+        }
+        return hosts;
+    }
+
+    private static class TargetHost {
+
+        private final Queue<String> pendingTargets = new ArrayDeque<>();
+
+        private int runningScans = 0;
+    }
+
+    private class TargetScan implements Callable<SiteReport> {
+
+        private final String target;
+
+        private final TargetHost host;
+
+        TargetScan(String target, TargetHost host) {
+            this.target = target;
+            this.host = host;
+        }
+
+        @Override
+        public SiteReport call() {
+            return scanTarget(configFactory.apply(target));
+        }
+    }
+}
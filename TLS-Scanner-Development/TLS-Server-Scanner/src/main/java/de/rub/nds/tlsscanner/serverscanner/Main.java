@@ -13,10 +13,17 @@ import com.beust.jcommander.JCommander;
 import com.beust.jcommander.ParameterException;
 import de.rub.nds.tlsattacker.core.config.delegate.GeneralDelegate;
 import de.rub.nds.tlsattacker.core.exceptions.ConfigurationException;
+import de.rub.nds.tlsscanner.serverscanner.config.BatchScannerConfig;
 import de.rub.nds.tlsscanner.serverscanner.config.ScannerConfig;
 import de.rub.nds.tlsscanner.serverscanner.constants.AnsiColor;
 import de.rub.nds.tlsscanner.serverscanner.report.SiteReport;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -26,8 +33,18 @@ public class Main {
 
     public static void main(String[] args) throws IOException {
         ScannerConfig config = new ScannerConfig(new GeneralDelegate());
+        BatchScannerConfig batchConfig = new BatchScannerConfig();
         JCommander commander = new JCommander(config);
+        commander.addObject(batchConfig);
         try {
+            // The targets of a target list replace the otherwise required -connect parameter
+            JCommander batchCommander =
+                JCommander.newBuilder().addObject(batchConfig).acceptUnknownOptions(true).build();
+            batchCommander.parse(args);
+            if (batchConfig.getTargetList() != null) {
+                scanTargetList(batchConfig, batchCommander.getUnknownOptions(), commander);
+                return;
+            }
             commander.parse(args);
             if (config.getGeneralDelegate().isHelp()) {
                 commander.usage();
@@ -49,6 +66,62 @@ public class Main {
         } catch (ParameterException e) {
             LOGGER.error("Could not parse provided parameters", e);
             commander.usage();
+        } catch (InterruptedException e) {
+            LOGGER.error("Interrupted while scanning the target list", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void scanTargetList(BatchScannerConfig batchConfig, List<String> scanArgs, JCommander commander)
+        throws IOException, InterruptedException {
+        List<String> targets = BatchScanner.readTargetList(batchConfig.getTargetList());
+        if (targets.isEmpty()) {
+            LOGGER.warn("The target list " + batchConfig.getTargetList() + " does not contain any targets");
+            return;
+        }
+        // Reject invalid parameters once instead of for every target
+        ScannerConfig config = createTargetConfig(scanArgs, targets.get(0));
+        if (config.getGeneralDelegate().isHelp()) {
+            commander.usage();
+            return;
+        }
+        Path reportDirectory = batchConfig.getReportDirectory() == null ? null
+            : Files.createDirectories(Paths.get(batchConfig.getReportDirectory()));
+
+        BatchScanner scanner = new BatchScanner(targets, target -> createTargetConfig(scanArgs, target),
+            batchConfig.getParallelTargets(), batchConfig.getParallelTargetsPerHost());
+        long time = System.currentTimeMillis();
+        LOGGER.info("Performing Scan of " + targets.size() + " targets, this may take some time...");
+        int reports = scanner.scan(report -> {
+            if (reportDirectory == null) {
+                ConsoleLogger.CONSOLE.info(AnsiColor.RESET.getCode() + "Report for " + report.getHost() + ":"
+                    + report.getPort() + "\n" + report.getFullReport(config.getReportDetail(), !config.isNoColor()));
+            } else {
+                writeReport(reportDirectory, report, config);
+            }
+        });
+        LOGGER.info("Scanned " + reports + " of " + targets.size() + " targets in: "
+            + ((System.currentTimeMillis() - time) / 1000) + "s\n");
+    }
+
+    private static ScannerConfig createTargetConfig(List<String> scanArgs, String target) {
+        List<String> targetArgs = new ArrayList<>(scanArgs);
+        targetArgs.add("-connect");
+        targetArgs.add(target);
+        ScannerConfig config = new ScannerConfig(new GeneralDelegate());
+        new JCommander(config).parse(targetArgs.toArray(new String[0]));
+        // Extracts host and port, which name the report of the target
+        config.getClientDelegate().setHost(target);
+        return config;
+    }
+
+    private static void writeReport(Path directory, SiteReport report, ScannerConfig config) {
+        String fileName = (report.getHost() + "_" + report.getPort()).replaceAll("[^A-Za-z0-9._-]", "_") + ".txt";
+        try {
+            Files.write(directory.resolve(fileName),
+                report.getFullReport(config.getReportDetail(), false).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LOGGER.error("Could not write the report of " + report.getHost() + ":" + report.getPort(), e);
         }
     }
 }
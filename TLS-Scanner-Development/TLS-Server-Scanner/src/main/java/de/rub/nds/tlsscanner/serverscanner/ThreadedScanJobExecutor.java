@@ -175,7 +175,7 @@ public class ThreadedScanJobExecutor extends ScanJobExecutor implements Observer
 
     private void executeGuidelineEvaluation(SiteReport report) {
         LOGGER.debug("Evaluating guidelines...");
-        for (Guideline guideline : GuidelineIO.readGuidelines(GuidelineIO.GUIDELINES)) {
+        for (Guideline guideline : GuidelineIO.getGuidelines(GuidelineIO.GUIDELINES)) {
             LOGGER.debug("Evaluating guideline {} ...", guideline.getName());
             GuidelineChecker checker = new GuidelineChecker(guideline);
             checker.fillReport(report);
@@ -38,6 +38,8 @@ import de.rub.nds.tlsscanner.serverscanner.report.after.RandomnessAfterProbe;
 import de.rub.nds.tlsscanner.serverscanner.trust.TrustAnchorManager;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 import javax.xml.bind.JAXBException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -52,6 +54,11 @@ public class TlsScanner {
     private final List<TlsProbe> probeList;
     private final List<AfterProbe> afterList;
     private final List<ProbeType> probesToExecute;
+    /**
+     * Create the probes of the default lists once a scan needs them. Null if the probes were passed in.
+     */
+    private final List<ProbeFactory> probeFactories;
+    private final List<Supplier<AfterProbe>> afterProbeFactories;
 
     public TlsScanner(ScannerConfig config) {
 
@@ -62,6 +69,8 @@ public class TlsScanner {
         this.probeList = new LinkedList<>();
         this.afterList = new LinkedList<>();
         this.probesToExecute = config.getProbes();
+        this.probeFactories = new LinkedList<>();
+        this.afterProbeFactories = new LinkedList<>();
         fillDefaultProbeLists();
     }
 
@@ -72,6 +81,8 @@ public class TlsScanner {
         this.probeList = new LinkedList<>();
         this.afterList = new LinkedList<>();
         this.probesToExecute = config.getProbes();
+        this.probeFactories = new LinkedList<>();
+        this.afterProbeFactories = new LinkedList<>();
         fillDefaultProbeLists();
     }
 
@@ -82,79 +93,114 @@ public class TlsScanner {
         this.probeList = probeList;
         this.afterList = afterList;
         this.probesToExecute = config.getProbes();
+        this.probeFactories = null;
+        this.afterProbeFactories = null;
         closeAfterFinishParallel = true;
     }
 
     private void fillDefaultProbeLists() {
         if (config.getAdditionalRandomnessHandshakes() > 0) {
-            addProbeToProbeList(new RandomnessProbe(config, parallelExecutor));
+            registerProbe(ProbeType.RANDOMNESS, RandomnessProbe::new);
         }
-        addProbeToProbeList(new AlpnProbe(config, parallelExecutor));
-        addProbeToProbeList(new AlpacaProbe(config, parallelExecutor));
-        addProbeToProbeList(new CommonBugProbe(config, parallelExecutor));
-        addProbeToProbeList(new SniProbe(config, parallelExecutor));
-        addProbeToProbeList(new CompressionsProbe(config, parallelExecutor));
-        addProbeToProbeList(new NamedGroupsProbe(config, parallelExecutor));
-        addProbeToProbeList(new NamedCurvesOrderProbe(config, parallelExecutor));
-        addProbeToProbeList(new CertificateProbe(config, parallelExecutor));
-        addProbeToProbeList(new OcspProbe(config, parallelExecutor));
-        addProbeToProbeList(new ProtocolVersionProbe(config, parallelExecutor));
-        addProbeToProbeList(new CipherSuiteProbe(config, parallelExecutor));
-        addProbeToProbeList(new DirectRaccoonProbe(config, parallelExecutor));
-        addProbeToProbeList(new CipherSuiteOrderProbe(config, parallelExecutor));
-        addProbeToProbeList(new ExtensionProbe(config, parallelExecutor));
-        addProbeToProbeList(new ECPointFormatProbe(config, parallelExecutor));
-        addProbeToProbeList(new ResumptionProbe(config, parallelExecutor));
-        addProbeToProbeList(new RenegotiationProbe(config, parallelExecutor));
-        addProbeToProbeList(new SessionTicketZeroKeyProbe(config, parallelExecutor));
-        addProbeToProbeList(new HeartbleedProbe(config, parallelExecutor));
-        addProbeToProbeList(new PaddingOracleProbe(config, parallelExecutor));
-        addProbeToProbeList(new BleichenbacherProbe(config, parallelExecutor));
-        addProbeToProbeList(new InvalidCurveProbe(config, parallelExecutor));
-        addProbeToProbeList(new CertificateTransparencyProbe(config, parallelExecutor));
-        addProbeToProbeList(new CcaSupportProbe(config, parallelExecutor));
-        addProbeToProbeList(new CcaRequiredProbe(config, parallelExecutor));
-        addProbeToProbeList(new SignatureAndHashAlgorithmProbe(config, parallelExecutor));
-        afterList.add(new Sweet32AfterProbe());
-        afterList.add(new FreakAfterProbe());
-        afterList.add(new LogjamAfterProbe());
-        afterList.add(new RandomnessAfterProbe());
-        afterList.add(new EcPublicKeyAfterProbe());
-        afterList.add(new DhValueAfterProbe());
-        afterList.add(new PaddingOracleIdentificationAfterProbe());
-        afterList.add(new RaccoonAttackAfterProbe());
-        afterList.add(new CertificateSignatureAndHashAlgorithmAfterProbe());
+        registerProbe(ProbeType.ALPN, AlpnProbe::new);
+        registerProbe(ProbeType.CROSS_PROTOCOL_ALPACA, AlpacaProbe::new);
+        registerProbe(ProbeType.COMMON_BUGS, CommonBugProbe::new);
+        registerProbe(ProbeType.SNI, SniProbe::new);
+        registerProbe(ProbeType.COMPRESSIONS, CompressionsProbe::new);
+        registerProbe(ProbeType.NAMED_GROUPS, NamedGroupsProbe::new);
+        registerProbe(ProbeType.NAMED_GROUPS_ORDER, NamedCurvesOrderProbe::new);
+        registerProbe(ProbeType.CERTIFICATE, CertificateProbe::new);
+        registerProbe(ProbeType.OCSP, OcspProbe::new);
+        registerProbe(ProbeType.PROTOCOL_VERSION, ProtocolVersionProbe::new);
+        registerProbe(ProbeType.CIPHER_SUITE, CipherSuiteProbe::new);
+        registerProbe(ProbeType.DIRECT_RACCOON, DirectRaccoonProbe::new);
+        registerProbe(ProbeType.CIPHER_SUITE_ORDER, CipherSuiteOrderProbe::new);
+        registerProbe(ProbeType.EXTENSIONS, ExtensionProbe::new);
+        registerProbe(ProbeType.EC_POINT_FORMAT, ECPointFormatProbe::new);
+        registerProbe(ProbeType.RESUMPTION, ResumptionProbe::new);
+        registerProbe(ProbeType.RENEGOTIATION, RenegotiationProbe::new);
+        registerProbe(ProbeType.SESSION_TICKET_ZERO_KEY, SessionTicketZeroKeyProbe::new);
+        registerProbe(ProbeType.HEARTBLEED, HeartbleedProbe::new);
+        registerProbe(ProbeType.PADDING_ORACLE, PaddingOracleProbe::new);
+        registerProbe(ProbeType.BLEICHENBACHER, BleichenbacherProbe::new);
+        registerProbe(ProbeType.INVALID_CURVE, InvalidCurveProbe::new);
+        registerProbe(ProbeType.CERTIFICATE_TRANSPARENCY, CertificateTransparencyProbe::new);
+        registerProbe(ProbeType.CCA_SUPPORT, CcaSupportProbe::new);
+        registerProbe(ProbeType.CCA_SUPPORT, CcaRequiredProbe::new);
+        registerProbe(ProbeType.SIGNATURE_AND_HASH, SignatureAndHashAlgorithmProbe::new);
+        afterProbeFactories.add(Sweet32AfterProbe::new);
+        afterProbeFactories.add(FreakAfterProbe::new);
+        afterProbeFactories.add(LogjamAfterProbe::new);
+        afterProbeFactories.add(RandomnessAfterProbe::new);
+        afterProbeFactories.add(EcPublicKeyAfterProbe::new);
+        afterProbeFactories.add(DhValueAfterProbe::new);
+        afterProbeFactories.add(PaddingOracleIdentificationAfterProbe::new);
+        afterProbeFactories.add(RaccoonAttackAfterProbe::new);
+        afterProbeFactories.add(CertificateSignatureAndHashAlgorithmAfterProbe::new);
         if (config.getDtlsDelegate().isDTLS()) {
-            addProbeToProbeList(new DtlsFeaturesProbe(config, parallelExecutor));
-            addProbeToProbeList(new DtlsHelloVerifyRequestProbe(config, parallelExecutor));
-            addProbeToProbeList(new DtlsBugsProbe(config, parallelExecutor));
-            addProbeToProbeList(new DtlsMessageSequenceProbe(config, parallelExecutor));
-            addProbeToProbeList(new DtlsRetransmissionsProbe(config, parallelExecutor));
-            afterList.add(new DtlsRetransmissionAfterProbe());
-            afterList.add(new DestinationPortAfterProbe());
+            registerProbe(ProbeType.DTLS_FEATURES, DtlsFeaturesProbe::new);
+            registerProbe(ProbeType.DTLS_HELLO_VERIFY_REQUEST, DtlsHelloVerifyRequestProbe::new);
+            registerProbe(ProbeType.DTLS_COMMON_BUGS, DtlsBugsProbe::new);
+            registerProbe(ProbeType.DTLS_MESSAGE_SEQUENCE_NUMBER, DtlsMessageSequenceProbe::new);
+            registerProbe(ProbeType.DTLS_RETRANSMISSIONS, DtlsRetransmissionsProbe::new);
+            afterProbeFactories.add(DtlsRetransmissionAfterProbe::new);
+            afterProbeFactories.add(DestinationPortAfterProbe::new);
         } else {
-            addProbeToProbeList(new HelloRetryProbe(config, parallelExecutor));
-            addProbeToProbeList(new RecordFragmentationProbe(config, parallelExecutor));
-            addProbeToProbeList(new TlsPoodleProbe(config, parallelExecutor));
-            addProbeToProbeList(new EarlyCcsProbe(config, parallelExecutor));
-            // addProbeToProbeList(new MacProbe(config, parallelExecutor));
-            addProbeToProbeList(new CcaProbe(config, parallelExecutor));
-            addProbeToProbeList(new EsniProbe(config, parallelExecutor));
-            addProbeToProbeList(new TokenbindingProbe(config, parallelExecutor));
+            registerProbe(ProbeType.HELLO_RETRY, HelloRetryProbe::new);
+            registerProbe(ProbeType.RECORD_FRAGMENTATION, RecordFragmentationProbe::new);
+            registerProbe(ProbeType.TLS_POODLE, TlsPoodleProbe::new);
+            registerProbe(ProbeType.EARLY_CCS, EarlyCcsProbe::new);
+            // registerProbe(ProbeType.MAC, MacProbe::new);
+            registerProbe(ProbeType.CCA, CcaProbe::new);
+            registerProbe(ProbeType.ESNI, EsniProbe::new);
+            registerProbe(ProbeType.TOKENBINDING, TokenbindingProbe::new);
             if (config.getApplicationProtocol() == ApplicationProtocol.HTTP
                 || config.getApplicationProtocol() == ApplicationProtocol.UNKNOWN) {
-                addProbeToProbeList(new HttpHeaderProbe(config, parallelExecutor));
+                registerProbe(ProbeType.HTTP_HEADER, HttpHeaderProbe::new);
             }
-            addProbeToProbeList(new HttpFalseStartProbe(config, parallelExecutor));
-            addProbeToProbeList(new DrownProbe(config, parallelExecutor));
-            afterList.add(new PoodleAfterProbe());
+            registerProbe(ProbeType.HTTP_FALSE_START, HttpFalseStartProbe::new);
+            registerProbe(ProbeType.DROWN, DrownProbe::new);
+            afterProbeFactories.add(PoodleAfterProbe::new);
         }
 
     }
 
-    private void addProbeToProbeList(TlsProbe probe) {
-        if (probesToExecute == null || probesToExecute.contains(probe.getType())) {
-            probeList.add(probe);
+    private void registerProbe(ProbeType type, BiFunction<ScannerConfig, ParallelExecutor, TlsProbe> factory) {
+        if (probesToExecute == null || probesToExecute.contains(type)) {
+            probeFactories.add(new ProbeFactory(type, factory));
+        }
+    }
+
+    /**
+     * The probes which a scan instantiates, in the order in which they are handed to the executor. Probes which the
+     * config excludes, by the probe selection or the protocol of the target, are not part of the plan and are never
+     * instantiated.
+     *
+     * @return The types of the planned probes
+     */
+    public List<ProbeType> getExecutionPlan() {
+        List<ProbeType> plan = new LinkedList<>();
+        if (probeFactories == null) {
+            for (TlsProbe probe : probeList) {
+                plan.add(probe.getType());
+            }
+        } else {
+            for (ProbeFactory factory : probeFactories) {
+                plan.add(factory.getType());
+            }
+        }
+        return plan;
+    }
+
+    private void instantiatePlannedProbes() {
+        if (probeFactories == null || !probeList.isEmpty()) {
+            return;
+        }
+        for (ProbeFactory factory : probeFactories) {
+            probeList.add(factory.create(config, parallelExecutor));
+        }
+        for (Supplier<AfterProbe> factory : afterProbeFactories) {
+            afterList.add(factory.get());
         }
     }
 
@@ -177,6 +223,7 @@ public class TlsScanner {
                     speaksProtocol = true;
                     LOGGER.debug(config.getClientDelegate().getHost() + " speaks " + protocolType.getName());
 
+                    instantiatePlannedProbes();
                     ScanJob job = new ScanJob(probeList, afterList);
                     executor = new ThreadedScanJobExecutor(config, job, config.getParallelProbes(),
                         config.getClientDelegate().getHost());
@@ -264,4 +311,23 @@ public class TlsScanner {
     public boolean isCloseAfterFinishParallel() {
         return closeAfterFinishParallel;
     }
+
+    private static class ProbeFactory {
+
+        private final ProbeType type;
+        private final BiFunction<ScannerConfig, ParallelExecutor, TlsProbe> constructor;
+
+        ProbeFactory(ProbeType type, BiFunction<ScannerConfig, ParallelExecutor, TlsProbe> constructor) {
+            this.type = type;
+            this.constructor = constructor;
+        }
+
+        ProbeType getType() {
+            return type;
+        }
+
+        TlsProbe create(ScannerConfig config, ParallelExecutor parallelExecutor) {
+            return constructor.apply(config, parallelExecutor);
+        }
+    }
 }
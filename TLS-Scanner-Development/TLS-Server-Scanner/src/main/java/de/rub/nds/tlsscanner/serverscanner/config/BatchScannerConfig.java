@@ -0,0 +1,70 @@
+/**
+ * TLS-Server-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.serverscanner.config;
+
+import com.beust.jcommander.Parameter;
+
+/**
+ * The parameters of a batch scan. All other parameters are applied to every target of the list, as if they were passed
+ * together with its -connect parameter.
+ */
+public class BatchScannerConfig {
+
+    @Parameter(names = "-targetList", required = false,
+        description = "Scans all targets of the given file instead of the -connect target. The file contains one target per line in the syntax of -connect. Empty lines and lines starting with # are ignored.")
+    private String targetList = null;
+
+    @Parameter(names = "-parallelTargets", required = false,
+        description = "The maximum number of targets of the target list which are scanned at the same time. Each of them uses up to -threads threads.")
+    private int parallelTargets = 4;
+
+    @Parameter(names = "-parallelTargetsPerHost", required = false,
+        description = "The maximum number of targets with the same host, for example different ports of one server, which are scanned at the same time.")
+    private int parallelTargetsPerHost = 1;
+
+    @Parameter(names = "-reportDirectory", required = false,
+        description = "Writes the report of each target of the target list into a file named after the target in this directory instead of printing it.")
+    private String reportDirectory = null;
+
+    public BatchScannerConfig() {
+    }
+
+    public String getTargetList() {
+        return targetList;
+    }
+
+    public void setTargetList(String targetList) {
+        this.targetList = targetList;
+    }
+
+    public int getParallelTargets() {
+        return parallelTargets;
+    }
+
+    public void setParallelTargets(int parallelTargets) {
+        this.parallelTargets = parallelTargets;
+    }
+
+    public int getParallelTargetsPerHost() {
+        return parallelTargetsPerHost;
+    }
+
+    public void setParallelTargetsPerHost(int parallelTargetsPerHost) {
+        this.parallelTargetsPerHost = parallelTargetsPerHost;
+    }
+
+    public String getReportDirectory() {
+        return reportDirectory;
+    }
+
+    public void setReportDirectory(String reportDirectory) {
+        this.reportDirectory = reportDirectory;
+    }
+}
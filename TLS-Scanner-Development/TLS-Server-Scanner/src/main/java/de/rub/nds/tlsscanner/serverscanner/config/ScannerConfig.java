@@ -22,6 +22,7 @@ import de.rub.nds.tlsattacker.core.connection.AliasedConnection;
 import de.rub.nds.tlsscanner.serverscanner.constants.ApplicationProtocol;
 import de.rub.nds.tlsscanner.serverscanner.constants.ScannerDetail;
 import de.rub.nds.tlsscanner.serverscanner.constants.ProbeType;
+import de.rub.nds.tlsscanner.serverscanner.vectorstatistics.SequentialStoppingRule;
 import org.bouncycastle.util.IPAddress;
 
 import java.util.Arrays;
@@ -61,6 +62,18 @@ public class ScannerConfig extends TLSDelegateConfig {
         description = "Number of connections that should be additionally performed to collect more randomness data to get more accurate analysis")
     private int additionalRandomnessHandshakes = 0;
 
+    @Parameter(names = "-cipherSuitePartitions", required = false,
+        description = "Number of partitions the cipher suites are split into to enumerate the supported ones concurrently. At most as many partitions as threads are used. If set to 1, the cipher suites are enumerated sequentially.")
+    private int cipherSuitePartitions = 8;
+
+    @Parameter(names = "-sequentialTesting", required = false,
+        description = "Executes the repetitions of the padding oracle, Bleichenbacher, direct Raccoon and invalid curve probes in batches and stops as soon as the statistical test of a vector set is significant")
+    private boolean sequentialTesting = false;
+
+    @Parameter(names = "-sequentialLooks", required = false,
+        description = "How often a sequential test is evaluated, including the evaluation after the initial repetitions. The significance border of 0.05 is spent over these looks with an O'Brien-Fleming type spending function.")
+    private int sequentialLooks = 5;
+
     @ParametersDelegate
     private CcaDelegate ccaDelegate;
 
@@ -172,6 +185,40 @@ public class ScannerConfig extends TLSDelegateConfig {
         this.additionalRandomnessHandshakes = additionalRandomnessHandshakes;
     }
 
+    public int getCipherSuitePartitions() {
+        return cipherSuitePartitions;
+    }
+
+    public void setCipherSuitePartitions(int cipherSuitePartitions) {
+        this.cipherSuitePartitions = cipherSuitePartitions;
+    }
+
+    public boolean isSequentialTesting() {
+        return sequentialTesting;
+    }
+
+    public void setSequentialTesting(boolean sequentialTesting) {
+        this.sequentialTesting = sequentialTesting;
+    }
+
+    public int getSequentialLooks() {
+        return sequentialLooks;
+    }
+
+    public void setSequentialLooks(int sequentialLooks) {
+        this.sequentialLooks = sequentialLooks;
+    }
+
+    /**
+     * @return A new stopping rule for the repetitions of a probe, or null if sequential testing is disabled
+     */
+    public SequentialStoppingRule createSequentialStoppingRule() {
+        if (!sequentialTesting) {
+            return null;
+        }
+        return new SequentialStoppingRule(sequentialLooks);
+    }
+
     @Override
     public Config createConfig() {
         if (baseConfig != null) {
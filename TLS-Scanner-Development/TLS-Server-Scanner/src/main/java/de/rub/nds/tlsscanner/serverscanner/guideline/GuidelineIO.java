@@ -43,8 +43,11 @@ import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class GuidelineIO {
@@ -62,11 +65,27 @@ public class GuidelineIO {
             SignatureAlgorithmsGuidelineCheck.class, SignatureAndHashAlgorithmsGuidelineCheck.class,
             SignatureAndHashAlgorithmsCertificateGuidelineCheck.class, CertificateSignatureCheck.class);
 
+    /**
+     * context initialization is expensive, we need to do that only once
+     */
+    private static JAXBContext context;
+
+    /**
+     * guidelines which were already parsed, shared by all scans of this process
+     */
+    private static final Map<String, Guideline> GUIDELINE_CACHE = new ConcurrentHashMap<>();
+
+    static synchronized JAXBContext getJAXBContext() throws JAXBException {
+        if (context == null) {
+            List<Class<?>> classes = new ArrayList<>(CHECKS);
+            classes.add(Guideline.class);
+            context = JAXBContext.newInstance(classes.toArray(new Class[0]));
+        }
+        return context;
+    }
+
     public static Guideline readGuideline(String resource) throws IOException, JAXBException, XMLStreamException {
-        List<Class<?>> classes = new ArrayList<>(CHECKS);
-        classes.add(Guideline.class);
-        JAXBContext jc = JAXBContext.newInstance(classes.toArray(new Class[0]));
-        Unmarshaller unmarshaller = jc.createUnmarshaller();
+        Unmarshaller unmarshaller = getJAXBContext().createUnmarshaller();
         try (InputStream is = GuidelineIO.class.getResourceAsStream("/guideline/" + resource)) {
             if (is == null) {
                 throw new IOException("Resource not found. " + resource);
@@ -78,10 +97,7 @@ public class GuidelineIO {
     }
 
     public static void writeGuideline(Guideline guideline, Path path) throws JAXBException {
-        List<Class<?>> classes = new ArrayList<>(CHECKS);
-        classes.add(Guideline.class);
-        JAXBContext jc = JAXBContext.newInstance(classes.toArray(new Class[0]));
-        Marshaller marshaller = jc.createMarshaller();
+        Marshaller marshaller = getJAXBContext().createMarshaller();
         marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
         marshaller.marshal(guideline, path.toFile());
     }
@@ -99,4 +115,32 @@ public class GuidelineIO {
         return guidelines.stream().map(GuidelineIO::readGuidelineUnchecked).filter(Objects::nonNull)
             .collect(Collectors.toList());
     }
+
+    /**
+     * Returns the given guidelines, parsing each resource only once per process. The returned guidelines are shared
+     * between all callers, possibly running in different threads, and must not be modified. Use
+     * {@link #readGuidelines(List)} to obtain private copies.
+     *
+     * @param  guidelines
+     *                    The names of the guideline resources
+     * @return            The guidelines which could be read, in the given order
+     */
+    public static List<Guideline> getGuidelines(List<String> guidelines) {
+        List<Guideline> result = new ArrayList<>(guidelines.size());
+        for (String resource : guidelines) {
+            Guideline guideline = GUIDELINE_CACHE.computeIfAbsent(resource, GuidelineIO::readSharedGuideline);
+            if (guideline != null) {
+                result.add(guideline);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static Guideline readSharedGuideline(String resource) {
+        Guideline guideline = readGuidelineUnchecked(resource);
+        if (guideline != null && guideline.getChecks() != null) {
+            guideline.setChecks(Collections.unmodifiableList(guideline.getChecks()));
+        }
+        return guideline;
+    }
 }
@@ -32,6 +32,7 @@ import de.rub.nds.tlsscanner.serverscanner.report.result.BleichenbacherResult;
 import de.rub.nds.tlsscanner.serverscanner.report.result.ProbeResult;
 import de.rub.nds.tlsscanner.serverscanner.report.result.VersionSuiteListPair;
 import de.rub.nds.tlsscanner.serverscanner.vectorstatistics.InformationLeakTest;
+import de.rub.nds.tlsscanner.serverscanner.vectorstatistics.SequentialStoppingRule;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
@@ -74,12 +75,14 @@ public class BleichenbacherProbe extends TlsProbe {
             if (isPotentiallyVulnerable(testResultList)
                 || scannerConfig.getScanDetail().isGreaterEqualTo(ScannerDetail.NORMAL)) {
                 LOGGER.debug("Starting extended evaluation");
+                SequentialStoppingRule stoppingRule = scannerConfig.createSequentialStoppingRule();
                 for (InformationLeakTest<BleichenbacherOracleTestInfo> fingerprint : testResultList) {
                     if (fingerprint.isDistinctAnswers()
                         || scannerConfig.getScanDetail().isGreaterEqualTo(ScannerDetail.DETAILED)) {
-                        extendFingerPrint(fingerprint, numberOfAddtionalIterations);
+                        extendFingerPrint(fingerprint, numberOfAddtionalIterations, stoppingRule);
                     }
                 }
+                logSequentialTestingSavings(stoppingRule);
                 LOGGER.debug("Finished extended evaluation");
             }
             return new BleichenbacherResult(testResultList);
@@ -164,6 +167,16 @@ public class BleichenbacherProbe extends TlsProbe {
     }
 
     private void extendFingerPrint(InformationLeakTest<BleichenbacherOracleTestInfo> informationLeakTest,
+        int numberOfAdditionalIterations, SequentialStoppingRule stoppingRule) {
+        if (stoppingRule == null) {
+            executeAdditionalIterations(informationLeakTest, numberOfAdditionalIterations);
+        } else {
+            stoppingRule.executeRepetitions(informationLeakTest, numberOfIterations, numberOfAdditionalIterations,
+                (performedIterations, iterations) -> executeAdditionalIterations(informationLeakTest, iterations));
+        }
+    }
+
+    private void executeAdditionalIterations(InformationLeakTest<BleichenbacherOracleTestInfo> informationLeakTest,
         int numberOfAdditionalIterations) {
         BleichenbacherCommandConfig bleichenbacherConfig = createBleichenbacherCommandConfig(
             informationLeakTest.getTestInfo().getVersion(), informationLeakTest.getTestInfo().getCipherSuite());
@@ -33,8 +33,16 @@ import de.rub.nds.tlsscanner.serverscanner.report.result.ProbeResult;
 import de.rub.nds.tlsscanner.serverscanner.report.result.VersionSuiteListPair;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class CipherSuiteProbe extends TlsProbe {
@@ -147,69 +155,207 @@ public class CipherSuiteProbe extends TlsProbe {
         return getSupportedCipherSuitesWithIntolerance(new ArrayList<>(CipherSuite.getImplemented()), version);
     }
 
+    /**
+     * Determines the cipher suites the server supports for the given version, in the order the server selects them if
+     * the supported suites are removed from the offered list one by one. If the scanner uses more than one thread, the
+     * suites are enumerated in parallel, otherwise sequentially. Both produce the same list.
+     *
+     * @param  toTestList
+     *                    The cipher suites to offer, in the order they are offered
+     * @param  version
+     *                    The protocol version to test
+     * @return            The supported cipher suites in the order the server selected them
+     */
     public List<CipherSuite> getSupportedCipherSuitesWithIntolerance(List<CipherSuite> toTestList,
+        ProtocolVersion version) {
+        int partitions = Math.min(getScannerConfig().getCipherSuitePartitions(), getParallelExecutor().getSize());
+        if (partitions > 1 && toTestList.size() > partitions) {
+            return getSupportedCipherSuitesInParallel(toTestList, version, partitions);
+        }
+        return getSupportedCipherSuitesSequentially(toTestList, version);
+    }
+
+    /**
+     * Offers the cipher suites that have not been selected yet until the server does not select one of them anymore.
+     */
+    private List<CipherSuite> getSupportedCipherSuitesSequentially(List<CipherSuite> toTestList,
         ProtocolVersion version) {
         List<CipherSuite> listWeSupport = new LinkedList<>(toTestList);
         List<CipherSuite> supported = new LinkedList<>();
 
-        boolean supportsMore = false;
+        SuiteSelection selection;
         do {
-            Config config = getScannerConfig().createConfig();
-            config.setDefaultClientSupportedCipherSuites(listWeSupport);
-            config.setDefaultSelectedProtocolVersion(version);
-            config.setHighestProtocolVersion(version);
-            config.setEnforceSettings(true);
-            boolean containsEc = false;
-            for (CipherSuite suite : config.getDefaultClientSupportedCipherSuites()) {
-                KeyExchangeAlgorithm keyExchangeAlgorithm = AlgorithmResolver.getKeyExchangeAlgorithm(suite);
-                if (keyExchangeAlgorithm != null && keyExchangeAlgorithm.name().toUpperCase().contains("EC")) {
-                    containsEc = true;
-                    break;
+            State state = createCipherSuiteState(listWeSupport, version);
+            executeState(state);
+            selection = evaluateSelection(state, listWeSupport, version);
+            if (selection == SuiteSelection.OTHER_VERSION) {
+                return new LinkedList<>();
+            } else if (selection == SuiteSelection.SELECTED) {
+                supported.add(state.getTlsContext().getSelectedCipherSuite());
+                listWeSupport.remove(state.getTlsContext().getSelectedCipherSuite());
+            }
+        } while (selection == SuiteSelection.SELECTED);
+        return supported;
+    }
+
+    /**
+     * Splits the offered suites into partitions which are enumerated concurrently to learn which suites are supported
+     * at all. Afterwards the order in which the sequential enumeration would find them is predicted and the next steps
+     * of that enumeration are executed concurrently, as many as the executor has threads. Each step offers exactly the
+     * list the sequential enumeration would offer, so every step up to and including the first mispredicted one is
+     * exactly what the sequential enumeration would have done. The remaining steps are predicted again with everything
+     * the server selected so far.
+     */
+    private List<CipherSuite> getSupportedCipherSuitesInParallel(List<CipherSuite> toTestList, ProtocolVersion version,
+        int partitions) {
+        SelectionObservations observations = new SelectionObservations(toTestList);
+        Set<CipherSuite> discovered = discoverSupportedCipherSuites(toTestList, version, partitions, observations);
+
+        List<CipherSuite> confirmed = new LinkedList<>();
+        while (true) {
+            Set<CipherSuite> unconfirmed = new LinkedHashSet<>(discovered);
+            unconfirmed.removeAll(confirmed);
+            List<CipherSuite> prediction = observations.predictOrder(unconfirmed);
+
+            int steps = Math.min(prediction.size() + 1, getParallelExecutor().getSize());
+            List<List<CipherSuite>> offeredLists = new ArrayList<>(steps);
+            List<State> states = new ArrayList<>(steps);
+            List<CipherSuite> offered = new LinkedList<>(toTestList);
+            offered.removeAll(confirmed);
+            for (int i = 0; i < steps; i++) {
+                offeredLists.add(new ArrayList<>(offered));
+                states.add(createCipherSuiteState(offered, version));
+                if (i < prediction.size()) {
+                    offered.remove(prediction.get(i));
                 }
             }
-            config.setAddEllipticCurveExtension(containsEc);
-            config.setAddECPointFormatExtension(containsEc);
-            config.setAddSignatureAndHashAlgorithmsExtension(true);
-            config.setAddRenegotiationInfoExtension(true);
-            config.setWorkflowTraceType(WorkflowTraceType.DYNAMIC_HELLO);
-            config.setQuickReceive(true);
-            config.setEarlyStop(true);
-            config.setStopReceivingAfterFatal(true);
-            config.setStopActionsAfterIOException(true);
-            config.setStopActionsAfterFatal(true);
-            List<NamedGroup> namedGroup = new LinkedList<>();
-            namedGroup.addAll(Arrays.asList(NamedGroup.values()));
-            config.setDefaultClientNamedGroups(namedGroup);
-            State state = new State(config);
-            executeState(state);
-            if (WorkflowTraceUtil.didReceiveMessage(HandshakeMessageType.SERVER_HELLO, state.getWorkflowTrace())) {
-                if (state.getTlsContext().getSelectedProtocolVersion() != version) {
-                    LOGGER.debug("Server does not support " + version);
+            executeState(states);
+            List<SuiteSelection> selections = new ArrayList<>(steps);
+            for (int i = 0; i < steps; i++) {
+                State state = states.get(i);
+                SuiteSelection selection = evaluateSelection(state, offeredLists.get(i), version);
+                selections.add(selection);
+                // steps behind a misprediction offer other lists than the sequential enumeration, but still tell which
+                // suite the server prefers among the offered ones
+                if (selection == SuiteSelection.SELECTED) {
+                    observations.add(offeredLists.get(i), state.getTlsContext().getSelectedCipherSuite());
+                }
+            }
+
+            for (int i = 0; i < steps; i++) {
+                if (selections.get(i) == SuiteSelection.OTHER_VERSION) {
                     return new LinkedList<>();
+                } else if (selections.get(i) != SuiteSelection.SELECTED) {
+                    return confirmed;
                 }
-                LOGGER.debug("Server chose " + state.getTlsContext().getSelectedCipherSuite().name());
-                if (listWeSupport.contains(state.getTlsContext().getSelectedCipherSuite())) {
-                    supportsMore = true;
-                    supported.add(state.getTlsContext().getSelectedCipherSuite());
-                    listWeSupport.remove(state.getTlsContext().getSelectedCipherSuite());
-                } else {
-                    supportsMore = false;
-                    LOGGER.warn("Server chose not proposed cipher suite");
+                CipherSuite selectedSuite = states.get(i).getTlsContext().getSelectedCipherSuite();
+                confirmed.add(selectedSuite);
+                if (i == prediction.size() || selectedSuite != prediction.get(i)) {
+                    LOGGER.debug("Mispredicted the selection of " + selectedSuite.name());
+                    discovered.add(selectedSuite);
+                    break;
                 }
-            } else {
-                supportsMore = false;
-                LOGGER.debug("Server did not send ServerHello");
-                LOGGER.debug(state.getWorkflowTrace().toString());
-                if (state.getTlsContext().isReceivedFatalAlert()) {
-                    LOGGER.debug("Received Fatal Alert");
-                    AlertMessage alert = (AlertMessage) WorkflowTraceUtil
-                        .getFirstReceivedMessage(ProtocolMessageType.ALERT, state.getWorkflowTrace());
-                    LOGGER.debug("Type:" + alert.toString());
+            }
+        }
+    }
 
+    private Set<CipherSuite> discoverSupportedCipherSuites(List<CipherSuite> toTestList, ProtocolVersion version,
+        int partitions, SelectionObservations observations) {
+        List<List<CipherSuite>> remainingPartitions = new LinkedList<>();
+        List<List<CipherSuite>> selectedPartitions = new LinkedList<>();
+        for (int i = 0; i < partitions; i++) {
+            remainingPartitions.add(new LinkedList<>());
+            selectedPartitions.add(new LinkedList<>());
+        }
+        int index = 0;
+        for (CipherSuite suite : toTestList) {
+            remainingPartitions.get(index++ % partitions).add(suite);
+        }
+
+        Set<CipherSuite> discovered = new LinkedHashSet<>();
+        List<List<CipherSuite>> activePartitions = new LinkedList<>(remainingPartitions);
+        List<List<CipherSuite>> activeSelections = new LinkedList<>(selectedPartitions);
+        while (!activePartitions.isEmpty()) {
+            List<State> states = new ArrayList<>(activePartitions.size());
+            for (List<CipherSuite> partition : activePartitions) {
+                states.add(createCipherSuiteState(partition, version));
+            }
+            executeState(states);
+            Iterator<List<CipherSuite>> partitionIterator = activePartitions.iterator();
+            Iterator<List<CipherSuite>> selectionIterator = activeSelections.iterator();
+            for (State state : states) {
+                List<CipherSuite> partition = partitionIterator.next();
+                List<CipherSuite> selected = selectionIterator.next();
+                if (evaluateSelection(state, partition, version) == SuiteSelection.SELECTED) {
+                    CipherSuite selectedSuite = state.getTlsContext().getSelectedCipherSuite();
+                    observations.add(partition, selectedSuite);
+                    discovered.add(selectedSuite);
+                    selected.add(selectedSuite);
+                    partition.remove(selectedSuite);
+                } else {
+                    partitionIterator.remove();
+                    selectionIterator.remove();
                 }
             }
-        } while (supportsMore);
-        return supported;
+        }
+        observations.estimateRanks(selectedPartitions);
+        return discovered;
+    }
+
+    private State createCipherSuiteState(List<CipherSuite> toTestList, ProtocolVersion version) {
+        Config config = getScannerConfig().createConfig();
+        config.setDefaultClientSupportedCipherSuites(new ArrayList<>(toTestList));
+        config.setDefaultSelectedProtocolVersion(version);
+        config.setHighestProtocolVersion(version);
+        config.setEnforceSettings(true);
+        boolean containsEc = false;
+        for (CipherSuite suite : config.getDefaultClientSupportedCipherSuites()) {
+            KeyExchangeAlgorithm keyExchangeAlgorithm = AlgorithmResolver.getKeyExchangeAlgorithm(suite);
+            if (keyExchangeAlgorithm != null && keyExchangeAlgorithm.name().toUpperCase().contains("EC")) {
+                containsEc = true;
+                break;
+            }
+        }
+        config.setAddEllipticCurveExtension(containsEc);
+        config.setAddECPointFormatExtension(containsEc);
+        config.setAddSignatureAndHashAlgorithmsExtension(true);
+        config.setAddRenegotiationInfoExtension(true);
+        config.setWorkflowTraceType(WorkflowTraceType.DYNAMIC_HELLO);
+        config.setQuickReceive(true);
+        config.setEarlyStop(true);
+        config.setStopReceivingAfterFatal(true);
+        config.setStopActionsAfterIOException(true);
+        config.setStopActionsAfterFatal(true);
+        List<NamedGroup> namedGroup = new LinkedList<>();
+        namedGroup.addAll(Arrays.asList(NamedGroup.values()));
+        config.setDefaultClientNamedGroups(namedGroup);
+        return new State(config);
+    }
+
+    private SuiteSelection evaluateSelection(State state, List<CipherSuite> offered, ProtocolVersion version) {
+        if (WorkflowTraceUtil.didReceiveMessage(HandshakeMessageType.SERVER_HELLO, state.getWorkflowTrace())) {
+            if (state.getTlsContext().getSelectedProtocolVersion() != version) {
+                LOGGER.debug("Server does not support " + version);
+                return SuiteSelection.OTHER_VERSION;
+            }
+            LOGGER.debug("Server chose " + state.getTlsContext().getSelectedCipherSuite().name());
+            if (offered.contains(state.getTlsContext().getSelectedCipherSuite())) {
+                return SuiteSelection.SELECTED;
+            } else {
+                LOGGER.warn("Server chose not proposed cipher suite");
+                return SuiteSelection.NOT_PROPOSED;
+            }
+        } else {
+            LOGGER.debug("Server did not send ServerHello");
+            LOGGER.debug(state.getWorkflowTrace().toString());
+            if (state.getTlsContext().isReceivedFatalAlert()) {
+                LOGGER.debug("Received Fatal Alert");
+                AlertMessage alert = (AlertMessage) WorkflowTraceUtil.getFirstReceivedMessage(ProtocolMessageType.ALERT,
+                    state.getWorkflowTrace());
+                LOGGER.debug("Type:" + alert.toString());
+            }
+            return SuiteSelection.NO_SERVER_HELLO;
+        }
     }
 
     @Override
@@ -250,4 +396,102 @@ public class CipherSuiteProbe extends TlsProbe {
     public ProbeResult getCouldNotExecuteResult() {
         return new CipherSuiteResult(null);
     }
+
+    private enum SuiteSelection {
+        SELECTED,
+        NOT_PROPOSED,
+        NO_SERVER_HELLO,
+        OTHER_VERSION
+    }
+
+    /**
+     * Remembers which suite the server selected from which offered list. Assuming the server always selects the suite
+     * it ranks highest, every observation tells that the selected suite beats all other offered suites.
+     */
+    private static class SelectionObservations {
+
+        private final List<CipherSuite> offerOrder;
+
+        private final Map<CipherSuite, Set<CipherSuite>> beatenBy = new HashMap<>();
+
+        /**
+         * Relative position of each suite among the suites selected from its partition. Only set if the server did not
+         * select the suites in the order they were offered.
+         */
+        private Map<CipherSuite, Double> rankEstimates;
+
+        SelectionObservations(List<CipherSuite> offerOrder) {
+            this.offerOrder = offerOrder;
+        }
+
+        void add(List<CipherSuite> offered, CipherSuite selected) {
+            for (CipherSuite suite : offered) {
+                if (suite != selected) {
+                    beatenBy.computeIfAbsent(suite, key -> new HashSet<>()).add(selected);
+                }
+            }
+        }
+
+        /**
+         * If the server selected the suites of any partition in another order than they were offered, it follows its
+         * own preference. Observations only order suites of the same partition in that case, so suites of different
+         * partitions are ranked by their relative position within their partition.
+         */
+        void estimateRanks(List<List<CipherSuite>> selectedPartitions) {
+            boolean serverOrder = false;
+            for (List<CipherSuite> selected : selectedPartitions) {
+                for (int i = 1; i < selected.size(); i++) {
+                    if (offerOrder.indexOf(selected.get(i - 1)) > offerOrder.indexOf(selected.get(i))) {
+                        serverOrder = true;
+                    }
+                }
+            }
+            if (serverOrder) {
+                rankEstimates = new HashMap<>();
+                for (List<CipherSuite> selected : selectedPartitions) {
+                    for (int i = 0; i < selected.size(); i++) {
+                        rankEstimates.put(selected.get(i), (i + 0.5) / selected.size());
+                    }
+                }
+            }
+        }
+
+        /**
+         * Orders the suites so that each suite is beaten by as few of the following suites as possible. Suites without
+         * observations between them are ordered by their estimated rank or, if the server did not show a preference of
+         * its own, in the order they are offered.
+         */
+        List<CipherSuite> predictOrder(Set<CipherSuite> suites) {
+            List<CipherSuite> remaining = new LinkedList<>();
+            for (CipherSuite suite : offerOrder) {
+                if (suites.contains(suite)) {
+                    remaining.add(suite);
+                }
+            }
+            if (rankEstimates != null) {
+                remaining.sort(Comparator.comparing(suite -> rankEstimates.getOrDefault(suite, 1.0)));
+            }
+            List<CipherSuite> order = new ArrayList<>(remaining.size());
+            while (!remaining.isEmpty()) {
+                CipherSuite next = null;
+                int fewestBeaters = Integer.MAX_VALUE;
+                for (CipherSuite suite : remaining) {
+                    int beaters = 0;
+                    Set<CipherSuite> suiteBeatenBy = beatenBy.getOrDefault(suite, Collections.emptySet());
+                    for (CipherSuite other : remaining) {
+                        if (suiteBeatenBy.contains(other)) {
+                            beaters++;
+                        }
+                    }
+                    if (beaters < fewestBeaters) {
+                        next = suite;
+                        fewestBeaters = beaters;
+                    }
+                }
+                order.add(next);
+                remaining.remove(next);
+            }
+            return order;
+        }
+    }
 }
@@ -31,6 +31,7 @@ import de.rub.nds.tlsscanner.serverscanner.report.result.DirectRaccoonResult;
 import de.rub.nds.tlsscanner.serverscanner.report.result.ProbeResult;
 import de.rub.nds.tlsscanner.serverscanner.report.result.VersionSuiteListPair;
 import de.rub.nds.tlsscanner.serverscanner.vectorstatistics.InformationLeakTest;
+import de.rub.nds.tlsscanner.serverscanner.vectorstatistics.SequentialStoppingRule;
 import java.math.BigInteger;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -57,19 +58,21 @@ public class DirectRaccoonProbe extends TlsProbe {
     public ProbeResult executeTest() {
         try {
             List<InformationLeakTest<DirectRaccoonOracleTestInfo>> testResultList = new LinkedList<>();
+            SequentialStoppingRule stoppingRule = scannerConfig.createSequentialStoppingRule();
             loop: for (VersionSuiteListPair pair : serverSupportedSuites) {
                 if (pair.getVersion() != ProtocolVersion.SSL2 && !pair.getVersion().isTLS13()) {
                     for (CipherSuite suite : pair.getCipherSuiteList()) {
                         if (suite.usesDH() && CipherSuite.getImplemented().contains(suite)) {
                             InformationLeakTest<DirectRaccoonOracleTestInfo> informationLeakTest =
                                 createDirectRaccoonInformationLeakTest(pair.getVersion(), suite,
-                                    DirectRaccoonWorkflowType.CKE_CCS_FIN);
+                                    DirectRaccoonWorkflowType.CKE_CCS_FIN, stoppingRule);
                             testResultList.add(informationLeakTest);
 
                         }
                     }
                 }
             }
+            logSequentialTestingSavings(stoppingRule);
             return new DirectRaccoonResult(testResultList);
         } catch (Exception e) {
             LOGGER.error("Could not scan for " + getProbeName(), e);
@@ -78,7 +81,8 @@ public class DirectRaccoonProbe extends TlsProbe {
     }
 
     private InformationLeakTest<DirectRaccoonOracleTestInfo> createDirectRaccoonInformationLeakTest(
-        ProtocolVersion version, CipherSuite suite, DirectRaccoonWorkflowType workflowType) {
+        ProtocolVersion version, CipherSuite suite, DirectRaccoonWorkflowType workflowType,
+        SequentialStoppingRule stoppingRule) {
 
         List<VectorResponse> responseMap =
             createVectorResponseList(version, suite, workflowType, iterationsPerHandshake);
@@ -87,8 +91,15 @@ public class DirectRaccoonProbe extends TlsProbe {
 
         if (informationLeakTest.isDistinctAnswers()) {
             LOGGER.debug("Found non identical answers, performing " + iterationsPerHandshake + " additional tests");
-            responseMap = createVectorResponseList(version, suite, workflowType, additionalIterationsPerHandshake);
-            informationLeakTest.extendTestWithVectorResponses(responseMap);
+            if (stoppingRule == null) {
+                responseMap = createVectorResponseList(version, suite, workflowType, additionalIterationsPerHandshake);
+                informationLeakTest.extendTestWithVectorResponses(responseMap);
+            } else {
+                stoppingRule.executeRepetitions(informationLeakTest, iterationsPerHandshake,
+                    additionalIterationsPerHandshake,
+                    (performedIterations, iterations) -> informationLeakTest.extendTestWithVectorResponses(
+                        createVectorResponseList(version, suite, workflowType, iterations)));
+            }
         }
         return informationLeakTest;
     }
@@ -21,11 +21,9 @@ import de.rub.nds.tlsattacker.core.workflow.WorkflowTrace;
 import de.rub.nds.tlsattacker.core.workflow.WorkflowTraceUtil;
 import de.rub.nds.tlsscanner.serverscanner.config.ScannerConfig;
 import de.rub.nds.tlsscanner.serverscanner.constants.ProbeType;
-import de.rub.nds.tlsscanner.serverscanner.constants.ScannerDetail;
-import de.rub.nds.tlsscanner.serverscanner.probe.handshakesimulation.ConfigFileList;
+import de.rub.nds.tlsscanner.serverscanner.probe.handshakesimulation.SimulatedClientProfile;
 import de.rub.nds.tlsscanner.serverscanner.probe.handshakesimulation.SimulatedClientResult;
 import de.rub.nds.tlsscanner.serverscanner.probe.handshakesimulation.SimulationRequest;
-import de.rub.nds.tlsscanner.serverscanner.probe.handshakesimulation.TlsClientConfig;
 import de.rub.nds.tlsscanner.serverscanner.report.SiteReport;
 import de.rub.nds.tlsscanner.serverscanner.report.result.HandshakeSimulationResult;
 import de.rub.nds.tlsscanner.serverscanner.report.result.ProbeResult;
@@ -42,27 +40,8 @@ import org.bouncycastle.jce.provider.X509CertificateObject;
 
 public class HandshakeSimulationProbe extends TlsProbe {
 
-    private static final String RESOURCE_FOLDER = "/extracted_client_configs";
-
-    private final List<SimulationRequest> simulationRequestList;
-
     public HandshakeSimulationProbe(ScannerConfig config, ParallelExecutor parallelExecutor) {
         super(parallelExecutor, ProbeType.HANDSHAKE_SIMULATION, config);
-        simulationRequestList = new LinkedList<>();
-        ConfigFileList configFileList = ConfigFileList.loadConfigFileList("/" + ConfigFileList.FILE_NAME);
-        for (String configFileName : configFileList.getFiles()) {
-            try {
-                TlsClientConfig tlsClientConfig =
-                    TlsClientConfig.createTlsClientConfig(RESOURCE_FOLDER + "/" + configFileName);
-                if (getScannerConfig().getScanDetail().isGreaterEqualTo(ScannerDetail.DETAILED)) {
-                    simulationRequestList.add(new SimulationRequest(tlsClientConfig));
-                } else {
-                    simulationRequestList.add(new SimulationRequest(tlsClientConfig));
-                }
-            } catch (Exception e) {
-                LOGGER.error("Could not load " + configFileName, e);
-            }
-        }
     }
 
     @Override
@@ -70,8 +49,8 @@ public class HandshakeSimulationProbe extends TlsProbe {
         try {
             List<State> clientStateList = new LinkedList<>();
             List<SimulatedClientResult> resultList = new LinkedList<>();
-            for (SimulationRequest request : simulationRequestList) {
-                State state = request.getExecutableState(scannerConfig);
+            for (SimulatedClientProfile profile : SimulatedClientProfile.getProfiles()) {
+                State state = new SimulationRequest(profile).getExecutableState(scannerConfig);
                 clientStateList.add(state);
             }
             executeState(clientStateList);
@@ -47,6 +47,7 @@ import de.rub.nds.tlsscanner.serverscanner.report.result.InvalidCurveResult;
 import de.rub.nds.tlsscanner.serverscanner.report.result.ProbeResult;
 import de.rub.nds.tlsscanner.serverscanner.report.result.VersionSuiteListPair;
 import de.rub.nds.tlsscanner.serverscanner.vectorstatistics.DistributionTest;
+import de.rub.nds.tlsscanner.serverscanner.vectorstatistics.SequentialStoppingRule;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -101,6 +102,7 @@ public class InvalidCurveProbe extends TlsProbe {
         try {
             List<InvalidCurveVector> vectors = prepareVectors();
             List<InvalidCurveResponse> responses = new LinkedList<>();
+            SequentialStoppingRule stoppingRule = scannerConfig.createSequentialStoppingRule();
             for (InvalidCurveVector vector : vectors) {
                 if (benignHandshakeSuccessful(vector)) {
                     InvalidCurveResponse scanResponse = executeSingleScan(vector, InvalidCurveScanType.REGULAR);
@@ -111,12 +113,13 @@ public class InvalidCurveProbe extends TlsProbe {
                                 getInfinityProbability(vector, InvalidCurveScanType.REGULAR));
                         if (distTest.isDistinctAnswers()
                             && scanResponse.getShowsPointsAreNotValidated() != TestResult.TRUE) {
-                            testForSidechannel(distTest, vector, scanResponse);
+                            testForSidechannel(distTest, vector, scanResponse, stoppingRule);
                         }
                     }
                     responses.add(scanResponse);
                 }
             }
+            logSequentialTestingSavings(stoppingRule);
             return evaluateResponses(responses);
         } catch (Exception e) {
             LOGGER.error("Could not scan for " + getProbeName(), e);
@@ -405,21 +408,29 @@ public class InvalidCurveProbe extends TlsProbe {
         return vectors;
     }
 
+    private InvalidCurveAttackConfig createAttackConfig(InvalidCurveVector vector, InvalidCurveScanType scanType) {
+        InvalidCurveAttackConfig invalidCurveAttackConfig =
+            new InvalidCurveAttackConfig(getScannerConfig().getGeneralDelegate());
+        invalidCurveAttackConfig.setNamedGroup(vector.getNamedGroup());
+        invalidCurveAttackConfig.setAttackInRenegotiation(vector.isAttackInRenegotiation());
+        setIterationFields(invalidCurveAttackConfig, vector, scanType);
+        setPublicPointFields(invalidCurveAttackConfig, vector, scanType);
+        if (vector.isTwistAttack()) {
+            invalidCurveAttackConfig.setCurveTwistAttack(true);
+        }
+        return invalidCurveAttackConfig;
+    }
+
     private InvalidCurveResponse executeSingleScan(InvalidCurveVector vector, InvalidCurveScanType scanType) {
+        return executeSingleScan(vector, scanType, createAttackConfig(vector, scanType));
+    }
+
+    private InvalidCurveResponse executeSingleScan(InvalidCurveVector vector, InvalidCurveScanType scanType,
+        InvalidCurveAttackConfig invalidCurveAttackConfig) {
         LOGGER.debug("Executing Invalid Curve scan for " + vector.toString());
         try {
             TestResult showsPointsAreNotValidated = TestResult.NOT_TESTED_YET;
 
-            InvalidCurveAttackConfig invalidCurveAttackConfig =
-                new InvalidCurveAttackConfig(getScannerConfig().getGeneralDelegate());
-            invalidCurveAttackConfig.setNamedGroup(vector.getNamedGroup());
-            invalidCurveAttackConfig.setAttackInRenegotiation(vector.isAttackInRenegotiation());
-            setIterationFields(invalidCurveAttackConfig, vector, scanType);
-            setPublicPointFields(invalidCurveAttackConfig, vector, scanType);
-            if (vector.isTwistAttack()) {
-                invalidCurveAttackConfig.setCurveTwistAttack(true);
-            }
-
             InvalidCurveAttacker attacker = prepareAttacker(invalidCurveAttackConfig, vector.getProtocolVersion(),
                 vector.getCipherSuiteAsList(), vector.getNamedGroup(), vector.getEcdsaRequiredGroups());
             Boolean foundCongruence = attacker.isVulnerable();
@@ -848,7 +859,7 @@ public class InvalidCurveProbe extends TlsProbe {
     }
 
     private void testForSidechannel(DistributionTest initialTest, InvalidCurveVector vector,
-        InvalidCurveResponse initialResponse) {
+        InvalidCurveResponse initialResponse, SequentialStoppingRule stoppingRule) {
         initialResponse.setHadDistinctFps(TestResult.TRUE);
         InvalidCurveResponse largeGroupResponse = executeSingleScan(vector, InvalidCurveScanType.LARGE_GROUP);
         if (!largeGroupResponse.getVectorResponses().isEmpty()) {
@@ -856,9 +867,13 @@ public class InvalidCurveProbe extends TlsProbe {
                 new DistributionTest(new InvalidCurveTestInfo(vector), largeGroupResponse.getVectorResponses(),
                     getInfinityProbability(vector, InvalidCurveScanType.LARGE_GROUP));
             if (rejectionDistTest.isDistinctAnswers() == false) {
-                InvalidCurveResponse extendedResponse = executeSingleScan(vector, InvalidCurveScanType.EXTENDED);
-                initialTest.extendTestWithVectorResponses(extendedResponse.getVectorResponses());
-                initialResponse.mergeResponse(extendedResponse);
+                if (stoppingRule == null) {
+                    InvalidCurveResponse extendedResponse = executeSingleScan(vector, InvalidCurveScanType.EXTENDED);
+                    initialTest.extendTestWithVectorResponses(extendedResponse.getVectorResponses());
+                    initialResponse.mergeResponse(extendedResponse);
+                } else {
+                    executeExtendedScan(initialTest, vector, initialResponse, stoppingRule);
+                }
 
                 if (initialTest.isSignificantDistinctAnswers() == false && initialResponse.getVectorResponses().size()
                     >= (initialResponse.getFingerprintSecretPairs().size() / 2)) {
@@ -882,4 +897,24 @@ public class InvalidCurveProbe extends TlsProbe {
             }
         }
     }
+
+    /**
+     * Executes the protocol flows of the extended scan in batches, using fresh keys for every batch, until the stopping
+     * rule decides the distribution test
+     */
+    private void executeExtendedScan(DistributionTest initialTest, InvalidCurveVector vector,
+        InvalidCurveResponse initialResponse, SequentialStoppingRule stoppingRule) {
+        int performedFlows = createAttackConfig(vector, InvalidCurveScanType.REGULAR).getProtocolFlows();
+        int additionalFlows = createAttackConfig(vector, InvalidCurveScanType.EXTENDED).getProtocolFlows();
+        stoppingRule.executeRepetitions(initialTest, performedFlows, additionalFlows, (performed, flows) -> {
+            InvalidCurveAttackConfig attackConfig = createAttackConfig(vector, InvalidCurveScanType.EXTENDED);
+            if (vector.getNamedGroup() != NamedGroup.ECDH_X25519 && vector.getNamedGroup() != NamedGroup.ECDH_X448) {
+                attackConfig.setKeyOffset(performed);
+            }
+            attackConfig.setProtocolFlows(flows);
+            InvalidCurveResponse batchResponse = executeSingleScan(vector, InvalidCurveScanType.EXTENDED, attackConfig);
+            initialTest.extendTestWithVectorResponses(batchResponse.getVectorResponses());
+            initialResponse.mergeResponse(batchResponse);
+        });
+    }
 }
@@ -29,6 +29,7 @@ import de.rub.nds.tlsscanner.serverscanner.report.result.PaddingOracleResult;
 import de.rub.nds.tlsscanner.serverscanner.report.result.ProbeResult;
 import de.rub.nds.tlsscanner.serverscanner.report.result.VersionSuiteListPair;
 import de.rub.nds.tlsscanner.serverscanner.vectorstatistics.InformationLeakTest;
+import de.rub.nds.tlsscanner.serverscanner.vectorstatistics.SequentialStoppingRule;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -71,12 +72,14 @@ public class PaddingOracleProbe extends TlsProbe {
             if (isPotentiallyVulnerable(testResultList)
                 || scannerConfig.getScanDetail().isGreaterEqualTo(ScannerDetail.NORMAL)) {
                 LOGGER.debug("Starting extended evaluation");
+                SequentialStoppingRule stoppingRule = scannerConfig.createSequentialStoppingRule();
                 for (InformationLeakTest<PaddingOracleTestInfo> fingerprint : testResultList) {
                     if (fingerprint.isDistinctAnswers()
                         || scannerConfig.getScanDetail().isGreaterEqualTo(ScannerDetail.DETAILED)) {
-                        extendFingerPrint(fingerprint, numberOfAddtionalIterations);
+                        extendFingerPrint(fingerprint, numberOfAddtionalIterations, stoppingRule);
                     }
                 }
+                logSequentialTestingSavings(stoppingRule);
                 LOGGER.debug("Finished extended evaluation");
             }
             return new PaddingOracleResult(testResultList);
@@ -163,6 +166,16 @@ public class PaddingOracleProbe extends TlsProbe {
     }
 
     private void extendFingerPrint(InformationLeakTest<PaddingOracleTestInfo> informationLeakTest,
+        int numberOfAdditionalIterations, SequentialStoppingRule stoppingRule) {
+        if (stoppingRule == null) {
+            executeAdditionalIterations(informationLeakTest, numberOfAdditionalIterations);
+        } else {
+            stoppingRule.executeRepetitions(informationLeakTest, numberOfIterations, numberOfAdditionalIterations,
+                (performedIterations, iterations) -> executeAdditionalIterations(informationLeakTest, iterations));
+        }
+    }
+
+    private void executeAdditionalIterations(InformationLeakTest<PaddingOracleTestInfo> informationLeakTest,
         int numberOfAdditionalIterations) {
         PaddingOracleCommandConfig paddingOracleCommandConfig = createPaddingOracleCommandConfig(
             informationLeakTest.getTestInfo().getVersion(), informationLeakTest.getTestInfo().getCipherSuite());
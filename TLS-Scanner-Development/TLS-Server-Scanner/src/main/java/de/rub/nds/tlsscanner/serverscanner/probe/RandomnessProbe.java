@@ -29,6 +29,7 @@ import de.rub.nds.tlsattacker.core.workflow.factory.WorkflowTraceType;
 import de.rub.nds.tlsscanner.serverscanner.config.ScannerConfig;
 import de.rub.nds.tlsscanner.serverscanner.constants.ApplicationProtocol;
 import de.rub.nds.tlsscanner.serverscanner.constants.ProbeType;
+import de.rub.nds.tlsscanner.serverscanner.probe.stats.RandomnessCollector;
 import de.rub.nds.tlsscanner.serverscanner.report.SiteReport;
 import de.rub.nds.tlsscanner.serverscanner.report.result.ProbeResult;
 import de.rub.nds.tlsscanner.serverscanner.report.result.RandomnessResult;
@@ -42,6 +43,8 @@ import java.util.List;
  */
 public class RandomnessProbe extends TlsProbe {
 
+    private static final int STATES_PER_THREAD = 16;
+
     private ProtocolVersion bestVersion;
     private CipherSuite bestCipherSuite;
     private boolean supportsExtendedRandom;
@@ -52,8 +55,10 @@ public class RandomnessProbe extends TlsProbe {
 
     @Override
     public ProbeResult executeTest() {
+        RandomnessCollector collector = new RandomnessCollector();
+        getWriter().streamRandomnessTo(collector);
         collectData(scannerConfig.getAdditionalRandomnessHandshakes());
-        return new RandomnessResult();
+        return new RandomnessResult(collector);
     }
 
     @Override
@@ -157,30 +162,40 @@ public class RandomnessProbe extends TlsProbe {
         return config;
     }
 
+    /**
+     * Executes the handshakes in batches, so only the states of one batch are kept at a time. The random values of
+     * every executed state are handed to the collector of the stats writer.
+     */
     private void collectData(int numberOfHandshakes) {
-        List<State> stateList = new LinkedList<>();
-        for (int i = 0; i < numberOfHandshakes; i++) {
-            Config config;
-            if (bestVersion.isTLS13()) {
-                config = generateTls13BaseConfig();
-            } else {
-                config = generateBaseConfig();
-            }
-            if (supportsExtendedRandom) {
-                config.setAddExtendedRandomExtension(true);
+        int batchSize = STATES_PER_THREAD * getParallelExecutor().getSize();
+        for (int executed = 0; executed < numberOfHandshakes; executed += batchSize) {
+            List<State> stateList = new LinkedList<>();
+            for (int i = executed; i < Math.min(executed + batchSize, numberOfHandshakes); i++) {
+                stateList.add(createState());
             }
-            WorkflowTrace workflowTrace = new WorkflowConfigurationFactory(config)
-                .createWorkflowTrace(WorkflowTraceType.DYNAMIC_HANDSHAKE, RunningModeType.CLIENT);
-            if (scannerConfig.getApplicationProtocol() == ApplicationProtocol.HTTP) {
-                config.setHttpsParsingEnabled(true);
-                workflowTrace.addTlsAction(new SendAction(new HttpsRequestMessage(config)));
-                workflowTrace.addTlsAction(new ReceiveAction(new HttpsResponseMessage(config)));
-            } else {
-                // TODO: Add application specific app data to provoke data transmission
-            }
-            State state = new State(config, workflowTrace);
-            stateList.add(state);
+            executeState(stateList);
+        }
+    }
+
+    private State createState() {
+        Config config;
+        if (bestVersion.isTLS13()) {
+            config = generateTls13BaseConfig();
+        } else {
+            config = generateBaseConfig();
+        }
+        if (supportsExtendedRandom) {
+            config.setAddExtendedRandomExtension(true);
+        }
+        WorkflowTrace workflowTrace = new WorkflowConfigurationFactory(config)
+            .createWorkflowTrace(WorkflowTraceType.DYNAMIC_HANDSHAKE, RunningModeType.CLIENT);
+        if (scannerConfig.getApplicationProtocol() == ApplicationProtocol.HTTP) {
+            config.setHttpsParsingEnabled(true);
+            workflowTrace.addTlsAction(new SendAction(new HttpsRequestMessage(config)));
+            workflowTrace.addTlsAction(new ReceiveAction(new HttpsResponseMessage(config)));
+        } else {
+            // TODO: Add application specific app data to provoke data transmission
         }
-        executeState(stateList);
+        return new State(config, workflowTrace);
     }
 }
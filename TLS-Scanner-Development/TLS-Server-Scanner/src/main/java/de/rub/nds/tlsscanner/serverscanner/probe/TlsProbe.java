@@ -16,6 +16,7 @@ import de.rub.nds.tlsscanner.serverscanner.constants.ProbeType;
 import de.rub.nds.tlsscanner.serverscanner.probe.stats.StatsWriter;
 import de.rub.nds.tlsscanner.serverscanner.report.SiteReport;
 import de.rub.nds.tlsscanner.serverscanner.report.result.ProbeResult;
+import de.rub.nds.tlsscanner.serverscanner.vectorstatistics.SequentialStoppingRule;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -111,6 +112,20 @@ public abstract class TlsProbe implements Callable<ProbeResult> {
 
     public abstract void adjustConfig(SiteReport report);
 
+    /**
+     * Logs how many handshakes the sequential tests of this probe saved
+     *
+     * @param stoppingRule
+     *                     The stopping rule of the probe, or null if sequential testing is disabled
+     */
+    protected void logSequentialTestingSavings(SequentialStoppingRule stoppingRule) {
+        if (stoppingRule != null) {
+            long plannedHandshakes = stoppingRule.getExecutedHandshakes() + stoppingRule.getSkippedHandshakes();
+            LOGGER.info(getProbeName() + ": Sequential testing skipped " + stoppingRule.getSkippedHandshakes() + " of "
+                + plannedHandshakes + " additional handshakes");
+        }
+    }
+
     public ParallelExecutor getParallelExecutor() {
         return parallelExecutor;
     }
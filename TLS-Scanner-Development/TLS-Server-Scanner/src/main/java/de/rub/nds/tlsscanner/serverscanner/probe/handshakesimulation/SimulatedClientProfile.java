@@ -0,0 +1,106 @@
+/**
+ * TLS-Server-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.serverscanner.probe.handshakesimulation;
+
+import de.rub.nds.tlsattacker.core.config.Config;
+import de.rub.nds.tlsattacker.core.constants.HandshakeMessageType;
+import de.rub.nds.tlsattacker.core.protocol.message.HandshakeMessage;
+import de.rub.nds.tlsattacker.core.protocol.message.extension.ExtensionMessage;
+import de.rub.nds.tlsattacker.core.workflow.WorkflowTraceUtil;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import org.apache.commons.lang3.SerializationUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A simulated client of the extracted_client_configs resource folder. The folder is parsed once per process when the
+ * profiles are first requested, and the profiles are shared by all scans afterwards. The config and the ClientHello
+ * extensions, which the handshake modifies, are kept serialized, so every simulation gets its own copy of them without
+ * parsing the XML again.
+ */
+public class SimulatedClientProfile {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    public static final String RESOURCE_FOLDER = "/extracted_client_configs";
+
+    private final TlsClientConfig tlsClientConfig;
+
+    private final byte[] serializedConfig;
+
+    private final byte[] serializedExtensions;
+
+    public SimulatedClientProfile(TlsClientConfig tlsClientConfig) {
+        this.tlsClientConfig = tlsClientConfig;
+        serializedConfig = SerializationUtils.serialize(tlsClientConfig.getConfig());
+        HandshakeMessage clientHello =
+            WorkflowTraceUtil.getLastReceivedMessage(HandshakeMessageType.CLIENT_HELLO, tlsClientConfig.getTrace());
+        if (clientHello != null && clientHello.getExtensions() != null) {
+            serializedExtensions = SerializationUtils.serialize(new ArrayList<>(clientHello.getExtensions()));
+        } else {
+            serializedExtensions = null;
+        }
+    }
+
+    /**
+     * @return The profiles of all simulated clients, loaded on the first call
+     */
+    public static List<SimulatedClientProfile> getProfiles() {
+        return ProfileHolder.PROFILES;
+    }
+
+    private static List<SimulatedClientProfile> loadProfiles() {
+        List<SimulatedClientProfile> profiles = new LinkedList<>();
+        ConfigFileList configFileList = ConfigFileList.loadConfigFileList("/" + ConfigFileList.FILE_NAME);
+        for (String configFileName : configFileList.getFiles()) {
+            try {
+                profiles.add(new SimulatedClientProfile(
+                    TlsClientConfig.createTlsClientConfig(RESOURCE_FOLDER + "/" + configFileName)));
+            } catch (Exception e) {
+                LOGGER.error("Could not load " + configFileName, e);
+            }
+        }
+        return Collections.unmodifiableList(profiles);
+    }
+
+    /**
+     * The client config as it was parsed. It is shared by all scans and must not be modified.
+     *
+     * @return The client config of this profile
+     */
+    public TlsClientConfig getTlsClientConfig() {
+        return tlsClientConfig;
+    }
+
+    /**
+     * @return A new copy of the config of the client
+     */
+    public Config createConfig() {
+        return SerializationUtils.deserialize(serializedConfig);
+    }
+
+    /**
+     * @return A new copy of the extensions the client sent in its ClientHello, or null if it sent none
+     */
+    public List<ExtensionMessage> createClientHelloExtensions() {
+        if (serializedExtensions == null) {
+            return null;
+        }
+        return SerializationUtils.deserialize(serializedExtensions);
+    }
+
+    private static class ProfileHolder {
+
+        private static final List<SimulatedClientProfile> PROFILES = loadProfiles();
+    }
+}
@@ -11,30 +11,30 @@ package de.rub.nds.tlsscanner.serverscanner.probe.handshakesimulation;
 
 import de.rub.nds.modifiablevariable.util.Modifiable;
 import de.rub.nds.tlsattacker.core.config.Config;
-import de.rub.nds.tlsattacker.core.constants.HandshakeMessageType;
 import de.rub.nds.tlsattacker.core.protocol.message.ClientHelloMessage;
 import de.rub.nds.tlsattacker.core.protocol.message.SSL2ClientHelloMessage;
 import de.rub.nds.tlsattacker.core.protocol.message.ServerHelloDoneMessage;
-import de.rub.nds.tlsattacker.core.protocol.message.extension.ExtensionMessage;
 import de.rub.nds.tlsattacker.core.record.Record;
 import de.rub.nds.tlsattacker.core.state.State;
 import de.rub.nds.tlsattacker.core.workflow.WorkflowTrace;
-import de.rub.nds.tlsattacker.core.workflow.WorkflowTraceUtil;
 import de.rub.nds.tlsattacker.core.workflow.action.ReceiveTillAction;
 import de.rub.nds.tlsattacker.core.workflow.action.SendAction;
 import de.rub.nds.tlsscanner.serverscanner.config.ScannerConfig;
-import java.util.List;
 
+/**
+ * Creates the states which simulate a client. The states work on copies of the shared {@link SimulatedClientProfile},
+ * so requests of concurrent scans do not influence each other.
+ */
 public class SimulationRequest {
 
-    private TlsClientConfig tlsClientConfig;
+    private final SimulatedClientProfile profile;
 
-    public SimulationRequest(TlsClientConfig tlsClientConfig) {
-        this.tlsClientConfig = tlsClientConfig;
+    public SimulationRequest(SimulatedClientProfile profile) {
+        this.profile = profile;
     }
 
     public State getExecutableState(ScannerConfig scannerConfig) {
-        Config config = tlsClientConfig.getConfig();
+        Config config = profile.createConfig();
         scannerConfig.getClientDelegate().applyDelegate(config);
         config.setQuickReceive(true);
         config.setEarlyStop(true);
@@ -42,17 +42,15 @@ public class SimulationRequest {
         config.setStopReceivingAfterFatal(true);
         WorkflowTrace trace = new WorkflowTrace();
 
-        if (tlsClientConfig.getIsSSL2CompatibleClientHello()) {
+        if (getTlsClientConfig().getIsSSL2CompatibleClientHello()) {
             SendAction sendAction = new SendAction(new SSL2ClientHelloMessage());
             Record record = new Record();
-            record.setCompleteRecordBytes(Modifiable.explicit(tlsClientConfig.getInitialBytes()));
+            record.setCompleteRecordBytes(Modifiable.explicit(getTlsClientConfig().getInitialBytes().clone()));
             sendAction.setRecords(record);
             trace.addTlsAction(sendAction);
         } else {
             ClientHelloMessage msg = new ClientHelloMessage(config);
-            List<ExtensionMessage> extensions = WorkflowTraceUtil
-                .getLastReceivedMessage(HandshakeMessageType.CLIENT_HELLO, tlsClientConfig.getTrace()).getExtensions();
-            msg.setExtensions(extensions);
+            msg.setExtensions(profile.createClientHelloExtensions());
             trace.addTlsAction(new SendAction(msg));
         }
         trace.addTlsAction(new ReceiveTillAction(new ServerHelloDoneMessage()));
@@ -60,11 +58,11 @@ public class SimulationRequest {
         return state;
     }
 
-    public TlsClientConfig getTlsClientConfig() {
-        return tlsClientConfig;
+    public SimulatedClientProfile getProfile() {
+        return profile;
     }
 
-    public void setTlsClientConfig(TlsClientConfig tlsClientConfig) {
-        this.tlsClientConfig = tlsClientConfig;
+    public TlsClientConfig getTlsClientConfig() {
+        return profile.getTlsClientConfig();
     }
 }
@@ -60,6 +60,10 @@ public class ExtractedValueContainer<T> {
         extractedValueList.add(t);
     }
 
+    public void clear() {
+        extractedValueList.clear();
+    }
+
     public TrackableValueType getType() {
         return type;
     }
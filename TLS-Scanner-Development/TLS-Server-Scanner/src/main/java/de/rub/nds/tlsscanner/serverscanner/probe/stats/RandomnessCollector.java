@@ -0,0 +1,174 @@
+/**
+ * TLS-Server-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.serverscanner.probe.stats;
+
+import de.rub.nds.modifiablevariable.util.ArrayConverter;
+import de.rub.nds.tlsattacker.core.constants.HandshakeByteLength;
+import de.rub.nds.tlsscanner.serverscanner.constants.RandomType;
+import de.rub.nds.tlsscanner.serverscanner.util.RandomnessAccumulator;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Streams the extracted random values into one {@link RandomnessAccumulator} per {@link RandomType}, so they can be
+ * analyzed without keeping every value.
+ *
+ * Whether the server randoms start with a UNIX timestamp is only known once all of them have been seen. The randoms are
+ * therefore accumulated twice, with and without their first four bytes, and the matching accumulator is chosen when the
+ * randoms are analyzed. This class is not thread safe.
+ */
+public class RandomnessCollector {
+
+    public static final int FREQUENCY_TEST_BLOCK_SIZE = 128;
+
+    // TLS 1.3 specific message requesting to send a new ClientHello
+    private static final byte[] HELLO_RETRY_REQUEST_CONST =
+        ArrayConverter.hexStringToByteArray("CF21AD74E59A6111BE1D8C021E65B891C2A211167ABB8C5E079E09E2C8A8339C");
+
+    // TLS 1.3 to TLS 1.2 Downgrade prevention
+    private static final byte[] TLS_1_3_TO_TLS_1_2_DOWNGRADE_CONST =
+        ArrayConverter.hexStringToByteArray("444F574E47524401");
+
+    // TLS 1.3 to TLS 1.1 or lower Downgrade prevention
+    private static final byte[] TLS_1_3_TO_TLS_1_1_DOWNGRADE_CONST =
+        ArrayConverter.hexStringToByteArray("444F574E47524400");
+
+    // How much the time is allowed to deviate between two handshakes when
+    // viewed using UNIX time prefix
+    private static final int UNIX_TIME_ALLOWED_DEVIATION = 31556926; // One year
+
+    private final Map<RandomType, RandomnessAccumulator> accumulatorMap;
+
+    private final RandomnessAccumulator randomsWithoutTimestamp;
+
+    private boolean usesUnixTime = true;
+
+    public RandomnessCollector() {
+        accumulatorMap = new EnumMap<>(RandomType.class);
+        for (RandomType type : RandomType.values()) {
+            accumulatorMap.put(type, new RandomnessAccumulator(FREQUENCY_TEST_BLOCK_SIZE));
+        }
+        randomsWithoutTimestamp = new RandomnessAccumulator(FREQUENCY_TEST_BLOCK_SIZE);
+    }
+
+    /**
+     * @param  valueType
+     *                   The type of the extracted values
+     * @return           The type of randomness the values are, or null if they are not collected
+     */
+    public static RandomType getRandomType(TrackableValueType valueType) {
+        switch (valueType) {
+            case RANDOM:
+                return RandomType.RANDOM;
+            case SESSION_ID:
+                return RandomType.SESSION_ID;
+            case COOKIE:
+                return RandomType.COOKIE;
+            case CBC_IV:
+                return RandomType.CBC_IV;
+            default:
+                return null;
+        }
+    }
+
+    public static boolean isCollected(TrackableValueType valueType) {
+        return getRandomType(valueType) != null;
+    }
+
+    /**
+     * Adds all values of the container, if it holds random values
+     *
+     * @param container
+     *                  The container with the extracted values
+     */
+    public void put(ExtractedValueContainer<?> container) {
+        if (container == null || container.getType() == null || !isCollected(container.getType())) {
+            return;
+        }
+        for (Object value : container.getExtractedValueList()) {
+            put(container.getType(), ((ComparableByteArray) value).getArray());
+        }
+    }
+
+    public void putAll(Map<TrackableValueType, ExtractedValueContainer> containerMap) {
+        for (ExtractedValueContainer<?> container : containerMap.values()) {
+            put(container);
+        }
+    }
+
+    public void put(TrackableValueType valueType, byte[] value) {
+        RandomType randomType = getRandomType(valueType);
+        if (randomType == null || value == null) {
+            return;
+        }
+        if (randomType == RandomType.RANDOM) {
+            putServerRandom(value);
+        } else {
+            accumulatorMap.get(randomType).add(value);
+        }
+    }
+
+    private void putServerRandom(byte[] serverRandom) {
+        if (usesUnixTime && !isRecentUnixTime(serverRandom)) {
+            usesUnixTime = false;
+        }
+        if (Arrays.equals(serverRandom, HELLO_RETRY_REQUEST_CONST)) {
+            // Skip HELLO RETRY REQUEST "randoms" produced by parsing the Hello Retry Messages as a normal ServerHello
+            // message
+            return;
+        }
+        // There might be a downgrade prevention string in the last 8 bytes of the random, if it is present we
+        // remove it
+        byte[] lastEightBytes =
+            Arrays.copyOfRange(serverRandom, HandshakeByteLength.RANDOM - 8, HandshakeByteLength.RANDOM);
+        int endIndex;
+        if (Arrays.equals(lastEightBytes, TLS_1_3_TO_TLS_1_1_DOWNGRADE_CONST)
+            || Arrays.equals(lastEightBytes, TLS_1_3_TO_TLS_1_2_DOWNGRADE_CONST)) {
+            endIndex = 24;
+        } else {
+            endIndex = 32;
+        }
+        accumulatorMap.get(RandomType.RANDOM).add(Arrays.copyOfRange(serverRandom, 0, endIndex));
+        randomsWithoutTimestamp.add(Arrays.copyOfRange(serverRandom, HandshakeByteLength.UNIX_TIME, endIndex));
+    }
+
+    /**
+     * @return TRUE if the timestamp of the random is within one year of now
+     */
+    private boolean isRecentUnixTime(byte[] serverRandom) {
+        byte[] unixTimeStamp = new byte[4];
+        System.arraycopy(serverRandom, 0, unixTimeStamp, 0, HandshakeByteLength.UNIX_TIME);
+        int serverUnixTime = ArrayConverter.bytesToInt(unixTimeStamp);
+        return serverUnixTime <= System.currentTimeMillis() / 1000 + UNIX_TIME_ALLOWED_DEVIATION
+            && serverUnixTime >= System.currentTimeMillis() / 1000 - UNIX_TIME_ALLOWED_DEVIATION;
+    }
+
+    /**
+     * Checks if the Host utilities Unix time or similar counters for Server Randoms.
+     *
+     * @return TRUE if the all timestamps are within one year of now
+     */
+    public boolean isUsesUnixTime() {
+        return usesUnixTime;
+    }
+
+    /**
+     * @param  type
+     *              The type of randomness
+     * @return      The accumulator of the values, for server randoms without the timestamp if they start with one
+     */
+    public RandomnessAccumulator getAccumulator(RandomType type) {
+        if (type == RandomType.RANDOM && usesUnixTime) {
+            return randomsWithoutTimestamp;
+        }
+        return accumulatorMap.get(type);
+    }
+}
@@ -19,6 +19,8 @@ public class StatsWriter {
 
     private int stateCounter = 0;
 
+    private RandomnessCollector randomnessCollector = null;
+
     public StatsWriter() {
         extractorList = new LinkedList<>();
         extractorList.add(new CookieExtractor());
@@ -34,10 +36,24 @@ public class StatsWriter {
     public void extract(State state) {
         for (StatExtractor extractor : extractorList) {
             extractor.extract(state);
+            if (randomnessCollector != null && RandomnessCollector.isCollected(extractor.getValueType())) {
+                randomnessCollector.put(extractor.getContainer());
+                extractor.getContainer().clear();
+            }
         }
         stateCounter++;
     }
 
+    /**
+     * Hands the random values of all further states to the collector instead of keeping them in the containers
+     *
+     * @param randomnessCollector
+     *                            The collector for the random values
+     */
+    public void streamRandomnessTo(RandomnessCollector randomnessCollector) {
+        this.randomnessCollector = randomnessCollector;
+    }
+
     public List<ExtractedValueContainer> getCumulatedExtractedValues() {
         List<ExtractedValueContainer> containerList = new LinkedList<>();
         for (StatExtractor extractor : extractorList) {
@@ -16,18 +16,32 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import javax.xml.bind.JAXB;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.TransformerException;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactoryConfigurationException;
-import org.xml.sax.SAXException;
+import javax.xml.bind.DataBindingException;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
 
 public class RatingIO {
 
+    /**
+     * context initialization is expensive, we need to do that only once. javax.xml.bind.JAXB only remembers the context
+     * of the last class it was used with, so alternating between recommendations and influencers created a new context
+     * on every call.
+     */
+    private static JAXBContext context;
+
+    static synchronized JAXBContext getJAXBContext() throws JAXBException {
+        if (context == null) {
+            context = JAXBContext.newInstance(Recommendations.class, RatingInfluencers.class);
+        }
+        return context;
+    }
+
     public static void writeRecommendations(Recommendations r, File f) {
         try {
-            JAXB.marshal(r, new FileOutputStream(f));
+            marshal(r, new FileOutputStream(f));
         } catch (FileNotFoundException ex) {
             throw new RuntimeException(ex.getLocalizedMessage(), ex);
         }
@@ -36,7 +50,7 @@ public class RatingIO {
     public static void writeRecommendations(Recommendations r, OutputStream os) {
         ByteArrayOutputStream tempStream = new ByteArrayOutputStream();
 
-        JAXB.marshal(r, tempStream);
+        marshal(r, tempStream);
         try {
             os.write(new String(tempStream.toByteArray()).getBytes());
         } catch (IOException ex) {
@@ -45,16 +59,16 @@ public class RatingIO {
     }
 
     public static Recommendations readRecommendations(File f) {
-        return JAXB.unmarshal(f, Recommendations.class);
+        return unmarshal(new StreamSource(f), Recommendations.class);
     }
 
     public static Recommendations readRecommendations(InputStream is) {
-        return JAXB.unmarshal(is, Recommendations.class);
+        return unmarshal(new StreamSource(is), Recommendations.class);
     }
 
     public static void writeRatingInfluencers(RatingInfluencers ri, File f) {
         try {
-            JAXB.marshal(ri, new FileOutputStream(f));
+            marshal(ri, new FileOutputStream(f));
         } catch (FileNotFoundException ex) {
             throw new RuntimeException(ex.getLocalizedMessage(), ex);
         }
@@ -63,7 +77,7 @@ public class RatingIO {
     public static void writeRatingInfluencers(RatingInfluencers ri, OutputStream os) {
         ByteArrayOutputStream tempStream = new ByteArrayOutputStream();
 
-        JAXB.marshal(ri, tempStream);
+        marshal(ri, tempStream);
         try {
             os.write(new String(tempStream.toByteArray()).getBytes());
         } catch (IOException ex) {
@@ -72,10 +86,28 @@ public class RatingIO {
     }
 
     public static RatingInfluencers readRatingInfluencers(File f) {
-        return JAXB.unmarshal(f, RatingInfluencers.class);
+        return unmarshal(new StreamSource(f), RatingInfluencers.class);
     }
 
     public static RatingInfluencers readRatingInfluencers(InputStream is) {
-        return JAXB.unmarshal(is, RatingInfluencers.class);
+        return unmarshal(new StreamSource(is), RatingInfluencers.class);
+    }
+
+    private static void marshal(Object object, OutputStream os) {
+        try {
+            Marshaller marshaller = getJAXBContext().createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+            marshaller.marshal(object, os);
+        } catch (JAXBException ex) {
+            throw new DataBindingException(ex);
+        }
+    }
+
+    private static <T> T unmarshal(Source source, Class<T> type) {
+        try {
+            return getJAXBContext().createUnmarshaller().unmarshal(source, type).getValue();
+        } catch (JAXBException ex) {
+            throw new DataBindingException(ex);
+        }
     }
 }
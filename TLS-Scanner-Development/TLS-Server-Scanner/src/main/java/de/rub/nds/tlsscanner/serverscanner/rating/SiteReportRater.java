@@ -15,7 +15,8 @@ import java.io.InputStream;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
-import javax.xml.bind.JAXBContext;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 import org.apache.logging.log4j.LogManager;
@@ -29,9 +30,13 @@ public class SiteReportRater {
 
     private static String RECOMMENDATIONS_RESOURCE_LOCATION = "rating/recommendations";
 
-    private static HashMap<String, Recommendations> recommendationsMap;
+    /**
+     * Parsed recommendations per language. Like the influencers they are shared by all scans of this process and must
+     * not be modified.
+     */
+    private static final Map<String, Recommendations> recommendationsMap = new ConcurrentHashMap<>();
 
-    private static RatingInfluencers influencers;
+    private static volatile RatingInfluencers influencers;
 
     private SiteReportRater() {
     }
@@ -49,56 +54,57 @@ public class SiteReportRater {
     public static SiteReportRater getSiteReportRater() throws JAXBException {
         // only create a SiteReportRater, if the influencers can be parsed and accessed. Do not create a SiteReportRater
         // and forward the exception if the influencers cannot be parsed.
-        if (influencers == null) {
-            parseRatingInfluencers();
-        }
+        getRatingInfluencers();
 
         SiteReportRater instance = new SiteReportRater();
         return instance;
 
     }
 
-    private static void parseRatingInfluencers() throws JAXBException {
+    private static RatingInfluencers parseRatingInfluencers() throws JAXBException {
 
         ClassLoader classLoader = SiteReport.class.getClassLoader();
-        JAXBContext context = JAXBContext.newInstance(RatingInfluencers.class);
-        Unmarshaller um = context.createUnmarshaller();
+        Unmarshaller um = RatingIO.getJAXBContext().createUnmarshaller();
         InputStream in = classLoader.getResourceAsStream(INFLUENCERS_RESOURCE_LOCATION);
-        influencers = (RatingInfluencers) um.unmarshal(in);
+        return (RatingInfluencers) um.unmarshal(in);
 
     }
 
     public static RatingInfluencers getRatingInfluencers() throws JAXBException {
         if (influencers == null) {
-            parseRatingInfluencers();
+            synchronized (SiteReportRater.class) {
+                if (influencers == null) {
+                    influencers = parseRatingInfluencers();
+                }
+            }
         }
 
         return influencers;
     }
 
     public static Recommendations getRecommendations(String recommendationLanguage) throws JAXBException {
-
-        if (recommendationsMap == null) {
-            recommendationsMap = new HashMap<>();
+        Recommendations recommendations = recommendationsMap.get(recommendationLanguage);
+        if (recommendations != null) {
+            return recommendations;
         }
 
         // only parse each recommendation xml once for every language
-        if (!recommendationsMap.containsKey(recommendationLanguage)) {
-            ClassLoader classLoader = SiteReport.class.getClassLoader();
-            JAXBContext context = JAXBContext.newInstance(Recommendations.class);
-            Unmarshaller um = context.createUnmarshaller();
-            String fileName = RECOMMENDATIONS_RESOURCE_LOCATION + "_" + recommendationLanguage + ".xml";
-            URL u = classLoader.getResource(fileName);
-            if (u == null) {
-                LOGGER.warn("Could not find language resources \"" + fileName
-                    + "\" for SiteReportRater. Using default (english).");
-                fileName = RECOMMENDATIONS_RESOURCE_LOCATION + ".xml";
+        synchronized (recommendationsMap) {
+            if (!recommendationsMap.containsKey(recommendationLanguage)) {
+                ClassLoader classLoader = SiteReport.class.getClassLoader();
+                Unmarshaller um = RatingIO.getJAXBContext().createUnmarshaller();
+                String fileName = RECOMMENDATIONS_RESOURCE_LOCATION + "_" + recommendationLanguage + ".xml";
+                URL u = classLoader.getResource(fileName);
+                if (u == null) {
+                    LOGGER.warn("Could not find language resources \"" + fileName
+                        + "\" for SiteReportRater. Using default (english).");
+                    fileName = RECOMMENDATIONS_RESOURCE_LOCATION + ".xml";
+                }
+                InputStream in = classLoader.getResourceAsStream(fileName);
+                recommendationsMap.put(recommendationLanguage, (Recommendations) um.unmarshal(in));
             }
-            InputStream in = classLoader.getResourceAsStream(fileName);
-            recommendationsMap.put(recommendationLanguage, (Recommendations) um.unmarshal(in));
+            return recommendationsMap.get(recommendationLanguage);
         }
-
-        return recommendationsMap.get(recommendationLanguage);
     }
 
     public ScoreReport getScoreReport(HashMap<String, TestResult> resultMap) {
@@ -37,6 +37,7 @@ import de.rub.nds.tlsscanner.serverscanner.probe.mac.CheckPattern;
 import de.rub.nds.tlsscanner.serverscanner.probe.namedgroup.NamedGroupWitness;
 import de.rub.nds.tlsscanner.serverscanner.probe.padding.KnownPaddingOracleVulnerability;
 import de.rub.nds.tlsscanner.serverscanner.probe.stats.ExtractedValueContainer;
+import de.rub.nds.tlsscanner.serverscanner.probe.stats.RandomnessCollector;
 import de.rub.nds.tlsscanner.serverscanner.probe.stats.TrackableValueType;
 import de.rub.nds.tlsscanner.serverscanner.rating.ScoreReport;
 import de.rub.nds.tlsscanner.serverscanner.rating.TestResult;
@@ -138,6 +139,9 @@ public class SiteReport extends Observable implements Serializable {
 
     private Map<TrackableValueType, ExtractedValueContainer> extractedValueContainerMap;
 
+    // Only needed while the randomness is analyzed, the results are kept in the entropy reports
+    private transient RandomnessCollector randomnessCollector = null;
+
     private List<EntropyReport> entropyReportList;
 
     // DTLS
@@ -850,6 +854,14 @@ public class SiteReport extends Observable implements Serializable {
         return entropyReportList;
     }
 
+    public synchronized RandomnessCollector getRandomnessCollector() {
+        return randomnessCollector;
+    }
+
+    public synchronized void setRandomnessCollector(RandomnessCollector randomnessCollector) {
+        this.randomnessCollector = randomnessCollector;
+    }
+
     public synchronized void setEntropyReportList(List<EntropyReport> entropyReportList) {
         this.entropyReportList = entropyReportList;
     }
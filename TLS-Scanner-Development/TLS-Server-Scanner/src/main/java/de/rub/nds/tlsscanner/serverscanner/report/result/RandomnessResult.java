@@ -10,16 +10,25 @@
 package de.rub.nds.tlsscanner.serverscanner.report.result;
 
 import de.rub.nds.tlsscanner.serverscanner.constants.ProbeType;
+import de.rub.nds.tlsscanner.serverscanner.probe.stats.RandomnessCollector;
 import de.rub.nds.tlsscanner.serverscanner.report.SiteReport;
 
 public class RandomnessResult extends ProbeResult {
 
+    private final RandomnessCollector randomnessCollector;
+
     public RandomnessResult() {
+        this(null);
+    }
+
+    public RandomnessResult(RandomnessCollector randomnessCollector) {
         super(ProbeType.RANDOMNESS);
+        this.randomnessCollector = randomnessCollector;
     }
 
     @Override
     public void mergeData(SiteReport report) {
-        // Nothing to do here - all data analysis is done in the after probe
+        // The values are only analyzed in the after probe, together with the values of the other probes
+        report.setRandomnessCollector(randomnessCollector);
     }
 }
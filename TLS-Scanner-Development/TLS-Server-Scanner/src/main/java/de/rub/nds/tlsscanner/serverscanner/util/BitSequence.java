@@ -0,0 +1,340 @@
+/**
+ * TLS-Server-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.serverscanner.util;
+
+import java.util.Arrays;
+
+/**
+ * A growable sequence of bits packed into a {@code long[]}, used as input for the {@link StatisticalTests}. Bit
+ * {@code i} of the sequence is stored in word {@code i / 64}, most significant bit first, so appending bytes keeps
+ * their natural bit order. Compared to a String of '0' and '1' characters this needs one bit instead of 16 bits per
+ * input bit and allows counting ones and transitions with {@link Long#bitCount(long)}.
+ *
+ * Bytes can be appended at any time, for example whenever another handshake has been completed, and the tests can be
+ * run on the bits collected so far. This class is not thread safe.
+ */
+public class BitSequence {
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    private static final int BIT_INDEX_MASK = Long.SIZE - 1;
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private long[] words;
+
+    private int length;
+
+    public BitSequence() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity
+     *                        The number of bits that can be appended before the underlying array has to grow
+     */
+    public BitSequence(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("The initial capacity must not be negative");
+        }
+        words = new long[Math.max(1, wordIndex(initialCapacity - 1) + 1)];
+    }
+
+    public static BitSequence fromByteArray(byte[] bytes) {
+        BitSequence sequence = new BitSequence(bytes.length * Byte.SIZE);
+        sequence.append(bytes);
+        return sequence;
+    }
+
+    /**
+     * @param  bitString
+     *                   A String consisting only of '0' and '1' characters
+     * @return           The packed representation of the String
+     */
+    public static BitSequence fromBitString(String bitString) {
+        BitSequence sequence = new BitSequence(bitString.length());
+        for (int i = 0; i < bitString.length(); i++) {
+            char bit = bitString.charAt(i);
+            if (bit != '0' && bit != '1') {
+                throw new IllegalArgumentException("Bit strings may only contain '0' and '1', found '" + bit + "'");
+            }
+            sequence.appendBits(bit - '0', 1);
+        }
+        return sequence;
+    }
+
+    private static int wordIndex(int bitIndex) {
+        return bitIndex >> ADDRESS_BITS_PER_WORD;
+    }
+
+    /**
+     * Appends all bits of the given bytes, most significant bit first.
+     *
+     * @param  bytes
+     *               The bytes to append
+     * @return       This sequence
+     */
+    public BitSequence append(byte[] bytes) {
+        return append(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Appends all bits of the given range of bytes, most significant bit first.
+     *
+     * @param  bytes
+     *                The bytes to append
+     * @param  offset
+     *                The index of the first byte to append
+     * @param  count
+     *                The number of bytes to append
+     * @return        This sequence
+     */
+    public BitSequence append(byte[] bytes, int offset, int count) {
+        ensureCapacity(length + count * Byte.SIZE);
+        int end = offset + count;
+        int i = offset;
+        for (; i + Long.BYTES <= end; i += Long.BYTES) {
+            long word = 0;
+            for (int j = 0; j < Long.BYTES; j++) {
+                word = (word << Byte.SIZE) | (bytes[i + j] & 0xFFL);
+            }
+            appendBits(word, Long.SIZE);
+        }
+        for (; i < end; i++) {
+            appendBits(bytes[i] & 0xFFL, Byte.SIZE);
+        }
+        return this;
+    }
+
+    /**
+     * Appends the lowest count bits of the given value, most significant bit first.
+     */
+    private void appendBits(long bits, int count) {
+        ensureCapacity(length + count);
+        long aligned = count == Long.SIZE ? bits : bits << (Long.SIZE - count);
+        int wordIndex = wordIndex(length);
+        int offset = length & BIT_INDEX_MASK;
+        words[wordIndex] |= aligned >>> offset;
+        if (offset + count > Long.SIZE) {
+            words[wordIndex + 1] |= aligned << (Long.SIZE - offset);
+        }
+        length += count;
+    }
+
+    private void ensureCapacity(int bits) {
+        int requiredWords = wordIndex(bits - 1) + 1;
+        if (requiredWords > words.length) {
+            words = Arrays.copyOf(words, Math.max(requiredWords, words.length * 2));
+        }
+    }
+
+    /**
+     * @return The number of bits in this sequence
+     */
+    public int length() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public boolean get(int index) {
+        return getBit(index) == 1;
+    }
+
+    /**
+     * @param  index
+     *               The index of the bit
+     * @return       1 if the bit is set, 0 otherwise
+     */
+    public int getBit(int index) {
+        return (int) (words[wordIndex(index)] >>> (BIT_INDEX_MASK - (index & BIT_INDEX_MASK))) & 1;
+    }
+
+    /**
+     * Reads up to 64 consecutive bits as a number, the bit at fromIndex being the most significant one.
+     *
+     * @param  fromIndex
+     *                   The index of the first bit
+     * @param  count
+     *                   The number of bits to read, between 1 and 64
+     * @return           The bits in the lowest count bits of the result
+     */
+    public long getBits(int fromIndex, int count) {
+        int wordIndex = wordIndex(fromIndex);
+        int offset = fromIndex & BIT_INDEX_MASK;
+        long bits = words[wordIndex] << offset;
+        if (offset + count > Long.SIZE) {
+            bits |= words[wordIndex + 1] >>> (Long.SIZE - offset);
+        }
+        return count == Long.SIZE ? bits : bits >>> (Long.SIZE - count);
+    }
+
+    /**
+     * @return The number of ones in the whole sequence
+     */
+    public int countOnes() {
+        return countOnes(0, length);
+    }
+
+    /**
+     * @param  fromIndex
+     *                   The first bit to consider, inclusive
+     * @param  toIndex
+     *                   The last bit to consider, exclusive
+     * @return           The number of ones in the given range
+     */
+    public int countOnes(int fromIndex, int toIndex) {
+        if (fromIndex >= toIndex) {
+            return 0;
+        }
+        int firstWord = wordIndex(fromIndex);
+        int lastWord = wordIndex(toIndex - 1);
+        long firstMask = -1L >>> (fromIndex & BIT_INDEX_MASK);
+        long lastMask = -1L << (BIT_INDEX_MASK - ((toIndex - 1) & BIT_INDEX_MASK));
+        if (firstWord == lastWord) {
+            return Long.bitCount(words[firstWord] & firstMask & lastMask);
+        }
+        int ones = Long.bitCount(words[firstWord] & firstMask);
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            ones += Long.bitCount(words[i]);
+        }
+        return ones + Long.bitCount(words[lastWord] & lastMask);
+    }
+
+    /**
+     * @return The number of indices i in the sequence for which bit i differs from bit i - 1
+     */
+    public int countTransitions() {
+        if (length == 0) {
+            return 0;
+        }
+        int lastWord = wordIndex(length - 1);
+        // The first bit has no predecessor, so it is compared to itself
+        long previousBit = words[0] & Long.MIN_VALUE;
+        int transitions = 0;
+        for (int i = 0; i <= lastWord; i++) {
+            long word = words[i];
+            long differences = word ^ ((word >>> 1) | previousBit);
+            if (i == lastWord) {
+                differences &= -1L << (BIT_INDEX_MASK - ((length - 1) & BIT_INDEX_MASK));
+            }
+            transitions += Long.bitCount(differences);
+            previousBit = word << BIT_INDEX_MASK;
+        }
+        return transitions;
+    }
+
+    /**
+     * @return The index of the first set bit in [fromIndex, toIndex) or toIndex if there is none
+     */
+    public int nextSetBit(int fromIndex, int toIndex) {
+        return nextBit(fromIndex, toIndex, 0);
+    }
+
+    /**
+     * @return The index of the first cleared bit in [fromIndex, toIndex) or toIndex if there is none
+     */
+    public int nextClearBit(int fromIndex, int toIndex) {
+        return nextBit(fromIndex, toIndex, -1L);
+    }
+
+    private int nextBit(int fromIndex, int toIndex, long invert) {
+        if (fromIndex >= toIndex) {
+            return toIndex;
+        }
+        int wordIndex = wordIndex(fromIndex);
+        int lastWord = wordIndex(toIndex - 1);
+        long word = (words[wordIndex] ^ invert) & (-1L >>> (fromIndex & BIT_INDEX_MASK));
+        while (word == 0) {
+            if (++wordIndex > lastWord) {
+                return toIndex;
+            }
+            word = words[wordIndex] ^ invert;
+        }
+        return Math.min(toIndex, wordIndex * Long.SIZE + Long.numberOfLeadingZeros(word));
+    }
+
+    /**
+     * @param  fromIndex
+     *                   The first bit to consider, inclusive
+     * @param  toIndex
+     *                   The last bit to consider, exclusive
+     * @return           The length of the longest run of ones in the given range
+     */
+    public int longestRunOfOnes(int fromIndex, int toIndex) {
+        int longestRun = 0;
+        int index = fromIndex;
+        while (index < toIndex) {
+            int runStart = nextSetBit(index, toIndex);
+            if (runStart == toIndex) {
+                break;
+            }
+            int runEnd = nextClearBit(runStart, toIndex);
+            longestRun = Math.max(longestRun, runEnd - runStart);
+            index = runEnd;
+        }
+        return longestRun;
+    }
+
+    /**
+     * Counts the occurrences of all overlapping bit patterns of the given length, treating the sequence as cyclic, i.e.
+     * the patterns starting at the last patternLength - 1 bits continue with the first bits of the sequence.
+     *
+     * @param  patternLength
+     *                       The length of the patterns, between 0 and 30
+     * @return               An array of size 2^patternLength, which contains the number of occurrences of the pattern
+     *                       with value i at index i
+     */
+    public int[] countCyclicPatterns(int patternLength) {
+        if (patternLength < 0 || patternLength > 30) {
+            throw new IllegalArgumentException("The pattern length must be between 0 and 30");
+        }
+        int[] counts = new int[1 << patternLength];
+        if (length == 0) {
+            return counts;
+        }
+        if (patternLength == 0) {
+            counts[0] = length;
+            return counts;
+        }
+        int mask = counts.length - 1;
+        int pattern = 0;
+        for (int i = 0; i < patternLength - 1; i++) {
+            pattern = (pattern << 1) | getBit(i % length);
+        }
+        for (int i = 0; i < length; i++) {
+            int nextIndex = i + patternLength - 1;
+            if (nextIndex >= length) {
+                nextIndex %= length;
+            }
+            pattern = ((pattern << 1) | getBit(nextIndex)) & mask;
+            counts[pattern]++;
+        }
+        return counts;
+    }
+
+    /**
+     * @return The sequence as a String of '0' and '1' characters
+     */
+    public String toBitString() {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(get(i) ? '1' : '0');
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "BitSequence{length=" + length + "}";
+    }
+}
@@ -9,33 +9,88 @@
 
 package de.rub.nds.tlsscanner.serverscanner.util;
 
+/**
+ * Fisher's exact test for 2x2 contingency tables. All factorials are taken from the shared {@link LogFactorialTable}.
+ */
 public class FisherExactTest {
 
+    /**
+     * Relative tolerance used to decide whether a table is at most as likely as the observed one. This avoids that
+     * rounding errors exclude tables with the same probability.
+     */
+    private static final double RELATIVE_ERROR = 1 + 1e-7;
+
+    private FisherExactTest() {
+    }
+
+    /**
+     * Computes the two-sided p-value of the 2x2 table, that is the sum of the probabilities of all tables with the same
+     * margins which are at most as likely as the observed table.
+     *
+     * @param  inputAOutput1
+     *                       Number of times input A resulted in output 1
+     * @param  inputBOutput1
+     *                       Number of times input B resulted in output 1
+     * @param  inputAOutput2
+     *                       Number of times input A resulted in output 2
+     * @param  inputBOutput2
+     *                       Number of times input B resulted in output 2
+     * @return               The two-sided p-value
+     */
     public static double getPValue(int inputAOutput1, int inputBOutput1, int inputAOutput2, int inputBOutput2) {
-        return Math.pow(2, FisherExactTest.getLog2PValue(inputAOutput1, inputBOutput1, inputAOutput2, inputBOutput2));
+        int rowSum1 = inputAOutput1 + inputBOutput1;
+        int rowSum2 = inputAOutput2 + inputBOutput2;
+        int columnSumA = inputAOutput1 + inputAOutput2;
+        int n = rowSum1 + rowSum2;
+
+        double logDenominator = LogFactorialTable.logBinomial(n, columnSumA);
+        double observedLogProbability =
+            logTableProbability(rowSum1, rowSum2, columnSumA, inputAOutput1, logDenominator);
+        double threshold = observedLogProbability + Math.log(RELATIVE_ERROR);
+
+        int minimum = Math.max(0, columnSumA - rowSum2);
+        int maximum = Math.min(rowSum1, columnSumA);
+        double pValue = 0;
+        for (int x = minimum; x <= maximum; x++) {
+            double logProbability = logTableProbability(rowSum1, rowSum2, columnSumA, x, logDenominator);
+            if (logProbability <= threshold) {
+                pValue += Math.exp(logProbability);
+            }
+        }
+        return Math.min(1, pValue);
+    }
+
+    /**
+     * Computes the hypergeometric probability of exactly the observed 2x2 table. This was used as the p-value before
+     * the two-sided test was available.
+     *
+     * @param  inputAOutput1
+     *                       Number of times input A resulted in output 1
+     * @param  inputBOutput1
+     *                       Number of times input B resulted in output 1
+     * @param  inputAOutput2
+     *                       Number of times input A resulted in output 2
+     * @param  inputBOutput2
+     *                       Number of times input B resulted in output 2
+     * @return               The probability of the observed table
+     */
+    public static double getTableProbability(int inputAOutput1, int inputBOutput1, int inputAOutput2,
+        int inputBOutput2) {
+        return Math.pow(2, getLog2TableProbability(inputAOutput1, inputBOutput1, inputAOutput2, inputBOutput2));
     }
 
-    private static double getLog2PValue(int inputAOutput1, int inputBOutput1, int inputAOutput2, int inputBOutput2) {
-        int a = inputAOutput1;
-        int b = inputBOutput1;
-        int c = inputAOutput2;
-        int d = inputBOutput2;
+    private static double getLog2TableProbability(int a, int b, int c, int d) {
         int n = a + b + c + d;
-        double nominator = log2Factorial(a + b) + log2Factorial(c + d) + log2Factorial(a + c) + log2Factorial(b + d);
+        double nominator = LogFactorialTable.log2Factorial(a + b) + LogFactorialTable.log2Factorial(c + d)
+            + LogFactorialTable.log2Factorial(a + c) + LogFactorialTable.log2Factorial(b + d);
         double denominator =
-            log2Factorial(a) + log2Factorial(b) + log2Factorial(c) + log2Factorial(d) + log2Factorial(n);
+            LogFactorialTable.log2Factorial(a) + LogFactorialTable.log2Factorial(b) + LogFactorialTable.log2Factorial(c)
+                + LogFactorialTable.log2Factorial(d) + LogFactorialTable.log2Factorial(n);
         return nominator - denominator;
     }
 
-    private static double log2Factorial(int k) {
-        double res = 0;
-        for (int i = 2; i <= k; i++) {
-            res += log2(i);
-        }
-        return res;
-    }
-
-    private static double log2(int i) {
-        return Math.log(i) / Math.log(2);
+    private static double logTableProbability(int rowSum1, int rowSum2, int columnSumA, int x, double logDenominator) {
+        return LogFactorialTable.logBinomial(rowSum1, x) + LogFactorialTable.logBinomial(rowSum2, columnSumA - x)
+            - logDenominator;
     }
 }
@@ -0,0 +1,99 @@
+/**
+ * TLS-Server-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.serverscanner.util;
+
+import org.apache.commons.math3.special.Gamma;
+
+/**
+ * Process wide cache of ln(k!) values. The table grows on demand and is shared by all threads, so statistical tests
+ * evaluated over many vectors and response classes only pay for each factorial once.
+ */
+public class LogFactorialTable {
+
+    private static final int INITIAL_SIZE = 4096;
+
+    private static final double LN_2 = Math.log(2);
+
+    private static volatile double[] table = computeTable(new double[0], INITIAL_SIZE);
+
+    private LogFactorialTable() {
+    }
+
+    /**
+     * @param  k
+     *           Non-negative integer
+     * @return   ln(k!)
+     */
+    public static double logFactorial(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Factorial is not defined for negative numbers: " + k);
+        }
+        double[] currentTable = table;
+        if (k >= currentTable.length) {
+            currentTable = grow(k);
+        }
+        return currentTable[k];
+    }
+
+    /**
+     * @param  k
+     *           Non-negative integer
+     * @return   log2(k!)
+     */
+    public static double log2Factorial(int k) {
+        return logFactorial(k) / LN_2;
+    }
+
+    /**
+     * @param  n
+     *           Number of elements
+     * @param  k
+     *           Number of chosen elements
+     * @return   ln of the binomial coefficient (n choose k)
+     */
+    public static double logBinomial(int n, int k) {
+        return logFactorial(n) - logFactorial(k) - logFactorial(n - k);
+    }
+
+    /**
+     * Natural logarithm of the gamma function for arbitrary positive arguments. Integral arguments are served from the
+     * table since lgamma(k + 1) = ln(k!).
+     *
+     * @param  x
+     *           Positive argument
+     * @return   ln(Gamma(x))
+     */
+    public static double logGamma(double x) {
+        if (x >= 1 && x <= Integer.MAX_VALUE && x == Math.rint(x)) {
+            return logFactorial((int) x - 1);
+        }
+        return Gamma.logGamma(x);
+    }
+
+    private static synchronized double[] grow(int k) {
+        double[] currentTable = table;
+        if (k >= currentTable.length) {
+            int newSize = (int) Math.min(Integer.MAX_VALUE - 8L, Math.max(2L * currentTable.length, k + 1L));
+            currentTable = computeTable(currentTable, newSize);
+            table = currentTable;
+        }
+        return currentTable;
+    }
+
+    private static double[] computeTable(double[] oldTable, int size) {
+        double[] newTable = new double[size];
+        System.arraycopy(oldTable, 0, newTable, 0, oldTable.length);
+        int start = Math.max(1, oldTable.length);
+        for (int i = start; i < size; i++) {
+            newTable[i] = newTable[i - 1] + Math.log(i);
+        }
+        return newTable;
+    }
+}
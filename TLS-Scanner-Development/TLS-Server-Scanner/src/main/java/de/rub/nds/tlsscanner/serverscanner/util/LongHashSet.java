@@ -0,0 +1,119 @@
+/**
+ * TLS-Server-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.serverscanner.util;
+
+/**
+ * A set of primitive longs using open addressing with linear probing. Each element needs between 16 and 32 bytes of
+ * table space instead of the roughly 100 bytes of a boxed Long in a HashSet. This class is not thread safe.
+ */
+public class LongHashSet {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    // 0 marks empty slots, so it is tracked separately
+    private boolean containsZero = false;
+
+    private long[] table;
+
+    private int size = 0;
+
+    public LongHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize
+     *                     The number of elements that can be added before the table has to grow
+     */
+    public LongHashSet(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("The expected size must not be negative");
+        }
+        table = new long[tableSizeFor(expectedSize)];
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int tableSize = Integer.highestOneBit(Math.max(expectedSize, 1) * 2 - 1) * 2;
+        return Math.max(tableSize, 2);
+    }
+
+    private static int slot(long value, int mask) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * @param  value
+     *               The value to add
+     * @return       True if the value was not contained before
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int mask = table.length - 1;
+        int index = slot(value, mask);
+        while (table[index] != 0) {
+            if (table[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = value;
+        size++;
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == 0) {
+            return containsZero;
+        }
+        int mask = table.length - 1;
+        int index = slot(value, mask);
+        while (table[index] != 0) {
+            if (table[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    private void rehash(int newLength) {
+        long[] oldTable = table;
+        table = new long[newLength];
+        int mask = newLength - 1;
+        for (long value : oldTable) {
+            if (value != 0) {
+                int index = slot(value, mask);
+                while (table[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = value;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,207 @@
+/**
+ * TLS-Server-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.serverscanner.util;
+
+/**
+ * Collects random values one by one and keeps only what the {@link StatisticalTests} need, so the memory needed does
+ * not grow with the number of values.
+ *
+ * The monobit, block frequency and runs tests are computed from counts which are updated with every value, so they
+ * cover all values. Duplicates are detected with 64 bit fingerprints of the values, of which at most
+ * maximumTrackedValues are kept; later values are only compared to the tracked ones. The tests which need the bits
+ * themselves, like the discrete Fourier test, run on the sample, which holds the first maximumSampleBits bits. This
+ * class is not thread safe.
+ */
+public class RandomnessAccumulator {
+
+    public static final int DEFAULT_MAXIMUM_SAMPLE_BITS = 1 << 20;
+
+    public static final int DEFAULT_MAXIMUM_TRACKED_VALUES = 1 << 20;
+
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private final int blockLength;
+
+    private final int maximumSampleBits;
+
+    private final int maximumTrackedValues;
+
+    private final BitSequence sample;
+
+    private final LongHashSet fingerprints;
+
+    private int numberOfValues = 0;
+
+    private long numberOfBytes = 0;
+
+    private int numberOfDuplicates = 0;
+
+    private long length = 0;
+
+    private long ones = 0;
+
+    private long transitions = 0;
+
+    private int lastBit = 0;
+
+    private int onesInBlock = 0;
+
+    private int bitsInBlock = 0;
+
+    private long numberOfBlocks = 0;
+
+    private double squaredBlockDeviations = 0.0;
+
+    /**
+     * @param blockLength
+     *                    The block length of the block frequency test
+     */
+    public RandomnessAccumulator(int blockLength) {
+        this(blockLength, DEFAULT_MAXIMUM_SAMPLE_BITS, DEFAULT_MAXIMUM_TRACKED_VALUES);
+    }
+
+    /**
+     * @param blockLength
+     *                             The block length of the block frequency test
+     * @param maximumSampleBits
+     *                             The number of bits kept for the tests which need the bits themselves
+     * @param maximumTrackedValues
+     *                             The number of values whose fingerprints are kept to find duplicates
+     */
+    public RandomnessAccumulator(int blockLength, int maximumSampleBits, int maximumTrackedValues) {
+        if (blockLength < 1) {
+            throw new IllegalArgumentException("The block length must be positive");
+        }
+        this.blockLength = blockLength;
+        this.maximumSampleBits = maximumSampleBits;
+        this.maximumTrackedValues = maximumTrackedValues;
+        sample = new BitSequence();
+        fingerprints = new LongHashSet();
+    }
+
+    /**
+     * Adds all bits of the value to the counts and the value to the duplicate detection
+     *
+     * @param value
+     *              The random value
+     */
+    public void add(byte[] value) {
+        numberOfValues++;
+        numberOfBytes += value.length;
+        long fingerprint = fingerprint(value);
+        if (fingerprints.size() < maximumTrackedValues) {
+            if (!fingerprints.add(fingerprint)) {
+                numberOfDuplicates++;
+            }
+        } else if (fingerprints.contains(fingerprint)) {
+            numberOfDuplicates++;
+        }
+        int sampleBytes = Math.min(value.length, (maximumSampleBits - sample.length()) / Byte.SIZE);
+        if (sampleBytes > 0) {
+            sample.append(value, 0, sampleBytes);
+        }
+        for (byte b : value) {
+            for (int i = Byte.SIZE - 1; i >= 0; i--) {
+                addBit((b >>> i) & 1);
+            }
+        }
+    }
+
+    private void addBit(int bit) {
+        if (length > 0 && bit != lastBit) {
+            transitions++;
+        }
+        lastBit = bit;
+        length++;
+        ones += bit;
+        onesInBlock += bit;
+        bitsInBlock++;
+        if (bitsInBlock == blockLength) {
+            squaredBlockDeviations += StatisticalTests.squaredBlockDeviation(onesInBlock, blockLength);
+            numberOfBlocks++;
+            onesInBlock = 0;
+            bitsInBlock = 0;
+        }
+    }
+
+    /**
+     * FNV-1a over the length and the bytes of the value, followed by the finalizer of MurmurHash3 to spread the bits
+     */
+    private static long fingerprint(byte[] value) {
+        long hash = (FNV_OFFSET_BASIS ^ value.length) * FNV_PRIME;
+        for (byte b : value) {
+            hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    public int getNumberOfValues() {
+        return numberOfValues;
+    }
+
+    public long getNumberOfBytes() {
+        return numberOfBytes;
+    }
+
+    public int getNumberOfDuplicates() {
+        return numberOfDuplicates;
+    }
+
+    /**
+     * @return The number of bits of all values
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * @return The first bits of the values, for the tests which can not be computed from counts
+     */
+    public BitSequence getSample() {
+        return sample;
+    }
+
+    /**
+     * @return True if the sample does not contain all bits
+     */
+    public boolean isSampleTruncated() {
+        return sample.length() < length;
+    }
+
+    /**
+     * @return The P-Value of the frequency test with blockLength 1 over all bits
+     */
+    public double monobitTest() {
+        return StatisticalTests.monobitTest(ones, length);
+    }
+
+    /**
+     * @return The P-Value of the frequency test with the block length of this accumulator over all bits
+     */
+    public double blockFrequencyTest() {
+        if (length == 0) {
+            return 0.0;
+        }
+        return StatisticalTests.blockFrequencyTest(squaredBlockDeviations, numberOfBlocks, blockLength);
+    }
+
+    /**
+     * @return The P-Value of the runs test over all bits
+     */
+    public double runsTest() {
+        return StatisticalTests.runsTest(ones, transitions, length);
+    }
+}
@@ -10,25 +10,36 @@
 package de.rub.nds.tlsscanner.serverscanner.util;
 
 import de.rub.nds.tlsscanner.serverscanner.constants.RandomnessConstants;
-import org.apache.commons.lang3.ArrayUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.math3.distribution.NormalDistribution;
 import org.apache.commons.math3.special.Gamma;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 import static java.lang.Math.*;
 import static org.apache.commons.math3.special.Erf.erfc;
 import org.jtransforms.fft.DoubleFFT_1D;
 
+/**
+ * Statistical tests from NIST SP 800-22. All tests operate on a {@link BitSequence}, the overloads for byte arrays and
+ * bit strings convert their input into one first. Collected values can thus be appended to a {@link BitSequence} as
+ * they arrive and tested without building a String of '0' and '1' characters.
+ */
 public class StatisticalTests {
 
     private static final Logger LOGGER = LogManager.getLogger();
 
+    /**
+     * The templates of {@link RandomnessConstants#TEMPLATE_NINE} as numbers, the first bit being the most significant
+     * one
+     */
+    private static final int[] TEMPLATE_NINE_VALUES = new int[RandomnessConstants.TEMPLATE_NINE.length];
+
+    static {
+        for (int i = 0; i < TEMPLATE_NINE_VALUES.length; i++) {
+            TEMPLATE_NINE_VALUES[i] = Integer.parseInt(RandomnessConstants.TEMPLATE_NINE[i][0], 2);
+        }
+    }
+
     /**
      * Test checking for increasing cumulative sums when mapping 0 to -1 and 1, comparing the results to the
      * expectation.
@@ -40,8 +51,7 @@ public class StatisticalTests {
      * @return              P-Value of the test
      */
     public static Double cumuluativeSumTest(byte[] byteSequence, boolean forwardMode) {
-        String bitString = byteArrayToBitString(byteSequence);
-        return cumuluativeSumTest(bitString, forwardMode);
+        return cumuluativeSumTest(BitSequence.fromByteArray(byteSequence), forwardMode);
     }
 
     /**
@@ -55,35 +65,39 @@ public class StatisticalTests {
      * @return             P-Value of the test
      */
     public static Double cumuluativeSumTest(String bitString, boolean forwardMode) {
+        return cumuluativeSumTest(BitSequence.fromBitString(bitString), forwardMode);
+    }
+
+    /**
+     * Test checking for increasing cumulative sums when mapping 0 to -1 and 1, comparing the results to the
+     * expectation.
+     *
+     * @param  bits
+     *                     The random bit sequence
+     * @param  forwardMode
+     *                     TRUE if forward-mode should be used, FALSE if backwards-mode should be used
+     * @return             P-Value of the test
+     */
+    public static Double cumuluativeSumTest(BitSequence bits, boolean forwardMode) {
         double pValue;
+        int length = bits.length();
 
-        if (bitString.length() == 0) {
+        if (length == 0) {
             return 0.0;
         }
 
-        int[] convertedSequence = new int[bitString.length()];
-
-        // Convert 0 to -1 and 1 to +1
-        for (int i = 0; i < bitString.length(); i++) {
-            convertedSequence[i] = 2 * Character.getNumericValue(bitString.charAt(i)) - 1;
-        }
-
-        if (!forwardMode) {
-            ArrayUtils.reverse(convertedSequence);
+        // Convert 0 to -1 and 1 to +1 and keep track of the extreme partial
+        // sums
+        int cuSum = 0;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < length; i++) {
+            int index = forwardMode ? i : length - 1 - i;
+            cuSum = cuSum + 2 * bits.getBit(index) - 1;
+            min = Math.min(min, cuSum);
+            max = Math.max(max, cuSum);
         }
 
-        int cuSums[] = new int[bitString.length()];
-
-        for (int i = 0; i < bitString.length(); i++) {
-            for (int j = 0; j < i + 1; j++) {
-                cuSums[i] = cuSums[i] + convertedSequence[j];
-            }
-        }
-
-        IntSummaryStatistics stat = Arrays.stream(cuSums).summaryStatistics();
-        int min = stat.getMin();
-        int max = stat.getMax();
-
         int z;
 
         if (abs(min) > max) {
@@ -97,20 +111,20 @@ public class StatisticalTests {
         double probSum1 = 0.0;
         double probSum2 = 0.0;
 
-        int sumStart = ((-bitString.length() / z) + 1) / 4;
-        int sumEnd = ((bitString.length() / z) - 1) / 4;
+        int sumStart = ((-length / z) + 1) / 4;
+        int sumEnd = ((length / z) - 1) / 4;
 
         for (int i = sumStart; i < sumEnd + 1; i++) {
-            probSum1 = probSum1 + dst.cumulativeProbability(((4 * i + 1) * z) / sqrt(bitString.length()));
-            probSum1 = probSum1 - dst.cumulativeProbability(((4 * i - 1) * z) / sqrt(bitString.length()));
+            probSum1 = probSum1 + dst.cumulativeProbability(((4 * i + 1) * z) / sqrt(length));
+            probSum1 = probSum1 - dst.cumulativeProbability(((4 * i - 1) * z) / sqrt(length));
         }
 
-        sumStart = ((-bitString.length() / z) - 3) / 4;
-        sumEnd = ((bitString.length() / z) - 1) / 4;
+        sumStart = ((-length / z) - 3) / 4;
+        sumEnd = ((length / z) - 1) / 4;
 
         for (int i = sumStart; i < sumEnd + 1; i++) {
-            probSum2 = probSum2 + dst.cumulativeProbability(((4 * i + 3) * z) / sqrt(bitString.length()));
-            probSum2 = probSum2 - dst.cumulativeProbability(((4 * i + 1) * z) / sqrt(bitString.length()));
+            probSum2 = probSum2 + dst.cumulativeProbability(((4 * i + 3) * z) / sqrt(length));
+            probSum2 = probSum2 - dst.cumulativeProbability(((4 * i + 1) * z) / sqrt(length));
         }
 
         pValue = 1 - probSum1 + probSum2;
@@ -129,8 +143,7 @@ public class StatisticalTests {
      * @return              P-Value of the test
      */
     public static Double approximateEntropyTest(byte[] byteSequence, int blockLength) {
-        String bitString = byteArrayToBitString(byteSequence);
-        return approximateEntropyTest(bitString, blockLength);
+        return approximateEntropyTest(BitSequence.fromByteArray(byteSequence), blockLength);
     }
 
     /**
@@ -144,55 +157,54 @@ public class StatisticalTests {
      * @return             P-Value of the test
      */
     public static Double approximateEntropyTest(String bitString, int blockLength) {
+        return approximateEntropyTest(BitSequence.fromBitString(bitString), blockLength);
+    }
+
+    /**
+     * * Test to check the frequency of all possible bit-patterns of size blockLength, comparing them to the
+     * expectation.
+     *
+     * @param  bits
+     *                     The random bit sequence
+     * @param  blockLength
+     *                     length of bit-patterns to check
+     * @return             P-Value of the test
+     */
+    public static Double approximateEntropyTest(BitSequence bits, int blockLength) {
         // TODO: Select m and n such that m < log_2)(n) - 5
         // TODO: ie. for 1096 recommend is blockLength of 5
         // TODO: currently set to the value best fit for the expected amount of
         // bytes of a scan.
         double pValue;
+        int length = bits.length();
 
-        if (bitString.length() == 0) {
+        if (length == 0) {
             return 0.0;
         }
 
-        String extendedSequence = bitString + bitString.substring(0, blockLength - 1);
-        String extendedSecondSequence = bitString + bitString.substring(0, blockLength);
-
         // Round 1
-        String[] mBitSequence = generateAllBitStrings(blockLength);
-        int[] mBitSequenceCount = new int[mBitSequence.length];
+        int[] mBitSequenceCount = bits.countCyclicPatterns(blockLength);
         double phi = 0.0;
 
-        for (int i = 0; i < bitString.length(); i++) {
-            int index = ArrayUtils.indexOf(mBitSequence, extendedSequence.substring(i, i + blockLength));
-            mBitSequenceCount[index]++;
-        }
-
-        for (int i = 0; i < mBitSequence.length; i++) {
+        for (int i = 0; i < mBitSequenceCount.length; i++) {
             if (mBitSequenceCount[i] > 0) {
-                double proportion = (double) mBitSequenceCount[i] / bitString.length();
+                double proportion = (double) mBitSequenceCount[i] / length;
                 phi = phi + (proportion) * log(proportion);
             }
         }
 
         // Round 2
-        String[] mPlusOneBitSequence = generateAllBitStrings(blockLength + 1);
-        int[] mPlusOneBitCount = new int[mPlusOneBitSequence.length];
+        int[] mPlusOneBitCount = bits.countCyclicPatterns(blockLength + 1);
         double phiTwo = 0.0;
 
-        for (int i = 0; i < bitString.length(); i++) {
-            int index =
-                ArrayUtils.indexOf(mPlusOneBitSequence, extendedSecondSequence.substring(i, i + blockLength + 1));
-            mPlusOneBitCount[index]++;
-        }
-
-        for (int i = 0; i < mPlusOneBitSequence.length; i++) {
+        for (int i = 0; i < mPlusOneBitCount.length; i++) {
             if (mPlusOneBitCount[i] > 0) {
-                double proportion = (double) mPlusOneBitCount[i] / bitString.length();
+                double proportion = (double) mPlusOneBitCount[i] / length;
                 phiTwo = phiTwo + (proportion) * log(proportion);
             }
         }
 
-        double chiSquare = 2.0 * bitString.length() * (log(2) - (phi - phiTwo));
+        double chiSquare = 2.0 * length * (log(2) - (phi - phiTwo));
         pValue = Gamma.regularizedGammaQ(pow(2, blockLength - 1), chiSquare / 2.0);
 
         return pValue;
@@ -209,8 +221,7 @@ public class StatisticalTests {
      * @return              P-Value of the test
      */
     public static Double serialTest(byte[] byteSequence, int blockLength) {
-        String bitString = byteArrayToBitString(byteSequence);
-        return serialTest(bitString, blockLength);
+        return serialTest(BitSequence.fromByteArray(byteSequence), blockLength);
     }
 
     /**
@@ -224,80 +235,58 @@ public class StatisticalTests {
      * @return             P-Value of the test
      */
     public static Double serialTest(String bitString, int blockLength) {
+        return serialTest(BitSequence.fromBitString(bitString), blockLength);
+    }
+
+    /**
+     * * Test to check the frequency of all possible overlapping bit patterns of length blockLength, checking it against
+     * the expectation.
+     *
+     * @param  bits
+     *                     The random bit sequence
+     * @param  blockLength
+     *                     length of bit-patterns to check
+     * @return             P-Value of the test
+     */
+    public static Double serialTest(BitSequence bits, int blockLength) {
         double pValue;
+        int length = bits.length();
 
-        if (bitString.length() == 0) {
+        if (length == 0) {
             return 0.0;
         }
 
-        // Extend the input sequence by appending beginning bits to the end of
-        // the full sequence
-        String extendedFullSequence = bitString + bitString.substring(0, blockLength - 1);
-        String extendedFullSequenceMinusOne = bitString + bitString.substring(0, blockLength - 2);
-        String extendedFullSequenceMinusTwo = bitString + bitString.substring(0, blockLength - 3);
-
         // Determine frequency of all possible overlapping blockLength bit
         // blocks, all possible blockLength-1 bit blocks
-        // all possible overlapping blockLength-2 bit blocks.
-        String[] blockLengthBlocks = generateAllBitStrings(blockLength);
-        int[] blockOccurrence = new int[blockLengthBlocks.length];
+        // all possible overlapping blockLength-2 bit blocks. The sequence is
+        // extended by appending beginning bits to the end of the full
+        // sequence.
         // TODO: IMPLEMENT CHECK FOR BLOCKLENGTH-1 <= 0 !
-        String[] blockLengthMinusOneBlocks = generateAllBitStrings(blockLength - 1);
-        int[] blockOccurrenceMinusOne = new int[blockLengthMinusOneBlocks.length];
-        String[] blockLengthMinusTwoBlocks = generateAllBitStrings(blockLength - 2);
-        int[] blockOccurrenceMinusTwo = new int[blockLengthMinusTwoBlocks.length];
-
-        // one for loop through the full sequence
-        for (int currentIndex = 0; currentIndex < bitString.length(); currentIndex++) {
-            // Find sequence in array and add to count of that particular bit
-            // string
-            // through blockLengthBlocks?
-            String compareString = extendedFullSequence.substring(currentIndex, blockLength + currentIndex);
-            for (int i = 0; i < blockLengthBlocks.length; i++) {
-                if (compareString.equals(blockLengthBlocks[i])) {
-                    blockOccurrence[i]++;
-                    break;
-                }
-            }
-
-            compareString = extendedFullSequenceMinusOne.substring(currentIndex, blockLength + currentIndex - 1);
-            for (int i = 0; i < blockLengthMinusOneBlocks.length; i++) {
-                if (compareString.equals(blockLengthMinusOneBlocks[i])) {
-                    blockOccurrenceMinusOne[i]++;
-                    break;
-                }
-            }
-
-            compareString = extendedFullSequenceMinusTwo.substring(currentIndex, blockLength + currentIndex - 2);
-            for (int i = 0; i < blockLengthMinusTwoBlocks.length; i++) {
-                if (compareString.equals(blockLengthMinusTwoBlocks[i])) {
-                    blockOccurrenceMinusTwo[i]++;
-                    break;
-                }
-            }
-        }
+        int[] blockOccurrence = bits.countCyclicPatterns(blockLength);
+        int[] blockOccurrenceMinusOne = bits.countCyclicPatterns(blockLength - 1);
+        int[] blockOccurrenceMinusTwo = bits.countCyclicPatterns(blockLength - 2);
 
         double psi = 0.0;
         double psiMinusOne = 0.0;
         double psiMinusTwo = 0.0;
 
-        for (int i = 0; i < blockLengthBlocks.length; i++) {
+        for (int i = 0; i < blockOccurrence.length; i++) {
             psi = psi + pow(blockOccurrence[i], 2);
         }
 
-        psi = pow(2, blockLength) / ((double) bitString.length()) * psi - bitString.length();
+        psi = pow(2, blockLength) / ((double) length) * psi - length;
 
-        for (int i = 0; i < blockLengthMinusOneBlocks.length; i++) {
+        for (int i = 0; i < blockOccurrenceMinusOne.length; i++) {
             psiMinusOne = psiMinusOne + pow(blockOccurrenceMinusOne[i], 2);
         }
 
-        psiMinusOne = pow(2, blockLength - 1) / ((double) bitString.length()) * psiMinusOne - bitString.length();
+        psiMinusOne = pow(2, blockLength - 1) / ((double) length) * psiMinusOne - length;
 
-        for (int i = 0; i < blockLengthMinusTwoBlocks.length; i++) {
+        for (int i = 0; i < blockOccurrenceMinusTwo.length; i++) {
             psiMinusTwo = psiMinusTwo + pow(blockOccurrenceMinusTwo[i], 2);
         }
 
-        psiMinusTwo = pow(2, blockLength - 2) / ((double) bitString.length()) * psiMinusTwo - bitString.length();
+        psiMinusTwo = pow(2, blockLength - 2) / ((double) length) * psiMinusTwo - length;
 
         double delta = psi - psiMinusOne;
         double deltaSquared = psi - 2.0 * psiMinusOne + psiMinusTwo;
@@ -333,8 +322,7 @@ public class StatisticalTests {
      * @return                 The ratio of failed tests to number of tests
      */
     public static Double nonOverlappingTemplateTest(byte[] byteSequence, int templateSize, double minimum_p_value) {
-        String bitString = byteArrayToBitString(byteSequence);
-        return nonOverlappingTemplateTest(bitString, templateSize, minimum_p_value);
+        return nonOverlappingTemplateTest(BitSequence.fromByteArray(byteSequence), templateSize, minimum_p_value);
     }
 
     /**
@@ -351,6 +339,23 @@ public class StatisticalTests {
      * @return                 The ratio of failed tests to number of tests
      */
     public static Double nonOverlappingTemplateTest(String bitString, int templateSize, double minimum_p_value) {
+        return nonOverlappingTemplateTest(BitSequence.fromBitString(bitString), templateSize, minimum_p_value);
+    }
+
+    /**
+     * * Divides the bit sequence into 8 blocks and examines the blocks via a window of templateSize and counts the
+     * occurrences of pre-defined templates and compares it to the theoretical mean and variance.This is used to detect
+     * non-periodic patterns in the generated sequence. Note, that frequencyTest etc. should be executed before this, as
+     * a sequence consisting of only 1's would pass this test with a good p-value.
+     *
+     * @param  bits
+     *                         The random bit sequence
+     * @param  templateSize
+     *                         The size of the templates which are examined for (NOTE: ONLY "9" CURRENTLY SUPPORTED)
+     * @param  minimum_p_value
+     * @return                 The ratio of failed tests to number of tests
+     */
+    public static Double nonOverlappingTemplateTest(BitSequence bits, int templateSize, double minimum_p_value) {
         int NUMBER_OF_BLOCKS = 8;
         int failedTests = 0;
         double fisherSum = 0.0;
@@ -361,12 +366,12 @@ public class StatisticalTests {
             return 0.0;
         }
 
-        if (bitString.length() == 0) {
+        if (bits.isEmpty()) {
             return 0.0;
         }
 
         // fixed to 8 for this test
-        int blockSize = bitString.length() / NUMBER_OF_BLOCKS;
+        int blockSize = bits.length() / NUMBER_OF_BLOCKS;
 
         // μ = (M-m+1)/2^m
         double theoMean = (blockSize - templateSize + 1.0) / pow(2, templateSize);
@@ -374,19 +379,17 @@ public class StatisticalTests {
         double theoVar =
             blockSize * ((1.0 / pow(2, templateSize)) - (2.0 * templateSize - 1.0) / pow(2, 2.0 * templateSize));
 
-        for (int currentTemplate = 0; currentTemplate < RandomnessConstants.TEMPLATE_NINE.length; currentTemplate++) {
+        for (int currentTemplate = 0; currentTemplate < TEMPLATE_NINE_VALUES.length; currentTemplate++) {
             int[] templateCount = new int[NUMBER_OF_BLOCKS];
-            Matcher m = Pattern.compile(".{1," + blockSize + "}").matcher(bitString);
 
             for (int i = 0; i < NUMBER_OF_BLOCKS; i++) {
-                String currentBlock = m.find() ? bitString.substring(m.start(), m.end()) : "";
-                int currentIndex = 0;
+                int blockEnd = (i + 1) * blockSize;
+                int currentIndex = i * blockSize;
                 int currentTemplateCount = 0;
                 // Check for template until the window reaches the end of the
                 // block
-                while (currentIndex <= (currentBlock.length() - templateSize)) {
-                    String window = currentBlock.substring(currentIndex, currentIndex + templateSize);
-                    if (window.equals(RandomnessConstants.TEMPLATE_NINE[currentTemplate][0])) {
+                while (currentIndex <= (blockEnd - templateSize)) {
+                    if (bits.getBits(currentIndex, templateSize) == TEMPLATE_NINE_VALUES[currentTemplate]) {
                         currentTemplateCount++;
                         currentIndex = currentIndex + templateSize;
                     } else {
@@ -430,11 +433,6 @@ public class StatisticalTests {
         LOGGER.debug("Failed Tests : " + failedTests);
 
         double failurePercent = (double) failedTests / RandomnessConstants.TEMPLATE_NINE.length;
-        // Use 0 and 1 to represent False and True to use the Map
-        double testPassed = 0;
-        if (pValue >= minimum_p_value) {
-            testPassed = 1;
-        }
         return failurePercent;
     }
 
@@ -450,8 +448,7 @@ public class StatisticalTests {
      * @return              p values of the experiment
      */
     public static Double discreteFourierTest(byte[] byteSequence) {
-        String bitString = byteArrayToBitString(byteSequence);
-        return discreteFourierTest(bitString);
+        return discreteFourierTest(BitSequence.fromByteArray(byteSequence));
     }
 
     /**
@@ -466,7 +463,19 @@ public class StatisticalTests {
      * @return           p values of the experiment
      */
     public static Double discreteFourierTest(String bitString) {
-        int n = bitString.length();
+        return discreteFourierTest(BitSequence.fromBitString(bitString));
+    }
+
+    /**
+     * * Test which uses the discrete Fourier Transformation to detect periodic features of the sequence which would
+     * indicate a deviation from assumed randomness. Recommended input size is 1000 bits.
+     *
+     * @param  bits
+     *              The random bit sequence
+     * @return      p values of the experiment
+     */
+    public static Double discreteFourierTest(BitSequence bits) {
+        int n = bits.length();
 
         if (n == 0) {
             LOGGER.debug("Only Sequences longer than 0 are allowed.");
@@ -484,8 +493,7 @@ public class StatisticalTests {
         int i, count;
 
         for (i = 0; i < n; i++) {
-            X[i] = 2 * Character.getNumericValue(bitString.charAt(i)) - 1;
-
+            X[i] = 2 * bits.getBit(i) - 1;
         }
 
         DoubleFFT_1D fft = new DoubleFFT_1D(n);
@@ -528,8 +536,7 @@ public class StatisticalTests {
      * @return              p values of the experiment
      */
     public static Double longestRunWithinBlock(byte[] byteSequence, int blockLength) {
-        String bitString = byteArrayToBitString(byteSequence);
-        return longestRunWithinBlock(bitString, blockLength);
+        return longestRunWithinBlock(BitSequence.fromByteArray(byteSequence), blockLength);
     }
 
     /**
@@ -543,31 +550,46 @@ public class StatisticalTests {
      * @return             p values of the experiment
      */
     public static Double longestRunWithinBlock(String bitString, int blockLength) {
+        return longestRunWithinBlock(BitSequence.fromBitString(bitString), blockLength);
+    }
+
+    /**
+     * * Divides the bit sequence into blocks of size blockLength and counts the longest run of 1's in those blocks. The
+     * found number of longest runs are then compared to the expected number of longest runs.
+     *
+     * @param  bits
+     *                     The random bit sequence
+     * @param  blockLength
+     *                     The size of the blocks subdividing the sequence. Allowed values are 8, 128 and 10^4
+     * @return             p values of the experiment
+     */
+    public static Double longestRunWithinBlock(BitSequence bits, int blockLength) {
         double pValue = 0.0;
         short category = -1;
         double chiSquareFit = 0.0;
+        int length = bits.length();
 
-        if (bitString.length() == 0) {
+        if (length == 0) {
             return 0.0;
         }
 
         if (blockLength == RandomnessConstants.LONGEST_RUN_VALUES[0][0]) {
             category = 0;
-            if (bitString.length() < 128) {
+            if (length < 128) {
                 LOGGER.debug("Sequence is too short for this block size");
                 return pValue;
             }
         }
         if (blockLength == RandomnessConstants.LONGEST_RUN_VALUES[1][0]) {
             category = 1;
-            if (bitString.length() < 6272) {
+            if (length < 6272) {
                 LOGGER.debug("Sequence is too short for this block size");
                 return pValue;
             }
         }
         if (blockLength == RandomnessConstants.LONGEST_RUN_VALUES[2][0]) {
             category = 2;
-            if (bitString.length() < 750000) {
+            if (length < 750000) {
                 LOGGER.debug("Sequence is too short for this block size");
                 return pValue;
             }
@@ -578,93 +600,61 @@ public class StatisticalTests {
             return pValue;
         }
 
-        if (!bitString.isEmpty()) {
-
-            // Discard trailing bits
-            Integer numberOfBlocks = (int) floor(bitString.length() / blockLength);
-            int[] runInBlock = new int[numberOfBlocks];
-            List<Integer> distinctLengths = new ArrayList<Integer>();
-
-            // Create Regex-Matcher, which splits the fullSequence into blocks
-            // of length numberOfBlocks
-            Matcher m = Pattern.compile(".{1," + blockLength + "}").matcher(bitString);
+        // Discard trailing bits
+        int numberOfBlocks = length / blockLength;
+        int[] runInBlock = new int[numberOfBlocks];
 
-            for (int i = 0; i < numberOfBlocks; i++) {
-                String currentBlock = m.find() ? bitString.substring(m.start(), m.end()) : "";
-                int longestRun = 0;
-                int runCounter = 0;
+        for (int i = 0; i < numberOfBlocks; i++) {
+            runInBlock[i] = bits.longestRunOfOnes(i * blockLength, (i + 1) * blockLength);
+        }
 
-                for (int j = 0; j < blockLength; j++) {
-                    if (currentBlock.charAt(j) == '1') {
-                        runCounter++;
-                        longestRun = Math.max(longestRun, runCounter);
-                    } else {
-                        runCounter = 0;
-                    }
-                }
+        // Count how many runs of certain length appear in blocks
+        int k = RandomnessConstants.LONGEST_RUN_VALUES[category][1];
+        int[][] categoryCount = new int[k + 1][2];
+        for (int i = 0; i <= k; i++) {
+            categoryCount[i][0] = RandomnessConstants.LONGEST_RUN_EXPECTATION[category][i];
+            categoryCount[i][1] = 0;
+        }
 
-                // Take note of distinct longest run lengths
-                if (!distinctLengths.contains(longestRun)) {
-                    distinctLengths.add(longestRun);
-                }
-                runInBlock[i] = longestRun;
+        for (int runLength : runInBlock) {
+            if (runLength <= categoryCount[0][0]) {
+                categoryCount[0][1]++;
+                continue;
             }
-
-            // Count how many runs of certain length appear in blocks
-            int k = RandomnessConstants.LONGEST_RUN_VALUES[category][1];
-            int[][] categoryCount = new int[k + 1][2];
-            for (int i = 0; i <= k; i++) {
-                categoryCount[i][0] = RandomnessConstants.LONGEST_RUN_EXPECTATION[category][i];
-                categoryCount[i][1] = 0;
+            if (runLength >= categoryCount[k][0]) {
+                categoryCount[k][1]++;
+                continue;
             }
-
-            for (int length : runInBlock) {
-                if (length <= categoryCount[0][0]) {
-                    categoryCount[0][1]++;
-                    continue;
-                }
-                if (length >= categoryCount[k][0]) {
-                    categoryCount[k][1]++;
-                    continue;
-                }
-                for (int searchIndex = 0; searchIndex < k; searchIndex++) {
-                    if (categoryCount[searchIndex][0] == length) {
-                        categoryCount[searchIndex][1]++;
-                        continue;
-                    }
+            for (int searchIndex = 0; searchIndex < k; searchIndex++) {
+                if (categoryCount[searchIndex][0] == runLength) {
+                    categoryCount[searchIndex][1]++;
                 }
             }
+        }
 
-            // Chi-square fitting
-            double[] categoryProbabilities = RandomnessConstants.LONGEST_RUN_PROBABILITIES[category];
-            int[] categoryExpectation = RandomnessConstants.LONGEST_RUN_EXPECTATION[category];
-            double numerator;
-            double denominator;
-            int currentCountIndex = 0;
-
-            // Exclude first (already processed) and last categoryValue (those
-            // are special cases)
-            for (int i = 0; i <= k; i++) {
-                int occurrences = 0;
-                // Start at currentCountIndex, which is the first value greater
-                // than categoryExpectation[0]
-                for (int j = currentCountIndex; j < categoryCount.length; j++) {
-                    if (categoryCount[j][0] == categoryExpectation[i]) {
-                        occurrences = categoryCount[j][1];
-                        break;
-                    }
-                }
-                numerator = pow((double) occurrences - (double) numberOfBlocks * categoryProbabilities[i], 2);
-                denominator = numberOfBlocks * categoryProbabilities[i];
-                chiSquareFit = chiSquareFit + (numerator / denominator);
+        // Chi-square fitting
+        double[] categoryProbabilities = RandomnessConstants.LONGEST_RUN_PROBABILITIES[category];
+        int[] categoryExpectation = RandomnessConstants.LONGEST_RUN_EXPECTATION[category];
+        double numerator;
+        double denominator;
 
+        for (int i = 0; i <= k; i++) {
+            int occurrences = 0;
+            for (int j = 0; j < categoryCount.length; j++) {
+                if (categoryCount[j][0] == categoryExpectation[i]) {
+                    occurrences = categoryCount[j][1];
+                    break;
+                }
             }
+            numerator = pow((double) occurrences - (double) numberOfBlocks * categoryProbabilities[i], 2);
+            denominator = numberOfBlocks * categoryProbabilities[i];
+            chiSquareFit = chiSquareFit + (numerator / denominator);
+        }
 
-            double a = (double) k / (double) 2;
-            double x = chiSquareFit / (double) 2;
+        double a = (double) k / (double) 2;
+        double x = chiSquareFit / (double) 2;
 
-            pValue = Gamma.regularizedGammaQ(a, x);
-        }
+        pValue = Gamma.regularizedGammaQ(a, x);
 
         return pValue;
     }
@@ -680,8 +670,7 @@ public class StatisticalTests {
      * @return              The P-Value resulting from the Test.
      */
     public static Double runsTest(byte[] byteSequence) {
-        String bitString = byteArrayToBitString(byteSequence);
-        return runsTest(bitString);
+        return runsTest(BitSequence.fromByteArray(byteSequence));
     }
 
     /**
@@ -695,32 +684,53 @@ public class StatisticalTests {
      * @return           The P-Value resulting from the Test.
      */
     public static Double runsTest(String bitString) {
+        return runsTest(BitSequence.fromBitString(bitString));
+    }
+
+    /**
+     * * This Test inspects the total number of runs in a sequence, i.e. the uninterrupted sequences of identical bits.
+     * The purpose of this test is to determine whether the number of runs of ones and zeroes are as expected as from
+     * random sequences. NOTE: This test requires frequencyTest to be ran beforehand! Recommended Input Size is 100
+     * bits. For cryptographic applications the P-Value should be > 0.01.
+     *
+     * @param  bits
+     *              The sequence of random bits to be inspected.
+     * @return      The P-Value resulting from the Test.
+     */
+    public static Double runsTest(BitSequence bits) {
+        return runsTest(bits.countOnes(), bits.countTransitions(), bits.length());
+    }
+
+    /**
+     * * Runs test computed from counts, so the counts can be updated while the bits are collected instead of keeping
+     * all bits.
+     *
+     * @param  ones
+     *                     The number of ones in the sequence
+     * @param  transitions
+     *                     The number of bits which differ from their predecessor
+     * @param  length
+     *                     The length of the sequence
+     * @return             The P-Value resulting from the Test.
+     */
+    public static Double runsTest(long ones, long transitions, long length) {
         double pValue = 0.0;
 
-        int occurences = 0;
         double proportion = 0.0;
 
         // Run First frequencyTest! If frequencyTest has failed, this Test does
         // not have to be run.
-        if (!bitString.isEmpty()) {
+        if (length > 0) {
 
-            occurences = StringUtils.countMatches(bitString, "1");
-            proportion = (double) occurences / (double) bitString.length();
+            proportion = (double) ones / (double) length;
 
-            // Initialize with 1
-            int runCounter = 1;
-            for (int i = 1; i < bitString.length(); i++) {
-                // Check if previous Character is identical to current one
-                if (!(bitString.charAt(i) == bitString.charAt(i - 1))) {
-                    runCounter++;
-                }
-            }
+            // Initialize with 1, every change of the bit value starts a new run
+            long runCounter = 1 + transitions;
 
             // Chi-square fitting
             double numerator =
-                (double) runCounter - (double) 2 * (double) bitString.length() * proportion * ((double) 1 - proportion);
-            double denominator =
-                (double) 2 * Math.sqrt(2 * bitString.length()) * proportion * ((double) 1 - proportion);
+                (double) runCounter - (double) 2 * (double) length * proportion * ((double) 1 - proportion);
+            double denominator = (double) 2 * Math.sqrt(2 * length) * proportion * ((double) 1 - proportion);
 
             pValue = erfc(Math.abs(numerator) / denominator);
 
@@ -741,8 +751,7 @@ public class StatisticalTests {
      * @return              P-Value of the Test
      */
     public static Double frequencyTest(byte[] byteSequence, Integer blockLength) {
-        String bitString = byteArrayToBitString(byteSequence);
-        return frequencyTest(bitString, blockLength);
+        return frequencyTest(BitSequence.fromByteArray(byteSequence), blockLength);
     }
 
     /**
@@ -757,49 +766,40 @@ public class StatisticalTests {
      * @return           P-Value of the Test
      */
     public static Double frequencyTest(String bitString, Integer blockLength) {
+        return frequencyTest(BitSequence.fromBitString(bitString), blockLength);
+    }
+
+    /**
+     * * Simple Frequency-Test. For truly random sequences, the count of 0 and 1 in the bit-sequence should be
+     * converging towards 50% in each block. For blockLength 1, the Test is equal to the general Monobit-Test where the
+     * number of 0's and 1's are compared on the full Sequence.
+     *
+     * @param  bits
+     *                     The collected bits in order
+     * @param  blockLength
+     *                     The size of the blocks subdividing the sequence
+     * @return             P-Value of the Test
+     */
+    public static Double frequencyTest(BitSequence bits, Integer blockLength) {
         double pValue = 0.0;
-        if (!bitString.isEmpty()) {
+        int length = bits.length();
+        if (!bits.isEmpty()) {
 
             // General Case for frequency Test with blockLength =/= 1
             if (!(blockLength == 1)) {
                 // Trailing bits are discarded
-                Integer numberOfBlocks = (int) floor(bitString.length() / blockLength);
-                double[] proportionOfBlocks = new double[numberOfBlocks];
-
-                // Create Regex-Matcher, which splits the fullSequence into
-                // blocks
-                // of length numberOfBlocks
-                Matcher m = Pattern.compile(".{1," + blockLength + "}").matcher(bitString);
-
-                for (int i = 0; i < numberOfBlocks; i++) {
-                    String currentBlock = m.find() ? bitString.substring(m.start(), m.end()) : "";
-                    proportionOfBlocks[i] = (double) StringUtils.countMatches(currentBlock, "1") / (double) blockLength;
-                }
+                int numberOfBlocks = length / blockLength;
 
-                // Chi-squared Fitting
-                double chiSquareFit = 0.0;
+                double squaredDeviations = 0.0;
                 for (int i = 0; i < numberOfBlocks; i++) {
-                    double tmp = proportionOfBlocks[i] - ((double) 1 / (double) 2);
-                    chiSquareFit = chiSquareFit + Math.pow(tmp, 2);
+                    squaredDeviations +=
+                        squaredBlockDeviation(bits.countOnes(i * blockLength, (i + 1) * blockLength), blockLength);
                 }
-                chiSquareFit = (double) 4 * (double) blockLength * chiSquareFit;
-
-                // Incomplete Gamma Function for P-Value computation
-                double a = (double) numberOfBlocks / (double) 2;
-                double x = chiSquareFit / (double) 2;
-
-                pValue = Gamma.regularizedGammaQ(a, x);
+                pValue = blockFrequencyTest(squaredDeviations, numberOfBlocks, blockLength);
 
             } // Special Case for Block-length == 1
             else {
-                Integer zeroMatches = StringUtils.countMatches(bitString, "0");
-                Integer oneMatches = bitString.length() - zeroMatches;
-                // Convert 1 to value "1" and 0 "-1"
-                Integer bitDifference = oneMatches - zeroMatches;
-
-                double statistics = (double) abs(bitDifference) / sqrt(bitString.length());
-                // complementary error function
-                pValue = erfc(statistics / sqrt(2));
+                pValue = monobitTest(bits.countOnes(), length);
             }
 
         }
@@ -807,33 +807,72 @@ public class StatisticalTests {
     }
 
     /**
+     * * Frequency-Test with blockLength 1 computed from counts, so the counts can be updated while the bits are
+     * collected instead of keeping all bits.
      *
-     * @param  byteArray
-     *                   A comparableByteArray, which should be returned as a Bit-String
-     * @return           a String representing the byte as a sequence of 0's and 1's
+     * @param  ones
+     *                The number of ones in the sequence
+     * @param  length
+     *                The length of the sequence
+     * @return        P-Value of the Test
      */
-    public static String byteArrayToBitString(byte[] byteArray) {
-        StringBuilder bitBuilder = new StringBuilder();
-        for (Byte o : byteArray) {
-            bitBuilder.append(Integer.toBinaryString((o & 0xFF) + 0x100).substring(1));
+    public static Double monobitTest(long ones, long length) {
+        if (length == 0) {
+            return 0.0;
         }
-        return bitBuilder.toString();
+        long zeroMatches = length - ones;
+        // Convert 1 to value "1" and 0 "-1"
+        long bitDifference = ones - zeroMatches;
+
+        double statistics = (double) abs(bitDifference) / sqrt(length);
+        // complementary error function
+        return erfc(statistics / sqrt(2));
     }
 
     /**
-     * * Small helper method to generate all possible bit strings of certain length
+     * @param  ones
+     *                     The number of ones in a block
+     * @param  blockLength
+     *                     The length of the block
+     * @return             The squared deviation of the proportion of ones in the block from 1/2
+     */
+    public static double squaredBlockDeviation(int ones, int blockLength) {
+        double proportionOfBlock = (double) ones / (double) blockLength;
+        double tmp = proportionOfBlock - ((double) 1 / (double) 2);
+        return Math.pow(tmp, 2);
+    }
+
+    /**
+     * * Frequency-Test with blocks computed from the sum of the {@link #squaredBlockDeviation(int, int)} of all
+     * complete blocks, so the sum can be updated while the bits are collected instead of keeping all bits.
      *
+     * @param  squaredDeviations
+     *                           The sum of the squared deviations of all blocks
+     * @param  numberOfBlocks
+     *                           The number of complete blocks
      * @param  blockLength
-     * @return
+     *                           The length of the blocks
+     * @return                   P-Value of the Test
      */
-    private static String[] generateAllBitStrings(int blockLength) {
-        int combinations = (int) pow(2, blockLength);
-        String[] bitStrings = new String[combinations];
-        for (int i = 0; i < combinations; i++) {
-            String representation = Integer.toBinaryString(i);
-            bitStrings[i] = String.format("%" + blockLength + "s", representation).replace(' ', '0');
-        }
-        return bitStrings;
+    public static Double blockFrequencyTest(double squaredDeviations, long numberOfBlocks, int blockLength) {
+        // Chi-squared Fitting
+        double chiSquareFit = (double) 4 * (double) blockLength * squaredDeviations;
+
+        // Incomplete Gamma Function for P-Value computation
+        double a = (double) numberOfBlocks / (double) 2;
+        double x = chiSquareFit / (double) 2;
+
+        return Gamma.regularizedGammaQ(a, x);
+    }
+
+    /**
+     *
+     * @param  byteArray
+     *                   A comparableByteArray, which should be returned as a Bit-String
+     * @return           a String representing the byte as a sequence of 0's and 1's
+     */
+    public static String byteArrayToBitString(byte[] byteArray) {
+        return BitSequence.fromByteArray(byteArray).toBitString();
     }
 
 }
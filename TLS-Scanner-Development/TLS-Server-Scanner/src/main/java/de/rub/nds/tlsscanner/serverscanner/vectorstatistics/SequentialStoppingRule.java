@@ -0,0 +1,165 @@
+/**
+ * TLS-Server-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.serverscanner.vectorstatistics;
+
+import java.util.LinkedList;
+import java.util.List;
+import org.apache.commons.math3.distribution.NormalDistribution;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Executes the additional repetitions of a {@link VectorStatisticTest} in batches and stops as soon as the test is
+ * significant. The test is evaluated after the initial repetitions and after every batch, so it is looked at as many
+ * times as configured.
+ *
+ * The significance border is spent over the looks with the O'Brien-Fleming type spending function of Lan and DeMets.
+ * Each look may spend what the function adds since the previous look, according to the share of the planned repetitions
+ * performed so far, and the test is significant at a look if its p-value is below that amount. As the amounts of all
+ * looks sum up to the significance border, the probability to find a significant result although the answers do not
+ * differ is bounded by the significance border, like for a single test. This also holds for the last look, which
+ * decides the test with the remaining amount instead of the full border. The function spends little at early looks, so
+ * most of the border remains for the last look. A test is never stopped early as not significant.
+ */
+public class SequentialStoppingRule {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final NormalDistribution NORMAL_DISTRIBUTION = new NormalDistribution();
+
+    private final int looks;
+
+    private final double significanceBorder;
+
+    private long executedHandshakes = 0;
+
+    private long skippedHandshakes = 0;
+
+    public SequentialStoppingRule(int looks) {
+        this(looks, VectorStatisticTest.P_VALUE_SIGNIFICANCE_BORDER);
+    }
+
+    public SequentialStoppingRule(int looks, double significanceBorder) {
+        if (looks < 2) {
+            throw new IllegalArgumentException("A sequential test needs at least two looks");
+        }
+        this.looks = looks;
+        this.significanceBorder = significanceBorder;
+    }
+
+    /**
+     * Splits the additional repetitions into one batch per remaining look
+     *
+     * @param  repetitions
+     *                     The number of additional repetitions
+     * @return             The sizes of the batches, each at least one
+     */
+    public List<Integer> splitIntoBatches(int repetitions) {
+        List<Integer> batches = new LinkedList<>();
+        int batchCount = Math.min(looks - 1, repetitions);
+        for (int i = 0; i < batchCount; i++) {
+            batches.add(repetitions / batchCount + (i < repetitions % batchCount ? 1 : 0));
+        }
+        return batches;
+    }
+
+    /**
+     * @param  informationFraction
+     *                             The share of the planned repetitions which were performed
+     * @return                     The part of the significance border which is spent until this share
+     */
+    double getSpentSignificance(double informationFraction) {
+        if (informationFraction <= 0) {
+            return 0;
+        }
+        if (informationFraction >= 1) {
+            return significanceBorder;
+        }
+        double criticalValue = NORMAL_DISTRIBUTION.inverseCumulativeProbability(1 - significanceBorder / 2);
+        return 2 * (1 - NORMAL_DISTRIBUTION.cumulativeProbability(criticalValue / Math.sqrt(informationFraction)));
+    }
+
+    /**
+     * @param  previousRepetitions
+     *                             The number of repetitions per vector at the previous look, 0 for the first look
+     * @param  repetitions
+     *                             The number of repetitions per vector at this look
+     * @param  plannedRepetitions
+     *                             The number of repetitions which are planned per vector
+     * @return                     The border below which the p-value of the test is significant at this look
+     */
+    public double getSignificanceBorder(int previousRepetitions, int repetitions, int plannedRepetitions) {
+        return getSpentSignificance((double) repetitions / plannedRepetitions)
+            - getSpentSignificance((double) previousRepetitions / plannedRepetitions);
+    }
+
+    /**
+     * Executes the additional repetitions of the test batch by batch until it is significant. Afterwards the test is
+     * decided with the significance border of its last look.
+     *
+     * @param test
+     *                              The test, which the batch executor extends with the answers of each batch
+     * @param performedRepetitions
+     *                              The number of repetitions which were already performed per vector
+     * @param additionalRepetitions
+     *                              The number of repetitions which would be performed without sequential testing
+     * @param batchExecutor
+     *                              Executes a batch and extends the test with its answers
+     */
+    public void executeRepetitions(VectorStatisticTest<?> test, int performedRepetitions, int additionalRepetitions,
+        BatchExecutor batchExecutor) {
+        int plannedRepetitions = performedRepetitions + additionalRepetitions;
+        int previousRepetitions = 0;
+        int repetitions = performedRepetitions;
+        for (int batch : splitIntoBatches(additionalRepetitions)) {
+            test.setSignificanceBorder(getSignificanceBorder(previousRepetitions, repetitions, plannedRepetitions));
+            if (test.isSignificantDistinctAnswers()) {
+                break;
+            }
+            batchExecutor.execute(repetitions, batch);
+            previousRepetitions = repetitions;
+            repetitions += batch;
+        }
+        if (repetitions == plannedRepetitions) {
+            test.setSignificanceBorder(getSignificanceBorder(previousRepetitions, repetitions, plannedRepetitions));
+        }
+        int vectors = test.getVectorContainerList().size();
+        executedHandshakes += (long) (repetitions - performedRepetitions) * vectors;
+        skippedHandshakes += (long) (plannedRepetitions - repetitions) * vectors;
+        LOGGER.debug("Sequential test for " + test.getTestInfo().getPrintableName() + " stopped after " + repetitions
+            + " of " + plannedRepetitions + " repetitions with p=" + test.getValueP() + ", the significance border was "
+            + test.getSignificanceBorder());
+    }
+
+    /**
+     * @return The number of additional handshakes which were executed
+     */
+    public long getExecutedHandshakes() {
+        return executedHandshakes;
+    }
+
+    /**
+     * @return The number of additional handshakes which were not needed, as the tests were significant before
+     */
+    public long getSkippedHandshakes() {
+        return skippedHandshakes;
+    }
+
+    public interface BatchExecutor {
+
+        /**
+         * @param performedRepetitions
+         *                             The number of repetitions per vector which were performed before this batch
+         * @param repetitions
+         *                             The number of repetitions per vector of this batch
+         */
+        void execute(int performedRepetitions, int repetitions);
+    }
+}
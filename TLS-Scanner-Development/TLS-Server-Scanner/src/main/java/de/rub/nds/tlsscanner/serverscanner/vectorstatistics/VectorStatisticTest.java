@@ -39,6 +39,8 @@ public abstract class VectorStatisticTest<T extends TestInfo> {
 
     protected boolean significantDistinctAnswers;
 
+    protected double significanceBorder = P_VALUE_SIGNIFICANCE_BORDER;
+
     public VectorStatisticTest(T testInfo, List<VectorResponse> responseList) {
         this.testInfo = testInfo;
         vectorContainerList = new LinkedList<>();
@@ -66,6 +68,22 @@ public abstract class VectorStatisticTest<T extends TestInfo> {
         return significantDistinctAnswers;
     }
 
+    public double getSignificanceBorder() {
+        return significanceBorder;
+    }
+
+    /**
+     * Sets the border below which the p-value is significant, for example the share of the border a sequential test may
+     * spend at its current look
+     *
+     * @param significanceBorder
+     *                           The significance border
+     */
+    public void setSignificanceBorder(double significanceBorder) {
+        this.significanceBorder = significanceBorder;
+        this.significantDistinctAnswers = valueP < significanceBorder;
+    }
+
     public double getValueP() {
         return valueP;
     }
@@ -177,7 +195,7 @@ public abstract class VectorStatisticTest<T extends TestInfo> {
     protected final void updateInternals() {
         valueP = computePValue();
         distinctAnswers = getAllResponseFingerprints().size() > 1;
-        this.significantDistinctAnswers = valueP < P_VALUE_SIGNIFICANCE_BORDER;
+        this.significantDistinctAnswers = valueP < significanceBorder;
 
     }
 
@@ -0,0 +1,192 @@
+/**
+ * TLS-Server-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.serverscanner;
+
+import de.rub.nds.tlsattacker.core.config.Config;
+import de.rub.nds.tlsattacker.core.config.delegate.GeneralDelegate;
+import de.rub.nds.tlsattacker.core.constants.ProtocolVersion;
+import de.rub.nds.tlsattacker.core.constants.RunningModeType;
+import de.rub.nds.tlsattacker.core.state.State;
+import de.rub.nds.tlsattacker.core.workflow.ThreadedServerWorkflowExecutor;
+import de.rub.nds.tlsattacker.core.workflow.factory.WorkflowTraceType;
+import de.rub.nds.tlsattacker.util.tests.IntegrationTests;
+import de.rub.nds.tlsscanner.serverscanner.config.ScannerConfig;
+import de.rub.nds.tlsscanner.serverscanner.constants.ProbeType;
+import de.rub.nds.tlsscanner.serverscanner.rating.TestResult;
+import de.rub.nds.tlsscanner.serverscanner.report.AnalyzedProperty;
+import de.rub.nds.tlsscanner.serverscanner.report.SiteReport;
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+public class BatchScannerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    @Test
+    public void testReadTargetList() throws IOException {
+        File targetList = folder.newFile();
+        Files.write(targetList.toPath(),
+            Arrays.asList("# Some hosts", "example.com", "", "  localhost:4433  ", "#localhost:4434"),
+            StandardCharsets.UTF_8);
+
+        assertEquals(Arrays.asList("example.com", "localhost:4433"),
+            BatchScanner.readTargetList(targetList.getAbsolutePath()));
+    }
+
+    /**
+     * Scans targets of three hosts with a fake scan. Neither the global nor the per host limit may be exceeded, every
+     * valid target has to be reported once and the failing scan and the invalid target have to be skipped.
+     */
+    @Test
+    public void testConcurrencyLimits() throws InterruptedException {
+        int parallelTargets = 4;
+        int parallelTargetsPerHost = 2;
+        List<String> targets = new ArrayList<>();
+        for (int port = 1; port <= 6; port++) {
+            for (String host : Arrays.asList("first.invalid", "second.invalid", "third.invalid")) {
+                targets.add(host + ":" + port);
+            }
+        }
+        targets.add("not a valid host");
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Map<String, AtomicInteger> runningPerHost = new ConcurrentHashMap<>();
+        AtomicInteger maxRunningPerHost = new AtomicInteger();
+        BatchScanner scanner =
+            new BatchScanner(targets, BatchScannerTest::createConfig, parallelTargets, parallelTargetsPerHost) {
+                @Override
+                protected SiteReport scanTarget(ScannerConfig config) {
+                    String host = config.getClientDelegate().getExtractedHost();
+                    int port = config.getClientDelegate().getExtractedPort();
+                    AtomicInteger runningOfHost = runningPerHost.computeIfAbsent(host, key -> new AtomicInteger());
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    maxRunningPerHost.accumulateAndGet(runningOfHost.incrementAndGet(), Math::max);
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        runningOfHost.decrementAndGet();
+                        running.decrementAndGet();
+                    }
+                    if (host.equals("second.invalid") && port == 3) {
+                        throw new IllegalStateException("Scan failed");
+                    }
+                    return new SiteReport(host, port);
+                }
+            };
+
+        Thread testThread = Thread.currentThread();
+        List<String> reported = new ArrayList<>();
+        int reports = scanner.scan(report -> {
+            assertSame(testThread, Thread.currentThread());
+            reported.add(report.getHost() + ":" + report.getPort());
+        });
+
+        List<String> expected = new ArrayList<>(targets.subList(0, targets.size() - 1));
+        expected.remove("second.invalid:3");
+        Collections.sort(expected);
+        Collections.sort(reported);
+        assertEquals(expected, reported);
+        assertEquals(expected.size(), reports);
+        assertTrue(maxRunning.get() <= parallelTargets);
+        assertTrue(maxRunningPerHost.get() <= parallelTargetsPerHost);
+    }
+
+    /**
+     * Scans three local TLS-Attacker servers listening on different ports in one batch.
+     */
+    @Test
+    @Category(IntegrationTests.class)
+    public void testScanLocalServers() throws Exception {
+        List<ThreadedServerWorkflowExecutor> servers = new ArrayList<>();
+        List<Thread> serverThreads = new ArrayList<>();
+        List<String> targets = new ArrayList<>();
+        try {
+            for (int i = 0; i < 3; i++) {
+                Config serverConfig = Config.createConfig();
+                serverConfig.setDefaultRunningMode(RunningModeType.SERVER);
+                serverConfig.setWorkflowTraceType(WorkflowTraceType.HELLO);
+                serverConfig.setHighestProtocolVersion(ProtocolVersion.TLS12);
+                serverConfig.setDefaultSelectedProtocolVersion(ProtocolVersion.TLS12);
+                try (ServerSocket freePort = new ServerSocket(0)) {
+                    serverConfig.getDefaultServerConnection().setPort(freePort.getLocalPort());
+                }
+                ThreadedServerWorkflowExecutor server = new ThreadedServerWorkflowExecutor(new State(serverConfig));
+                Thread serverThread = new Thread(server::executeWorkflow);
+                serverThread.start();
+                servers.add(server);
+                serverThreads.add(serverThread);
+                targets.add("localhost:" + serverConfig.getDefaultServerConnection().getPort());
+            }
+
+            BatchScanner scanner = new BatchScanner(targets, target -> {
+                ScannerConfig config = createConfig(target);
+                config.setProbes(ProbeType.PROTOCOL_VERSION);
+                return config;
+            }, 3, 3);
+            List<SiteReport> reports = new ArrayList<>();
+            assertEquals(targets.size(), scanner.scan(reports::add));
+
+            List<String> reported = new ArrayList<>();
+            for (SiteReport report : reports) {
+                reported.add(report.getHost() + ":" + report.getPort());
+                assertTrue(report.getSpeaksProtocol());
+                assertEquals(TestResult.TRUE, report.getResult(AnalyzedProperty.SUPPORTS_TLS_1_2));
+            }
+            Collections.sort(reported);
+            Collections.sort(targets);
+            assertEquals(targets, reported);
+        } finally {
+            for (ThreadedServerWorkflowExecutor server : servers) {
+                server.kill();
+            }
+            for (Thread serverThread : serverThreads) {
+                serverThread.join(TimeUnit.MINUTES.toMillis(1));
+                assertFalse(serverThread.isAlive());
+            }
+        }
+    }
+
+    private static ScannerConfig createConfig(String target) {
+        ScannerConfig config = new ScannerConfig(new GeneralDelegate());
+        config.getClientDelegate().setHost(target);
+        return config;
+    }
+}
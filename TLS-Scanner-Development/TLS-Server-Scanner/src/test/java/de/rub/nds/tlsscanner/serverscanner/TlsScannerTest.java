@@ -0,0 +1,69 @@
+/**
+ * TLS-Server-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.serverscanner;
+
+import de.rub.nds.tlsattacker.core.config.delegate.GeneralDelegate;
+import de.rub.nds.tlsattacker.core.workflow.ParallelExecutor;
+import de.rub.nds.tlsscanner.serverscanner.config.ScannerConfig;
+import de.rub.nds.tlsscanner.serverscanner.constants.ApplicationProtocol;
+import de.rub.nds.tlsscanner.serverscanner.constants.ProbeType;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TlsScannerTest {
+
+    private ParallelExecutor parallelExecutor;
+
+    private ScannerConfig config;
+
+    @Before
+    public void setUp() {
+        parallelExecutor = new ParallelExecutor(1, 1);
+        config = new ScannerConfig(new GeneralDelegate());
+    }
+
+    @After
+    public void tearDown() {
+        parallelExecutor.shutdown();
+    }
+
+    @Test
+    public void testExecutionPlanOfTlsScan() {
+        List<ProbeType> plan = new TlsScanner(config, parallelExecutor).getExecutionPlan();
+        assertTrue(plan.contains(ProbeType.CIPHER_SUITE));
+        assertTrue(plan.contains(ProbeType.HELLO_RETRY));
+        assertTrue(plan.contains(ProbeType.HTTP_HEADER));
+        assertFalse(plan.contains(ProbeType.DTLS_FEATURES));
+        assertFalse(plan.contains(ProbeType.RANDOMNESS));
+    }
+
+    @Test
+    public void testExecutionPlanOfDtlsScan() {
+        config.getDtlsDelegate().setDTLS(true);
+        config.setAdditionalRandomnessHandshakes(10);
+        config.setApplicationProtocol(ApplicationProtocol.SMTP);
+        List<ProbeType> plan = new TlsScanner(config, parallelExecutor).getExecutionPlan();
+        assertTrue(plan.contains(ProbeType.DTLS_FEATURES));
+        assertTrue(plan.contains(ProbeType.RANDOMNESS));
+        assertFalse(plan.contains(ProbeType.HELLO_RETRY));
+        assertFalse(plan.contains(ProbeType.HTTP_HEADER));
+    }
+
+    @Test
+    public void testExecutionPlanOnlyContainsSelectedProbes() {
+        config.setProbes(ProbeType.CIPHER_SUITE, ProbeType.CCA_SUPPORT, ProbeType.DTLS_FEATURES);
+        assertEquals(Arrays.asList(ProbeType.CIPHER_SUITE, ProbeType.CCA_SUPPORT, ProbeType.CCA_SUPPORT),
+            new TlsScanner(config, parallelExecutor).getExecutionPlan());
+    }
+}
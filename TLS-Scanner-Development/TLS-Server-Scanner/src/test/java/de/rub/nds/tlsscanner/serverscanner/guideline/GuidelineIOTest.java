@@ -0,0 +1,47 @@
+/**
+ * TLS-Server-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.serverscanner.guideline;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class GuidelineIOTest {
+
+    @Test
+    public void testSharedGuidelinesAreParsedOnce() {
+        List<Guideline> first = GuidelineIO.getGuidelines(GuidelineIO.GUIDELINES);
+        List<Guideline> second = GuidelineIO.getGuidelines(GuidelineIO.GUIDELINES);
+
+        Assert.assertEquals(GuidelineIO.GUIDELINES.size(), first.size());
+        for (int i = 0; i < first.size(); i++) {
+            Assert.assertSame(first.get(i), second.get(i));
+        }
+    }
+
+    @Test
+    public void testSharedGuidelinesMatchFreshlyReadGuidelines() {
+        List<Guideline> shared = GuidelineIO.getGuidelines(GuidelineIO.GUIDELINES);
+        List<Guideline> fresh = GuidelineIO.readGuidelines(GuidelineIO.GUIDELINES);
+
+        Assert.assertEquals(fresh.size(), shared.size());
+        for (int i = 0; i < fresh.size(); i++) {
+            Assert.assertNotSame(fresh.get(i), shared.get(i));
+            Assert.assertEquals(fresh.get(i).getName(), shared.get(i).getName());
+            Assert.assertEquals(fresh.get(i).getChecks().size(), shared.get(i).getChecks().size());
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSharedChecksCannotBeModified() {
+        GuidelineIO.getGuidelines(GuidelineIO.GUIDELINES).get(0).getChecks().clear();
+    }
+}
@@ -9,16 +9,50 @@
 
 package de.rub.nds.tlsscanner.serverscanner.probe;
 
+import de.rub.nds.tlsattacker.core.config.Config;
+import de.rub.nds.tlsattacker.core.config.delegate.GeneralDelegate;
+import de.rub.nds.tlsattacker.core.constants.CipherSuite;
+import de.rub.nds.tlsattacker.core.constants.ProtocolVersion;
+import de.rub.nds.tlsattacker.core.constants.RunningModeType;
+import de.rub.nds.tlsattacker.core.state.State;
+import de.rub.nds.tlsattacker.core.workflow.ParallelExecutor;
+import de.rub.nds.tlsattacker.core.workflow.ThreadedServerWorkflowExecutor;
+import de.rub.nds.tlsattacker.core.workflow.factory.WorkflowTraceType;
+import de.rub.nds.tlsattacker.util.tests.IntegrationTests;
+import de.rub.nds.tlsscanner.serverscanner.config.ScannerConfig;
+import de.rub.nds.tlsscanner.serverscanner.rating.TestResult;
+import de.rub.nds.tlsscanner.serverscanner.report.AnalyzedProperty;
+import de.rub.nds.tlsscanner.serverscanner.report.SiteReport;
+import de.rub.nds.tlsscanner.serverscanner.report.result.ProbeResult;
+import de.rub.nds.tlsscanner.serverscanner.report.result.VersionSuiteListPair;
+import java.net.ServerSocket;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 
 public class CipherSuiteProbeTest {
 
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final int THREADS = 8;
+
     public CipherSuiteProbeTest() {
     }
 
     @Before
     public void setUp() {
+        Security.addProvider(new BouncyCastleProvider());
     }
 
     /**
@@ -35,4 +69,73 @@ public class CipherSuiteProbeTest {
     public void testGetSupportedCipherSuitesFromList() {
     }
 
+    /**
+     * Enumerates the suites of a local TLS-Attacker server, which selects suites in its own order, once sequentially
+     * and once in parallel. Both have to find all suites in the order of the server.
+     */
+    @Test
+    @Category(IntegrationTests.class)
+    public void testParallelEnumerationMatchesSequential() throws Exception {
+        List<CipherSuite> serverSuites = new ArrayList<>();
+        for (CipherSuite suite : CipherSuite.getImplemented()) {
+            String name = suite.name();
+            if (name.startsWith("TLS_RSA_WITH_") || name.startsWith("TLS_DHE_RSA_WITH_")
+                || name.startsWith("TLS_ECDHE_RSA_WITH_")) {
+                serverSuites.add(suite);
+            }
+        }
+        Collections.shuffle(serverSuites, new Random(0));
+
+        Config serverConfig = Config.createConfig();
+        serverConfig.setDefaultRunningMode(RunningModeType.SERVER);
+        serverConfig.setWorkflowTraceType(WorkflowTraceType.HELLO);
+        serverConfig.setHighestProtocolVersion(ProtocolVersion.TLS12);
+        serverConfig.setDefaultSelectedProtocolVersion(ProtocolVersion.TLS12);
+        serverConfig.setDefaultServerSupportedCipherSuites(serverSuites);
+        serverConfig.setThreadedServerPoolSize(THREADS);
+        try (ServerSocket freePort = new ServerSocket(0)) {
+            serverConfig.getDefaultServerConnection().setPort(freePort.getLocalPort());
+        }
+        ThreadedServerWorkflowExecutor server = new ThreadedServerWorkflowExecutor(new State(serverConfig));
+        Thread serverThread = new Thread(server::executeWorkflow);
+        serverThread.start();
+
+        ParallelExecutor executor = new ParallelExecutor(THREADS, 3);
+        try {
+            int port = serverConfig.getDefaultServerConnection().getPort();
+            long start = System.nanoTime();
+            List<CipherSuite> sequential = enumerate(port, 1, executor);
+            long sequentialMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            start = System.nanoTime();
+            List<CipherSuite> parallel = enumerate(port, THREADS, executor);
+            long parallelMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            LOGGER.info("Enumerated " + serverSuites.size() + " suites sequentially in " + sequentialMillis
+                + "ms and in parallel in " + parallelMillis + "ms");
+
+            assertEquals(serverSuites, sequential);
+            assertEquals(sequential, parallel);
+        } finally {
+            executor.shutdown();
+            server.kill();
+            serverThread.join(TimeUnit.MINUTES.toMillis(1));
+        }
+        assertFalse(serverThread.isAlive());
+    }
+
+    private List<CipherSuite> enumerate(int port, int partitions, ParallelExecutor executor) {
+        ScannerConfig scannerConfig = new ScannerConfig(new GeneralDelegate());
+        scannerConfig.getClientDelegate().setHost("localhost:" + port);
+        scannerConfig.setCipherSuitePartitions(partitions);
+        SiteReport report = new SiteReport("localhost", port);
+        report.putResult(AnalyzedProperty.SUPPORTS_TLS_1_2, TestResult.TRUE);
+        CipherSuiteProbe probe = new CipherSuiteProbe(scannerConfig, executor);
+        probe.adjustConfig(report);
+
+        ProbeResult result = probe.executeTest();
+        result.merge(report);
+        List<VersionSuiteListPair> pairs = report.getVersionSuitePairs();
+        assertEquals(1, pairs.size());
+        assertEquals(ProtocolVersion.TLS12, pairs.get(0).getVersion());
+        return pairs.get(0).getCipherSuiteList();
+    }
 }
@@ -0,0 +1,106 @@
+/**
+ * TLS-Server-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.serverscanner.probe.handshakesimulation;
+
+import de.rub.nds.tlsattacker.core.config.Config;
+import de.rub.nds.tlsattacker.core.config.ConfigIO;
+import de.rub.nds.tlsattacker.core.config.delegate.GeneralDelegate;
+import de.rub.nds.tlsattacker.core.constants.HandshakeMessageType;
+import de.rub.nds.tlsattacker.core.protocol.message.ClientHelloMessage;
+import de.rub.nds.tlsattacker.core.state.State;
+import de.rub.nds.tlsattacker.core.workflow.WorkflowTraceSerializer;
+import de.rub.nds.tlsattacker.core.workflow.WorkflowTraceUtil;
+import de.rub.nds.tlsscanner.serverscanner.config.ScannerConfig;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class SimulatedClientProfileTest {
+
+    private static ScannerConfig createScannerConfig(String host) {
+        ScannerConfig scannerConfig = new ScannerConfig(new GeneralDelegate());
+        scannerConfig.getClientDelegate().setHost(host);
+        return scannerConfig;
+    }
+
+    private static String toXml(Config config) {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        ConfigIO.write(config, stream);
+        return new String(stream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static ClientHelloMessage getClientHello(State state) {
+        return (ClientHelloMessage) WorkflowTraceUtil.getFirstSendMessage(HandshakeMessageType.CLIENT_HELLO,
+            state.getWorkflowTrace());
+    }
+
+    @Test
+    public void testProfilesAreLoadedOnce() {
+        List<SimulatedClientProfile> profiles = SimulatedClientProfile.getProfiles();
+        assertSame(profiles, SimulatedClientProfile.getProfiles());
+        assertEquals(ConfigFileList.loadConfigFileList("/" + ConfigFileList.FILE_NAME).getFiles().size(),
+            profiles.size());
+    }
+
+    /**
+     * The states of the shared profiles have to be the same as the states built from freshly parsed client configs,
+     * even after another scan used the profiles
+     */
+    @Test
+    public void testStatesMatchFreshlyParsedConfigs() throws Exception {
+        ScannerConfig otherScan = createScannerConfig("127.0.0.2:4434");
+        ScannerConfig scan = createScannerConfig("127.0.0.1:4433");
+        List<String> files = ConfigFileList.loadConfigFileList("/" + ConfigFileList.FILE_NAME).getFiles();
+        List<SimulatedClientProfile> profiles = SimulatedClientProfile.getProfiles();
+        for (int i = 0; i < files.size(); i++) {
+            SimulatedClientProfile profile = profiles.get(i);
+            new SimulationRequest(profile).getExecutableState(otherScan);
+            State state = new SimulationRequest(profile).getExecutableState(scan);
+
+            TlsClientConfig fresh =
+                TlsClientConfig.createTlsClientConfig(SimulatedClientProfile.RESOURCE_FOLDER + "/" + files.get(i));
+            assertEquals(fresh.getType(), profile.getTlsClientConfig().getType());
+            assertEquals(fresh.getVersion(), profile.getTlsClientConfig().getVersion());
+            Config expectedConfig = fresh.getConfig();
+            scan.getClientDelegate().applyDelegate(expectedConfig);
+            expectedConfig.setQuickReceive(true);
+            expectedConfig.setEarlyStop(true);
+            expectedConfig.setStopActionsAfterFatal(true);
+            expectedConfig.setStopReceivingAfterFatal(true);
+            assertEquals(toXml(expectedConfig), toXml(state.getConfig()));
+
+            if (!fresh.getIsSSL2CompatibleClientHello()) {
+                String actualTrace = WorkflowTraceSerializer.write(state.getWorkflowTrace());
+                // The probe used to send the extensions of the parsed trace itself
+                getClientHello(state).setExtensions(WorkflowTraceUtil
+                    .getLastReceivedMessage(HandshakeMessageType.CLIENT_HELLO, fresh.getTrace()).getExtensions());
+                assertEquals(WorkflowTraceSerializer.write(state.getWorkflowTrace()), actualTrace);
+            }
+        }
+    }
+
+    @Test
+    public void testStatesDoNotShareModifiableObjects() {
+        SimulatedClientProfile profile = SimulatedClientProfile.getProfiles().get(0);
+        State first = new SimulationRequest(profile).getExecutableState(createScannerConfig("127.0.0.1:4433"));
+        State second = new SimulationRequest(profile).getExecutableState(createScannerConfig("127.0.0.2:4434"));
+        assertNotSame(first.getConfig(), second.getConfig());
+        assertNotSame(first.getConfig(), profile.getTlsClientConfig().getConfig());
+        assertEquals(4433, (int) first.getConfig().getDefaultClientConnection().getPort());
+        assertEquals(4434, (int) second.getConfig().getDefaultClientConnection().getPort());
+        if (!profile.getTlsClientConfig().getIsSSL2CompatibleClientHello()
+            && getClientHello(first).getExtensions() != null && !getClientHello(first).getExtensions().isEmpty()) {
+            assertNotSame(getClientHello(first).getExtensions(), getClientHello(second).getExtensions());
+            assertNotSame(getClientHello(first).getExtensions().get(0), getClientHello(second).getExtensions().get(0));
+        }
+    }
+}
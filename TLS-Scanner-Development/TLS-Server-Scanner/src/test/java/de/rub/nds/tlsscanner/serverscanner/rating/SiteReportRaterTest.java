@@ -34,6 +34,12 @@ public class SiteReportRaterTest {
         assertFalse(SiteReportRater.getRecommendations("en").getRecommendations().isEmpty());
     }
 
+    @Test
+    public void testRatingModelsAreParsedOnce() throws Exception {
+        assertSame(SiteReportRater.getRatingInfluencers(), SiteReportRater.getRatingInfluencers());
+        assertSame(SiteReportRater.getRecommendations("en"), SiteReportRater.getRecommendations("en"));
+    }
+
     @Test
     public void testGetScoreReport() throws Exception {
         HashMap<String, TestResult> resultMap = new HashMap<>();
@@ -9,6 +9,13 @@
 
 package de.rub.nds.tlsscanner.serverscanner.report;
 
+import de.rub.nds.tlsscanner.serverscanner.probe.stats.RandomnessCollector;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -42,4 +49,24 @@ public class SiteReportTest {
     public void testToString() {
     }
 
+    /**
+     * The randomness collector is only used while scanning and is not serializable, so it must not prevent serializing
+     * the report.
+     */
+    @Test
+    public void testSerializeWithRandomnessCollector() throws Exception {
+        SiteReport report = new SiteReport("localhost", 443);
+        report.setRandomnessCollector(new RandomnessCollector());
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(serialized)) {
+            outputStream.writeObject(report);
+        }
+        SiteReport deserialized;
+        try (ObjectInputStream inputStream =
+            new ObjectInputStream(new ByteArrayInputStream(serialized.toByteArray()))) {
+            deserialized = (SiteReport) inputStream.readObject();
+        }
+        assertEquals("localhost", deserialized.getHost());
+        assertNull(deserialized.getRandomnessCollector());
+    }
 }
@@ -0,0 +1,103 @@
+/**
+ * TLS-Server-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.serverscanner.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class BitSequenceTest {
+
+    @Test
+    public void testAppendKeepsBitOrder() {
+        BitSequence sequence = new BitSequence(1);
+        sequence.append(new byte[] { (byte) 0x80, 0x01 });
+        sequence.append(new byte[] { 0x0F, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, (byte) 0xF0 });
+        assertEquals(88, sequence.length());
+        assertEquals(
+            "1000000000000001" + "00001111" + "0000000000000000000000000000000000000000000000000000000011110000",
+            sequence.toBitString());
+    }
+
+    @Test
+    public void testBitStringRoundTrip() {
+        String bitString = "1011001110001111000011111000001111110000000111111110000000001";
+        assertEquals(bitString, BitSequence.fromBitString(bitString).toBitString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBitString() {
+        BitSequence.fromBitString("0120");
+    }
+
+    @Test
+    public void testCountsMatchBitByBitCounts() {
+        Random random = new Random(1);
+        for (int size = 1; size < 40; size++) {
+            byte[] bytes = new byte[size];
+            random.nextBytes(bytes);
+            BitSequence sequence = BitSequence.fromByteArray(bytes);
+            String bitString = sequence.toBitString();
+            for (int from = 0; from < bitString.length(); from += 7) {
+                int to = Math.min(bitString.length(), from + random.nextInt(150));
+                assertEquals(count(bitString.substring(from, to), '1'), sequence.countOnes(from, to));
+                assertEquals(longestRun(bitString.substring(from, to)), sequence.longestRunOfOnes(from, to));
+            }
+            int transitions = 0;
+            for (int i = 1; i < bitString.length(); i++) {
+                if (bitString.charAt(i) != bitString.charAt(i - 1)) {
+                    transitions++;
+                }
+            }
+            assertEquals(transitions, sequence.countTransitions());
+        }
+    }
+
+    @Test
+    public void testGetBits() {
+        BitSequence sequence =
+            BitSequence.fromBitString("0110100110010110011010011001011001101001100101100110100110010110011");
+        assertEquals(0b011010011, sequence.getBits(0, 9));
+        assertEquals(0b10011, sequence.getBits(62, 5));
+        assertEquals(0x6996699669966996L, sequence.getBits(0, 64));
+    }
+
+    @Test
+    public void testCountCyclicPatterns() {
+        BitSequence sequence = BitSequence.fromBitString("0110");
+        // Windows of length 2: 01, 11, 10, 00 (wrapping around)
+        assertArrayEquals(new int[] { 1, 1, 1, 1 }, sequence.countCyclicPatterns(2));
+        // Windows of length 3: 011, 110, 100, 001
+        assertArrayEquals(new int[] { 0, 1, 0, 1, 1, 0, 1, 0 }, sequence.countCyclicPatterns(3));
+        assertArrayEquals(new int[] { 4 }, sequence.countCyclicPatterns(0));
+    }
+
+    private static int count(String string, char character) {
+        int count = 0;
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) == character) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int longestRun(String bitString) {
+        int longestRun = 0;
+        int run = 0;
+        for (int i = 0; i < bitString.length(); i++) {
+            run = bitString.charAt(i) == '1' ? run + 1 : 0;
+            longestRun = Math.max(longestRun, run);
+        }
+        return longestRun;
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * TLS-Server-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.serverscanner.util;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the table based Fisher test with the previous implementation, which summed log2(i) for every factorial on
+ * every call. The response matrices resemble those of the padding oracle and Bleichenbacher probes: a few dozen
+ * vectors, each answered with one of two responses over a number of repetitions. Run via {@link #main(String[])} from
+ * the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FisherExactTestBenchmark {
+
+    @Param({ "10", "40" })
+    private int numberOfVectors;
+
+    @Param({ "3", "100", "1000" })
+    private int repetitions;
+
+    private int[] responseCountsA;
+
+    private int[] responseCountsB;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(0);
+        responseCountsA = new int[numberOfVectors];
+        responseCountsB = new int[numberOfVectors];
+        for (int i = 0; i < numberOfVectors; i++) {
+            // Most vectors behave the same, a few leak a different answer now and then
+            int deviating =
+                i % 7 == 0 ? random.nextInt(repetitions + 1) : random.nextInt(Math.max(1, repetitions / 20));
+            responseCountsA[i] = repetitions - deviating;
+            responseCountsB[i] = deviating;
+        }
+    }
+
+    @Benchmark
+    public double[][] pairwiseTwoSided() {
+        double[][] result = new double[numberOfVectors][numberOfVectors];
+        for (int i = 0; i < numberOfVectors; i++) {
+            for (int j = i + 1; j < numberOfVectors; j++) {
+                result[i][j] = FisherExactTest.getPValue(responseCountsA[i], responseCountsA[j], responseCountsB[i],
+                    responseCountsB[j]);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public double[][] pairwiseTableProbability() {
+        double[][] result = new double[numberOfVectors][numberOfVectors];
+        for (int i = 0; i < numberOfVectors; i++) {
+            for (int j = i + 1; j < numberOfVectors; j++) {
+                result[i][j] = FisherExactTest.getTableProbability(responseCountsA[i], responseCountsA[j],
+                    responseCountsB[i], responseCountsB[j]);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public double[][] pairwisePreviousImplementation() {
+        double[][] result = new double[numberOfVectors][numberOfVectors];
+        for (int i = 0; i < numberOfVectors; i++) {
+            for (int j = i + 1; j < numberOfVectors; j++) {
+                result[i][j] = Math.pow(2,
+                    previousLog2PValue(responseCountsA[i], responseCountsA[j], responseCountsB[i], responseCountsB[j]));
+            }
+        }
+        return result;
+    }
+
+    private static double previousLog2PValue(int a, int b, int c, int d) {
+        int n = a + b + c + d;
+        double nominator = log2Factorial(a + b) + log2Factorial(c + d) + log2Factorial(a + c) + log2Factorial(b + d);
+        double denominator =
+            log2Factorial(a) + log2Factorial(b) + log2Factorial(c) + log2Factorial(d) + log2Factorial(n);
+        return nominator - denominator;
+    }
+
+    private static double log2Factorial(int k) {
+        double res = 0;
+        for (int i = 2; i <= k; i++) {
+            res += Math.log(i) / Math.log(2);
+        }
+        return res;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FisherExactTestBenchmark.class.getSimpleName()).build()).run();
+    }
+}
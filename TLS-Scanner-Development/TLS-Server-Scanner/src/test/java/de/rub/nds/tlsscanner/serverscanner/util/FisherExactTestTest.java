@@ -9,10 +9,13 @@
 
 package de.rub.nds.tlsscanner.serverscanner.util;
 
+import static org.junit.Assert.assertEquals;
+
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
+import org.junit.Test;
 
 public class FisherExactTestTest {
 
@@ -34,4 +37,28 @@ public class FisherExactTestTest {
     @After
     public void tearDown() {
     }
+
+    @Test
+    public void testTwoSidedPValue() {
+        // Reference values computed with R's fisher.test
+        assertEquals(0.002759456, FisherExactTest.getPValue(1, 9, 11, 3), 1e-9);
+        assertEquals(0.4857143, FisherExactTest.getPValue(3, 1, 1, 3), 1e-7);
+        assertEquals(1.0, FisherExactTest.getPValue(10, 10, 10, 10), 1e-9);
+    }
+
+    @Test
+    public void testPValueIsSymmetric() {
+        assertEquals(FisherExactTest.getPValue(1, 9, 11, 3), FisherExactTest.getPValue(11, 3, 1, 9), 1e-12);
+        assertEquals(FisherExactTest.getPValue(1, 9, 11, 3), FisherExactTest.getPValue(1, 11, 9, 3), 1e-12);
+    }
+
+    @Test
+    public void testEmptyTable() {
+        assertEquals(1.0, FisherExactTest.getPValue(0, 0, 0, 0), 0);
+    }
+
+    @Test
+    public void testTableProbability() {
+        assertEquals(16.0 / 70.0, FisherExactTest.getTableProbability(3, 1, 1, 3), 1e-12);
+    }
 }
@@ -0,0 +1,42 @@
+/**
+ * TLS-Server-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.serverscanner.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.commons.math3.special.Gamma;
+import org.junit.Test;
+
+public class LogFactorialTableTest {
+
+    @Test
+    public void testSmallFactorials() {
+        assertEquals(0, LogFactorialTable.logFactorial(0), 0);
+        assertEquals(0, LogFactorialTable.logFactorial(1), 0);
+        assertEquals(Math.log(120), LogFactorialTable.logFactorial(5), 1e-12);
+        assertEquals(Math.log(120) / Math.log(2), LogFactorialTable.log2Factorial(5), 1e-12);
+    }
+
+    @Test
+    public void testTableGrowsBeyondInitialSize() {
+        assertEquals(Gamma.logGamma(100001), LogFactorialTable.logFactorial(100000), 1e-6);
+    }
+
+    @Test
+    public void testLogGamma() {
+        assertEquals(Math.log(24), LogFactorialTable.logGamma(5), 1e-12);
+        assertEquals(Gamma.logGamma(2.5), LogFactorialTable.logGamma(2.5), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeFactorial() {
+        LogFactorialTable.logFactorial(-1);
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * TLS-Server-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.serverscanner.util;
+
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class RandomnessAccumulatorTest {
+
+    private static byte[][] createValues(int count, int length, long seed) {
+        Random random = new Random(seed);
+        byte[][] values = new byte[count][length];
+        for (byte[] value : values) {
+            random.nextBytes(value);
+        }
+        return values;
+    }
+
+    /**
+     * The tests computed from counts have to give exactly the results of the tests on all bits
+     */
+    @Test
+    public void testStreamedTestsMatchTestsOnAllBits() {
+        for (int length : new int[] { 0, 1, 13, 32 }) {
+            RandomnessAccumulator accumulator = new RandomnessAccumulator(128);
+            BitSequence bits = new BitSequence();
+            for (byte[] value : createValues(500, length, length)) {
+                accumulator.add(value);
+                bits.append(value);
+            }
+            assertEquals(bits.length(), accumulator.getLength());
+            assertEquals(StatisticalTests.frequencyTest(bits, 1), accumulator.monobitTest(), 0);
+            assertEquals(StatisticalTests.frequencyTest(bits, 128), accumulator.blockFrequencyTest(), 0);
+            assertEquals(StatisticalTests.runsTest(bits), accumulator.runsTest(), 0);
+            assertEquals(bits.toBitString(), accumulator.getSample().toBitString());
+            assertFalse(accumulator.isSampleTruncated());
+        }
+    }
+
+    @Test
+    public void testBiasedValuesFailTests() {
+        RandomnessAccumulator accumulator = new RandomnessAccumulator(128);
+        for (byte[] value : createValues(1000, 32, 0)) {
+            value[0] |= 0x0F;
+            accumulator.add(value);
+        }
+        assertTrue(accumulator.monobitTest() <= 0.01);
+    }
+
+    @Test
+    public void testDuplicates() {
+        RandomnessAccumulator accumulator = new RandomnessAccumulator(128);
+        byte[][] values = createValues(100, 32, 0);
+        for (byte[] value : values) {
+            accumulator.add(value);
+        }
+        assertEquals(0, accumulator.getNumberOfDuplicates());
+        accumulator.add(values[17].clone());
+        accumulator.add(values[17].clone());
+        accumulator.add(new byte[0]);
+        accumulator.add(new byte[0]);
+        assertEquals(3, accumulator.getNumberOfDuplicates());
+        assertEquals(104, accumulator.getNumberOfValues());
+    }
+
+    /**
+     * Once the tracked values are exhausted, new values are still compared to the tracked ones
+     */
+    @Test
+    public void testDuplicatesAfterTrackingLimit() {
+        RandomnessAccumulator accumulator = new RandomnessAccumulator(128, 1024, 10);
+        byte[][] values = createValues(20, 32, 0);
+        for (byte[] value : values) {
+            accumulator.add(value);
+        }
+        accumulator.add(values[3]);
+        accumulator.add(values[15]);
+        accumulator.add(values[15]);
+        assertEquals(1, accumulator.getNumberOfDuplicates());
+    }
+
+    @Test
+    public void testSampleIsBounded() {
+        RandomnessAccumulator accumulator = new RandomnessAccumulator(128, 1000, 10);
+        BitSequence bits = new BitSequence();
+        for (byte[] value : createValues(100, 32, 0)) {
+            accumulator.add(value);
+            bits.append(value);
+        }
+        assertTrue(accumulator.isSampleTruncated());
+        assertEquals(1000 / Byte.SIZE * Byte.SIZE, accumulator.getSample().length());
+        assertEquals(bits.toBitString().substring(0, accumulator.getSample().length()),
+            accumulator.getSample().toBitString());
+        assertEquals(StatisticalTests.frequencyTest(bits, 1), accumulator.monobitTest(), 0);
+    }
+
+    @Test
+    public void testLongHashSet() {
+        LongHashSet set = new LongHashSet(1);
+        Random random = new Random(0);
+        long[] values = new long[10000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextLong();
+            assertTrue(set.add(values[i]));
+        }
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        for (long value : values) {
+            assertTrue(set.contains(value));
+            assertFalse(set.add(value));
+        }
+        assertFalse(set.contains(1));
+        assertEquals(values.length + 1, set.size());
+    }
+}
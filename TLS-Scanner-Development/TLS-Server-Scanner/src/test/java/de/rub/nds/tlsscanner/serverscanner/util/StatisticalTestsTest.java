@@ -0,0 +1,116 @@
+/**
+ * TLS-Server-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.serverscanner.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The expected p-values were computed with the previous implementation, which operated on Strings of '0' and '1'
+ * characters, and have to be reproduced exactly.
+ */
+public class StatisticalTestsTest {
+
+    private byte[] randomBytes;
+
+    private String randomBitString;
+
+    @Before
+    public void setUp() {
+        randomBytes = new byte[4000];
+        new Random(0).nextBytes(randomBytes);
+        randomBitString = StatisticalTests.byteArrayToBitString(randomBytes);
+    }
+
+    @Test
+    public void testByteArrayToBitString() {
+        assertEquals("000000011000000011111111", StatisticalTests.byteArrayToBitString(new byte[] { 1, -128, -1 }));
+        assertEquals(randomBytes.length * 8, randomBitString.length());
+    }
+
+    @Test
+    public void testFrequencyTest() {
+        assertEquals(0.6709439001361088, StatisticalTests.frequencyTest(randomBytes, 1), 0);
+        assertEquals(0.5884631034652692, StatisticalTests.frequencyTest(randomBytes, 128), 0);
+        assertEquals(0.5884631034652692, StatisticalTests.frequencyTest(randomBitString, 128), 0);
+    }
+
+    @Test
+    public void testRunsTest() {
+        assertEquals(0.03851010634923978, StatisticalTests.runsTest(randomBytes), 0);
+        assertEquals(0.03851010634923978, StatisticalTests.runsTest(randomBitString), 0);
+    }
+
+    @Test
+    public void testLongestRunWithinBlock() {
+        assertEquals(0.010120992609833413, StatisticalTests.longestRunWithinBlock(randomBytes, 8), 0);
+        assertEquals(0.689424721348343, StatisticalTests.longestRunWithinBlock(randomBytes, 128), 0);
+        assertEquals(0.0, StatisticalTests.longestRunWithinBlock(randomBytes, 10000), 0);
+    }
+
+    @Test
+    public void testApproximateEntropyTest() {
+        assertEquals(0.7481091566725837, StatisticalTests.approximateEntropyTest(randomBytes, 10), 0);
+        assertEquals(0.7481091566725837, StatisticalTests.approximateEntropyTest(randomBitString, 10), 0);
+    }
+
+    @Test
+    public void testSerialTest() {
+        assertEquals(0.47612313606845874, StatisticalTests.serialTest(randomBytes, 5), 0);
+    }
+
+    @Test
+    public void testCumulativeSumTest() {
+        assertEquals(0.25956620017300835, StatisticalTests.cumuluativeSumTest(randomBytes, true), 0);
+        assertEquals(0.5492040922917232, StatisticalTests.cumuluativeSumTest(randomBytes, false), 0);
+    }
+
+    @Test
+    public void testNonOverlappingTemplateTest() {
+        assertEquals(0.013513513513513514, StatisticalTests.nonOverlappingTemplateTest(randomBytes, 9, 0.01), 0);
+        assertEquals(0.0, StatisticalTests.nonOverlappingTemplateTest(randomBytes, 8, 0.01), 0);
+    }
+
+    @Test
+    public void testPeriodicSequence() {
+        byte[] periodic = new byte[4000];
+        for (int i = 0; i < periodic.length; i++) {
+            periodic[i] = (byte) (i % 3 == 0 ? 0xFF : 0x0F);
+        }
+        assertEquals(0.0, StatisticalTests.frequencyTest(periodic, 1), 0);
+        assertEquals(0.0, StatisticalTests.runsTest(periodic), 0);
+        assertEquals(0.0, StatisticalTests.longestRunWithinBlock(periodic, 8), 0);
+        assertEquals(0.0, StatisticalTests.approximateEntropyTest(periodic, 10), 0);
+        assertEquals(1.0, StatisticalTests.nonOverlappingTemplateTest(periodic, 9, 0.01), 0);
+    }
+
+    @Test
+    public void testStreamedSequenceGivesSameResults() {
+        BitSequence streamed = new BitSequence();
+        for (int i = 0; i < randomBytes.length; i += 32) {
+            streamed.append(randomBytes, i, Math.min(32, randomBytes.length - i));
+        }
+        assertEquals(StatisticalTests.frequencyTest(randomBytes, 128), StatisticalTests.frequencyTest(streamed, 128));
+        assertEquals(StatisticalTests.runsTest(randomBytes), StatisticalTests.runsTest(streamed));
+        assertEquals(StatisticalTests.discreteFourierTest(randomBitString),
+            StatisticalTests.discreteFourierTest(streamed));
+        assertEquals(StatisticalTests.serialTest(randomBitString, 5), StatisticalTests.serialTest(streamed, 5));
+    }
+
+    @Test
+    public void testEmptySequence() {
+        assertEquals(0.0, StatisticalTests.frequencyTest(new byte[0], 1), 0);
+        assertEquals(0.0, StatisticalTests.runsTest(""), 0);
+        assertEquals(0.0, StatisticalTests.discreteFourierTest(new BitSequence()), 0);
+    }
+}
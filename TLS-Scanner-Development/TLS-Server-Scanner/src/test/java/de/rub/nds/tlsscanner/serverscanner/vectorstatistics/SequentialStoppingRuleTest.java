@@ -0,0 +1,157 @@
+/**
+ * TLS-Server-Scanner - A TLS configuration and analysis tool based on TLS-Attacker
+ *
+ * Copyright 2017-2021 Ruhr University Bochum, Paderborn University, Hackmanit GmbH
+ *
+ * Licensed under Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package de.rub.nds.tlsscanner.serverscanner.vectorstatistics;
+
+import de.rub.nds.tlsattacker.attacks.general.Vector;
+import de.rub.nds.tlsattacker.attacks.padding.VectorResponse;
+import de.rub.nds.tlsattacker.attacks.pkcs1.Pkcs1Vector;
+import de.rub.nds.tlsattacker.attacks.util.response.ResponseFingerprint;
+import de.rub.nds.tlsattacker.core.constants.CipherSuite;
+import de.rub.nds.tlsattacker.core.constants.ProtocolVersion;
+import de.rub.nds.tlsattacker.transport.socket.SocketState;
+import de.rub.nds.tlsscanner.serverscanner.leak.info.DirectRaccoonOracleTestInfo;
+import de.rub.nds.tlsscanner.serverscanner.leak.info.TestInfo;
+import de.rub.nds.tlsscanner.serverscanner.probe.directraccoon.DirectRaccoonWorkflowType;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SequentialStoppingRuleTest {
+
+    private final Vector firstVector = new Pkcs1Vector("first", new byte[] { 1 });
+
+    private final Vector secondVector = new Pkcs1Vector("second", new byte[] { 2 });
+
+    private TestInfo testInfo;
+
+    private SequentialStoppingRule stoppingRule;
+
+    @Before
+    public void setUp() {
+        testInfo = new DirectRaccoonOracleTestInfo(CipherSuite.TLS_DHE_RSA_WITH_AES_128_CBC_SHA, ProtocolVersion.TLS12,
+            DirectRaccoonWorkflowType.CKE_CCS_FIN);
+        stoppingRule = new SequentialStoppingRule(5);
+    }
+
+    private List<VectorResponse> createResponses(int repetitions, SocketState firstState, SocketState secondState) {
+        List<VectorResponse> responses = new LinkedList<>();
+        for (int i = 0; i < repetitions; i++) {
+            responses.add(new VectorResponse(firstVector,
+                new ResponseFingerprint(new LinkedList<>(), new LinkedList<>(), firstState)));
+            responses.add(new VectorResponse(secondVector,
+                new ResponseFingerprint(new LinkedList<>(), new LinkedList<>(), secondState)));
+        }
+        return responses;
+    }
+
+    @Test
+    public void testSplitIntoBatches() {
+        assertEquals(Arrays.asList(3, 3, 3, 3), stoppingRule.splitIntoBatches(12));
+        assertEquals(Arrays.asList(3, 3, 2, 2), stoppingRule.splitIntoBatches(10));
+        assertEquals(Arrays.asList(1, 1), stoppingRule.splitIntoBatches(2));
+        assertEquals(Collections.emptyList(), stoppingRule.splitIntoBatches(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSingleLookIsRejected() {
+        new SequentialStoppingRule(1);
+    }
+
+    @Test
+    public void testSpendingAddsUpToTheSignificanceBorder() {
+        double spent = 0;
+        double previousBorder = 0;
+        int previousRepetitions = 0;
+        int repetitions = 3;
+        for (int batch : stoppingRule.splitIntoBatches(12)) {
+            double border = stoppingRule.getSignificanceBorder(previousRepetitions, repetitions, 15);
+            // the O'Brien-Fleming type function spends more with every look of equal size
+            assertTrue(border > previousBorder);
+            spent += border;
+            previousBorder = border;
+            previousRepetitions = repetitions;
+            repetitions += batch;
+        }
+        spent += stoppingRule.getSignificanceBorder(previousRepetitions, repetitions, 15);
+        assertEquals(VectorStatisticTest.P_VALUE_SIGNIFICANCE_BORDER, spent, 1e-12);
+        assertEquals(VectorStatisticTest.P_VALUE_SIGNIFICANCE_BORDER, stoppingRule.getSignificanceBorder(0, 15, 15),
+            1e-12);
+    }
+
+    @Test
+    public void testIdenticalAnswersPerformAllRepetitions() {
+        InformationLeakTest<TestInfo> test =
+            new InformationLeakTest<>(testInfo, createResponses(5, SocketState.CLOSED, SocketState.CLOSED));
+        List<Integer> batches = new LinkedList<>();
+        stoppingRule.executeRepetitions(test, 5, 30, (performed, repetitions) -> {
+            batches.add(repetitions);
+            test.extendTestWithVectorResponses(createResponses(repetitions, SocketState.CLOSED, SocketState.CLOSED));
+        });
+        assertEquals(stoppingRule.splitIntoBatches(30), batches);
+        assertFalse(test.isSignificantDistinctAnswers());
+        assertEquals(60, stoppingRule.getExecutedHandshakes());
+        assertEquals(0, stoppingRule.getSkippedHandshakes());
+    }
+
+    @Test
+    public void testClearlyDistinctAnswersStopBeforeAllRepetitions() {
+        InformationLeakTest<TestInfo> test =
+            new InformationLeakTest<>(testInfo, createResponses(1, SocketState.CLOSED, SocketState.TIMEOUT));
+        List<Integer> performedBeforeBatches = new LinkedList<>();
+        stoppingRule.executeRepetitions(test, 1, 9, (performed, repetitions) -> {
+            performedBeforeBatches.add(performed);
+            test.extendTestWithVectorResponses(createResponses(repetitions, SocketState.CLOSED, SocketState.TIMEOUT));
+        });
+        assertEquals(1, (int) performedBeforeBatches.get(0));
+        assertTrue(performedBeforeBatches.size() < stoppingRule.splitIntoBatches(9).size());
+        assertTrue(test.isSignificantDistinctAnswers());
+        assertTrue(test.getSignificanceBorder() < VectorStatisticTest.P_VALUE_SIGNIFICANCE_BORDER);
+        assertTrue(stoppingRule.getSkippedHandshakes() > 0);
+        assertEquals(18, stoppingRule.getExecutedHandshakes() + stoppingRule.getSkippedHandshakes());
+    }
+
+    /**
+     * Simulates servers whose answers do not depend on the vector and checks that sequential testing finds significant
+     * differences at most as often as the significance border allows.
+     */
+    @Test
+    public void testFalsePositiveRateIsBoundedBySignificanceBorder() {
+        Random random = new Random(0);
+        int runs = 2000;
+        int falsePositives = 0;
+        for (int i = 0; i < runs; i++) {
+            InformationLeakTest<TestInfo> test = new InformationLeakTest<>(testInfo, createRandomResponses(10, random));
+            new SequentialStoppingRule(5).executeRepetitions(test, 10, 40, (performed, repetitions) -> test
+                .extendTestWithVectorResponses(createRandomResponses(repetitions, random)));
+            if (test.isSignificantDistinctAnswers()) {
+                falsePositives++;
+            }
+        }
+        assertTrue("False positive rate was " + (double) falsePositives / runs,
+            falsePositives <= runs * VectorStatisticTest.P_VALUE_SIGNIFICANCE_BORDER);
+    }
+
+    private List<VectorResponse> createRandomResponses(int repetitions, Random random) {
+        List<VectorResponse> responses = new LinkedList<>();
+        for (int i = 0; i < repetitions; i++) {
+            for (Vector vector : Arrays.asList(firstVector, secondVector)) {
+                SocketState state = random.nextBoolean() ? SocketState.CLOSED : SocketState.TIMEOUT;
+                responses.add(
+                    new VectorResponse(vector, new ResponseFingerprint(new LinkedList<>(), new LinkedList<>(), state)));
+            }
+        }
+        return responses;
+    }
+}
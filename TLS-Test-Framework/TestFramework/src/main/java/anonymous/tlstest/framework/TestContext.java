@@ -11,6 +11,7 @@ package anonymous.tlstest.framework;
 import anonymous.tlstest.framework.execution.TestRunner;
 import de.rub.nds.tlsattacker.core.protocol.message.ClientHelloMessage;
 import de.rub.nds.tlsattacker.core.workflow.ParallelExecutor;
+import de.rub.nds.tlsattacker.transport.capture.PacketCapture;
 import anonymous.tlstest.framework.config.TestConfig;
 import anonymous.tlstest.framework.execution.AnnotatedStateContainer;
 import anonymous.tlstest.framework.reporting.ScoreContainer;
@@ -34,6 +35,7 @@ public class TestContext {
     private static TestContext instance = null;
     private TestRunner testRunner = null;
     private ParallelExecutor stateExecutor;
+    private PacketCapture packetCapture = null;
 
     private final Map<String, AnnotatedStateContainer> testResults = new HashMap<>();
     private final Map<String, Boolean> finishedTests = new HashMap<>();
@@ -191,6 +193,17 @@ public class TestContext {
         this.stateExecutor = stateExecutor;
     }
 
+    /**
+     * @return the capture the connections of the tests are recorded into, or null if capturing is disabled
+     */
+    public PacketCapture getPacketCapture() {
+        return packetCapture;
+    }
+
+    public void setPacketCapture(PacketCapture packetCapture) {
+        this.packetCapture = packetCapture;
+    }
+
     public synchronized int getServerHandshakesSinceRestart() {
         return serverHandshakesSinceRestart;
     }
@@ -10,6 +10,7 @@ package anonymous.tlstest.framework.annotations;
 
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import anonymous.tlstest.framework.coffee4j.generator.TlsGenerator;
 import anonymous.tlstest.framework.coffee4j.model.ModelFromScope;
 import anonymous.tlstest.framework.coffee4j.reporter.TlsReporter;
 import anonymous.tlstest.framework.coffee4j.reporter.TlsTestsuiteReporter;
@@ -26,6 +27,7 @@ import java.lang.annotation.Target;
 @TestChooser
 @EnableFaultCharacterization(Ben.class)
 @ModelFromScope()
+@TlsGenerator
 @TlsReporter(TlsTestsuiteReporter.class)
 public @interface TlsTest {
     @JsonProperty("Description")
@@ -0,0 +1,32 @@
+/**
+ * TLS-Test-Framework - A framework for modeling TLS tests
+ *
+ * Copyright 2020 Anonymous
+ *
+ * Licensed under Apache License 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package anonymous.tlstest.framework.coffee4j.generator;
+
+import anonymous.tlstest.framework.TestContext;
+import de.rwth.swc.coffee4j.engine.constraint.HardConstraintCheckerFactory;
+import de.rwth.swc.coffee4j.engine.generator.TestInputGroupGenerator;
+import de.rwth.swc.coffee4j.engine.generator.ipog.Ipog;
+import de.rwth.swc.coffee4j.junit.provider.configuration.generator.GeneratorProvider;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Provides the same {@link Ipog} generator as the default of coffee4j, but computes the coverage with the number of
+ * threads given in the {@link anonymous.tlstest.framework.config.TestConfig}.
+ */
+class ConfiguredIpogProvider implements GeneratorProvider {
+
+    @Override
+    public Collection<TestInputGroupGenerator> provide(ExtensionContext extensionContext) {
+        final int threads = TestContext.getInstance().getConfig().getGeneratorThreads();
+        return Collections.singletonList(new Ipog(new HardConstraintCheckerFactory(), threads));
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ * TLS-Test-Framework - A framework for modeling TLS tests
+ *
+ * Copyright 2020 Anonymous
+ *
+ * Licensed under Apache License 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package anonymous.tlstest.framework.coffee4j.generator;
+
+import de.rwth.swc.coffee4j.junit.provider.configuration.generator.GeneratorSource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * This is a {@link GeneratorSource} using the {@link ConfiguredIpogProvider} to create the IPOG generator with the
+ * number of threads configured via {@code -generatorThreads}.
+ */
+@Target({ElementType.ANNOTATION_TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@GeneratorSource(ConfiguredIpogProvider.class)
+public @interface TlsGenerator {
+}
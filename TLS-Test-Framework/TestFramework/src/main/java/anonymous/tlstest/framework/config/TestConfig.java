@@ -16,10 +16,12 @@ import com.beust.jcommander.ParameterException;
 import de.rub.nds.tlsattacker.core.config.Config;
 import de.rub.nds.tlsattacker.core.config.TLSDelegateConfig;
 import de.rub.nds.tlsattacker.core.config.delegate.GeneralDelegate;
+import de.rub.nds.tlsattacker.core.connection.OutboundConnection;
 import de.rub.nds.tlsattacker.core.constants.CipherSuite;
 import de.rub.nds.tlsattacker.core.constants.NamedGroup;
 import de.rub.nds.tlsattacker.core.constants.ProtocolVersion;
 import de.rub.nds.tlsattacker.core.constants.SignatureAndHashAlgorithm;
+import de.rub.nds.tlsattacker.transport.tcp.TcpReadiness;
 import de.rub.nds.tlsscanner.serverscanner.report.result.VersionSuiteListPair;
 import anonymous.tlstest.framework.config.delegates.ConfigDelegates;
 import anonymous.tlstest.framework.config.delegates.TestClientDelegate;
@@ -45,6 +47,8 @@ import java.util.stream.Collectors;
 
 public class TestConfig extends TLSDelegateConfig {
     private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final int SERVER_RESTART_TIMEOUT = 10000;
     private TestClientDelegate testClientDelegate = null;
     private TestServerDelegate testServerDelegate = null;
     private TestExtractorDelegate testExtractorDelegate = null;
@@ -84,6 +88,11 @@ public class TestConfig extends TLSDelegateConfig {
     @Parameter(names = "-parallelTests", description = "How many tests should be executed in parallel? (Default value: parallelHandshakes * 1.5)")
     private Integer parallelTests = null;
     
+    @Parameter(names = "-generatorThreads", description = "How many threads the IPOG test input generator uses to " +
+            "compute the coverage of a test model. The generated test inputs are the same for every value. " +
+            "(Default value: 1 = sequential)")
+    private int generatorThreads = 1;
+
     @Parameter(names = "-restartServerAfter", description = "How many handshakes should be executed for a Server before a restart? (Default value: 0 = infinite)")
     private Integer restartServerAfter = 0;
 
@@ -104,12 +113,13 @@ public class TestConfig extends TLSDelegateConfig {
     @Parameter(names = "-prettyPrintJSON", description = "Pretty print json output")
     private boolean prettyPrintJSON = false;
 
-    @Parameter(names = "-networkInterface", description = "Network interface from which packets are recorded using tcpdump. " +
-            "(Default value: any")
+    @Parameter(names = "-networkInterface", hidden = true, description = "Ignored, the packets of the tests are " +
+            "recorded by the test suite itself instead of tcpdump")
     private String networkInterface = "any";
 
-    @Parameter(names = "-disableTcpDump", description = "Disables the packet capturing with tcpdump")
-    private boolean disableTcpDump = false;
+    @Parameter(names = {"-disablePacketCapture", "-disableTcpDump"}, description = "Disables recording the " +
+            "connections of the tests into dump.pcapng")
+    private boolean disablePacketCapture = false;
     
     //we might want to turn these into CLI parameters in the future
     private boolean expectTls13Alerts = false;
@@ -219,7 +229,13 @@ public class TestConfig extends TLSDelegateConfig {
                         ProcessBuilder processBuilder = new ProcessBuilder(timeoutActionCommand);
                         Process p = processBuilder.start();
                         p.waitFor();
-                        Thread.sleep(1500);
+                        if (testEndpointMode == TestEndpointType.SERVER) {
+                            if (!awaitServer(SERVER_RESTART_TIMEOUT)) {
+                                LOGGER.warn("Server did not come back within " + SERVER_RESTART_TIMEOUT + "ms after the timeout action");
+                            }
+                        } else {
+                            Thread.sleep(1500);
+                        }
                         return p.exitValue();
                 };
             }
@@ -235,6 +251,9 @@ public class TestConfig extends TLSDelegateConfig {
         if (parallelTests == null) {
             parallelTests = (int)Math.ceil(parallelHandshakes * 1.5);
         }
+        if (generatorThreads < 1) {
+            throw new ParameterException("-generatorThreads must be at least 1");
+        }
 
         parsedArgs = true;
     }
@@ -428,6 +447,14 @@ public class TestConfig extends TLSDelegateConfig {
         this.parallelHandshakes = parallelHandshakes;
     }
 
+    public int getGeneratorThreads() {
+        return generatorThreads;
+    }
+
+    public void setGeneratorThreads(int generatorThreads) {
+        this.generatorThreads = generatorThreads;
+    }
+
     public List<ProtocolVersion> getSupportedVersions() {
         return supportedVersions;
     }
@@ -440,6 +467,23 @@ public class TestConfig extends TLSDelegateConfig {
         this.supportedVersions = Arrays.asList(supportedVersions);
     }
 
+    /**
+     * Waits until the server under test accepts TCP connections.
+     *
+     * @param timeoutMillis the overall time to wait, 0 waits without limit
+     * @return false if the server did not accept a connection in time
+     */
+    public boolean awaitServer(long timeoutMillis) throws InterruptedException {
+        OutboundConnection connection = createConfig().getDefaultClientConnection();
+        String connectionEndpoint;
+        if (connection.getHostname() != null) {
+            connectionEndpoint = connection.getHostname();
+        } else {
+            connectionEndpoint = connection.getIp();
+        }
+        return TcpReadiness.awaitConnectable(connectionEndpoint, connection.getPort(), timeoutMillis);
+    }
+
     public Callable<Integer> getTimeoutActionScript() {
         return timeoutActionScript;
     }
@@ -540,11 +584,11 @@ public class TestConfig extends TLSDelegateConfig {
         this.networkInterface = networkInterface;
     }
 
-    public boolean isDisableTcpDump() {
-        return disableTcpDump;
+    public boolean isDisablePacketCapture() {
+        return disablePacketCapture;
     }
 
-    public void setDisableTcpDump(boolean disableTcpDump) {
-        this.disableTcpDump = disableTcpDump;
+    public void setDisablePacketCapture(boolean disablePacketCapture) {
+        this.disablePacketCapture = disablePacketCapture;
     }
 }
@@ -14,7 +14,6 @@ import de.rub.nds.modifiablevariable.util.Modifiable;
 import de.rub.nds.tlsattacker.core.certificate.CertificateByteChooser;
 import de.rub.nds.tlsattacker.core.certificate.CertificateKeyPair;
 import de.rub.nds.tlsattacker.core.config.Config;
-import de.rub.nds.tlsattacker.core.connection.OutboundConnection;
 import de.rub.nds.tlsattacker.core.constants.AlgorithmResolver;
 import de.rub.nds.tlsattacker.core.constants.CertificateKeyType;
 import de.rub.nds.tlsattacker.core.constants.CipherSuite;
@@ -44,7 +43,9 @@ import de.rub.nds.tlsattacker.core.workflow.factory.WorkflowTraceType;
 import de.rub.nds.tlsattacker.core.workflow.task.StateExecutionTask;
 import de.rub.nds.tlsattacker.core.workflow.task.TlsTask;
 import de.rub.nds.tlsattacker.transport.Connection;
+import de.rub.nds.tlsattacker.transport.capture.PacketCapture;
 import de.rub.nds.tlsattacker.transport.tcp.ServerTcpTransportHandler;
+import de.rub.nds.tlsattacker.transport.tcp.TcpReadiness;
 import de.rub.nds.tlsscanner.serverscanner.TlsScanner;
 import de.rub.nds.tlsscanner.serverscanner.config.ScannerConfig;
 import de.rub.nds.tlsscanner.serverscanner.constants.ProbeType;
@@ -91,7 +92,6 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 
@@ -106,11 +106,14 @@ import org.junit.platform.launcher.listeners.LoggingListener;
 public class TestRunner {
     private static final Logger LOGGER = LogManager.getLogger();
 
+    // the trigger script starts a new client each time, so it is not repeated as eagerly as a connection attempt
+    private static final long CLIENT_TRIGGER_INITIAL_INTERVAL = 100;
+    private static final long CLIENT_TRIGGER_MAX_INTERVAL = 1000;
+
     private final TestConfig testConfig;
     private final TestContext testContext;
-    private Process tcpdumpProcess;
 
-    private boolean targetIsReady = false;
+    private volatile boolean targetIsReady = false;
 
     public TestRunner(TestConfig testConfig, TestContext testContext) {
         this.testConfig = testConfig;
@@ -169,6 +172,7 @@ public class TestRunner {
     private void waitForClient() {
         try {
             new Thread(() -> {
+                TcpReadiness.Backoff backoff = new TcpReadiness.Backoff(CLIENT_TRIGGER_INITIAL_INTERVAL, CLIENT_TRIGGER_MAX_INTERVAL, 0);
                 while (!targetIsReady) {
                     LOGGER.warn("Waiting for the client to get ready...");
                     try {
@@ -177,8 +181,10 @@ public class TestRunner {
                     } catch (Exception ignored) {}
 
                     try {
-                        Thread.sleep(1000);
-                    } catch (Exception ignored) {}
+                        backoff.pause();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
                 }
             }).start();
             Socket socket = testConfig.getTestClientDelegate().getServerSocket().accept();
@@ -190,26 +196,9 @@ public class TestRunner {
     }
 
     private void waitForServer() {
-        OutboundConnection connection = testConfig.createConfig().getDefaultClientConnection();
-
         try {
-            Socket conTest = null;
-            while (!targetIsReady) {
-                try {
-                    String connectionEndpoint;
-                    if (connection.getHostname() != null) {
-                        connectionEndpoint = connection.getHostname();
-                    } else {
-                        connectionEndpoint = connection.getIp();
-                    }
-                    conTest = new Socket(connectionEndpoint, connection.getPort());
-                    targetIsReady = conTest.isConnected();
-                } catch (Exception e) {
-                    LOGGER.warn("Server not yet available (" + e.getLocalizedMessage() + ")");
-                    Thread.sleep(1000);
-                }
-            }
-            conTest.close();
+            LOGGER.info("Waiting for the server to get ready...");
+            targetIsReady = testConfig.awaitServer(0);
         } catch (Exception e) {
             LOGGER.error(e);
             System.exit(2);
@@ -438,32 +427,28 @@ public class TestRunner {
 
     }
 
-    private void startTcpDump() {
-        if (tcpdumpProcess != null) {
+    private void startPacketCapture() {
+        if (testContext.getPacketCapture() != null) {
             LOGGER.warn("This should not happen...");
             return;
         }
 
-        String networkInterface = testConfig.getNetworkInterface();
-
-        // tcpdump -i eth0 -w /output/dump.pcap
-        ProcessBuilder tcpdump = new ProcessBuilder(
-                "tcpdump",
-                "-i", networkInterface,
-                "-w", Paths.get(testConfig.getOutputFolder(), "dump.pcap").toString()
-        );
-
+        File file = Paths.get(testConfig.getOutputFolder(), "dump.pcapng").toFile();
         try {
-            tcpdumpProcess = tcpdump.start();
-            boolean isFinished = tcpdumpProcess.waitFor(2, TimeUnit.SECONDS);
-            if (!isFinished) throw new IllegalStateException();
-            String out = new String(tcpdumpProcess.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
-            out += new String(tcpdumpProcess.getErrorStream().readAllBytes(), StandardCharsets.UTF_8);
-            throw new RuntimeException(out);
-        } catch (IllegalStateException ignored) {
+            testContext.setPacketCapture(new PacketCapture(file, "TLS-Anvil test run " + testConfig.getIdentifier()));
+        } catch (IOException e) {
+            LOGGER.error("Starting packet capture failed", e);
+        }
+    }
 
-        } catch (Exception e) {
-            LOGGER.error("Starting tcpdump failed", e);
+    private void stopPacketCapture() {
+        if (testContext.getPacketCapture() == null) {
+            return;
+        }
+        try {
+            testContext.getPacketCapture().close();
+        } catch (IOException e) {
+            LOGGER.error("Failed to write packet capture", e);
         }
     }
 
@@ -472,8 +457,8 @@ public class TestRunner {
             return;
         }
 
-        if (!testConfig.isDisableTcpDump()) {
-            startTcpDump();
+        if (!testConfig.isDisablePacketCapture()) {
+            startPacketCapture();
         }
 
         ParallelExecutor executor = new ParallelExecutor(testConfig.getParallelHandshakes(), 2);
@@ -627,6 +612,7 @@ public class TestRunner {
         LOGGER.info("\n" + content);
 
         testContext.getStateExecutor().shutdown();
+        stopPacketCapture();
 
         try {
             testConfig.getTestClientDelegate().getServerSocket().close();
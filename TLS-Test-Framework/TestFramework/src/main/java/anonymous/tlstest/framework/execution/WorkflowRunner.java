@@ -40,6 +40,7 @@ import de.rub.nds.tlsattacker.core.workflow.action.executor.ActionOption;
 import de.rub.nds.tlsattacker.core.workflow.factory.WorkflowConfigurationFactory;
 import de.rub.nds.tlsattacker.core.workflow.factory.WorkflowTraceType;
 import de.rub.nds.tlsattacker.core.workflow.task.StateExecutionTask;
+import de.rub.nds.tlsattacker.transport.capture.PacketCapture;
 import de.rub.nds.tlsattacker.transport.tcp.ServerTcpTransportHandler;
 import anonymous.tlstest.framework.constants.TestEndpointType;
 
@@ -130,6 +131,7 @@ public class WorkflowRunner {
                 });
                 TestContext.getInstance().resetServerHandshakesSinceRestart();
             }
+            capturePackets(task);
             context.getStateExecutor().bulkExecuteTasks(task);
         } else {
             try {
@@ -138,6 +140,7 @@ public class WorkflowRunner {
                 StateExecutionTask task = new StateExecutionTask(annotatedState.getState(), 2);
                 
                 task.setBeforeTransportInitCallback(context.getConfig().getTestClientDelegate().getTriggerScript());
+                capturePackets(task);
                 context.getStateExecutor().bulkExecuteTasks(task);
             } catch (IOException ex) {
                 throw new RuntimeException("Failed to set TransportHandler");
@@ -147,6 +150,23 @@ public class WorkflowRunner {
         return annotatedState;
     }
 
+    /**
+     * Records the connections of the task into the capture of the test run. Each connection
+     * is labeled with the test method and its derivation.
+     */
+    private void capturePackets(StateExecutionTask task) {
+        PacketCapture packetCapture = context.getPacketCapture();
+        if (packetCapture == null) {
+            return;
+        }
+        String label = extensionContext.getRequiredTestClass().getName() + "."
+                + extensionContext.getRequiredTestMethod().getName() + " " + extensionContext.getDisplayName();
+        task.setAfterTransportInitCallback((State state) -> {
+            state.getTlsContext().getTransportHandler().setPacketCapture(packetCapture, label);
+            return 0;
+        });
+    }
+
     /**
      * Configures the WorkflowRunner to use the WorkflowConfigurationFactory to generate workflow traces.
      * The workflows are generated when the buildFinalState is called.
@@ -49,6 +49,7 @@ public class DerivationScope {
     private final ExtensionContext extensionContext;
     private final Set<DerivationType> manualConfigTypes;
     private final int testStrength;
+    private ScopeSignature signature = null;
   
     public DerivationScope(ExtensionContext context) {
         this.keyExchangeRequirements = (KeyX)KeyX.resolveKexAnnotation(context);
@@ -81,10 +82,12 @@ public class DerivationScope {
     
     public void addScopeLimit(DerivationType type) {
         scopeLimits.add(type);
+        signature = null;
     }
     
     public void addExtension(DerivationType type) {
         scopeExtensions.add(type);
+        signature = null;
     }
      
     public KeyX getKeyExchangeRequirements() {
@@ -252,5 +255,12 @@ public class DerivationScope {
     public int getTestStrength() {
         return testStrength;
     }
+
+    public ScopeSignature getSignature() {
+        if (signature == null) {
+            signature = new ScopeSignature(this);
+        }
+        return signature;
+    }
     
 }
@@ -0,0 +1,141 @@
+/**
+ * TLS-Test-Framework - A framework for modeling TLS tests
+ *
+ * Copyright 2020 Anonymous
+ *
+ * Licensed under Apache License 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package anonymous.tlstest.framework.model;
+
+import anonymous.tlstest.framework.TestContext;
+import anonymous.tlstest.framework.TestSiteReport;
+import anonymous.tlstest.framework.constants.TestEndpointType;
+import anonymous.tlstest.framework.model.derivationParameter.DerivationParameter;
+import de.rwth.swc.coffee4j.model.InputParameterModel;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Shares the parameter values, derivations and models between all tests
+ * whose scopes have the same ScopeSignature. The values only depend on the
+ * signature and the features of the peer, so the cache is cleared if the
+ * site report or the tested endpoint changes.
+ *
+ * The values are computed outside of the maps, since computing the values
+ * of one derivation may require the values of another derivation.
+ */
+public class ModelCache {
+
+    private static final ModelCache instance = new ModelCache();
+
+    private final Map<DomainKey, List<DerivationParameter>> parameterValues = new ConcurrentHashMap<>();
+    private final Map<ScopeSignature, List<DerivationType>> derivations = new ConcurrentHashMap<>();
+    private final Map<ScopeSignature, InputParameterModel> models = new ConcurrentHashMap<>();
+
+    private volatile TestSiteReport siteReport = null;
+    private volatile TestEndpointType endpointType = null;
+
+    private volatile boolean enabled = true;
+
+    public static ModelCache getInstance() {
+        return instance;
+    }
+
+    private ModelCache() {
+    }
+
+    public List<DerivationParameter> getParameterValues(DerivationParameter derivation, TestContext context, DerivationScope scope, Supplier<List<DerivationParameter>> computation) {
+        validate(context);
+        DomainKey key = new DomainKey(derivation.getType(), derivation.getParent(), scope.getSignature());
+        return new LinkedList<>(lookup(parameterValues, key, computation));
+    }
+
+    public List<DerivationType> getDerivations(DerivationScope scope, Supplier<List<DerivationType>> computation) {
+        validate(TestContext.getInstance());
+        return new LinkedList<>(lookup(derivations, scope.getSignature(), computation));
+    }
+
+    public InputParameterModel getModel(DerivationScope scope, TestContext context, Supplier<InputParameterModel> computation) {
+        validate(context);
+        return lookup(models, scope.getSignature(), computation);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Disabling the cache computes every model anew, e.g. to compare the
+     * cached models with the ones computed without the cache.
+     */
+    public synchronized void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        clear();
+    }
+
+    public synchronized void clear() {
+        parameterValues.clear();
+        derivations.clear();
+        models.clear();
+    }
+
+    private <K, V> V lookup(Map<K, V> cache, K key, Supplier<V> computation) {
+        if (!enabled) {
+            return computation.get();
+        }
+        V value = cache.get(key);
+        if (value == null) {
+            value = computation.get();
+            V existing = cache.putIfAbsent(key, value);
+            if (existing != null) {
+                value = existing;
+            }
+        }
+        return value;
+    }
+
+    private void validate(TestContext context) {
+        TestEndpointType currentEndpointType = context.getConfig().getTestEndpointMode();
+        if (siteReport != context.getSiteReport() || endpointType != currentEndpointType) {
+            synchronized (this) {
+                if (siteReport != context.getSiteReport() || endpointType != currentEndpointType) {
+                    clear();
+                    siteReport = context.getSiteReport();
+                    endpointType = currentEndpointType;
+                }
+            }
+        }
+    }
+
+    private static class DomainKey {
+
+        private final DerivationType type;
+        private final DerivationType parent;
+        private final ScopeSignature signature;
+
+        DomainKey(DerivationType type, DerivationType parent, ScopeSignature signature) {
+            this.type = type;
+            this.parent = parent;
+            this.signature = signature;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof DomainKey)) {
+                return false;
+            }
+            DomainKey other = (DomainKey) obj;
+            return type == other.type && parent == other.parent && signature.equals(other.signature);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, parent, signature);
+        }
+    }
+}
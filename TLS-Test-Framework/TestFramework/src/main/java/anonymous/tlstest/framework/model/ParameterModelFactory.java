@@ -33,6 +33,10 @@ public class ParameterModelFactory {
     private static final Logger LOGGER = LogManager.getLogger();
 
     public static InputParameterModel generateModel(DerivationScope derivationScope, TestContext testContext) {
+        return ModelCache.getInstance().getModel(derivationScope, testContext, () -> buildModel(derivationScope, testContext));
+    }
+
+    private static InputParameterModel buildModel(DerivationScope derivationScope, TestContext testContext) {
         List<DerivationType> derivationTypes = getDerivationsForScope(derivationScope);
         Parameter.Builder[] builders = getModelParameters(derivationTypes, testContext, derivationScope);
         Constraint[] constraints = getModelConstraints(derivationTypes, derivationScope);
@@ -41,6 +45,10 @@ public class ParameterModelFactory {
     }
 
     public static List<DerivationType> getDerivationsForScope(DerivationScope derivationScope) {
+        return ModelCache.getInstance().getDerivations(derivationScope, () -> resolveDerivationsForScope(derivationScope));
+    }
+
+    private static List<DerivationType> resolveDerivationsForScope(DerivationScope derivationScope) {
         List<DerivationType> resultingDerivations = new LinkedList<>();
         List<DerivationType> derivationsOfModel = getDerivationsOfModel(derivationScope);
         for (DerivationType derivationType : DerivationType.values()) {
@@ -0,0 +1,104 @@
+/**
+ * TLS-Test-Framework - A framework for modeling TLS tests
+ *
+ * Copyright 2020 Anonymous
+ *
+ * Licensed under Apache License 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package anonymous.tlstest.framework.model;
+
+import anonymous.tlstest.framework.constants.KeyExchangeType;
+import anonymous.tlstest.framework.constants.KeyX;
+import anonymous.tlstest.framework.model.constraint.ValueConstraint;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Holds the properties of a DerivationScope the model is derived from. Scopes
+ * of different tests with equal signatures yield the same parameter values,
+ * constraints and models, as long as the features of the peer do not change.
+ * Explicit values and modeling constraints are methods of the test class, so
+ * the signature only contains the test class if they are used.
+ */
+public class ScopeSignature {
+
+    private final ModelType baseModel;
+    private final Set<DerivationType> scopeLimits;
+    private final Set<DerivationType> scopeExtensions;
+    private final Set<KeyExchangeType> supportedKeyExchanges;
+    private final boolean requiresServerKeyExchMsg;
+    private final List<String> valueConstraints;
+    private final Map<DerivationType, String> explicitValues;
+    private final Map<DerivationType, String> explicitModelingConstraints;
+    private final String testClass;
+    private final int testStrength;
+
+    public ScopeSignature(DerivationScope scope) {
+        this.baseModel = scope.getBaseModel();
+        this.scopeLimits = toSet(scope.getScopeLimits());
+        this.scopeExtensions = toSet(scope.getScopeExtensions());
+        KeyX keyExchange = scope.getKeyExchangeRequirements();
+        this.supportedKeyExchanges = EnumSet.noneOf(KeyExchangeType.class);
+        this.supportedKeyExchanges.addAll(Arrays.asList(keyExchange.supported()));
+        this.requiresServerKeyExchMsg = keyExchange.requiresServerKeyExchMsg();
+        this.valueConstraints = new LinkedList<>();
+        for (ValueConstraint constraint : scope.getValueConstraints()) {
+            //static constraints are methods of the value class
+            String owner = constraint.isDynamic() ? constraint.getClazz().getName() : "";
+            valueConstraints.add(constraint.getAffectedType() + ":" + constraint.getEvaluationMethod() + ":" + owner);
+        }
+        this.explicitValues = new HashMap<>(scope.getExplicitTypeValues());
+        this.explicitModelingConstraints = new HashMap<>();
+        for (DerivationType type : DerivationType.values()) {
+            if (scope.hasExplicitModelingConstraints(type)) {
+                explicitModelingConstraints.put(type, scope.getExplicitModelingConstraintMethod(type));
+            }
+        }
+        if (explicitValues.isEmpty() && explicitModelingConstraints.isEmpty()) {
+            this.testClass = null;
+        } else {
+            this.testClass = scope.getExtensionContext().getRequiredTestClass().getName();
+        }
+        this.testStrength = scope.getTestStrength();
+    }
+
+    private static Set<DerivationType> toSet(List<DerivationType> types) {
+        Set<DerivationType> set = EnumSet.noneOf(DerivationType.class);
+        set.addAll(types);
+        return set;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        ScopeSignature other = (ScopeSignature) obj;
+        return baseModel == other.baseModel
+                && requiresServerKeyExchMsg == other.requiresServerKeyExchMsg
+                && testStrength == other.testStrength
+                && scopeLimits.equals(other.scopeLimits)
+                && scopeExtensions.equals(other.scopeExtensions)
+                && supportedKeyExchanges.equals(other.supportedKeyExchanges)
+                && valueConstraints.equals(other.valueConstraints)
+                && explicitValues.equals(other.explicitValues)
+                && explicitModelingConstraints.equals(other.explicitModelingConstraints)
+                && Objects.equals(testClass, other.testClass);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(baseModel, scopeLimits, scopeExtensions, supportedKeyExchanges, requiresServerKeyExchMsg,
+                valueConstraints, explicitValues, explicitModelingConstraints, testClass, testStrength);
+    }
+}
@@ -14,6 +14,7 @@ import de.rub.nds.tlsattacker.core.config.Config;
 import anonymous.tlstest.framework.TestContext;
 import anonymous.tlstest.framework.model.DerivationScope;
 import anonymous.tlstest.framework.model.DerivationType;
+import anonymous.tlstest.framework.model.ModelCache;
 import anonymous.tlstest.framework.model.constraint.ConditionalConstraint;
 import anonymous.tlstest.framework.model.constraint.ValueConstraint;
 import de.rwth.swc.coffee4j.model.Parameter;
@@ -50,6 +51,10 @@ public abstract class DerivationParameter<T> {
     public abstract List<DerivationParameter> getParameterValues(TestContext context, DerivationScope scope);
 
     public List<DerivationParameter> getConstrainedParameterValues(TestContext context, DerivationScope scope) {
+        return ModelCache.getInstance().getParameterValues(this, context, scope, () -> computeConstrainedParameterValues(context, scope));
+    }
+
+    private List<DerivationParameter> computeConstrainedParameterValues(TestContext context, DerivationScope scope) {
         List<DerivationParameter> parameterValues = new LinkedList<>();
         if (scope.hasExplicitValues(type)) { 
             parameterValues = getExplicitValues(scope);
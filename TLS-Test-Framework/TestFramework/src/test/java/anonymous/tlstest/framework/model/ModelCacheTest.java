@@ -0,0 +1,173 @@
+/**
+ * TLS-Test-Framework - A framework for modeling TLS tests
+ *
+ * Copyright 2020 Anonymous
+ *
+ * Licensed under Apache License 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package anonymous.tlstest.framework.model;
+
+import anonymous.tlstest.framework.TestContext;
+import anonymous.tlstest.framework.TestSiteReport;
+import anonymous.tlstest.framework.annotations.KeyExchange;
+import anonymous.tlstest.framework.annotations.ScopeExtensions;
+import anonymous.tlstest.framework.annotations.ScopeLimitations;
+import anonymous.tlstest.framework.annotations.TestStrength;
+import anonymous.tlstest.framework.coffee4j.model.ModelFromScope;
+import anonymous.tlstest.framework.constants.KeyExchangeType;
+import anonymous.tlstest.framework.constants.TestEndpointType;
+import anonymous.tlstest.framework.utils.ExtensionContextResolver;
+import de.rub.nds.tlsattacker.core.constants.CipherSuite;
+import de.rub.nds.tlsattacker.core.constants.ExtensionType;
+import de.rub.nds.tlsattacker.core.constants.NamedGroup;
+import de.rub.nds.tlsattacker.core.constants.ProtocolVersion;
+import de.rwth.swc.coffee4j.model.InputParameterModel;
+import de.rwth.swc.coffee4j.model.Parameter;
+import de.rwth.swc.coffee4j.model.Value;
+import de.rwth.swc.coffee4j.model.constraints.Constraint;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Builds the models of several scopes with and without the ModelCache. The
+ * cached models must contain the same parameters with the same values in the
+ * same order and the same constraints, otherwise the generated test inputs
+ * would change.
+ */
+@ExtendWith(ExtensionContextResolver.class)
+public class ModelCacheTest {
+
+    @BeforeAll
+    public static void setup() {
+        TestSiteReport siteReport = new TestSiteReport("");
+        siteReport.addCipherSuites(new HashSet<>(Arrays.asList(
+                CipherSuite.TLS_RSA_WITH_AES_128_CBC_SHA,
+                CipherSuite.TLS_RSA_WITH_AES_256_GCM_SHA384,
+                CipherSuite.TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256,
+                CipherSuite.TLS_ECDHE_RSA_WITH_AES_256_CBC_SHA)));
+        siteReport.setVersions(Arrays.asList(ProtocolVersion.TLS12));
+        siteReport.setSupportedNamedGroups(Arrays.asList(NamedGroup.SECP256R1, NamedGroup.SECP384R1, NamedGroup.ECDH_X25519));
+        siteReport.setSupportedTls13Groups(new LinkedList<>());
+        siteReport.setSupportedExtensions(Arrays.asList(ExtensionType.ENCRYPT_THEN_MAC, ExtensionType.EXTENDED_MASTER_SECRET));
+        TestContext.getInstance().setSiteReport(siteReport);
+        TestContext.getInstance().getConfig().setTestEndpointMode(TestEndpointType.SERVER);
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        ModelCache.getInstance().setEnabled(true);
+    }
+
+    @Test
+    @KeyExchange(supported = {KeyExchangeType.RSA, KeyExchangeType.ECDH})
+    @TestStrength(2)
+    public void test_genericModel(ExtensionContext context) {
+        assertCachedModelEqualsUncachedModel(context);
+    }
+
+    @Test
+    @KeyExchange(supported = KeyExchangeType.ECDH)
+    @TestStrength(3)
+    @ScopeLimitations(DerivationType.RECORD_LENGTH)
+    @ScopeExtensions(DerivationType.APP_MSG_LENGHT)
+    public void test_modifiedScope(ExtensionContext context) {
+        assertCachedModelEqualsUncachedModel(context);
+    }
+
+    @Test
+    @KeyExchange(supported = KeyExchangeType.RSA)
+    @TestStrength(2)
+    @ModelFromScope(baseModel = ModelType.LENGTHFIELD)
+    public void test_lengthfieldModel(ExtensionContext context) {
+        assertCachedModelEqualsUncachedModel(context);
+    }
+
+    private void assertCachedModelEqualsUncachedModel(ExtensionContext context) {
+        ModelCache.getInstance().setEnabled(false);
+        InputParameterModel uncached = ParameterModelFactory.generateModel(new DerivationScope(context), TestContext.getInstance());
+
+        ModelCache.getInstance().setEnabled(true);
+        InputParameterModel cached = ParameterModelFactory.generateModel(new DerivationScope(context), TestContext.getInstance());
+        assertSame(cached, ParameterModelFactory.generateModel(new DerivationScope(context), TestContext.getInstance()));
+
+        assertFalse(uncached.getParameters().isEmpty());
+        assertEquals(uncached.getStrength(), cached.getStrength());
+        assertEquals(getParameterNames(uncached), getParameterNames(cached));
+        for (int i = 0; i < uncached.getParameters().size(); i++) {
+            assertEquals(getValues(uncached.getParameters().get(i)), getValues(cached.getParameters().get(i)));
+        }
+        assertConstraintsEqual(uncached, uncached.getExclusionConstraints(), cached, cached.getExclusionConstraints());
+        assertConstraintsEqual(uncached, uncached.getErrorConstraints(), cached, cached.getErrorConstraints());
+    }
+
+    /**
+     * The constraint functions are compared by their results for all
+     * combinations of the values of the constrained parameters.
+     */
+    private void assertConstraintsEqual(InputParameterModel uncachedModel, List<Constraint> uncached, InputParameterModel cachedModel, List<Constraint> cached) {
+        assertEquals(uncached.size(), cached.size());
+        for (int i = 0; i < uncached.size(); i++) {
+            assertEquals(uncached.get(i).getName(), cached.get(i).getName());
+            assertEquals(uncached.get(i).getParameterNames(), cached.get(i).getParameterNames());
+            assertEquals(checkAllCombinations(uncachedModel, uncached.get(i)), checkAllCombinations(cachedModel, cached.get(i)));
+        }
+    }
+
+    private List<Boolean> checkAllCombinations(InputParameterModel model, Constraint constraint) {
+        List<List<Object>> combinations = new LinkedList<>();
+        combinations.add(new LinkedList<>());
+        for (String parameterName : constraint.getParameterNames()) {
+            List<List<Object>> extendedCombinations = new LinkedList<>();
+            for (List<Object> combination : combinations) {
+                for (Value value : getParameter(model, parameterName).getValues()) {
+                    List<Object> extendedCombination = new LinkedList<>(combination);
+                    extendedCombination.add(value.get());
+                    extendedCombinations.add(extendedCombination);
+                }
+            }
+            combinations = extendedCombinations;
+        }
+        List<Boolean> results = new LinkedList<>();
+        for (List<Object> combination : combinations) {
+            results.add(constraint.getConstraintFunction().check(combination));
+        }
+        return results;
+    }
+
+    private Parameter getParameter(InputParameterModel model, String name) {
+        for (Parameter parameter : model.getParameters()) {
+            if (parameter.getName().equals(name)) {
+                return parameter;
+            }
+        }
+        throw new IllegalArgumentException("The model has no parameter " + name);
+    }
+
+    private List<String> getParameterNames(InputParameterModel model) {
+        List<String> names = new LinkedList<>();
+        for (Parameter parameter : model.getParameters()) {
+            names.add(parameter.getName());
+        }
+        return names;
+    }
+
+    private List<String> getValues(Parameter parameter) {
+        List<String> values = new LinkedList<>();
+        for (Value value : parameter.getValues()) {
+            values.add(String.valueOf(value.get()));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * TLS-Test-Framework - A framework for modeling TLS tests
+ *
+ * Copyright 2020 Anonymous
+ *
+ * Licensed under Apache License 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package anonymous.tlstest.framework.model;
+
+import anonymous.tlstest.framework.TestContext;
+import anonymous.tlstest.framework.TestSiteReport;
+import anonymous.tlstest.framework.annotations.KeyExchange;
+import anonymous.tlstest.framework.annotations.ManualConfig;
+import anonymous.tlstest.framework.annotations.TestStrength;
+import anonymous.tlstest.framework.constants.KeyExchangeType;
+import anonymous.tlstest.framework.utils.ExtensionContextResolver;
+import de.rub.nds.tlsattacker.core.constants.CipherSuite;
+import java.util.HashSet;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+@ExtendWith(ExtensionContextResolver.class)
+public class ScopeSignatureTest {
+
+    @BeforeAll
+    public static void setup() {
+        TestSiteReport siteReport = new TestSiteReport("");
+        siteReport.addCipherSuites(new HashSet<CipherSuite>(){
+            {
+                add(CipherSuite.TLS_RSA_WITH_AES_256_CBC_SHA);
+            }
+        });
+        TestContext.getInstance().setSiteReport(siteReport);
+    }
+
+    @Test
+    @KeyExchange(supported = KeyExchangeType.RSA)
+    @TestStrength(2)
+    @ManualConfig(DerivationType.CIPHERSUITE)
+    public void test_equalScopes(ExtensionContext context) {
+        DerivationScope scope = new DerivationScope(context);
+        DerivationScope otherScope = new DerivationScope(context);
+
+        assertEquals(scope.getSignature(), otherScope.getSignature());
+        assertEquals(scope.getSignature().hashCode(), otherScope.getSignature().hashCode());
+    }
+
+    @Test
+    @KeyExchange(supported = KeyExchangeType.RSA)
+    @TestStrength(2)
+    public void test_modifiedScope(ExtensionContext context) {
+        DerivationScope scope = new DerivationScope(context);
+        DerivationScope limitedScope = new DerivationScope(context);
+        limitedScope.addScopeLimit(DerivationType.RECORD_LENGTH);
+        assertNotEquals(scope.getSignature(), limitedScope.getSignature());
+
+        DerivationScope extendedScope = new DerivationScope(context);
+        ScopeSignature signature = extendedScope.getSignature();
+        extendedScope.addExtension(DerivationType.APP_MSG_LENGHT);
+        assertNotEquals(signature, extendedScope.getSignature());
+    }
+}
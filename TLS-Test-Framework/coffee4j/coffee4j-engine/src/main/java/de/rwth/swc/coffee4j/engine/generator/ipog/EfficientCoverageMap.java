@@ -34,6 +34,8 @@ public class EfficientCoverageMap implements CoverageMap {
     
     private final ConstraintChecker constraintChecker;
     
+    private final int offHeapThreshold;
+    
     /**
      * Initializes a new coverage map with the given parameter combinations
      * and the fixed parameter. This means that internally the fixed parameter
@@ -56,6 +58,28 @@ public class EfficientCoverageMap implements CoverageMap {
      */
     public EfficientCoverageMap(Collection<IntSet> parameterCombinations, int fixedParameter, Int2IntMap parameters,
                                 ConstraintChecker constraintChecker) {
+        this(parameterCombinations, fixedParameter, parameters, constraintChecker, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Initializes a new coverage map like
+     * {@link #EfficientCoverageMap(Collection, int, Int2IntMap, ConstraintChecker)}, but stores the coverage of
+     * parameter combinations with at least the given number of tuples outside of the heap.
+     *
+     * @param parameterCombinations the parameter combinations for which the
+     *                              tuple coverage shall be tracked.
+     *                              Must not be {@code null}
+     * @param fixedParameter        the parameter added to all parameters.
+     *                              Must not be negative
+     * @param parameters            the sizes of all parameter. Must contains the sizes
+     *                              of the parameters in all combinations and the fixed
+     *                              parameter. Must not be {@code null}
+     * @param constraintChecker     ConstraintChecker to identify irrelevant combinations
+     * @param offHeapThreshold      the number of tuples from which on the coverage of a
+     *                              parameter combination is stored outside of the heap
+     */
+    public EfficientCoverageMap(Collection<IntSet> parameterCombinations, int fixedParameter, Int2IntMap parameters,
+                                ConstraintChecker constraintChecker, int offHeapThreshold) {
         Preconditions.notNull(parameterCombinations, PARAMETER_COMBINATIONS_NOT_NULL);
         Preconditions.notNull(parameters, PARAMETERS_NOT_NULL);
         Preconditions.check(fixedParameter >= 0, PARAMETER_NOT_VALID);
@@ -63,6 +87,7 @@ public class EfficientCoverageMap implements CoverageMap {
         Preconditions.notNull(constraintChecker);
         
         this.constraintChecker = constraintChecker;
+        this.offHeapThreshold = offHeapThreshold;
         this.fixedParameter = fixedParameter;
         fixedParameterSize = parameters.get(fixedParameter);
         constructCombinationCoverageMap(parameterCombinations, fixedParameter, parameters);
@@ -82,7 +107,8 @@ public class EfficientCoverageMap implements CoverageMap {
                             parameterCombination,
                             fixedParameter,
                             parameters,
-                            constraintChecker));
+                            constraintChecker,
+                            offHeapThreshold));
         }
     }
     
@@ -22,9 +22,20 @@ public class Ipog implements TestInputGroupGenerator {
     private static final String DISPLAY_NAME = "Positive IpogAlgorithm Tests";
 
     private final ConstraintCheckerFactory factory;
+    private final int parallelism;
 
     public Ipog(ConstraintCheckerFactory factory) {
+        this(factory, 1);
+    }
+
+    /**
+     * @param factory     used to create the constraint checkers for the generation
+     * @param parallelism the number of threads used by {@link IpogAlgorithm} for the coverage computation. With
+     *                    {@code 1}, the sequential algorithm is used
+     */
+    public Ipog(ConstraintCheckerFactory factory, int parallelism) {
         this.factory = factory;
+        this.parallelism = parallelism;
     }
 
     /**
@@ -48,6 +59,8 @@ public class Ipog implements TestInputGroupGenerator {
                     IpogConfiguration.ipogConfiguration()
                             .testModel(model)
                             .checker(factory.createConstraintChecker(model))
+                            .parallelism(parallelism)
+                            .partitionCheckerFactory(factory)
                             .build()).generate();
             final FaultCharacterizationConfiguration faultCharacterizationConfiguration
                     = new FaultCharacterizationConfiguration(model, factory.createConstraintChecker(model), reporter);
@@ -14,6 +14,8 @@ import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 import static de.rwth.swc.coffee4j.engine.util.CombinationUtil.NO_VALUE;
@@ -27,11 +29,16 @@ import static de.rwth.swc.coffee4j.engine.util.CombinationUtil.containsAllParame
  * The algorithm was extended to offer support for constraints, dynamic parameter orders, and variable strength testing.
  * To introduce parameter orders, the strategy pattern is used with {@link ParameterOrder}, and the same is done for
  * variable strength testing via {@link ParameterCombinationFactory}.
+ * <p>
+ * If {@link IpogConfiguration#getParallelism()} is greater than one, the coverage map is split into partitions via
+ * {@link PartitionedCoverageMap} which are evaluated concurrently during the horizontal and vertical extension.
  */
 public class IpogAlgorithm {
 
     private final IpogConfiguration configuration;
 
+    private ExecutorService executor;
+
     /**
      * Creates a new algorithm for the given configuration. After this, the {@link IpogAlgorithm#generate()} method can be used
      * to generate the test suite satisfying the configuration.
@@ -44,6 +51,20 @@ public class IpogAlgorithm {
     }
 
     public List<int[]> generate() {
+        if (configuration.getParallelism() <= 1) {
+            return generateTestSuite();
+        }
+
+        executor = Executors.newFixedThreadPool(configuration.getParallelism());
+        try {
+            return generateTestSuite();
+        } finally {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private List<int[]> generateTestSuite() {
         final Int2IntMap parameters = convertToFactors(configuration.getTestModel());
         final int[] initialParameters = configuration.getOrder()
                 .getInitialParameters(parameters, configuration.getTestModel().getStrength());
@@ -134,7 +155,14 @@ public class IpogAlgorithm {
     protected CoverageMap constructCoverageMap(int nextParameter,
                                                Int2IntMap allParameters,
                                                List<IntSet> parameterCombinations) {
-        return new EfficientCoverageMap(parameterCombinations, nextParameter, allParameters, configuration.getChecker());
+        if (executor != null) {
+            return new PartitionedCoverageMap(parameterCombinations, nextParameter, allParameters,
+                    configuration.getParallelism(), configuration.getOffHeapThreshold(),
+                    configuration.getPartitionCheckerFactory(), executor);
+        }
+
+        return new EfficientCoverageMap(parameterCombinations, nextParameter, allParameters, configuration.getChecker(),
+                configuration.getOffHeapThreshold());
     }
 
     private void addValueWithHighestCoverageGain(CoverageMap coverageMap,
@@ -2,6 +2,7 @@ package de.rwth.swc.coffee4j.engine.generator.ipog;
 
 import de.rwth.swc.coffee4j.engine.TestModel;
 import de.rwth.swc.coffee4j.engine.constraint.ConstraintChecker;
+import de.rwth.swc.coffee4j.engine.constraint.ConstraintCheckerFactory;
 import de.rwth.swc.coffee4j.engine.constraint.NoConstraintChecker;
 import de.rwth.swc.coffee4j.engine.report.Report;
 import de.rwth.swc.coffee4j.engine.report.ReportLevel;
@@ -24,6 +25,9 @@ public class IpogConfiguration {
     private final ParameterCombinationFactory factory;
     private final ParameterOrder order;
     private final Reporter reporter;
+    private final int parallelism;
+    private final ConstraintCheckerFactory partitionCheckerFactory;
+    private final int offHeapThreshold;
     
     private IpogConfiguration(Builder builder) {
         this.testModel = Preconditions.notNull(builder.testModel);
@@ -31,6 +35,10 @@ public class IpogConfiguration {
         this.factory = Preconditions.notNull(builder.factory);
         this.order = Preconditions.notNull(builder.order);
         this.reporter = Preconditions.notNull(builder.reporter);
+        Preconditions.check(builder.parallelism > 0, "parallelism must be positive");
+        this.parallelism = builder.parallelism;
+        this.partitionCheckerFactory = builder.partitionCheckerFactory;
+        this.offHeapThreshold = builder.offHeapThreshold;
     }
 
     TestModel getTestModel() {
@@ -53,6 +61,29 @@ public class IpogConfiguration {
         return reporter;
     }
     
+    int getParallelism() {
+        return parallelism;
+    }
+    
+    int getOffHeapThreshold() {
+        return offHeapThreshold;
+    }
+    
+    /**
+     * @return a supplier for the constraint checkers used by the partitions of a {@link PartitionedCoverageMap}. If
+     * no {@link ConstraintCheckerFactory} was configured, all partitions share the {@link #getChecker() checker}
+     * through a synchronized view
+     */
+    Supplier<ConstraintChecker> getPartitionCheckerFactory() {
+        if (partitionCheckerFactory == null) {
+            final ConstraintChecker synchronizedChecker = new SynchronizedConstraintChecker(checker);
+            
+            return () -> synchronizedChecker;
+        }
+        
+        return () -> partitionCheckerFactory.createConstraintChecker(testModel);
+    }
+    
     @Override
     public boolean equals(Object object) {
         if (this == object) {
@@ -63,17 +94,17 @@ public class IpogConfiguration {
         }
         
         final IpogConfiguration other = (IpogConfiguration) object;
-        return Objects.equals(testModel, other.testModel) && Objects.equals(checker, other.checker) && Objects.equals(factory, other.factory) && Objects.equals(order, other.order) && Objects.equals(reporter, other.reporter);
+        return Objects.equals(testModel, other.testModel) && Objects.equals(checker, other.checker) && Objects.equals(factory, other.factory) && Objects.equals(order, other.order) && Objects.equals(reporter, other.reporter) && parallelism == other.parallelism && Objects.equals(partitionCheckerFactory, other.partitionCheckerFactory) && offHeapThreshold == other.offHeapThreshold;
     }
     
     @Override
     public int hashCode() {
-        return Objects.hash(testModel, checker, factory, order, reporter);
+        return Objects.hash(testModel, checker, factory, order, reporter, parallelism, partitionCheckerFactory, offHeapThreshold);
     }
     
     @Override
     public String toString() {
-        return "IpogConfiguration{" + "testModel=" + testModel + ", solver=" + checker + ", factory=" + factory + ", order=" + order + ", reporter=" + reporter + '}';
+        return "IpogConfiguration{" + "testModel=" + testModel + ", solver=" + checker + ", factory=" + factory + ", order=" + order + ", reporter=" + reporter + ", parallelism=" + parallelism + ", partitionCheckerFactory=" + partitionCheckerFactory + ", offHeapThreshold=" + offHeapThreshold + '}';
     }
     
     public static Builder ipogConfiguration() {
@@ -102,6 +133,9 @@ public class IpogConfiguration {
         private ParameterCombinationFactory factory = new TWiseParameterCombinationFactory();
         private ParameterOrder order = new StrengthBasedParameterOrder();
         private Reporter reporter = NO_OP_REPORTER;
+        private int parallelism = 1;
+        private ConstraintCheckerFactory partitionCheckerFactory;
+        private int offHeapThreshold = Integer.MAX_VALUE;
         
         /**
          * @param testModel used to generate the test suite. As this contains all main information and the algorithm cannot
@@ -160,6 +194,45 @@ public class IpogConfiguration {
             return this;
         }
         
+        /**
+         * @param parallelism the number of threads used to compute coverage gains and to mark covered combinations
+         *                    during the horizontal extension. This is an optional field. If not set, the default of
+         *                    {@code 1} is used, which runs the sequential algorithm. The generated test suite is
+         *                    deterministic for every value
+         * @return this
+         */
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            
+            return this;
+        }
+        
+        /**
+         * @param partitionCheckerFactory used to create one constraint checker per coverage map partition if the
+         *                                parallelism is greater than one. This is an optional field. If not set, all
+         *                                partitions share the configured checker, which limits the concurrency for
+         *                                models with constraints
+         * @return this
+         */
+        public Builder partitionCheckerFactory(ConstraintCheckerFactory partitionCheckerFactory) {
+            this.partitionCheckerFactory = partitionCheckerFactory;
+            
+            return this;
+        }
+        
+        /**
+         * @param offHeapThreshold the number of t-tuples from which on the coverage of a parameter combination is
+         *                         stored outside of the heap. This is an optional field. If not set, all coverage is
+         *                         stored on the heap. Lower values keep large models at high strengths from filling
+         *                         the heap
+         * @return this
+         */
+        public Builder offHeapThreshold(int offHeapThreshold) {
+            this.offHeapThreshold = offHeapThreshold;
+            
+            return this;
+        }
+        
         /**
          * @return a new complete configuration which can be used to construct an instance of {@link IpogAlgorithm}
          * @throws NullPointerException if any parameter has been set to {@code null} or if the testModel has not been set
@@ -0,0 +1,154 @@
+package de.rwth.swc.coffee4j.engine.generator.ipog;
+
+import de.rwth.swc.coffee4j.engine.util.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * A fixed size bit set storing which tuples of one parameter combination are covered. In contrast to
+ * {@link java.util.BitSet}, the number of set bits is tracked on every update, so checking for uncovered tuples
+ * does not have to count all words again.
+ * <p>
+ * The words are either stored in a {@code long[]} on the heap or in a direct buffer outside of the heap. The latter
+ * keeps very large coverage maps at high strengths out of the garbage collected heap.
+ */
+abstract class PackedCoverageBitSet {
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+    private static final long WORD_MASK = 0xFFFFFFFFFFFFFFFFL;
+
+    private final int size;
+    private final int numberOfWords;
+    private int cardinality;
+
+    private PackedCoverageBitSet(int size) {
+        Preconditions.check(size >= 0, "The size must not be negative");
+
+        this.size = size;
+        this.numberOfWords = wordIndex(size - 1) + 1;
+    }
+
+    /**
+     * @param size    the number of bits. Must not be negative
+     * @param offHeap whether the words should be stored outside of the heap
+     * @return a new bit set in which all bits are cleared
+     */
+    static PackedCoverageBitSet create(int size, boolean offHeap) {
+        return offHeap ? new OffHeap(size) : new Heap(size);
+    }
+
+    private static int wordIndex(int bitIndex) {
+        return bitIndex >> ADDRESS_BITS_PER_WORD;
+    }
+
+    abstract long getWord(int wordIndex);
+
+    abstract void setWord(int wordIndex, long word);
+
+    int size() {
+        return size;
+    }
+
+    int cardinality() {
+        return cardinality;
+    }
+
+    boolean isFull() {
+        return cardinality == size;
+    }
+
+    boolean get(int bitIndex) {
+        return (getWord(wordIndex(bitIndex)) & (1L << bitIndex)) != 0;
+    }
+
+    /**
+     * @param bitIndex the bit to set
+     * @return whether the bit was previously cleared
+     */
+    boolean set(int bitIndex) {
+        final int wordIndex = wordIndex(bitIndex);
+        final long word = getWord(wordIndex);
+        final long mask = 1L << bitIndex;
+
+        if ((word & mask) != 0) {
+            return false;
+        }
+
+        setWord(wordIndex, word | mask);
+        cardinality++;
+
+        return true;
+    }
+
+    /**
+     * Finds the first cleared bit starting at the given index by skipping full words.
+     *
+     * @param fromIndex the first bit to consider
+     * @return the index of the first cleared bit or {@link #size()} if all further bits are set
+     */
+    int nextClearBit(int fromIndex) {
+        if (fromIndex >= size) {
+            return size;
+        }
+
+        int wordIndex = wordIndex(fromIndex);
+        long word = ~getWord(wordIndex) & (WORD_MASK << fromIndex);
+
+        while (true) {
+            if (word != 0) {
+                return Math.min(size, (wordIndex * Long.SIZE) + Long.numberOfTrailingZeros(word));
+            }
+            if (++wordIndex == numberOfWords) {
+                return size;
+            }
+            word = ~getWord(wordIndex);
+        }
+    }
+
+    private static final class Heap extends PackedCoverageBitSet {
+
+        private final long[] words;
+
+        private Heap(int size) {
+            super(size);
+
+            words = new long[Math.max(1, wordIndex(size - 1) + 1)];
+        }
+
+        @Override
+        long getWord(int wordIndex) {
+            return words[wordIndex];
+        }
+
+        @Override
+        void setWord(int wordIndex, long word) {
+            words[wordIndex] = word;
+        }
+    }
+
+    private static final class OffHeap extends PackedCoverageBitSet {
+
+        private final LongBuffer words;
+
+        private OffHeap(int size) {
+            super(size);
+
+            final int numberOfWords = Math.max(1, wordIndex(size - 1) + 1);
+            words = ByteBuffer.allocateDirect(numberOfWords * Long.BYTES)
+                    .order(ByteOrder.nativeOrder())
+                    .asLongBuffer();
+        }
+
+        @Override
+        long getWord(int wordIndex) {
+            return words.get(wordIndex);
+        }
+
+        @Override
+        void setWord(int wordIndex, long word) {
+            words.put(wordIndex, word);
+        }
+    }
+}
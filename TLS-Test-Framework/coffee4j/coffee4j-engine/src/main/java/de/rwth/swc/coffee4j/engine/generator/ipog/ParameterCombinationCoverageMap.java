@@ -5,13 +5,16 @@ import it.unimi.dsi.fastutil.ints.Int2IntMap;
 import it.unimi.dsi.fastutil.ints.IntSet;
 
 import java.util.Arrays;
-import java.util.BitSet;
 import java.util.Optional;
 
 import static de.rwth.swc.coffee4j.engine.util.CombinationUtil.NO_VALUE;
 
 /**
  * This acts as a partial coverage map for one parameter combination.
+ * <p>
+ * The tuples are mapped to bits in a {@link PackedCoverageBitSet} using a mixed-radix index in which the fixed
+ * parameter is the most significant digit. The order of the tuples determines which uncovered tuple is found first,
+ * so it must not change as long as the generated test suites are expected to stay the same.
  *
  * See {@link EfficientCoverageMap EfficientCoverageMap} and section 4.1 of the paper
  * "An Efficient Design and Implementation of the In-Parameter-Order Algorithm" for more information.
@@ -25,16 +28,16 @@ final class ParameterCombinationCoverageMap {
     private final int[] parameterSizes;
     private final int[] parameterMultipliers;
 
-    private final BitSet coverageMap;
+    private final PackedCoverageBitSet coverageMap;
 
     private final ConstraintChecker constraintChecker;
 
     /**
-     * Initializes a new ParameterCombinationCoverageMap.
+     * Initializes a new ParameterCombinationCoverageMap which stores its coverage on the heap.
      *
      * @param parameterCombination  the parameter combinations for which the
-     *      *                       tuple coverage shall be tracked.
-     *      *                       Must not be {@code null}
+     *                              tuple coverage shall be tracked.
+     *                              Must not be {@code null}
      * @param fixedParameter        the parameter added to all parameters.
      *                              Must not be negative
      * @param parameters            the sizes of all parameter. Must contains the sizes
@@ -46,6 +49,28 @@ final class ParameterCombinationCoverageMap {
                                     int fixedParameter,
                                     Int2IntMap parameters,
                                     ConstraintChecker constraintChecker) {
+        this(parameterCombination, fixedParameter, parameters, constraintChecker, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Initializes a new ParameterCombinationCoverageMap.
+     *
+     * @param parameterCombination  the parameter combinations for which the
+     *                              tuple coverage shall be tracked.
+     *                              Must not be {@code null}
+     * @param fixedParameter        the parameter added to all parameters.
+     *                              Must not be negative
+     * @param parameters            the sizes of all parameter. Must contains the sizes
+     *                              of the parameters in all combinations and the fixed
+     *                              parameter. Must not be {@code null}
+     * @param constraintChecker     ConstraintChecker to identify irrelevant combinations
+     * @param offHeapThreshold      the number of tuples from which on the coverage is stored outside of the heap
+     */
+    ParameterCombinationCoverageMap(IntSet parameterCombination,
+                                    int fixedParameter,
+                                    Int2IntMap parameters,
+                                    ConstraintChecker constraintChecker,
+                                    int offHeapThreshold) {
         this.parameterCombination = new int[parameterCombination.size() + 1];
         parameterCombination.toArray(this.parameterCombination);
         this.parameterCombination[parameterCombination.size()] = fixedParameter;
@@ -55,7 +80,7 @@ final class ParameterCombinationCoverageMap {
         numberOfCombinations = numberOfCombinations();
         numberOfParameters = parameters.size();
 
-        coverageMap = new BitSet(numberOfCombinations);
+        coverageMap = PackedCoverageBitSet.create(numberOfCombinations, numberOfCombinations >= offHeapThreshold);
 
         this.constraintChecker = constraintChecker;
     }
@@ -79,11 +104,35 @@ final class ParameterCombinationCoverageMap {
     }
 
     private int numberOfCombinations() {
-        int count = 1;
+        long count = 1;
         for (int parameterSize : parameterSizes) {
             count *= parameterSize;
+
+            if (count > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The parameter combination has more than "
+                        + Integer.MAX_VALUE + " tuples");
+            }
         }
-        return count;
+        return (int) count;
+    }
+
+    /**
+     * Checks whether the given combination contains a value for each parameter of this parameter combination
+     * except for the fixed parameter.
+     *
+     * @param combination   the combination to check
+     * @return  true if all parameters except for the fixed one have a value
+     */
+    boolean isRelevant(int[] combination) {
+        for (int i = 0; i < parameterCombination.length - 1; i++) {
+            final int parameter = parameterCombination[i];
+
+            if (parameter < 0 || parameter >= combination.length || combination[parameter] == NO_VALUE) {
+                return false;
+            }
+        }
+
+        return true;
     }
 
     /**
@@ -95,7 +144,7 @@ final class ParameterCombinationCoverageMap {
      *          false if all combinations are covered
      */
     boolean mayHaveUncoveredCombinations() {
-        return coverageMap.cardinality() < numberOfCombinations;
+        return !coverageMap.isFull();
     }
 
     /**
@@ -105,11 +154,7 @@ final class ParameterCombinationCoverageMap {
      * @param combination   combination to mark as covered
      */
     void markAsCovered(int[] combination) {
-        int index = getIndexUntil(combination, parameterCombination.length);
-
-        if (!coverageMap.get(index)) {
-            markIndexAsCovered(index);
-        }
+        coverageMap.set(getIndexUntil(combination, parameterCombination.length));
     }
 
     private void markIndexAsCovered(int index) {
@@ -133,29 +178,20 @@ final class ParameterCombinationCoverageMap {
      * @return  an optional that may contain an uncovered combination
      */
     Optional<int[]> getUncoveredCombination() {
-        if(!mayHaveUncoveredCombinations()) {
-            return Optional.empty();
-        }
-
-        final int index = coverageMap.nextClearBit(0);
-
-        if(index >= numberOfCombinations) {
-            throw new IllegalStateException("corrupt invariant");
-        }
-
-        final int[] uncoveredCombination = getCombination(index);
+        int index = coverageMap.nextClearBit(0);
 
-        if(constraintChecker.isValid(uncoveredCombination)) {
-            return Optional.of(uncoveredCombination);
-        } else {
-            markAsCovered(uncoveredCombination);
+        while (index < numberOfCombinations) {
+            final int[] uncoveredCombination = getCombination(index);
 
-            if(mayHaveUncoveredCombinations()) {
-                return getUncoveredCombination();
-            } else {
-                return Optional.empty();
+            if (constraintChecker.isValid(uncoveredCombination)) {
+                return Optional.of(uncoveredCombination);
             }
+
+            markIndexAsCovered(index);
+            index = coverageMap.nextClearBit(index + 1);
         }
+
+        return Optional.empty();
     }
 
     private int[] getCombination(int index) {
@@ -164,10 +200,9 @@ final class ParameterCombinationCoverageMap {
 
         for (int i = parameterCombination.length - 1; i >= 0; i--) {
             int parameter = parameterCombination[i];
-            int parameterIndexPart = (index - (index % parameterMultipliers[i]));
-            int value = parameterIndexPart / parameterMultipliers[i];
+            int value = index / parameterMultipliers[i];
             combination[parameter] = value;
-            index -= parameterIndexPart;
+            index -= value * parameterMultipliers[i];
         }
 
         return combination;
@@ -178,15 +213,19 @@ final class ParameterCombinationCoverageMap {
             return;
         }
 
-        int fixedParameterIndex = parameterCombination.length - 1;
-        int baseIndex = getIndexUntil(combination, fixedParameterIndex);
+        final int fixedParameterIndex = parameterCombination.length - 1;
+        final int baseIndex = getIndexUntil(combination, fixedParameterIndex);
 
-        int[] subset = createSubsetOfCombination(combination, parameterCombination);
+        int[] subset = null;
 
         for (int value = 0; value < gains.length; value++) {
-            int index = baseIndex + value * parameterMultipliers[fixedParameterIndex];
+            final int index = baseIndex + value * parameterMultipliers[fixedParameterIndex];
 
             if (gains[value] != -1 && !coverageMap.get(index)) {
+                if (subset == null) {
+                    subset = createSubsetOfCombination(combination, parameterCombination);
+                }
+
                 subset[fixedParameterIndex] = value;
 
                 if (constraintChecker.isDualValid(parameterCombination, subset)) {
@@ -0,0 +1,258 @@
+package de.rwth.swc.coffee4j.engine.generator.ipog;
+
+import de.rwth.swc.coffee4j.engine.constraint.ConstraintChecker;
+import de.rwth.swc.coffee4j.engine.util.Preconditions;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static de.rwth.swc.coffee4j.engine.util.CombinationUtil.NO_VALUE;
+
+/**
+ * A {@link CoverageMap} which splits the parameter combinations into disjoint partitions so that the coverage of
+ * each partition can be evaluated and updated by a different thread without any locking.
+ * <p>
+ * Each partition is always processed by exactly one task at a time and iterates its parameter combinations in a
+ * fixed order. The gains of all partitions are merged after all tasks are finished, so the result does not depend on
+ * the scheduling of the threads. The search for uncovered combinations during the vertical extension is sequential
+ * and visits the parameter combinations in the same order as {@link EfficientCoverageMap}.
+ * <p>
+ * This uses the index system described in {@link IpogAlgorithm}.
+ */
+class PartitionedCoverageMap implements CoverageMap {
+
+    private static final String PARAMETER_COMBINATIONS_NOT_NULL = "Parameter combinations must not be null";
+    private static final String PARAMETER_NOT_VALID = "The parameter index must not be negative";
+    private static final String FIXED_PARAMETER_NOT_CONTAINED = "The fixed parameter has to be contained in the " + "parameter map";
+    private static final String COMBINATION_NOT_NULL = "Combination cannot be null";
+    private static final String PARAMETERS_NOT_NULL = "Parameters cannot be null";
+    private static final String PARTITIONS_NOT_VALID = "The number of partitions must be positive";
+
+    /**
+     * Partitions smaller than this are not worth the overhead of handing them to another thread.
+     */
+    static final int MIN_COMBINATIONS_PER_PARTITION = 64;
+
+    private final int fixedParameter;
+    private final int fixedParameterSize;
+
+    private final Map<IntSet, ParameterCombinationCoverageMap> combinationCoverageMap = new HashMap<>();
+    private final List<Partition> partitions = new ArrayList<>();
+
+    private final ExecutorService executor;
+
+    /**
+     * Initializes a new coverage map with the given parameter combinations and the fixed parameter. The parameter
+     * combinations are distributed round-robin over the partitions. Fewer partitions than requested are used if there
+     * are not enough parameter combinations to keep them busy. The first partition is always evaluated by the calling
+     * thread.
+     *
+     * @param parameterCombinations   the parameter combinations for which the tuple coverage shall be tracked.
+     *                                Must not be {@code null}
+     * @param fixedParameter          the parameter added to all parameters. Must not be negative
+     * @param parameters              the sizes of all parameter. Must contains the sizes of the parameters in all
+     *                                combinations and the fixed parameter. Must not be {@code null}
+     * @param numberOfPartitions      the maximum number of partitions. Must be positive
+     * @param offHeapThreshold        the number of tuples from which on the coverage of a parameter combination is
+     *                                stored outside of the heap
+     * @param partitionCheckerFactory creates one {@link ConstraintChecker} per partition, as checkers are generally
+     *                                not thread-safe. Must not be {@code null}
+     * @param executor                used to evaluate the partitions concurrently. Must not be {@code null}
+     */
+    PartitionedCoverageMap(Collection<IntSet> parameterCombinations,
+                           int fixedParameter,
+                           Int2IntMap parameters,
+                           int numberOfPartitions,
+                           int offHeapThreshold,
+                           Supplier<ConstraintChecker> partitionCheckerFactory,
+                           ExecutorService executor) {
+        Preconditions.notNull(parameterCombinations, PARAMETER_COMBINATIONS_NOT_NULL);
+        Preconditions.notNull(parameters, PARAMETERS_NOT_NULL);
+        Preconditions.check(fixedParameter >= 0, PARAMETER_NOT_VALID);
+        Preconditions.check(parameters.containsKey(fixedParameter), FIXED_PARAMETER_NOT_CONTAINED);
+        Preconditions.check(numberOfPartitions > 0, PARTITIONS_NOT_VALID);
+        Preconditions.notNull(partitionCheckerFactory);
+
+        this.fixedParameter = fixedParameter;
+        this.fixedParameterSize = parameters.get(fixedParameter);
+        this.executor = Preconditions.notNull(executor);
+
+        constructPartitions(parameterCombinations, parameters, numberOfPartitions, offHeapThreshold,
+                partitionCheckerFactory);
+    }
+
+    private void constructPartitions(Collection<IntSet> parameterCombinations,
+                                     Int2IntMap parameters,
+                                     int numberOfPartitions,
+                                     int offHeapThreshold,
+                                     Supplier<ConstraintChecker> partitionCheckerFactory) {
+        if (parameterCombinations.isEmpty()) {
+            parameterCombinations = Collections.singleton(new IntOpenHashSet(0));
+        }
+
+        final int actualNumberOfPartitions = Math.max(1, Math.min(numberOfPartitions,
+                parameterCombinations.size() / MIN_COMBINATIONS_PER_PARTITION));
+        for (int i = 0; i < actualNumberOfPartitions; i++) {
+            partitions.add(new Partition(partitionCheckerFactory.get()));
+        }
+
+        int index = 0;
+        for (IntSet parameterCombination : parameterCombinations) {
+            final Partition partition = partitions.get(index++ % actualNumberOfPartitions);
+            final ParameterCombinationCoverageMap combinationCoverage = new ParameterCombinationCoverageMap(
+                    parameterCombination, fixedParameter, parameters, partition.constraintChecker, offHeapThreshold);
+
+            partition.combinationCoverages.add(combinationCoverage);
+            combinationCoverageMap.put(parameterCombination, combinationCoverage);
+        }
+    }
+
+    /**
+     * @return whether any combination is not covered
+     */
+    @Override
+    public boolean mayHaveUncoveredCombinations() {
+        for (ParameterCombinationCoverageMap combinationCoverage : combinationCoverageMap.values()) {
+            if (combinationCoverage.mayHaveUncoveredCombinations()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Marks all sub-combinations which can be mapped to one of the given parameter combinations given in the
+     * constructor as covered. All partitions are updated concurrently.
+     *
+     * @param combination the combination to mark as covered. Must not be {@code null}
+     * @throws NullPointerException if combination is {@code null}
+     */
+    @Override
+    public void markAsCovered(int[] combination) {
+        Preconditions.notNull(combination, COMBINATION_NOT_NULL);
+
+        if (combination[fixedParameter] != NO_VALUE) {
+            final List<Future<?>> futures = new ArrayList<>(partitions.size() - 1);
+            for (Partition partition : partitions.subList(1, partitions.size())) {
+                futures.add(executor.submit(() -> partition.markAsCovered(combination)));
+            }
+
+            partitions.get(0).markAsCovered(combination);
+            for (Future<?> future : futures) {
+                await(future);
+            }
+        }
+    }
+
+    /**
+     * Computes the number of combinations which would be covered if the fixed parameter given in the constructor
+     * would be set to a specific value in the given combination. Each partition computes its gains concurrently,
+     * afterwards the gains are summed up. A value which is invalid in any partition has a gain of -1.
+     *
+     * @param combination the base combination in which the gains of the values for the fixed parameter shall be
+     *                    computed. Must not be {@code null}
+     * @return the number of combinations which would additionally be covered if the fixed parameter was set to a
+     * certain value. See {@link EfficientCoverageMap#computeGainsOfFixedParameter(int[])}
+     * @throws NullPointerException if combination is {@code null}
+     */
+    @Override
+    public int[] computeGainsOfFixedParameter(int[] combination) {
+        Preconditions.notNull(combination, COMBINATION_NOT_NULL);
+
+        final List<Future<int[]>> futures = new ArrayList<>(partitions.size() - 1);
+        for (Partition partition : partitions.subList(1, partitions.size())) {
+            futures.add(executor.submit(() -> partition.computeGainsOfFixedParameter(combination)));
+        }
+
+        final int[] gains = partitions.get(0).computeGainsOfFixedParameter(combination);
+        for (Future<int[]> future : futures) {
+            final int[] partitionGains = await(future);
+
+            for (int value = 0; value < gains.length; value++) {
+                if (gains[value] == -1 || partitionGains[value] == -1) {
+                    gains[value] = -1;
+                } else {
+                    gains[value] += partitionGains[value];
+                }
+            }
+        }
+
+        return gains;
+    }
+
+    /**
+     * Finds the next uncovered combination and returns it.
+     *
+     * @return the next uncovered combination in all parameter combination coverage maps or an empty {@link Optional}
+     * if no combination is uncovered
+     */
+    @Override
+    public Optional<int[]> getUncoveredCombination() {
+        for (ParameterCombinationCoverageMap combinationCoverage : combinationCoverageMap.values()) {
+            if (combinationCoverage.mayHaveUncoveredCombinations()) {
+                final Optional<int[]> uncoveredCombination = combinationCoverage.getUncoveredCombination();
+
+                if (uncoveredCombination.isPresent()) {
+                    return uncoveredCombination;
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for coverage map partition", e);
+        } catch (ExecutionException | CancellationException e) {
+            throw new IllegalStateException("Could not evaluate coverage map partition", e);
+        }
+    }
+
+    private final class Partition {
+
+        private final ConstraintChecker constraintChecker;
+        private final List<ParameterCombinationCoverageMap> combinationCoverages = new ArrayList<>();
+
+        private Partition(ConstraintChecker constraintChecker) {
+            this.constraintChecker = Preconditions.notNull(constraintChecker);
+        }
+
+        private void markAsCovered(int[] combination) {
+            for (ParameterCombinationCoverageMap combinationCoverage : combinationCoverages) {
+                if (combinationCoverage.isRelevant(combination)) {
+                    combinationCoverage.markAsCovered(combination);
+                }
+            }
+        }
+
+        private int[] computeGainsOfFixedParameter(int[] combination) {
+            final int[] gains = new int[fixedParameterSize];
+
+            for (ParameterCombinationCoverageMap combinationCoverage : combinationCoverages) {
+                if (combinationCoverage.isRelevant(combination)) {
+                    combinationCoverage.addGainsOfFixedParameter(combination, gains);
+                }
+            }
+
+            return gains;
+        }
+    }
+}
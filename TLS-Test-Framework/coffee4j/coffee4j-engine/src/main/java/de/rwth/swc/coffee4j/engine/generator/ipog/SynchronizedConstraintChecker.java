@@ -0,0 +1,32 @@
+package de.rwth.swc.coffee4j.engine.generator.ipog;
+
+import de.rwth.swc.coffee4j.engine.constraint.ConstraintChecker;
+import de.rwth.swc.coffee4j.engine.util.Preconditions;
+
+/**
+ * A {@link ConstraintChecker} which serializes all calls to a delegate. This is used if the partitions of a
+ * {@link PartitionedCoverageMap} have to share one checker, since the solver based checkers are not thread-safe.
+ */
+final class SynchronizedConstraintChecker implements ConstraintChecker {
+
+    private final ConstraintChecker delegate;
+
+    SynchronizedConstraintChecker(ConstraintChecker delegate) {
+        this.delegate = Preconditions.notNull(delegate);
+    }
+
+    @Override
+    public synchronized boolean isValid(int[] combination) {
+        return delegate.isValid(combination);
+    }
+
+    @Override
+    public synchronized boolean isExtensionValid(int[] combination, int... parameterValues) {
+        return delegate.isExtensionValid(combination, parameterValues);
+    }
+
+    @Override
+    public synchronized boolean isDualValid(int[] parameters, int[] values) {
+        return delegate.isDualValid(parameters, values);
+    }
+}
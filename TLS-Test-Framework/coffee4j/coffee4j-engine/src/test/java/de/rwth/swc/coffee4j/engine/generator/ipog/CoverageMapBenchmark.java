@@ -0,0 +1,151 @@
+package de.rwth.swc.coffee4j.engine.generator.ipog;
+
+import de.rwth.swc.coffee4j.engine.constraint.NoConstraintChecker;
+import de.rwth.swc.coffee4j.engine.util.Combinator;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static de.rwth.swc.coffee4j.engine.util.CombinationUtil.NO_VALUE;
+
+/**
+ * Measures one horizontal extension step on an {@link EfficientCoverageMap} stored on or off the heap, and compares
+ * the packed bit set of a single parameter combination with the {@link BitSet} based layout used before. Run it via
+ * {@link #main(String[])} from the test classpath and add {@code -prof gc} to compare the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CoverageMapBenchmark {
+
+    private static final int NUMBER_OF_ROWS = 1_000;
+
+    @Param({"2", "3", "4"})
+    private int strength;
+
+    @Param({"false", "true"})
+    private boolean offHeap;
+
+    private final int numberOfParameters = 10;
+    private final int parameterSize = 6;
+
+    private Int2IntMap parameters;
+    private List<IntSet> parameterCombinations;
+    private List<int[]> rows;
+
+    @Setup
+    public void setUp() {
+        parameters = new Int2IntOpenHashMap();
+        for (int parameter = 0; parameter < numberOfParameters; parameter++) {
+            parameters.put(parameter, parameterSize);
+        }
+
+        final int fixedParameter = numberOfParameters - 1;
+        parameterCombinations = Combinator.computeParameterCombinations(
+                IntStream.range(0, fixedParameter).toArray(), strength - 1);
+
+        final Random random = new Random(42);
+        rows = new ArrayList<>(NUMBER_OF_ROWS);
+        for (int i = 0; i < NUMBER_OF_ROWS; i++) {
+            final int[] row = random.ints(numberOfParameters, 0, parameterSize).toArray();
+            row[fixedParameter] = NO_VALUE;
+            rows.add(row);
+        }
+    }
+
+    @Benchmark
+    public void horizontalExtension(Blackhole blackhole) {
+        final int fixedParameter = numberOfParameters - 1;
+        final CoverageMap coverageMap = new EfficientCoverageMap(parameterCombinations, fixedParameter, parameters,
+                new NoConstraintChecker(), offHeap ? 0 : Integer.MAX_VALUE);
+
+        for (int[] row : rows) {
+            final int[] gains = coverageMap.computeGainsOfFixedParameter(row);
+            final int[] extendedRow = row.clone();
+            extendedRow[fixedParameter] = indexOfMaximum(gains);
+            coverageMap.markAsCovered(extendedRow);
+            blackhole.consume(coverageMap.mayHaveUncoveredCombinations());
+        }
+    }
+
+    @Benchmark
+    public int packedBitSet() {
+        final int size = (int) Math.pow(parameterSize, strength);
+        final int multiplier = size / parameterSize;
+        final PackedCoverageBitSet bitSet = PackedCoverageBitSet.create(size, offHeap);
+
+        int uncovered = 0;
+        for (int index = 0; index < size; index += 3) {
+            bitSet.set(index);
+            if (!bitSet.isFull()) {
+                final int base = index % multiplier;
+                for (int value = 0; value < parameterSize; value++) {
+                    if (!bitSet.get(base + value * multiplier)) {
+                        uncovered++;
+                    }
+                }
+            }
+        }
+        return uncovered + bitSet.nextClearBit(0);
+    }
+
+    @Benchmark
+    public int javaUtilBitSet() {
+        final int size = (int) Math.pow(parameterSize, strength);
+        final int multiplier = size / parameterSize;
+        final BitSet bitSet = new BitSet(size);
+
+        int uncovered = 0;
+        for (int index = 0; index < size; index += 3) {
+            bitSet.set(index);
+            if (bitSet.cardinality() < size) {
+                final int base = index % multiplier;
+                for (int value = 0; value < parameterSize; value++) {
+                    if (!bitSet.get(base + value * multiplier)) {
+                        uncovered++;
+                    }
+                }
+            }
+        }
+        return uncovered + bitSet.nextClearBit(0);
+    }
+
+    private static int indexOfMaximum(int[] values) {
+        int indexOfMaximum = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] > values[indexOfMaximum]) {
+                indexOfMaximum = i;
+            }
+        }
+        return indexOfMaximum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CoverageMapBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,69 @@
+package de.rwth.swc.coffee4j.engine.generator.ipog;
+
+import de.rwth.swc.coffee4j.engine.TestModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the sequential {@link IpogAlgorithm} with its partitioned parallel mode on models shaped like large
+ * TLS-Anvil scopes. The benchmark is not executed by surefire, run it via {@link #main(String[])} from the test
+ * classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IpogAlgorithmBenchmark {
+
+    @Param({"2", "3", "4"})
+    private int strength;
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    @Param({"12"})
+    private int numberOfParameters;
+
+    private TestModel model;
+
+    @Setup
+    public void setUp() {
+        final int[] parameterSizes = IntStream.range(0, numberOfParameters)
+                .map(parameter -> 2 + (parameter * 7) % 9)
+                .toArray();
+
+        model = new TestModel(strength, parameterSizes, Collections.emptyList(), Collections.emptyList());
+    }
+
+    @Benchmark
+    public List<int[]> generate() {
+        return new IpogAlgorithm(IpogConfiguration.ipogConfiguration()
+                .testModel(model)
+                .parallelism(parallelism)
+                .build()
+        ).generate();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(IpogAlgorithmBenchmark.class.getSimpleName()).build()).run();
+    }
+}
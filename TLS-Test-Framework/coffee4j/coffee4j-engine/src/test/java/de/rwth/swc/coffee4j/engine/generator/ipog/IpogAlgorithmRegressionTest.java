@@ -0,0 +1,113 @@
+package de.rwth.swc.coffee4j.engine.generator.ipog;
+
+import de.rwth.swc.coffee4j.engine.TestModel;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the generated test suites with the ones generated before the coverage map was changed to a packed bit set
+ * and before the parallel generation was added. Neither of these changes may alter the order of the generated rows.
+ * <p>
+ * The models are kept small enough that no bucket of the internal hash maps is converted into a tree, as the order
+ * of such buckets depends on identity hash codes and would make the expected suites vary between runs.
+ */
+class IpogAlgorithmRegressionTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3})
+    void itShouldGenerateTheBaselineSuiteForFiveParametersWithFiveValues(int parallelism) {
+        final List<int[]> expectedTestSuite = Arrays.asList(
+                new int[]{0, 0, 0, 0, 0}, new int[]{1, 0, 1, 1, 1}, new int[]{2, 0, 2, 2, 2}, new int[]{3, 0, 3, 3, 3}, new int[]{4, 0, 4, 4, 4},
+                new int[]{0, 1, 1, 2, 3}, new int[]{1, 1, 0, 3, 2}, new int[]{2, 1, 3, 0, 1}, new int[]{3, 1, 2, 1, 0}, new int[]{4, 1, 0, 1, 3},
+                new int[]{0, 2, 2, 3, 1}, new int[]{1, 2, 3, 2, 0}, new int[]{2, 2, 0, 4, 3}, new int[]{3, 2, 1, 0, 2}, new int[]{4, 2, 1, 3, 0},
+                new int[]{0, 3, 3, 1, 2}, new int[]{1, 3, 2, 0, 3}, new int[]{2, 3, 1, 3, 4}, new int[]{3, 3, 0, 2, 1}, new int[]{4, 3, 2, 4, 0},
+                new int[]{0, 4, 4, 0, 4}, new int[]{1, 4, 0, 4, 1}, new int[]{2, 4, 1, 1, 0}, new int[]{3, 4, 2, 2, 4}, new int[]{4, 4, 3, 0, 2},
+                new int[]{1, 2, 4, 1, 4}, new int[]{2, 1, 4, 2, 0}, new int[]{3, 3, 4, 3, 1}, new int[]{4, 0, 0, 2, 1}, new int[]{0, 0, 3, 4, 2},
+                new int[]{3, 1, 1, 4, 4}, new int[]{0, 4, 4, 3, 3}, new int[]{0, 0, 4, 0, 2}, new int[]{0, 0, 0, 0, 4}, new int[]{0, 0, 3, 0, 4});
+
+        assertSuiteEquals(expectedTestSuite, generate(2, new int[]{5, 5, 5, 5, 5}, parallelism));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3})
+    void itShouldGenerateTheBaselineSuiteForTenParametersWithThreeValues(int parallelism) {
+        final List<int[]> expectedTestSuite = Arrays.asList(
+                new int[]{0, 0, 0, 0, 0, 0, 0, 0, 0, 0}, new int[]{1, 0, 1, 1, 1, 1, 1, 1, 1, 1}, new int[]{2, 0, 2, 2, 2, 2, 2, 2, 2, 2},
+                new int[]{0, 1, 1, 2, 0, 1, 2, 0, 1, 2}, new int[]{1, 1, 0, 0, 2, 2, 1, 1, 0, 0}, new int[]{2, 1, 0, 1, 1, 0, 0, 2, 2, 1},
+                new int[]{0, 2, 2, 1, 0, 2, 1, 0, 2, 1}, new int[]{1, 2, 0, 2, 1, 0, 2, 1, 0, 2}, new int[]{2, 2, 1, 0, 2, 1, 0, 2, 1, 0},
+                new int[]{1, 1, 2, 0, 1, 0, 0, 0, 1, 0}, new int[]{1, 0, 0, 2, 0, 0, 1, 2, 0, 1}, new int[]{2, 0, 1, 2, 0, 0, 1, 1, 0, 0},
+                new int[]{0, 0, 1, 2, 1, 2, 0, 1, 2, 0}, new int[]{0, 0, 0, 1, 2, 0, 2, 0, 0, 0}, new int[]{0, 0, 0, 0, 0, 1, 0, 0, 0, 2},
+                new int[]{0, 0, 2, 0, 0, 1, 0, 1, 0, 0}, new int[]{2, 0, 0, 0, 2, 0, 2, 0, 2, 1}, new int[]{0, 0, 0, 0, 0, 0, 0, 2, 0, 0},
+                new int[]{1, 0, 0, 0, 0, 1, 0, 0, 2, 0}, new int[]{0, 0, 0, 0, 0, 2, 0, 0, 1, 0}, new int[]{0, 0, 0, 1, 0, 0, 1, 0, 0, 2});
+
+        assertSuiteEquals(expectedTestSuite, generate(2, new int[]{3, 3, 3, 3, 3, 3, 3, 3, 3, 3}, parallelism));
+    }
+
+    private static Stream<Arguments> baselineFingerprints() {
+        return Stream.of(
+                Arguments.arguments(3, new int[]{2, 3, 4, 5, 6, 2, 3}, 128, 1367281154422992212L),
+                Arguments.arguments(3, new int[]{4, 4, 4, 4, 4, 4}, 64, -7708337694473810463L),
+                Arguments.arguments(4, new int[]{3, 3, 3, 3, 3, 3}, 141, -6267864241092102341L),
+                Arguments.arguments(2, new int[]{10, 9, 8, 7, 6, 5, 4, 3, 2}, 91, -2112619589441548912L),
+                Arguments.arguments(3, new int[]{2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2}, 24, 3501109875293828372L));
+    }
+
+    @ParameterizedTest
+    @MethodSource("baselineFingerprints")
+    void itShouldGenerateTheBaselineSuiteSequentially(int strength, int[] parameterSizes, int expectedSize,
+                                                      long expectedFingerprint) {
+        final List<int[]> testSuite = generate(strength, parameterSizes, 1);
+
+        assertEquals(expectedSize, testSuite.size());
+        assertEquals(expectedFingerprint, fingerprint(testSuite));
+    }
+
+    @ParameterizedTest
+    @MethodSource("baselineFingerprints")
+    void itShouldGenerateTheBaselineSuiteInParallel(int strength, int[] parameterSizes, int expectedSize,
+                                                    long expectedFingerprint) {
+        final List<int[]> testSuite = generate(strength, parameterSizes, 4);
+
+        assertEquals(expectedSize, testSuite.size());
+        assertEquals(expectedFingerprint, fingerprint(testSuite));
+    }
+
+    private static List<int[]> generate(int strength, int[] parameterSizes, int parallelism) {
+        final TestModel model = new TestModel(strength, parameterSizes,
+                Collections.emptyList(), Collections.emptyList());
+
+        return new IpogAlgorithm(IpogConfiguration.ipogConfiguration()
+                .testModel(model)
+                .parallelism(parallelism)
+                .build()
+        ).generate();
+    }
+
+    private static void assertSuiteEquals(List<int[]> expectedTestSuite, List<int[]> testSuite) {
+        assertEquals(expectedTestSuite.size(), testSuite.size());
+
+        for (int i = 0; i < expectedTestSuite.size(); i++) {
+            assertArrayEquals(expectedTestSuite.get(i), testSuite.get(i), "Row " + i + " differs");
+        }
+    }
+
+    private static long fingerprint(List<int[]> testSuite) {
+        long fingerprint = 1;
+
+        for (int[] testInput : testSuite) {
+            fingerprint = fingerprint * 31 + Arrays.hashCode(testInput);
+        }
+
+        return fingerprint;
+    }
+}
@@ -16,6 +16,7 @@ import java.util.List;
 import java.util.stream.IntStream;
 
 import static de.rwth.swc.coffee4j.engine.util.Combinator.computeParameterCombinations;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -126,4 +127,26 @@ class IpogAlgorithmTest {
         
         verifyAllCombinationsPresent(testSuite, model.getParameterSizes(), 2);
     }
+    
+    @Test
+    void itShouldGenerateTheSameTestSuiteInParallel() {
+        final int[] parameterSizes = IntStream.range(0, 20).map(parameter -> 2 + parameter % 3).toArray();
+        final TestModel model = new TestModel(3, parameterSizes, Collections.emptyList(), Collections.emptyList());
+        
+        final List<int[]> sequentialTestSuite = new IpogAlgorithm(IpogConfiguration.ipogConfiguration()
+                .testModel(model)
+                .build()
+        ).generate();
+        final List<int[]> parallelTestSuite = new IpogAlgorithm(IpogConfiguration.ipogConfiguration()
+                .testModel(model)
+                .parallelism(4)
+                .build()
+        ).generate();
+        
+        assertEquals(sequentialTestSuite.size(), parallelTestSuite.size());
+        for (int i = 0; i < sequentialTestSuite.size(); i++) {
+            assertArrayEquals(sequentialTestSuite.get(i), parallelTestSuite.get(i));
+        }
+        verifyAllCombinationsPresent(parallelTestSuite, parameterSizes, 3);
+    }
 }
@@ -0,0 +1,50 @@
+package de.rwth.swc.coffee4j.engine.generator.ipog;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PackedCoverageBitSetTest {
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void setUpdatesCardinalityOnlyOnce(boolean offHeap) {
+        final PackedCoverageBitSet bitSet = PackedCoverageBitSet.create(130, offHeap);
+
+        assertTrue(bitSet.set(65));
+        assertFalse(bitSet.set(65));
+        assertTrue(bitSet.get(65));
+        assertFalse(bitSet.get(64));
+        assertEquals(1, bitSet.cardinality());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void isFullAfterAllBitsAreSet(boolean offHeap) {
+        final PackedCoverageBitSet bitSet = PackedCoverageBitSet.create(70, offHeap);
+
+        for (int i = 0; i < 70; i++) {
+            assertFalse(bitSet.isFull());
+            bitSet.set(i);
+        }
+
+        assertTrue(bitSet.isFull());
+        assertEquals(70, bitSet.nextClearBit(0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void nextClearBitSkipsFullWords(boolean offHeap) {
+        final PackedCoverageBitSet bitSet = PackedCoverageBitSet.create(200, offHeap);
+        for (int i = 0; i < 130; i++) {
+            bitSet.set(i);
+        }
+
+        assertEquals(130, bitSet.nextClearBit(0));
+        assertEquals(131, bitSet.nextClearBit(131));
+        assertEquals(200, bitSet.nextClearBit(200));
+    }
+}